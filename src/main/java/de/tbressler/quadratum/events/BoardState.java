@@ -0,0 +1,113 @@
+package de.tbressler.quadratum.events;
+
+import de.tbressler.quadratum.model.Player;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static de.tbressler.quadratum.utils.GameBoardUtils.assertIndex;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An immutable snapshot of the state of a game, which contains the pieces, the active player and
+ * the scores.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public final class BoardState {
+
+    /* The pieces, indexed by field index. */
+    private final Player[] pieces;
+
+    /* The active player or null. */
+    private final Player activePlayer;
+
+    /* The score of player 1. */
+    private final int scorePlayer1;
+
+    /* The score of player 2. */
+    private final int scorePlayer2;
+
+    /* Is true if the game is over. */
+    private final boolean isGameOver;
+
+
+    /**
+     * Creates the board state.
+     *
+     * @param pieces The pieces, must not be null and must contain 64 fields. The array must not be
+     *               changed afterwards.
+     * @param activePlayer The active player or null.
+     * @param scorePlayer1 The score of player 1.
+     * @param scorePlayer2 The score of player 2.
+     * @param isGameOver True if the game is over.
+     */
+    BoardState(Player[] pieces, Player activePlayer, int scorePlayer1, int scorePlayer2, boolean isGameOver) {
+        if (requireNonNull(pieces).length != 64)
+            throw new AssertionError("pieces must contain 64 fields!");
+        this.pieces = pieces;
+        this.activePlayer = activePlayer;
+        this.scorePlayer1 = scorePlayer1;
+        this.scorePlayer2 = scorePlayer2;
+        this.isGameOver = isGameOver;
+    }
+
+
+    /**
+     * Returns the piece at the field index.
+     *
+     * @param index The field index, between 0..63.
+     * @return The player of the piece or null, if the field is empty.
+     */
+    public Player getPiece(int index) {
+        assertIndex(index, "Index must be between 0 and 63!");
+        return pieces[index];
+    }
+
+    /**
+     * Returns the active player.
+     *
+     * @return The active player or null, if the game is not started or over.
+     */
+    public Player getActivePlayer() {
+        return activePlayer;
+    }
+
+    /**
+     * Returns the score of player 1.
+     *
+     * @return The score.
+     */
+    public int getScorePlayer1() {
+        return scorePlayer1;
+    }
+
+    /**
+     * Returns the score of player 2.
+     *
+     * @return The score.
+     */
+    public int getScorePlayer2() {
+        return scorePlayer2;
+    }
+
+    /**
+     * Returns true if the game is over.
+     *
+     * @return True if the game is over.
+     */
+    public boolean isGameOver() {
+        return isGameOver;
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("activePlayer", activePlayer)
+                .add("scorePlayer1", scorePlayer1)
+                .add("scorePlayer2", scorePlayer2)
+                .add("isGameOver", isGameOver)
+                .toString();
+    }
+
+}
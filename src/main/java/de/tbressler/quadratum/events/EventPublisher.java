@@ -0,0 +1,424 @@
+package de.tbressler.quadratum.events;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A publisher, which delivers items to many subscribers with different speeds. Every subscriber
+ * has its own bounded buffer and receives the items on a worker of the executor, so a slow
+ * subscriber never blocks the publishing thread or the other subscribers. The subscribers control
+ * the delivery by their demand (backpressure).
+ *
+ * <p>If the buffer of a subscriber is full, the {@link OverflowPolicy} of the subscriber is
+ * applied. The policy {@link OverflowPolicy#CONFLATE} keeps only the latest item, which is useful
+ * for subscribers that only need the current state. The policy {@link OverflowPolicy#RESYNC} skips
+ * the items until the publisher sends a snapshot to the lagging subscribers (see
+ * {@link #resync(Object)}).</p>
+ *
+ * <p>If a subscriber throws an exception, its subscription is cancelled and the subscriber
+ * receives the exception by {@code onError()}.</p>
+ *
+ * @param <T> The type of the items.
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class EventPublisher<T> implements Flow.Publisher<T> {
+
+    /** The policy, which is applied if the buffer of a subscriber is full. */
+    public enum OverflowPolicy {
+        /** The oldest item in the buffer is dropped. */
+        DROP_OLDEST,
+        /** All items in the buffer are dropped, so the subscriber receives the latest item next. */
+        CONFLATE,
+        /** The subscription is cancelled and the subscriber receives an error. */
+        FAIL,
+        /** All items in the buffer are dropped and the next items are skipped, until the publisher
+         * resynchronizes the subscriber with a snapshot. */
+        RESYNC
+    }
+
+
+    /** The default size of the buffer of a subscriber. */
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+
+
+    /* The executor, which delivers the items. */
+    private final Executor executor;
+
+    /* The subscriptions. */
+    private final List<BoundedSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /* Is true if the publisher is closed. */
+    private volatile boolean isClosed = false;
+
+
+    /**
+     * Creates the event publisher.
+     *
+     * @param executor The executor, which delivers the items to the subscribers. Must not be null.
+     */
+    public EventPublisher(Executor executor) {
+        this.executor = requireNonNull(executor);
+    }
+
+
+    /**
+     * Adds a subscriber with the default buffer size and the policy
+     * {@link OverflowPolicy#DROP_OLDEST}.
+     *
+     * @param subscriber The subscriber, must not be null.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        subscribe(subscriber, DEFAULT_BUFFER_SIZE, OverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * Adds a subscriber. If the subscriber is already subscribed or the publisher is closed, the
+     * subscriber receives an error or is completed immediately.
+     *
+     * @param subscriber The subscriber, must not be null.
+     * @param bufferSize The size of the buffer, must be > 0.
+     * @param policy The policy, which is applied if the buffer is full. Must not be null.
+     */
+    public void subscribe(Flow.Subscriber<? super T> subscriber, int bufferSize, OverflowPolicy policy) {
+        requireNonNull(subscriber);
+        requireNonNull(policy);
+        if (bufferSize < 1) throw new AssertionError("bufferSize must be > 0!");
+
+        BoundedSubscription subscription = new BoundedSubscription(subscriber, bufferSize, policy);
+        for (BoundedSubscription other : subscriptions) {
+            if (other.subscriber == subscriber) {
+                subscription.fail(new IllegalStateException("Subscriber is already subscribed!"));
+                return;
+            }
+        }
+
+        subscriptions.add(subscription);
+        if (isClosed) {
+            subscriptions.remove(subscription);
+            subscription.complete();
+            return;
+        }
+        subscription.schedule();
+    }
+
+    /**
+     * Publishes an item to all subscribers.
+     *
+     * @param item The item, must not be null.
+     * @throws IllegalStateException If the publisher is closed.
+     */
+    public void submit(T item) {
+        if (!trySubmit(item))
+            throw new IllegalStateException("Publisher is closed!");
+    }
+
+    /**
+     * Publishes an item to all subscribers, if the publisher is not closed.
+     *
+     * @param item The item, must not be null.
+     * @return True if the item was published, false if the publisher is closed.
+     */
+    public boolean trySubmit(T item) {
+        requireNonNull(item);
+        if (isClosed)
+            return false;
+        for (BoundedSubscription subscription : subscriptions)
+            subscription.offer(item);
+        return true;
+    }
+
+    /**
+     * Sends a snapshot to all subscribers, which are lagging because of the policy
+     * {@link OverflowPolicy#RESYNC}. The snapshot replaces the skipped items, so it must contain
+     * the state after all items, which were submitted before. Afterwards the subscribers receive
+     * the next submitted items again.
+     *
+     * @param snapshot The snapshot, must not be null.
+     */
+    public void resync(T snapshot) {
+        requireNonNull(snapshot);
+        for (BoundedSubscription subscription : subscriptions)
+            subscription.resync(snapshot);
+    }
+
+    /**
+     * Returns true if a subscriber is lagging and waits for a snapshot (see
+     * {@link #resync(Object)}).
+     *
+     * @return True if a subscriber is lagging.
+     */
+    public boolean hasLaggingSubscribers() {
+        for (BoundedSubscription subscription : subscriptions)
+            if (subscription.isLagging)
+                return true;
+        return false;
+    }
+
+    /**
+     * Returns true if the publisher has subscribers.
+     *
+     * @return True if the publisher has subscribers.
+     */
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    /**
+     * Returns the number of subscribers.
+     *
+     * @return The number of subscribers.
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Closes the publisher. The subscribers receive their buffered items and are completed
+     * afterwards.
+     */
+    public void close() {
+        isClosed = true;
+        for (BoundedSubscription subscription : subscriptions) {
+            subscriptions.remove(subscription);
+            subscription.complete();
+        }
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("subscribers", subscriptions.size())
+                .add("isClosed", isClosed)
+                .toString();
+    }
+
+
+    /* The subscription of a subscriber with its buffer. */
+    private final class BoundedSubscription implements Flow.Subscription, Runnable {
+
+        /* The subscriber. */
+        private final Flow.Subscriber<? super T> subscriber;
+
+        /* The size of the buffer. */
+        private final int bufferSize;
+
+        /* The overflow policy. */
+        private final OverflowPolicy policy;
+
+        /* The buffer, guarded by this subscription. */
+        private final ArrayDeque<T> buffer = new ArrayDeque<>();
+
+        /* The demand of the subscriber. */
+        private final AtomicLong demand = new AtomicLong(0);
+
+        /* The number of pending drains. */
+        private final AtomicInteger pendingDrains = new AtomicInteger(0);
+
+        /* Is true after onSubscribe() was called, only used by the drain. */
+        private boolean isSubscribed = false;
+
+        /* Is true if the subscription is cancelled or terminated. */
+        private volatile boolean isCancelled = false;
+
+        /* Is true if the subscriber skips the items until the next snapshot. */
+        private volatile boolean isLagging = false;
+
+        /* Is true if the subscriber must be completed after the buffer is drained. */
+        private boolean isCompleted = false;
+
+        /* The error for the subscriber or null. */
+        private Throwable error = null;
+
+        /* Is true after onComplete() or onError() was called, only used by the drain. */
+        private boolean isTerminated = false;
+
+
+        /* Creates the subscription. */
+        private BoundedSubscription(Flow.Subscriber<? super T> subscriber, int bufferSize, OverflowPolicy policy) {
+            this.subscriber = subscriber;
+            this.bufferSize = bufferSize;
+            this.policy = policy;
+        }
+
+
+        /* Adds an item to the buffer and applies the policy, if the buffer is full. */
+        private void offer(T item) {
+            synchronized (this) {
+                if (isCancelled || isCompleted || isLagging)
+                    return;
+                if (buffer.size() >= bufferSize) {
+                    switch (policy) {
+                        case DROP_OLDEST:
+                            buffer.poll();
+                            break;
+                        case CONFLATE:
+                            buffer.clear();
+                            break;
+                        case FAIL:
+                            buffer.clear();
+                            error = new IllegalStateException("Buffer overflow, subscriber is too slow!");
+                            subscriptions.remove(this);
+                            schedule();
+                            return;
+                        case RESYNC:
+                            buffer.clear();
+                            isLagging = true;
+                            return;
+                        default:
+                            throw new IllegalStateException("Unknown policy!");
+                    }
+                }
+                buffer.offer(item);
+            }
+            schedule();
+        }
+
+        /* Replaces the skipped items by the snapshot, if the subscriber is lagging. */
+        private void resync(T snapshot) {
+            synchronized (this) {
+                if (!isLagging || isCancelled || isCompleted)
+                    return;
+                isLagging = false;
+                buffer.offer(snapshot);
+            }
+            schedule();
+        }
+
+        /* Completes the subscription after the buffered items. */
+        private void complete() {
+            synchronized (this) {
+                isCompleted = true;
+            }
+            schedule();
+        }
+
+        /* Terminates the subscription with an error. */
+        private void fail(Throwable e) {
+            synchronized (this) {
+                buffer.clear();
+                error = e;
+            }
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                fail(new IllegalArgumentException("Demand must be > 0!"));
+                subscriptions.remove(this);
+                return;
+            }
+            demand.accumulateAndGet(n, (current, add) -> (current + add < 0) ? Long.MAX_VALUE : current + add);
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            isCancelled = true;
+            subscriptions.remove(this);
+            synchronized (this) {
+                buffer.clear();
+            }
+        }
+
+        /* Schedules the drain, if it is not already scheduled. */
+        private void schedule() {
+            if (pendingDrains.getAndIncrement() == 0)
+                executor.execute(this);
+        }
+
+        /* Delivers the signals to the subscriber, never concurrently. */
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                drain();
+                missed = pendingDrains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /* Cancels the subscription, because the subscriber has thrown an exception, and signals the
+           exception to the subscriber. */
+        private void failSubscriber(Throwable e) {
+            cancel();
+            isTerminated = true;
+            try {
+                subscriber.onError(e);
+            } catch (Throwable ignored) {
+                // The subscription is already terminated.
+            }
+        }
+
+        /* Delivers the buffered items as long as there is demand. */
+        private void drain() {
+            if (isTerminated)
+                return;
+            if (!isSubscribed) {
+                isSubscribed = true;
+                try {
+                    subscriber.onSubscribe(this);
+                } catch (Throwable e) {
+                    failSubscriber(e);
+                    return;
+                }
+            }
+
+            T item;
+            while (!isCancelled) {
+                Throwable e;
+                synchronized (this) {
+                    e = error;
+                    item = ((e == null) && (demand.get() > 0)) ? buffer.poll() : null;
+                    if ((e == null) && (item == null)) {
+                        if (isCompleted && buffer.isEmpty()) {
+                            isTerminated = true;
+                            isCancelled = true;
+                        } else {
+                            return;
+                        }
+                    }
+                }
+
+                if (e != null) {
+                    isTerminated = true;
+                    isCancelled = true;
+                    try {
+                        subscriber.onError(e);
+                    } catch (Throwable ignored) {
+                        // The subscription is already terminated.
+                    }
+                    return;
+                }
+                if (item == null) {
+                    try {
+                        subscriber.onComplete();
+                    } catch (Throwable ignored) {
+                        // The subscription is already terminated.
+                    }
+                    return;
+                }
+
+                demand.decrementAndGet();
+                try {
+                    subscriber.onNext(item);
+                } catch (Throwable t) {
+                    failSubscriber(t);
+                    return;
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,138 @@
+package de.tbressler.quadratum.events;
+
+import de.tbressler.quadratum.logic.GameOverReason;
+import de.tbressler.quadratum.model.Player;
+import de.tbressler.quadratum.model.Square;
+
+import java.util.Set;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An immutable event of a game board or a game logic.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public final class GameEvent {
+
+    /** The type of an event. */
+    public enum Type {
+        /** The game was started, the player is active. */
+        GAME_STARTED,
+        /** The game was restored, the player is active. */
+        GAME_RESTORED,
+        /** The game board was cleared. */
+        BOARD_CLEARED,
+        /** The player has placed a piece at the field index. */
+        PIECE_PLACED,
+        /** The piece of the player was removed from the field index. */
+        PIECE_REMOVED,
+        /** The move of the player at the field index was taken back, the squares were removed. */
+        MOVE_TAKEN_BACK,
+        /** The player has found new squares. */
+        SQUARES_FOUND,
+        /** The player is active. */
+        ACTIVE_PLAYER_CHANGED,
+        /** The game is over, the player is the winner. */
+        GAME_OVER
+    }
+
+
+    /* The type. */
+    private final Type type;
+
+    /* The player or null. */
+    private final Player player;
+
+    /* The field index or -1. */
+    private final int index;
+
+    /* The squares. */
+    private final Set<Square> squares;
+
+    /* The game over reason or null. */
+    private final GameOverReason reason;
+
+
+    /**
+     * Creates a game event.
+     *
+     * @param type The type, must not be null.
+     * @param player The player or null.
+     * @param index The field index or -1.
+     * @param squares The squares or null, if the event has no squares. The set must not be changed
+     *                afterwards.
+     * @param reason The game over reason or null.
+     */
+    GameEvent(Type type, Player player, int index, Set<Square> squares, GameOverReason reason) {
+        this.type = requireNonNull(type);
+        this.player = player;
+        this.index = index;
+        this.squares = (squares == null) ? emptySet() : unmodifiableSet(squares);
+        this.reason = reason;
+    }
+
+
+    /**
+     * Returns the type.
+     *
+     * @return The type, never null.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the player of the event, e.g. the player who placed the piece, the active player or
+     * the winner.
+     *
+     * @return The player or null.
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Returns the field index.
+     *
+     * @return The field index between 0..63 or -1.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the found or removed squares.
+     *
+     * @return An unmodifiable set of squares, never null.
+     */
+    public Set<Square> getSquares() {
+        return squares;
+    }
+
+    /**
+     * Returns the game over reason.
+     *
+     * @return The game over reason or null.
+     */
+    public GameOverReason getReason() {
+        return reason;
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("type", type)
+                .add("player", player)
+                .add("index", index)
+                .add("squares", squares)
+                .add("reason", reason)
+                .toString();
+    }
+
+}
@@ -0,0 +1,184 @@
+package de.tbressler.quadratum.events;
+
+import de.tbressler.quadratum.logic.GameLogic;
+import de.tbressler.quadratum.logic.GameOverReason;
+import de.tbressler.quadratum.logic.IGameLogicListener;
+import de.tbressler.quadratum.model.GameBoard;
+import de.tbressler.quadratum.model.IGameBoardListener;
+import de.tbressler.quadratum.model.Player;
+import de.tbressler.quadratum.model.Square;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static de.tbressler.quadratum.events.GameEvent.Type.*;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Publishes the events of a game as reactive streams ({@link Flow.Publisher}). The publisher
+ * listens to the game logic and its game board, so the listeners of the game only enqueue the
+ * events into the buffers of the subscribers and are never throttled by a slow subscriber.
+ *
+ * <p>There are two streams: the stream of all events ({@link #getEvents()}) and the stream of the
+ * board states ({@link #getBoardStates()}), which contains a snapshot of the game after every
+ * completed move. Board state subscribers should use {@link EventPublisher.OverflowPolicy#CONFLATE},
+ * so a lagging subscriber gets the latest state instead of all states. The board states are only
+ * created, if the stream has subscribers.</p>
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class GameEventPublisher implements IGameLogicListener, IGameBoardListener {
+
+    /* The game logic. */
+    private final GameLogic gameLogic;
+
+    /* The game board. */
+    private final GameBoard gameBoard;
+
+    /* The publisher of the events. */
+    private final EventPublisher<GameEvent> events;
+
+    /* The publisher of the board states. */
+    private final EventPublisher<BoardState> boardStates;
+
+
+    /**
+     * Creates the game event publisher. The publisher registers itself as listener at the game
+     * logic and its game board.
+     *
+     * @param gameLogic The game logic, must not be null.
+     * @param executor The executor, which delivers the events to the subscribers. Must not be null.
+     */
+    public GameEventPublisher(GameLogic gameLogic, Executor executor) {
+        this.gameLogic = requireNonNull(gameLogic);
+        this.gameBoard = gameLogic.getGameBoard();
+        this.events = new EventPublisher<>(executor);
+        this.boardStates = new EventPublisher<>(executor);
+
+        gameBoard.addGameBoardListener(this);
+        gameLogic.addGameLogicListener(this);
+    }
+
+
+    /**
+     * Returns the publisher of all events of the game.
+     *
+     * @return The publisher, never null.
+     */
+    public EventPublisher<GameEvent> getEvents() {
+        return events;
+    }
+
+    /**
+     * Returns the publisher of the board states. A board state is published when the game was
+     * started or restored, when the active player changed and when the game is over.
+     *
+     * @return The publisher, never null.
+     */
+    public EventPublisher<BoardState> getBoardStates() {
+        return boardStates;
+    }
+
+    /**
+     * Removes the publisher from the game logic and its game board and completes all subscribers
+     * after their buffered events.
+     */
+    public void close() {
+        gameBoard.removeGameBoardListener(this);
+        gameLogic.removeGameLogicListener(this);
+        events.close();
+        boardStates.close();
+    }
+
+
+    /* Publishes an event, if the stream has subscribers. A concurrently closed stream ignores the
+       event, so the listeners of the game never fail. */
+    private void publish(GameEvent.Type type, Player player, int index, Set<Square> squares, GameOverReason reason) {
+        if (events.hasSubscribers())
+            events.trySubmit(new GameEvent(type, player, index, squares, reason));
+    }
+
+    /* Publishes the current board state, if the stream has subscribers. */
+    private void publishBoardState() {
+        if (!boardStates.hasSubscribers())
+            return;
+
+        Player[] pieces = new Player[64];
+        for (int i = 0; i < 64; i++)
+            pieces[i] = gameBoard.getPiece(i);
+
+        boolean isGameOver = gameLogic.isGameOver();
+        boardStates.trySubmit(new BoardState(pieces, isGameOver ? null : gameLogic.getActivePlayer(),
+                gameLogic.getScore(gameBoard.getPlayer1()), gameLogic.getScore(gameBoard.getPlayer2()),
+                isGameOver));
+    }
+
+    /* Returns a copy of the squares, the game logic keeps its sets for takebacks. */
+    private static Set<Square> copyOf(Set<Square> squares) {
+        return squares.isEmpty() ? null : new HashSet<>(squares);
+    }
+
+
+    @Override
+    public void onPiecePlaced(int index, Player player) {
+        publish(PIECE_PLACED, player, index, null, null);
+    }
+
+    @Override
+    public void onPieceRemoved(int index, Player player) {
+        publish(PIECE_REMOVED, player, index, null, null);
+    }
+
+    @Override
+    public void onGameBoardCleared() {
+        publish(BOARD_CLEARED, null, -1, null, null);
+    }
+
+    @Override
+    public void onGameStarted(Player activePlayer) {
+        publish(GAME_STARTED, activePlayer, -1, null, null);
+        publishBoardState();
+    }
+
+    @Override
+    public void onGameRestored(Player activePlayer) {
+        publish(GAME_RESTORED, activePlayer, -1, null, null);
+        publishBoardState();
+    }
+
+    @Override
+    public void onMoveTakenBack(Player player, int index, Set<Square> removedSquares) {
+        publish(MOVE_TAKEN_BACK, player, index, copyOf(removedSquares), null);
+    }
+
+    @Override
+    public void onActivePlayerChanged(Player activePlayer) {
+        publish(ACTIVE_PLAYER_CHANGED, activePlayer, -1, null, null);
+        publishBoardState();
+    }
+
+    @Override
+    public void onNewSquaresFound(Player player, Set<Square> squares) {
+        publish(SQUARES_FOUND, player, -1, copyOf(squares), null);
+    }
+
+    @Override
+    public void onGameOver(Player winner, GameOverReason reason) {
+        publish(GAME_OVER, winner, -1, null, reason);
+        publishBoardState();
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("events", events)
+                .add("boardStates", boardStates)
+                .toString();
+    }
+
+}
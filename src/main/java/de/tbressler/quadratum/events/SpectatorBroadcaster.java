@@ -0,0 +1,244 @@
+package de.tbressler.quadratum.events;
+
+import de.tbressler.quadratum.logic.GameLogic;
+import de.tbressler.quadratum.logic.GameOverReason;
+import de.tbressler.quadratum.logic.IGameLogicListener;
+import de.tbressler.quadratum.model.GameBoard;
+import de.tbressler.quadratum.model.IGameBoardListener;
+import de.tbressler.quadratum.model.Player;
+import de.tbressler.quadratum.model.Square;
+
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static de.tbressler.quadratum.events.EventPublisher.OverflowPolicy.RESYNC;
+import static de.tbressler.quadratum.events.SpectatorFrame.Type.*;
+import static de.tbressler.quadratum.utils.SquareTable.indexOf;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Broadcasts the events of a game to its spectators. Every event is encoded exactly once into an
+ * immutable {@link SpectatorFrame}, which is shared by reference with all spectators, so the
+ * effort of the game doesn't depend on the number of spectators.
+ *
+ * <p>Every spectator has a bounded buffer. If a spectator falls behind and its buffer is full, the
+ * buffered frames are dropped and the spectator skips the next frames. After the next completed
+ * move the spectator receives a {@link SpectatorFrame.Type#SNAPSHOT} frame with the state of the
+ * game instead. The snapshot is also encoded once and shared by all lagging spectators.</p>
+ *
+ * <p>The broadcaster must be used by the thread of the game, e.g. the {@link
+ * de.tbressler.quadratum.logic.GameActor} of the game.</p>
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class SpectatorBroadcaster implements Flow.Publisher<SpectatorFrame>, IGameLogicListener, IGameBoardListener {
+
+    /** The default size of the buffer of a spectator. */
+    public static final int DEFAULT_BUFFER_SIZE = 64;
+
+    /* An empty array of squares. */
+    private static final int[] NO_SQUARES = new int[0];
+
+
+    /* The game logic. */
+    private final GameLogic gameLogic;
+
+    /* The game board. */
+    private final GameBoard gameBoard;
+
+    /* The publisher of the frames. */
+    private final EventPublisher<SpectatorFrame> frames;
+
+    /* The sequence number of the last frame. */
+    private long sequence = 0;
+
+    /* The number of encoded frames. */
+    private final LongAdder encodedFrames = new LongAdder();
+
+    /* The number of encoded snapshots. */
+    private final LongAdder encodedSnapshots = new LongAdder();
+
+
+    /**
+     * Creates the spectator broadcaster. The broadcaster registers itself as listener at the game
+     * logic and its game board.
+     *
+     * @param gameLogic The game logic, must not be null.
+     * @param executor The executor, which delivers the frames to the spectators. Must not be null.
+     */
+    public SpectatorBroadcaster(GameLogic gameLogic, Executor executor) {
+        this.gameLogic = requireNonNull(gameLogic);
+        this.gameBoard = gameLogic.getGameBoard();
+        this.frames = new EventPublisher<>(executor);
+
+        gameBoard.addGameBoardListener(this);
+        gameLogic.addGameLogicListener(this);
+    }
+
+
+    /**
+     * Adds a spectator with the default buffer size.
+     *
+     * @param spectator The spectator, must not be null.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super SpectatorFrame> spectator) {
+        subscribe(spectator, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Adds a spectator. The spectator should request a snapshot of the game at first, e.g. by
+     * {@link GameLogic#snapshot()}, and apply the frames with a higher sequence number afterwards.
+     *
+     * @param spectator The spectator, must not be null.
+     * @param bufferSize The size of the buffer, must be > 0.
+     */
+    public void subscribe(Flow.Subscriber<? super SpectatorFrame> spectator, int bufferSize) {
+        frames.subscribe(spectator, bufferSize, RESYNC);
+    }
+
+    /**
+     * Returns the number of spectators.
+     *
+     * @return The number of spectators.
+     */
+    public int getSpectatorCount() {
+        return frames.getSubscriberCount();
+    }
+
+    /**
+     * Returns the sequence number of the last frame.
+     *
+     * @return The sequence number.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns the number of encoded event frames.
+     *
+     * @return The number of frames.
+     */
+    public long getEncodedFrameCount() {
+        return encodedFrames.sum();
+    }
+
+    /**
+     * Returns the number of encoded snapshot frames.
+     *
+     * @return The number of snapshots.
+     */
+    public long getEncodedSnapshotCount() {
+        return encodedSnapshots.sum();
+    }
+
+    /**
+     * Removes the broadcaster from the game logic and its game board and completes all spectators
+     * after their buffered frames.
+     */
+    public void close() {
+        gameBoard.removeGameBoardListener(this);
+        gameLogic.removeGameLogicListener(this);
+        frames.close();
+    }
+
+
+    /* Returns the slot of the player at the game board. */
+    private int slotOf(Player player) {
+        if (player == null)
+            return 0;
+        return player.equals(gameBoard.getPlayer1()) ? 1 : 2;
+    }
+
+    /* Returns the numbers of the squares in the square table. */
+    private static int[] numbersOf(Set<Square> squares) {
+        int[] numbers = new int[squares.size()];
+        int n = 0;
+        for (Square square : squares)
+            numbers[n++] = indexOf(square.getSortedPieces());
+        return numbers;
+    }
+
+    /* Encodes the event once and broadcasts it to all spectators. */
+    private void broadcast(SpectatorFrame.Type type, Player player, int index, GameOverReason reason, int[] squares) {
+        sequence++;
+        if (!frames.hasSubscribers())
+            return;
+        frames.submit(SpectatorFrame.encode(type, sequence, slotOf(player), index, reason, squares));
+        encodedFrames.increment();
+    }
+
+    /* Sends a snapshot to the lagging spectators, the game must be in a consistent state. */
+    private void resyncLaggingSpectators() {
+        if (!frames.hasLaggingSubscribers())
+            return;
+        frames.resync(SpectatorFrame.encodeSnapshot(sequence, gameLogic.snapshot()));
+        encodedSnapshots.increment();
+    }
+
+
+    @Override
+    public void onPiecePlaced(int index, Player player) {
+        broadcast(PIECE_PLACED, player, index, null, NO_SQUARES);
+    }
+
+    @Override
+    public void onPieceRemoved(int index, Player player) {
+        broadcast(PIECE_REMOVED, player, index, null, NO_SQUARES);
+    }
+
+    @Override
+    public void onGameBoardCleared() {
+        broadcast(BOARD_CLEARED, null, -1, null, NO_SQUARES);
+    }
+
+    @Override
+    public void onGameStarted(Player activePlayer) {
+        broadcast(GAME_STARTED, activePlayer, -1, null, NO_SQUARES);
+    }
+
+    @Override
+    public void onGameRestored(Player activePlayer) {
+        broadcast(GAME_RESTORED, activePlayer, -1, null, NO_SQUARES);
+        resyncLaggingSpectators();
+    }
+
+    @Override
+    public void onMoveTakenBack(Player player, int index, Set<Square> removedSquares) {
+        broadcast(MOVE_TAKEN_BACK, player, index, null, numbersOf(removedSquares));
+    }
+
+    @Override
+    public void onActivePlayerChanged(Player activePlayer) {
+        broadcast(ACTIVE_PLAYER_CHANGED, activePlayer, -1, null, NO_SQUARES);
+        resyncLaggingSpectators();
+    }
+
+    @Override
+    public void onNewSquaresFound(Player player, Set<Square> squares) {
+        broadcast(SQUARES_FOUND, player, -1, null, numbersOf(squares));
+    }
+
+    @Override
+    public void onGameOver(Player winner, GameOverReason reason) {
+        broadcast(GAME_OVER, winner, -1, reason, NO_SQUARES);
+        resyncLaggingSpectators();
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("spectators", frames.getSubscriberCount())
+                .add("sequence", sequence)
+                .add("encodedFrames", encodedFrames.sum())
+                .add("encodedSnapshots", encodedSnapshots.sum())
+                .toString();
+    }
+
+}
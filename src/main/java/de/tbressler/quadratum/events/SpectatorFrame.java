@@ -0,0 +1,253 @@
+package de.tbressler.quadratum.events;
+
+import de.tbressler.quadratum.logic.GameOverReason;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An immutable, encoded event of a game for spectators. A frame is encoded once and shared by
+ * reference with all spectators of the game, the bytes can be written to a connection as they are.
+ * Players are stored by their slot at the game board (1 for player 1, 2 for player 2 or 0 for no
+ * player) and squares by their number in the square table.
+ *
+ * <p>The binary format of a frame is: type (byte), sequence number (long), player slot (byte),
+ * field index (byte), game over reason (byte), length of the payload (short) and the payload. The
+ * payload contains the square numbers (short each) or the snapshot of the game (see
+ * {@link de.tbressler.quadratum.logic.GameLogic#snapshot()}).</p>
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public final class SpectatorFrame {
+
+    /** The type of a frame. */
+    public enum Type {
+        /** The game was started by the player. */
+        GAME_STARTED,
+        /** The game was restored, the player is active. */
+        GAME_RESTORED,
+        /** The game board was cleared. */
+        BOARD_CLEARED,
+        /** The player has placed a piece at the field index. */
+        PIECE_PLACED,
+        /** The piece of the player was removed from the field index. */
+        PIECE_REMOVED,
+        /** The move of the player at the field index was taken back, the squares were removed. */
+        MOVE_TAKEN_BACK,
+        /** The player has completed the squares. */
+        SQUARES_FOUND,
+        /** The player is active. */
+        ACTIVE_PLAYER_CHANGED,
+        /** The game is over, the player is the winner. */
+        GAME_OVER,
+        /** The snapshot of the game, which replaces all frames up to the sequence number. */
+        SNAPSHOT
+    }
+
+
+    /** The size of the header of a frame. */
+    static final int HEADER_SIZE = 14;
+
+
+    /* The encoded frame. */
+    private final byte[] bytes;
+
+
+    /* Creates the frame from the encoded bytes. */
+    private SpectatorFrame(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+
+    /**
+     * Encodes an event as frame.
+     *
+     * @param type The type, must not be null.
+     * @param sequence The sequence number.
+     * @param playerSlot The player slot, 0 (no player), 1 or 2.
+     * @param index The field index between 0..63 or -1.
+     * @param reason The game over reason or null.
+     * @param squares The numbers of the squares, must not be null.
+     * @return The frame, never null.
+     */
+    static SpectatorFrame encode(Type type, long sequence, int playerSlot, int index, GameOverReason reason, int[] squares) {
+        ByteBuffer buffer = header(type, sequence, playerSlot, index, reason, 2 * squares.length);
+        for (int square : squares)
+            buffer.putShort((short) square);
+        return new SpectatorFrame(buffer.array());
+    }
+
+    /**
+     * Encodes a snapshot of the game as frame.
+     *
+     * @param sequence The sequence number of the last frame, which is contained in the snapshot.
+     * @param snapshot The snapshot of the game, must not be null.
+     * @return The frame, never null.
+     */
+    static SpectatorFrame encodeSnapshot(long sequence, byte[] snapshot) {
+        ByteBuffer buffer = header(Type.SNAPSHOT, sequence, 0, -1, null, snapshot.length);
+        buffer.put(snapshot);
+        return new SpectatorFrame(buffer.array());
+    }
+
+    /* Allocates the buffer of a frame and writes the header. */
+    private static ByteBuffer header(Type type, long sequence, int playerSlot, int index, GameOverReason reason, int payloadSize) {
+        if (payloadSize > 0xFFFF)
+            throw new AssertionError("Payload is too large!");
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payloadSize);
+        buffer.put((byte) type.ordinal());
+        buffer.putLong(sequence);
+        buffer.put((byte) playerSlot);
+        buffer.put((byte) index);
+        buffer.put((byte) ((reason == null) ? 0 : reason.ordinal() + 1));
+        buffer.putShort((short) payloadSize);
+        return buffer;
+    }
+
+    /**
+     * Decodes a frame, e.g. at the client of a spectator.
+     *
+     * @param bytes The encoded frame, must not be null. The array is copied.
+     * @return The frame, never null.
+     * @throws IllegalArgumentException If the bytes are not a valid frame.
+     */
+    public static SpectatorFrame decode(byte[] bytes) {
+        if ((requireNonNull(bytes).length < HEADER_SIZE) ||
+                (bytes[0] < 0) || (bytes[0] >= Type.values().length) ||
+                ((bytes[11] & 0xFF) > GameOverReason.values().length) ||
+                (ByteBuffer.wrap(bytes).getShort(12) & 0xFFFF) != bytes.length - HEADER_SIZE)
+            throw new IllegalArgumentException("Invalid frame!");
+        return new SpectatorFrame(bytes.clone());
+    }
+
+
+    /**
+     * Returns the type.
+     *
+     * @return The type, never null.
+     */
+    public Type getType() {
+        return Type.values()[bytes[0]];
+    }
+
+    /**
+     * Returns the sequence number. The frames of a game are numbered consecutively, a snapshot
+     * has the number of the last frame, which it contains.
+     *
+     * @return The sequence number.
+     */
+    public long getSequence() {
+        return ByteBuffer.wrap(bytes).getLong(1);
+    }
+
+    /**
+     * Returns the player slot.
+     *
+     * @return The player slot, 0 (no player), 1 or 2.
+     */
+    public int getPlayerSlot() {
+        return bytes[9];
+    }
+
+    /**
+     * Returns the field index.
+     *
+     * @return The field index between 0..63 or -1.
+     */
+    public int getIndex() {
+        return bytes[10];
+    }
+
+    /**
+     * Returns the game over reason.
+     *
+     * @return The game over reason or null.
+     */
+    public GameOverReason getReason() {
+        int reason = bytes[11];
+        return (reason == 0) ? null : GameOverReason.values()[reason - 1];
+    }
+
+    /**
+     * Returns the numbers of the squares in the square table.
+     *
+     * @return The square numbers, never null. Empty for a snapshot.
+     */
+    public int[] getSquares() {
+        if (getType() == Type.SNAPSHOT)
+            return new int[0];
+        ByteBuffer buffer = asByteBuffer();
+        int[] squares = new int[(bytes.length - HEADER_SIZE) / 2];
+        for (int i = 0; i < squares.length; i++)
+            squares[i] = buffer.getShort(HEADER_SIZE + 2 * i);
+        return squares;
+    }
+
+    /**
+     * Returns the snapshot of the game, which can be restored by
+     * {@link de.tbressler.quadratum.logic.GameLogic#restore(byte[])}.
+     *
+     * @return A copy of the snapshot or null, if the frame is not a snapshot.
+     */
+    public byte[] getSnapshot() {
+        if (getType() != Type.SNAPSHOT)
+            return null;
+        return Arrays.copyOfRange(bytes, HEADER_SIZE, bytes.length);
+    }
+
+    /**
+     * Returns the size of the encoded frame.
+     *
+     * @return The size in bytes.
+     */
+    public int size() {
+        return bytes.length;
+    }
+
+    /**
+     * Returns the encoded frame as read-only buffer. The bytes are not copied.
+     *
+     * @return The buffer, never null.
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns a copy of the encoded frame.
+     *
+     * @return The bytes, never null.
+     */
+    public byte[] toByteArray() {
+        return bytes.clone();
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(bytes, ((SpectatorFrame) o).bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("type", getType())
+                .add("sequence", getSequence())
+                .add("playerSlot", getPlayerSlot())
+                .add("index", getIndex())
+                .add("size", bytes.length)
+                .toString();
+    }
+
+}
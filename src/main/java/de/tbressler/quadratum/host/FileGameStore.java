@@ -0,0 +1,96 @@
+package de.tbressler.quadratum.host;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A game store, which keeps every snapshot in its own file in a local directory. A snapshot is
+ * written to a temporary file first and then moved to its final name, so a crash never leaves a
+ * partially written snapshot behind.
+ *
+ * <p>I/O errors are thrown as {@link UncheckedIOException}.</p>
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class FileGameStore implements IGameStore {
+
+    /** The file extension of the snapshots. */
+    public static final String EXTENSION = ".snapshot";
+
+
+    /* The directory. */
+    private final Path directory;
+
+
+    /**
+     * Creates the file game store. The directory is created, if it doesn't exist.
+     *
+     * @param directory The directory, must not be null.
+     */
+    public FileGameStore(Path directory) {
+        this.directory = requireNonNull(directory);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /* Returns the file of the game. */
+    private Path fileOf(long gameId) {
+        return directory.resolve(Long.toHexString(gameId) + EXTENSION);
+    }
+
+
+    @Override
+    public void save(long gameId, byte[] snapshot) {
+        requireNonNull(snapshot);
+        Path file = fileOf(gameId);
+        Path tempFile = directory.resolve(file.getFileName() + ".tmp");
+        try {
+            Files.write(tempFile, snapshot);
+            Files.move(tempFile, file, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public byte[] load(long gameId) {
+        try {
+            return Files.readAllBytes(fileOf(gameId));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void delete(long gameId) {
+        try {
+            Files.deleteIfExists(fileOf(gameId));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("directory", directory)
+                .toString();
+    }
+
+}
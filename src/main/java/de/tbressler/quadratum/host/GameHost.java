@@ -0,0 +1,797 @@
+package de.tbressler.quadratum.host;
+
+import de.tbressler.quadratum.logic.GameActor;
+import de.tbressler.quadratum.logic.GameLogic;
+import de.tbressler.quadratum.logic.GameOverReason;
+import de.tbressler.quadratum.logic.IGameLogicListener;
+import de.tbressler.quadratum.logic.IMoveOutcomeListener;
+import de.tbressler.quadratum.logic.MoveOutcome;
+import de.tbressler.quadratum.model.Player;
+import de.tbressler.quadratum.model.Square;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Hosts many concurrently running games. Every game is identified by a game id and runs in a
+ * {@link GameActor}. The games are distributed over shards by their game id. Every shard has its
+ * own registry, so registering and looking up games on different shards never contend, and its own
+ * executor, which processes the mailboxes of all games of the shard.
+ *
+ * <p>The registry of a shard uses open addressing with primitive game ids, so it doesn't allocate
+ * per lookup and the memory per game is predictable. The executors are created by the given
+ * factory, e.g. a single thread executor per shard or a shared executor with virtual threads.</p>
+ *
+ * <p>Games, which were not accessed for a while, can be hibernated to a {@link IGameStore} (see
+ * {@link #setHibernation(IGameStore, LongFunction, long, TimeUnit)}). A hibernated game only keeps
+ * its entry in the registry, the game logic and its actor are dropped. The game is restored
+ * transparently with the next command or query, so the heap follows the active games instead of
+ * all games. The snapshots are saved, loaded and deleted outside of the lock of the shard, so the
+ * lookups of other games never wait for the store.</p>
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class GameHost {
+
+    /* The golden ratio, which is used to spread the game ids. */
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    /* The entry of a hibernated game in the registry. A game, which is restored, has a future of its
+       game actor as entry. */
+    private static final Object HIBERNATED = new Object();
+
+
+    /* The shards. */
+    private final Shard[] shards;
+
+    /* The mask for the index of a shard. */
+    private final int shardMask;
+
+    /* The number of bits of the index of a shard. */
+    private final int shardBits;
+
+    /* The listener, which collects the metrics of all games. */
+    private final MetricsListener metricsListener = new MetricsListener();
+
+    /* The metrics. */
+    private final LongAdder createdGames = new LongAdder();
+    private final LongAdder removedGames = new LongAdder();
+    private final LongAdder finishedGames = new LongAdder();
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder rejectedCommands = new LongAdder();
+    private final LongAdder placedPieces = new LongAdder();
+    private final LongAdder placePieceLatency = new LongAdder();
+    private final LongAdder hibernations = new LongAdder();
+    private final LongAdder rehydrations = new LongAdder();
+
+    /* The store of the hibernated games or null, if hibernation was never enabled. */
+    private volatile IGameStore gameStore = null;
+
+    /* Is true if idle games are hibernated. */
+    private volatile boolean isHibernationEnabled = false;
+
+    /* The factory, which recreates the game logic of a hibernated game. */
+    private volatile LongFunction<GameLogic> gameFactory = null;
+
+    /* The idle time in nanoseconds, after which a game is hibernated. */
+    private volatile long idleTime = 0;
+
+
+    /**
+     * Creates the game host.
+     *
+     * @param shardCount The number of shards, must be between 1 and 2^16. The number is rounded up
+     *                   to a power of two.
+     * @param executorFactory The factory of the executors, which gets the index of the shard and
+     *                        returns its executor. Must not be null and must not return null.
+     */
+    public GameHost(int shardCount, IntFunction<Executor> executorFactory) {
+        if ((shardCount < 1) || (shardCount > (1 << 16)))
+            throw new AssertionError("shardCount must be between 1 and 2^16!");
+        requireNonNull(executorFactory);
+
+        int size = Integer.highestOneBit(shardCount);
+        if (size < shardCount)
+            size <<= 1;
+        this.shards = new Shard[size];
+        for (int i = 0; i < size; i++)
+            shards[i] = new Shard(requireNonNull(executorFactory.apply(i)));
+        this.shardMask = size - 1;
+        this.shardBits = Integer.numberOfTrailingZeros(size);
+    }
+
+
+    /* Returns the spread hash of the game id. The high bits of the hash are spread best, so the
+       shard and the slot in its registry are taken from the high bits. */
+    private static long hash(long gameId) {
+        return gameId * GOLDEN_RATIO;
+    }
+
+    /* Returns the shard of the game, which is given by the highest bits of the hash. */
+    private Shard shardOf(long hash) {
+        return shards[(int) (hash >>> (64 - shardBits)) & shardMask];
+    }
+
+
+    /**
+     * Enables or disables the hibernation of idle games. Idle games are hibernated by
+     * {@link #hibernateIdleGames()}, which should be called periodically.
+     *
+     * <p>A hibernated game is restored by a new game logic from the game factory, so the factory
+     * must create the game logic with the same players, player logics, settings and listeners as
+     * the original game logic. Commands must be routed through the host, because the game actor
+     * of a game is replaced when the game is restored.</p>
+     *
+     * @param gameStore The store of the hibernated games or null, if hibernation should be
+     *                  disabled. Games, which are already hibernated, are still restored from the
+     *                  previous store, so the store must be kept.
+     * @param gameFactory The factory, which creates a game logic for a game id. Must not be null
+     *                    if a store is set.
+     * @param idleTime The time without commands, after which a game is hibernated. Must be > 0.
+     * @param unit The time unit, must not be null.
+     */
+    public void setHibernation(IGameStore gameStore, LongFunction<GameLogic> gameFactory,
+                               long idleTime, TimeUnit unit) {
+        if (idleTime < 1) throw new AssertionError("idleTime must be > 0!");
+        requireNonNull(unit);
+        if (gameStore != null) {
+            this.gameFactory = requireNonNull(gameFactory);
+            this.idleTime = unit.toNanos(idleTime);
+            this.gameStore = gameStore;
+        }
+        this.isHibernationEnabled = (gameStore != null);
+    }
+
+    /**
+     * Hibernates all games, which were idle for longer than the idle time. The snapshots are
+     * created and stored by the workers of the games, so this method only schedules the
+     * hibernation. A game, which receives a command in the meantime, stays in memory.
+     *
+     * @return The number of games, which are scheduled for hibernation.
+     */
+    public int hibernateIdleGames() {
+        IGameStore store = gameStore;
+        if (!isHibernationEnabled)
+            return 0;
+
+        long deadline = System.nanoTime() - idleTime;
+        List<IdleGame> idleGames = new ArrayList<>();
+        for (Shard shard : shards)
+            shard.collectIdleGames(deadline, idleGames);
+
+        for (IdleGame idleGame : idleGames)
+            idleGame.gameActor.submit(logic -> hibernate(idleGame, logic, store));
+        return idleGames.size();
+    }
+
+    /* Hibernates an idle game on its worker. Returns true if the game was hibernated. */
+    private boolean hibernate(IdleGame idleGame, GameLogic gameLogic, IGameStore store) {
+        long hash = hash(idleGame.gameId);
+        Shard shard = shardOf(hash);
+
+        // The worker runs commands in order, so the snapshot contains all previous commands:
+        store.save(idleGame.gameId, gameLogic.snapshot());
+        if (!shard.hibernate(idleGame.gameId, hash, idleGame.gameActor, idleGame.lastAccess)) {
+            // The snapshot is deleted outside of the lock, unless a new game with the same id was hibernated:
+            if (!shard.isHibernated(idleGame.gameId, hash))
+                store.delete(idleGame.gameId);
+            return false;
+        }
+
+        // Stop the move clock of the dropped game logic:
+        gameLogic.setMoveClock(null, null);
+        hibernations.increment();
+        return true;
+    }
+
+    /* Restores a hibernated game outside of the lock of the shard and publishes its new game actor.
+       Returns the game actor or null, if the game was removed in the meantime. */
+    private GameActor rehydrate(long gameId, long hash, Shard shard, CompletableFuture<GameActor> rehydration) {
+        // The store and the factory are set, because the game was hibernated:
+        IGameStore store = gameStore;
+        GameActor gameActor;
+        try {
+            byte[] snapshot = store.load(gameId);
+            if (snapshot == null)
+                throw new IllegalStateException("Snapshot of game " + gameId + " not found!");
+
+            GameLogic gameLogic = requireNonNull(gameFactory.apply(gameId));
+            gameLogic.addGameLogicListener(metricsListener);
+            gameLogic.addMoveOutcomeListener(metricsListener);
+            gameActor = new GameActor(gameLogic, shard.executor);
+
+            // The restore is the first command of the actor, so all routed commands see the game:
+            gameActor.execute(() -> gameLogic.restore(snapshot));
+
+            // The snapshot is deleted before the game is published, so it never outlives the restore:
+            store.delete(gameId);
+            if (!shard.publish(gameId, hash, rehydration, gameActor))
+                gameActor = null;
+
+        } catch (RuntimeException e) {
+            if (!shard.abortRehydration(gameId, hash, rehydration)) {
+                rehydration.complete(null);
+                return null;
+            }
+            IllegalStateException failure = new IllegalStateException("Game " + gameId + " couldn't be restored!", e);
+            rehydration.completeExceptionally(failure);
+            throw failure;
+        }
+
+        if (gameActor != null)
+            rehydrations.increment();
+        rehydration.complete(gameActor);
+        return gameActor;
+    }
+
+
+    /**
+     * Adds a game to the host. The game logic runs in a new game actor on the executor of the shard
+     * afterwards and must not be used directly anymore.
+     *
+     * @param gameId The id of the game, must be unique in the host.
+     * @param gameLogic The game logic, must not be null.
+     * @return The game actor, never null.
+     */
+    public GameActor addGame(long gameId, GameLogic gameLogic) {
+        requireNonNull(gameLogic);
+        long hash = hash(gameId);
+        Shard shard = shardOf(hash);
+
+        // The listeners are added before the game is published, so the worker of the game sees them:
+        gameLogic.addGameLogicListener(metricsListener);
+        gameLogic.addMoveOutcomeListener(metricsListener);
+
+        GameActor gameActor = new GameActor(gameLogic, shard.executor);
+        if (!shard.putIfAbsent(gameId, hash, gameActor)) {
+            gameLogic.removeGameLogicListener(metricsListener);
+            gameLogic.removeMoveOutcomeListener(metricsListener);
+            throw new AssertionError("Game " + gameId + " already exists!");
+        }
+
+        createdGames.increment();
+        return gameActor;
+    }
+
+    /**
+     * Removes a game from the host. Commands, which were already enqueued, are still processed.
+     *
+     * @param gameId The id of the game.
+     * @return True if the game was removed, false if the game doesn't exist.
+     */
+    public boolean removeGame(long gameId) {
+        long hash = hash(gameId);
+        Object removed = shardOf(hash).remove(gameId, hash);
+        if (removed == null)
+            return false;
+
+        // A hibernated game or a game, which is restored, has a snapshot:
+        IGameStore store = gameStore;
+        if (!(removed instanceof GameActor) && (store != null))
+            store.delete(gameId);
+        removedGames.increment();
+        return true;
+    }
+
+    /**
+     * Returns the actor of a game. A hibernated game is restored.
+     *
+     * @param gameId The id of the game.
+     * @return The game actor or null, if the game doesn't exist.
+     * @throws IllegalStateException If the game is hibernated and its snapshot couldn't be loaded.
+     *                               The game stays hibernated.
+     */
+    public GameActor getGame(long gameId) {
+        long hash = hash(gameId);
+        return shardOf(hash).get(gameId, hash);
+    }
+
+
+    /**
+     * Routes a command to a game.
+     *
+     * @param gameId The id of the game.
+     * @param command The command, must not be null.
+     * @param <T> The type of the result.
+     * @return A future with the result of the command, never null. If the game doesn't exist, the
+     * future is completed exceptionally with a {@link NoSuchElementException}. If the game couldn't
+     * be restored, the future is completed exceptionally with an {@link IllegalStateException}.
+     */
+    public <T> CompletableFuture<T> submit(long gameId, Function<GameLogic, T> command) {
+        requireNonNull(command);
+        return route(gameId, gameActor -> gameActor.submit(command));
+    }
+
+    /**
+     * Routes the start of a game.
+     *
+     * @param gameId The id of the game.
+     * @param player The player, who can do the first turn. Must not be null.
+     * @return A future, which is completed when the game was started. If the game doesn't exist,
+     * the future is completed exceptionally with a {@link NoSuchElementException}.
+     */
+    public CompletableFuture<Void> startGame(long gameId, Player player) {
+        requireNonNull(player);
+        return route(gameId, gameActor -> gameActor.startGame(player));
+    }
+
+    /**
+     * Routes a move of a human player to a game.
+     *
+     * @param gameId The id of the game.
+     * @param player The player, must not be null.
+     * @param index The field index, between 0..63.
+     * @return A future, which is completed with true if the piece was placed successfully or with
+     * false if the player is not active or the field is not empty. If the game doesn't exist, the
+     * future is completed exceptionally with a {@link NoSuchElementException}.
+     */
+    public CompletableFuture<Boolean> placePiece(long gameId, Player player, int index) {
+        requireNonNull(player);
+        return route(gameId, gameActor -> {
+            long start = System.nanoTime();
+            return gameActor.placePiece(player, index).whenComplete((result, e) -> {
+                placedPieces.increment();
+                placePieceLatency.add(System.nanoTime() - start);
+            });
+        });
+    }
+
+    /**
+     * Routes a takeback of the last move to a game.
+     *
+     * @param gameId The id of the game.
+     * @return A future, which is completed with true if the move was taken back. If the game
+     * doesn't exist, the future is completed exceptionally with a {@link NoSuchElementException}.
+     */
+    public CompletableFuture<Boolean> takeback(long gameId) {
+        return route(gameId, GameActor::takeback);
+    }
+
+    /* Routes the command to the game actor of the game. */
+    private <T> CompletableFuture<T> route(long gameId, Function<GameActor, CompletableFuture<T>> command) {
+        GameActor gameActor;
+        try {
+            gameActor = getGame(gameId);
+        } catch (IllegalStateException e) {
+            return failed(e);
+        }
+        if (gameActor == null) {
+            rejectedCommands.increment();
+            return failed(new NoSuchElementException("Game " + gameId + " doesn't exist!"));
+        }
+        return command.apply(gameActor);
+    }
+
+    /* Returns a future, which is completed exceptionally. */
+    private static <T> CompletableFuture<T> failed(Throwable e) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+
+    /**
+     * Returns the number of shards.
+     *
+     * @return The number of shards.
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Returns the number of games of a shard.
+     *
+     * @param shard The index of the shard, between 0 and the number of shards - 1.
+     * @return The number of games.
+     */
+    public int getGameCount(int shard) {
+        if ((shard < 0) || (shard >= shards.length))
+            throw new AssertionError("shard must be between 0 and " + (shards.length - 1) + "!");
+        return shards[shard].size();
+    }
+
+    /**
+     * Returns the number of games, which are hosted currently.
+     *
+     * @return The number of games.
+     */
+    public int getGameCount() {
+        int count = 0;
+        for (Shard shard : shards)
+            count += shard.size();
+        return count;
+    }
+
+    /**
+     * Returns the number of games, which are hibernated currently.
+     *
+     * @return The number of hibernated games.
+     */
+    public int getHibernatedGameCount() {
+        int count = 0;
+        for (Shard shard : shards)
+            count += shard.hibernatedCount();
+        return count;
+    }
+
+    /**
+     * Returns the number of hibernations of games.
+     *
+     * @return The number of hibernations.
+     */
+    public long getHibernationCount() {
+        return hibernations.sum();
+    }
+
+    /**
+     * Returns the number of games, which were restored after their hibernation.
+     *
+     * @return The number of restored games.
+     */
+    public long getRehydrationCount() {
+        return rehydrations.sum();
+    }
+
+    /**
+     * Returns the number of games, which were added to the host.
+     *
+     * @return The number of added games.
+     */
+    public long getCreatedGameCount() {
+        return createdGames.sum();
+    }
+
+    /**
+     * Returns the number of games, which were removed from the host.
+     *
+     * @return The number of removed games.
+     */
+    public long getRemovedGameCount() {
+        return removedGames.sum();
+    }
+
+    /**
+     * Returns the number of games, which are over.
+     *
+     * @return The number of finished games.
+     */
+    public long getFinishedGameCount() {
+        return finishedGames.sum();
+    }
+
+    /**
+     * Returns the number of moves, which were made in all games.
+     *
+     * @return The number of moves.
+     */
+    public long getMoveCount() {
+        return moves.sum();
+    }
+
+    /**
+     * Returns the number of commands, which were rejected because the game didn't exist.
+     *
+     * @return The number of rejected commands.
+     */
+    public long getRejectedCommandCount() {
+        return rejectedCommands.sum();
+    }
+
+    /**
+     * Returns the average time between routing a move of a human player and its completion, which
+     * includes the waiting time in the mailbox of the game.
+     *
+     * @param unit The time unit, must not be null.
+     * @return The average latency or 0, if no move was routed yet.
+     */
+    public long getAveragePlacePieceLatency(TimeUnit unit) {
+        requireNonNull(unit);
+        long count = placedPieces.sum();
+        if (count == 0)
+            return 0;
+        return unit.convert(placePieceLatency.sum() / count, TimeUnit.NANOSECONDS);
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("shards", shards.length)
+                .add("games", getGameCount())
+                .add("moves", moves.sum())
+                .toString();
+    }
+
+
+    /* A shard with its registry of games and its executor. */
+    private final class Shard {
+
+        /* The initial capacity of the registry, must be a power of two. */
+        private static final int INITIAL_CAPACITY = 16;
+
+        /* The executor of the shard. */
+        private final Executor executor;
+
+        /* The game ids, indexed by slot. */
+        private long[] keys = new long[INITIAL_CAPACITY];
+
+        /* The game actors, HIBERNATED, the future of a restored game or null for free slots, indexed
+           by slot. */
+        private Object[] values = new Object[INITIAL_CAPACITY];
+
+        /* The time of the last access in nanoseconds, indexed by slot. */
+        private long[] lastAccess = new long[INITIAL_CAPACITY];
+
+        /* The number of games. */
+        private int size = 0;
+
+        /* The number of hibernated games. */
+        private int hibernated = 0;
+
+
+        /* Creates the shard. */
+        private Shard(Executor executor) {
+            this.executor = executor;
+        }
+
+
+        /* Returns the first slot of the game id, which is given by the highest bits of the hash
+           below the bits of the shard. The low bits of the hash are the same for game ids, which
+           are multiples of a power of two. */
+        private int slotOf(long hash, int mask) {
+            return (int) ((hash << shardBits) >>> (64 - Integer.bitCount(mask)));
+        }
+
+        /* Returns the slot of the game id or -1. */
+        private int find(long gameId, long hash) {
+            int mask = values.length - 1;
+            for (int slot = slotOf(hash, mask); values[slot] != null; slot = (slot + 1) & mask)
+                if (keys[slot] == gameId)
+                    return slot;
+            return -1;
+        }
+
+        /* Marks the access of the slot. The time of the access always changes. */
+        private void touch(int slot) {
+            lastAccess[slot] = Math.max(System.nanoTime(), lastAccess[slot] + 1);
+        }
+
+        /* Returns the game actor of the game id or null. A hibernated game is restored outside of the
+           lock, concurrent lookups of the same game wait for the restore. */
+        @SuppressWarnings("unchecked")
+        private GameActor get(long gameId, long hash) {
+            CompletableFuture<GameActor> rehydration;
+            boolean isLoader = false;
+            synchronized (this) {
+                int slot = find(gameId, hash);
+                if (slot < 0)
+                    return null;
+
+                touch(slot);
+                if (values[slot] instanceof GameActor)
+                    return (GameActor) values[slot];
+
+                if (values[slot] == HIBERNATED) {
+                    rehydration = new CompletableFuture<>();
+                    values[slot] = rehydration;
+                    hibernated--;
+                    isLoader = true;
+                } else {
+                    rehydration = (CompletableFuture<GameActor>) values[slot];
+                }
+            }
+
+            if (isLoader)
+                return rehydrate(gameId, hash, this, rehydration);
+            try {
+                return rehydration.join();
+            } catch (CompletionException e) {
+                throw new IllegalStateException("Game " + gameId + " couldn't be restored!", e.getCause());
+            }
+        }
+
+        /* Replaces the future of the restored game by its game actor. Returns false, if the game was
+           removed in the meantime. */
+        private synchronized boolean publish(long gameId, long hash, CompletableFuture<GameActor> rehydration,
+                                             GameActor gameActor) {
+            int slot = find(gameId, hash);
+            if ((slot < 0) || (values[slot] != rehydration))
+                return false;
+            values[slot] = gameActor;
+            return true;
+        }
+
+        /* Resets the restored game to HIBERNATED. Returns false, if the game was removed in the
+           meantime. */
+        private synchronized boolean abortRehydration(long gameId, long hash, CompletableFuture<GameActor> rehydration) {
+            int slot = find(gameId, hash);
+            if ((slot < 0) || (values[slot] != rehydration))
+                return false;
+            values[slot] = HIBERNATED;
+            hibernated++;
+            return true;
+        }
+
+        /* Adds the game actor, if the game id doesn't exist. Returns true if it was added. */
+        private synchronized boolean putIfAbsent(long gameId, long hash, GameActor gameActor) {
+            if (find(gameId, hash) >= 0)
+                return false;
+
+            int mask = values.length - 1;
+            int slot = slotOf(hash, mask);
+            while (values[slot] != null)
+                slot = (slot + 1) & mask;
+
+            keys[slot] = gameId;
+            values[slot] = gameActor;
+            lastAccess[slot] = 0;
+            touch(slot);
+            size++;
+
+            // Keep the load factor below 0.5:
+            if (size * 2 > values.length)
+                resize();
+            return true;
+        }
+
+        /* Removes the game id and returns its game actor, HIBERNATED, the future of a restored game or
+           null. */
+        private synchronized Object remove(long gameId, long hash) {
+            int slot = find(gameId, hash);
+            if (slot < 0)
+                return null;
+
+            Object removed = values[slot];
+            if (removed == HIBERNATED)
+                hibernated--;
+
+            // Shift the following entries back, so no tombstones are needed:
+            int mask = values.length - 1;
+            int free = slot;
+            for (slot = (slot + 1) & mask; values[slot] != null; slot = (slot + 1) & mask) {
+                int home = slotOf(hash(keys[slot]), mask);
+                if (((slot - home) & mask) >= ((slot - free) & mask)) {
+                    keys[free] = keys[slot];
+                    values[free] = values[slot];
+                    lastAccess[free] = lastAccess[slot];
+                    free = slot;
+                }
+            }
+            values[free] = null;
+            size--;
+            return removed;
+        }
+
+        /* Collects the games in memory, which were not accessed since the deadline. */
+        private synchronized void collectIdleGames(long deadline, List<IdleGame> idleGames) {
+            for (int slot = 0; slot < values.length; slot++)
+                if ((values[slot] instanceof GameActor) && (lastAccess[slot] - deadline < 0))
+                    idleGames.add(new IdleGame(keys[slot], (GameActor) values[slot], lastAccess[slot]));
+        }
+
+        /* Hibernates the game, if it was not accessed since the given time. */
+        private synchronized boolean hibernate(long gameId, long hash, GameActor gameActor, long access) {
+            int slot = find(gameId, hash);
+            if ((slot < 0) || (values[slot] != gameActor) || (lastAccess[slot] != access))
+                return false;
+            values[slot] = HIBERNATED;
+            hibernated++;
+            return true;
+        }
+
+        /* Returns true if the game is hibernated or restored, so it has a snapshot in the store. */
+        private synchronized boolean isHibernated(long gameId, long hash) {
+            int slot = find(gameId, hash);
+            return (slot >= 0) && !(values[slot] instanceof GameActor);
+        }
+
+        /* Doubles the capacity of the registry. */
+        private void resize() {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+            long[] oldLastAccess = lastAccess;
+            keys = new long[oldKeys.length * 2];
+            values = new Object[oldValues.length * 2];
+            lastAccess = new long[oldLastAccess.length * 2];
+
+            int mask = values.length - 1;
+            int slot;
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] == null)
+                    continue;
+                slot = slotOf(hash(oldKeys[i]), mask);
+                while (values[slot] != null)
+                    slot = (slot + 1) & mask;
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                lastAccess[slot] = oldLastAccess[i];
+            }
+        }
+
+        /* Returns the number of games. */
+        private synchronized int size() {
+            return size;
+        }
+
+        /* Returns the number of hibernated games. */
+        private synchronized int hibernatedCount() {
+            return hibernated;
+        }
+
+    }
+
+
+    /* A game, which is scheduled for hibernation. */
+    private static final class IdleGame {
+
+        /* The id of the game. */
+        private final long gameId;
+
+        /* The game actor. */
+        private final GameActor gameActor;
+
+        /* The time of the last access, when the game was collected. */
+        private final long lastAccess;
+
+
+        /* Creates the idle game. */
+        private IdleGame(long gameId, GameActor gameActor, long lastAccess) {
+            this.gameId = gameId;
+            this.gameActor = gameActor;
+            this.lastAccess = lastAccess;
+        }
+
+    }
+
+
+    /* Collects the metrics of all games. */
+    private final class MetricsListener implements IGameLogicListener, IMoveOutcomeListener {
+
+        @Override
+        public void onMoveMade(MoveOutcome outcome) {
+            moves.increment();
+        }
+
+        @Override
+        public void onGameOver(Player winner, GameOverReason reason) {
+            finishedGames.increment();
+        }
+
+        @Override
+        public void onGameStarted(Player activePlayer) {
+            // Nothing to do.
+        }
+
+        @Override
+        public void onMoveTakenBack(Player player, int index, Set<Square> removedSquares) {
+            // Nothing to do.
+        }
+
+        @Override
+        public void onActivePlayerChanged(Player activePlayer) {
+            // Nothing to do.
+        }
+
+        @Override
+        public void onNewSquaresFound(Player player, Set<Square> squares) {
+            // Nothing to do.
+        }
+
+    }
+
+}
@@ -0,0 +1,34 @@
+package de.tbressler.quadratum.host;
+
+/**
+ * A store for the snapshots of hibernated games.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public interface IGameStore {
+
+    /**
+     * Saves the snapshot of a game. An existing snapshot of the game is replaced.
+     *
+     * @param gameId The id of the game.
+     * @param snapshot The snapshot, must not be null.
+     */
+    void save(long gameId, byte[] snapshot);
+
+    /**
+     * Loads the snapshot of a game.
+     *
+     * @param gameId The id of the game.
+     * @return The snapshot or null, if no snapshot of the game exists.
+     */
+    byte[] load(long gameId);
+
+    /**
+     * Deletes the snapshot of a game. Nothing happens, if no snapshot of the game exists.
+     *
+     * @param gameId The id of the game.
+     */
+    void delete(long gameId);
+
+}
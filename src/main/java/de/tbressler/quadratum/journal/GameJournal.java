@@ -0,0 +1,471 @@
+package de.tbressler.quadratum.journal;
+
+import de.tbressler.quadratum.model.IReadOnlyGameBoard;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * An append-only journal of game events, which can be shared by many games. The events of a game
+ * are appended by a {@link JournalListener} (see {@link #createListener(long, IReadOnlyGameBoard)})
+ * as compact binary records to segment files in a directory. The journal can be read with a
+ * {@link JournalReader}.
+ *
+ * <p>Appending a record only enqueues it, so the games are never blocked by the disk. A single
+ * writer thread drains the queue, encodes all pending records into one buffer and writes them with
+ * one call to the file channel (group commit). The channel is synced to the disk after a number of
+ * records or after a time interval, whichever comes first. {@link #sync()} waits until all records,
+ * which were appended before, are synced: it enqueues a barrier behind these records, which the
+ * writer releases after the next sync.</p>
+ *
+ * <p>The number of records, which are not written yet, is bounded. If the queue is full, appending
+ * waits until the writer has written some records (backpressure). If the writer failed, appending
+ * and syncing throw the error of the writer. Records, which were accepted before the journal was
+ * closed, are always written.</p>
+ *
+ * <p>If a segment reaches its maximum size, a new segment is started. A new journal always starts
+ * with a new segment after the existing segments, so the segments of a crashed journal are never
+ * changed.</p>
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class GameJournal implements Closeable {
+
+    /** The file extension of the segments. */
+    public static final String EXTENSION = ".journal";
+
+    /** The minimum size of a segment. */
+    public static final int MIN_SEGMENT_SIZE = 4096;
+
+    /** The default number of records, which can be queued before appending waits. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 64 * 1024;
+
+    /* The size of the write buffer. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+
+    /* The directory of the segments. */
+    private final Path directory;
+
+    /* The maximum size of a segment in bytes. */
+    private final long segmentSize;
+
+    /* The number of records, after which the segment is synced. */
+    private final int syncBatchSize;
+
+    /* The interval in nanoseconds, after which the segment is synced. */
+    private final long syncInterval;
+
+    /* The records and sync barriers, which are not written yet. */
+    private final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+
+    /* The free capacity of the queue, released by the writer thread after writing records. */
+    private final Semaphore capacity;
+
+    /* The number of appends, which passed the close check but are not queued yet. */
+    private final AtomicInteger pendingAppends = new AtomicInteger(0);
+
+    /* The sync barriers, which are released after the next sync, only used by the writer thread. */
+    private final List<SyncBarrier> barriers = new ArrayList<>();
+
+    /* The write buffer, only used by the writer thread. */
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /* The number of appended records. */
+    private final AtomicLong appendedRecords = new AtomicLong(0);
+
+    /* The number of synced records. */
+    private volatile long syncedRecords = 0;
+
+    /* The writer thread. */
+    private final Thread writerThread;
+
+    /* Is true while the writer thread is parked. */
+    private volatile boolean isWriterParked = false;
+
+    /* Is true if the journal is closed. */
+    private volatile boolean isClosed = false;
+
+    /* The error of the writer thread or null. */
+    private volatile IOException failure = null;
+
+    /* The number of the current segment. */
+    private long segmentNumber;
+
+    /* The channel of the current segment. */
+    private FileChannel channel;
+
+    /* The number of written records. */
+    private long writtenRecords = 0;
+
+    /* The number of segments, which were started by the journal. */
+    private final AtomicLong startedSegments = new AtomicLong(0);
+
+
+    /**
+     * Creates the game journal and starts its writer thread. The directory is created, if it
+     * doesn't exist.
+     *
+     * @param directory The directory of the segments, must not be null.
+     * @param segmentSize The maximum size of a segment in bytes, must be >= {@link #MIN_SEGMENT_SIZE}.
+     * @param syncBatchSize The number of records, after which the segment is synced to the disk.
+     *                      Must be > 0, 1 syncs every group of records.
+     * @param syncInterval The time, after which written records are synced to the disk. Must be > 0.
+     * @param unit The time unit of the interval, must not be null.
+     */
+    public GameJournal(Path directory, long segmentSize, int syncBatchSize, long syncInterval, TimeUnit unit) {
+        this(directory, segmentSize, syncBatchSize, syncInterval, unit, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Creates the game journal and starts its writer thread. The directory is created, if it
+     * doesn't exist.
+     *
+     * @param directory The directory of the segments, must not be null.
+     * @param segmentSize The maximum size of a segment in bytes, must be >= {@link #MIN_SEGMENT_SIZE}.
+     * @param syncBatchSize The number of records, after which the segment is synced to the disk.
+     *                      Must be > 0, 1 syncs every group of records.
+     * @param syncInterval The time, after which written records are synced to the disk. Must be > 0.
+     * @param unit The time unit of the interval, must not be null.
+     * @param queueCapacity The number of records, which can be queued before appending waits for the
+     *                      writer. Must be > 0.
+     */
+    public GameJournal(Path directory, long segmentSize, int syncBatchSize, long syncInterval, TimeUnit unit,
+                       int queueCapacity) {
+        if (segmentSize < MIN_SEGMENT_SIZE)
+            throw new AssertionError("segmentSize must be >= " + MIN_SEGMENT_SIZE + "!");
+        if (syncBatchSize < 1) throw new AssertionError("syncBatchSize must be > 0!");
+        if (syncInterval < 1) throw new AssertionError("syncInterval must be > 0!");
+        if (queueCapacity < 1) throw new AssertionError("queueCapacity must be > 0!");
+
+        this.directory = requireNonNull(directory);
+        this.segmentSize = segmentSize;
+        this.syncBatchSize = syncBatchSize;
+        this.syncInterval = requireNonNull(unit).toNanos(syncInterval);
+        this.capacity = new Semaphore(queueCapacity);
+
+        try {
+            Files.createDirectories(directory);
+            segmentNumber = findLastSegmentNumber(directory);
+            startSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        this.writerThread = new Thread(this::runWriter, "game-journal-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+
+    /**
+     * Returns the file name of a segment.
+     *
+     * @param segmentNumber The number of the segment.
+     * @return The file name, never null.
+     */
+    static String segmentName(long segmentNumber) {
+        return String.format("segment-%016d%s", segmentNumber, EXTENSION);
+    }
+
+    /* Returns the highest number of the segments in the directory or 0. */
+    private static long findLastSegmentNumber(Path directory) throws IOException {
+        long last = 0;
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory, "segment-*" + EXTENSION)) {
+            for (Path segment : segments) {
+                String name = segment.getFileName().toString();
+                try {
+                    last = Math.max(last, Long.parseLong(name.substring(8, name.length() - EXTENSION.length())));
+                } catch (NumberFormatException e) {
+                    // Not a segment of the journal.
+                }
+            }
+        }
+        return last;
+    }
+
+    /* Closes the current segment and starts the next one. */
+    private void startSegment() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+        }
+        segmentNumber++;
+        channel = FileChannel.open(directory.resolve(segmentName(segmentNumber)), CREATE_NEW, WRITE);
+        startedSegments.incrementAndGet();
+    }
+
+
+    /**
+     * Creates a listener for a single game, which appends the events of the game to the journal.
+     * The listener must be added to the game board and to the game logic of the game.
+     *
+     * @param gameId The id of the game.
+     * @param gameBoard The game board of the game, must not be null.
+     * @return The listener, never null.
+     */
+    public JournalListener createListener(long gameId, IReadOnlyGameBoard gameBoard) {
+        return new JournalListener(this, gameId, gameBoard);
+    }
+
+    /**
+     * Appends a record to the journal. The record is written asynchronously. If the queue is full,
+     * this method waits until the writer has written some records.
+     *
+     * @param record The record, must not be null.
+     * @throws UncheckedIOException If the journal failed to write the records before.
+     * @throws IllegalStateException If the journal is closed.
+     */
+    public void append(JournalRecord record) {
+        requireNonNull(record);
+
+        // The writer doesn't stop while appends are pending, which passed the close check:
+        pendingAppends.incrementAndGet();
+        try {
+            throwIfFailed();
+            if (isClosed)
+                throw new IllegalStateException("Journal is closed!");
+
+            acquireCapacity();
+            queue.offer(record);
+            appendedRecords.incrementAndGet();
+        } finally {
+            pendingAppends.decrementAndGet();
+        }
+        if (isWriterParked)
+            LockSupport.unpark(writerThread);
+    }
+
+    /* Waits for free capacity in the queue. Throws the error of the writer, if it stopped. */
+    private void acquireCapacity() {
+        boolean isInterrupted = false;
+        try {
+            while (true) {
+                try {
+                    if (capacity.tryAcquire(100, MILLISECONDS))
+                        return;
+                } catch (InterruptedException e) {
+                    isInterrupted = true;
+                }
+                throwIfFailed();
+                if (!writerThread.isAlive())
+                    throw new IllegalStateException("Journal is closed!");
+            }
+        } finally {
+            if (isInterrupted)
+                Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits until all records, which were appended before, are synced to the disk.
+     *
+     * @throws UncheckedIOException If the journal failed to write the records.
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    public void sync() throws InterruptedException {
+        // A closed journal has synced all records before its writer thread stopped:
+        if (isClosed && !writerThread.isAlive()) {
+            throwIfFailed();
+            return;
+        }
+
+        SyncBarrier barrier = new SyncBarrier();
+        queue.offer(barrier);
+        LockSupport.unpark(writerThread);
+
+        while (!barrier.synced.await(100, MILLISECONDS))
+            if (!writerThread.isAlive())
+                break;
+        throwIfFailed();
+        if (barrier.synced.getCount() > 0)
+            throw new IllegalStateException("Journal is closed!");
+    }
+
+    /* Throws the error of the writer thread. */
+    private void throwIfFailed() {
+        IOException e = failure;
+        if (e != null)
+            throw new UncheckedIOException(e);
+    }
+
+    /**
+     * Closes the journal. All appended records are written and synced before the writer thread
+     * stops.
+     */
+    @Override
+    public void close() {
+        if (isClosed)
+            return;
+        isClosed = true;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throwIfFailed();
+    }
+
+
+    /* The loop of the writer thread. */
+    private void runWriter() {
+        long lastSync = System.nanoTime();
+        try {
+            while (true) {
+                boolean isClosing = isClosed;
+                boolean hasWritten = writeRecords();
+
+                long unsynced = writtenRecords - syncedRecords;
+                long now = System.nanoTime();
+                if ((unsynced > 0) && ((unsynced >= syncBatchSize) || (now - lastSync >= syncInterval) ||
+                        !barriers.isEmpty() || isClosing)) {
+                    channel.force(false);
+                    syncedRecords = writtenRecords;
+                    lastSync = now;
+                }
+
+                // All records before the barriers are synced now:
+                for (SyncBarrier barrier : barriers)
+                    barrier.synced.countDown();
+                barriers.clear();
+
+                if (isClosing && queue.isEmpty() && (pendingAppends.get() == 0))
+                    break;
+                if (hasWritten)
+                    continue;
+
+                // Park until new records are appended or the pending records must be synced:
+                isWriterParked = true;
+                if (queue.isEmpty() && !isClosed) {
+                    if (writtenRecords > syncedRecords)
+                        LockSupport.parkNanos(this, Math.max(1, syncInterval - (now - lastSync)));
+                    else
+                        LockSupport.park(this);
+                }
+                isWriterParked = false;
+            }
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                if (failure == null)
+                    failure = e;
+            }
+        }
+    }
+
+    /* Writes the queued records and collects the sync barriers. Returns true if records were
+       written. */
+    private boolean writeRecords() throws IOException {
+        Object entry;
+        int written = 0;
+        while ((entry = queue.peek()) != null) {
+            if (entry instanceof SyncBarrier) {
+                barriers.add((SyncBarrier) queue.poll());
+                continue;
+            }
+
+            JournalRecord record = (JournalRecord) entry;
+            int size = record.getEncodedSize();
+            if (channel.position() + buffer.position() + size > segmentSize) {
+                flushBuffer();
+                startSegment();
+            }
+            if (buffer.remaining() < size)
+                flushBuffer();
+
+            record.encode(buffer);
+            queue.poll();
+            writtenRecords++;
+            written++;
+        }
+        flushBuffer();
+        capacity.release(written);
+        return written > 0;
+    }
+
+    /* Writes the buffer to the channel. */
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+
+
+    /**
+     * Returns the number of appended records.
+     *
+     * @return The number of records.
+     */
+    public long getAppendedRecordCount() {
+        return appendedRecords.get();
+    }
+
+    /**
+     * Returns the number of records, which are synced to the disk.
+     *
+     * @return The number of records.
+     */
+    public long getSyncedRecordCount() {
+        return syncedRecords;
+    }
+
+    /**
+     * Returns the number of segments, which were started by this journal.
+     *
+     * @return The number of segments.
+     */
+    public long getSegmentCount() {
+        return startedSegments.get();
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("directory", directory)
+                .add("segmentSize", segmentSize)
+                .add("syncBatchSize", syncBatchSize)
+                .add("appendedRecords", appendedRecords.get())
+                .add("syncedRecords", syncedRecords)
+                .toString();
+    }
+
+
+    /* A barrier in the queue, which is released when all records before it are synced. */
+    private static final class SyncBarrier {
+
+        /* Is counted down when the records are synced. */
+        private final CountDownLatch synced = new CountDownLatch(1);
+
+    }
+
+}
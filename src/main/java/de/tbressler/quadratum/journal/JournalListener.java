@@ -0,0 +1,117 @@
+package de.tbressler.quadratum.journal;
+
+import de.tbressler.quadratum.logic.GameOverReason;
+import de.tbressler.quadratum.logic.IGameLogicListener;
+import de.tbressler.quadratum.model.IGameBoardListener;
+import de.tbressler.quadratum.model.IReadOnlyGameBoard;
+import de.tbressler.quadratum.model.Player;
+import de.tbressler.quadratum.model.Square;
+
+import java.util.Set;
+
+import static de.tbressler.quadratum.journal.JournalRecord.Type.*;
+import static de.tbressler.quadratum.utils.SquareTable.indexOf;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The listener of a single game, which appends the events of the game to a game journal. The
+ * listener must be added to the game board and to the game logic of the game. The pieces are
+ * journaled by the game board events, the squares and the results by the game logic events.
+ * The squares of replayed and restored moves are not journaled, they follow from the pieces.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class JournalListener implements IGameBoardListener, IGameLogicListener {
+
+    /* An empty array of squares. */
+    private static final int[] NO_SQUARES = new int[0];
+
+
+    /* The journal. */
+    private final GameJournal journal;
+
+    /* The id of the game. */
+    private final long gameId;
+
+    /* The game board. */
+    private final IReadOnlyGameBoard gameBoard;
+
+
+    /**
+     * Creates the journal listener.
+     *
+     * @param journal The journal, must not be null.
+     * @param gameId The id of the game.
+     * @param gameBoard The game board of the game, must not be null.
+     */
+    JournalListener(GameJournal journal, long gameId, IReadOnlyGameBoard gameBoard) {
+        this.journal = requireNonNull(journal);
+        this.gameId = gameId;
+        this.gameBoard = requireNonNull(gameBoard);
+    }
+
+
+    /* Returns the slot of the player at the game board. */
+    private int slotOf(Player player) {
+        if (player == null)
+            return 0;
+        return (player == gameBoard.getPlayer1()) ? 1 : 2;
+    }
+
+    /* Appends a record to the journal. */
+    private void append(JournalRecord.Type type, Player player, int index, GameOverReason reason, int[] squares) {
+        journal.append(new JournalRecord(type, gameId, slotOf(player), index, reason, squares));
+    }
+
+
+    @Override
+    public void onPiecePlaced(int index, Player player) {
+        append(PIECE_PLACED, player, index, null, NO_SQUARES);
+    }
+
+    @Override
+    public void onPieceRemoved(int index, Player player) {
+        append(PIECE_REMOVED, player, index, null, NO_SQUARES);
+    }
+
+    @Override
+    public void onGameBoardCleared() {
+        append(BOARD_CLEARED, null, -1, null, NO_SQUARES);
+    }
+
+    @Override
+    public void onGameStarted(Player activePlayer) {
+        append(GAME_STARTED, activePlayer, -1, null, NO_SQUARES);
+    }
+
+    @Override
+    public void onGameRestored(Player activePlayer) {
+        append(GAME_RESTORED, activePlayer, -1, null, NO_SQUARES);
+    }
+
+    @Override
+    public void onActivePlayerChanged(Player activePlayer) {
+        // The active player follows from the pieces.
+    }
+
+    @Override
+    public void onNewSquaresFound(Player player, Set<Square> squares) {
+        int[] numbers = new int[squares.size()];
+        int n = 0;
+        for (Square square : squares)
+            numbers[n++] = indexOf(square.getSortedPieces());
+        append(SQUARES_FOUND, player, -1, null, numbers);
+    }
+
+    @Override
+    public void onMoveTakenBack(Player player, int index, Set<Square> removedSquares) {
+        // The removed piece is journaled by the game board, the squares follow from the pieces.
+    }
+
+    @Override
+    public void onGameOver(Player winner, GameOverReason reason) {
+        append(GAME_OVER, winner, -1, reason, NO_SQUARES);
+    }
+
+}
@@ -0,0 +1,108 @@
+package de.tbressler.quadratum.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static de.tbressler.quadratum.journal.GameJournal.EXTENSION;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads the records of a game journal for recovery. The segments are read in the order in which
+ * they were written.
+ *
+ * <p>If a journal crashed, the last records of a segment can be incomplete. A segment is read up
+ * to its first incomplete or invalid record, the remaining bytes of the segment are skipped.</p>
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class JournalReader {
+
+    /* The directory of the segments. */
+    private final Path directory;
+
+    /* The number of skipped bytes of the last read. */
+    private long skippedBytes = 0;
+
+
+    /**
+     * Creates the journal reader.
+     *
+     * @param directory The directory of the segments, must not be null.
+     */
+    public JournalReader(Path directory) {
+        this.directory = requireNonNull(directory);
+    }
+
+
+    /**
+     * Reads all records of the journal.
+     *
+     * @param consumer The consumer of the records, must not be null.
+     * @return The number of read records.
+     * @throws UncheckedIOException If the segments can't be read.
+     */
+    public long read(Consumer<JournalRecord> consumer) {
+        requireNonNull(consumer);
+        skippedBytes = 0;
+
+        long records = 0;
+        try {
+            for (Path segment : findSegments()) {
+                ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+                JournalRecord record;
+                while ((record = JournalRecord.decode(buffer)) != null) {
+                    consumer.accept(record);
+                    records++;
+                }
+                skippedBytes += buffer.remaining();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return records;
+    }
+
+    /* Returns the segments of the journal in the order in which they were written. */
+    private List<Path> findSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory))
+            return segments;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "segment-*" + EXTENSION)) {
+            for (Path segment : stream)
+                segments.add(segment);
+        }
+        // The segment numbers have a fixed width, so the names are in the order of the numbers:
+        Collections.sort(segments);
+        return segments;
+    }
+
+
+    /**
+     * Returns the number of bytes, which were skipped by the last read because of incomplete or
+     * invalid records.
+     *
+     * @return The number of skipped bytes.
+     */
+    public long getSkippedBytes() {
+        return skippedBytes;
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("directory", directory)
+                .toString();
+    }
+
+}
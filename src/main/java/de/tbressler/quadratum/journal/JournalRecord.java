@@ -0,0 +1,281 @@
+package de.tbressler.quadratum.journal;
+
+import de.tbressler.quadratum.logic.GameOverReason;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static de.tbressler.quadratum.utils.SquareTable.SQUARES;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A record of the game journal. A record is one event of a game. Players are stored by their slot
+ * at the game board (1 for player 1, 2 for player 2 or 0 for no player) and squares by their
+ * number in the square table.
+ *
+ * <p>The binary format of a record is: length of the body (int), CRC32 of the body (int) and the
+ * body with type (byte), game id (long), player slot (byte), field index (byte), game over reason
+ * (byte), number of squares (byte) and the square numbers (short each).</p>
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public final class JournalRecord {
+
+    /** The type of a record. */
+    public enum Type {
+        /** The game was started by the player. */
+        GAME_STARTED,
+        /** The game board was cleared. */
+        BOARD_CLEARED,
+        /** The player has placed a piece at the field index. */
+        PIECE_PLACED,
+        /** The piece of the player was removed from the field index. */
+        PIECE_REMOVED,
+        /** The player has completed the squares. */
+        SQUARES_FOUND,
+        /** The game is over, the player is the winner. */
+        GAME_OVER,
+        /** The game was restored, the player is active. */
+        GAME_RESTORED
+    }
+
+
+    /** The size of the header of a record (length and CRC32). */
+    static final int HEADER_SIZE = 8;
+
+    /** The size of the body of a record without squares. */
+    static final int BODY_SIZE = 13;
+
+    /** The maximum size of a record. */
+    static final int MAX_SIZE = HEADER_SIZE + BODY_SIZE + 2 * 255;
+
+
+    /* The type. */
+    private final Type type;
+
+    /* The id of the game. */
+    private final long gameId;
+
+    /* The player slot. */
+    private final int playerSlot;
+
+    /* The field index or -1. */
+    private final int index;
+
+    /* The game over reason or null. */
+    private final GameOverReason reason;
+
+    /* The numbers of the squares. */
+    private final int[] squares;
+
+
+    /**
+     * Creates a journal record.
+     *
+     * @param type The type, must not be null.
+     * @param gameId The id of the game.
+     * @param playerSlot The player slot, 0 (no player), 1 or 2.
+     * @param index The field index between 0..63 or -1, if the record has no field index.
+     * @param reason The game over reason or null.
+     * @param squares The numbers of the squares, must not be null. At most 255 squares.
+     */
+    public JournalRecord(Type type, long gameId, int playerSlot, int index, GameOverReason reason, int[] squares) {
+        if ((playerSlot < 0) || (playerSlot > 2))
+            throw new AssertionError("playerSlot must be 0, 1 or 2!");
+        if ((index < -1) || (index > 63))
+            throw new AssertionError("index must be between -1 and 63!");
+        if (requireNonNull(squares).length > 255)
+            throw new AssertionError("squares must contain at most 255 squares!");
+        for (int square : squares)
+            if ((square < 0) || (square >= SQUARES))
+                throw new AssertionError("squares must be between 0 and " + (SQUARES - 1) + "!");
+
+        this.type = requireNonNull(type);
+        this.gameId = gameId;
+        this.playerSlot = playerSlot;
+        this.index = index;
+        this.reason = reason;
+        this.squares = squares;
+    }
+
+
+    /**
+     * Returns the type.
+     *
+     * @return The type, never null.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the id of the game.
+     *
+     * @return The id of the game.
+     */
+    public long getGameId() {
+        return gameId;
+    }
+
+    /**
+     * Returns the player slot.
+     *
+     * @return The player slot, 0 (no player), 1 or 2.
+     */
+    public int getPlayerSlot() {
+        return playerSlot;
+    }
+
+    /**
+     * Returns the field index.
+     *
+     * @return The field index between 0..63 or -1.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the game over reason.
+     *
+     * @return The game over reason or null.
+     */
+    public GameOverReason getReason() {
+        return reason;
+    }
+
+    /**
+     * Returns the numbers of the squares in the square table.
+     *
+     * @return A copy of the square numbers, never null.
+     */
+    public int[] getSquares() {
+        return squares.clone();
+    }
+
+
+    /**
+     * Returns the size of the encoded record.
+     *
+     * @return The size in bytes.
+     */
+    int getEncodedSize() {
+        return HEADER_SIZE + BODY_SIZE + 2 * squares.length;
+    }
+
+    /**
+     * Encodes the record into the buffer.
+     *
+     * @param buffer The buffer, must have enough remaining bytes.
+     */
+    void encode(ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.position(start + HEADER_SIZE);
+
+        buffer.put((byte) type.ordinal());
+        buffer.putLong(gameId);
+        buffer.put((byte) playerSlot);
+        buffer.put((byte) index);
+        buffer.put((byte) ((reason == null) ? 0 : reason.ordinal() + 1));
+        buffer.put((byte) squares.length);
+        for (int square : squares)
+            buffer.putShort((short) square);
+
+        int end = buffer.position();
+        int length = end - start - HEADER_SIZE;
+        buffer.putInt(start, length);
+        buffer.putInt(start + 4, crcOf(buffer, start + HEADER_SIZE, length));
+    }
+
+    /**
+     * Decodes the next record from the buffer.
+     *
+     * @param buffer The buffer.
+     * @return The record or null, if the buffer doesn't contain a complete and valid record. In this
+     * case the position of the buffer is not changed.
+     */
+    static JournalRecord decode(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER_SIZE)
+            return null;
+
+        int length = buffer.getInt(start);
+        if ((length < BODY_SIZE) || (length > MAX_SIZE - HEADER_SIZE) || (buffer.remaining() < HEADER_SIZE + length))
+            return null;
+        if (buffer.getInt(start + 4) != crcOf(buffer, start + HEADER_SIZE, length))
+            return null;
+
+        ByteBuffer body = buffer.duplicate();
+        body.position(start + HEADER_SIZE);
+
+        int typeOrdinal = body.get();
+        long gameId = body.getLong();
+        int playerSlot = body.get();
+        int index = body.get();
+        int reasonOrdinal = body.get();
+        int count = body.get() & 0xFF;
+        if ((typeOrdinal < 0) || (typeOrdinal >= Type.values().length) || (length != BODY_SIZE + 2 * count) ||
+                (reasonOrdinal < 0) || (reasonOrdinal > GameOverReason.values().length))
+            return null;
+
+        int[] squares = new int[count];
+        for (int i = 0; i < count; i++)
+            squares[i] = body.getShort();
+
+        JournalRecord record;
+        try {
+            record = new JournalRecord(Type.values()[typeOrdinal], gameId, playerSlot, index,
+                    (reasonOrdinal == 0) ? null : GameOverReason.values()[reasonOrdinal - 1], squares);
+        } catch (AssertionError e) {
+            return null;
+        }
+        buffer.position(start + HEADER_SIZE + length);
+        return record;
+    }
+
+    /* Returns the CRC32 of the bytes in the buffer. */
+    private static int crcOf(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer bytes = buffer.duplicate();
+        bytes.limit(offset + length);
+        bytes.position(offset);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        JournalRecord that = (JournalRecord) o;
+        return (gameId == that.gameId) && (playerSlot == that.playerSlot) && (index == that.index) &&
+                (type == that.type) && (reason == that.reason) && Arrays.equals(squares, that.squares);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = type.hashCode();
+        result = 31 * result + (int) (gameId ^ (gameId >>> 32));
+        result = 31 * result + playerSlot;
+        result = 31 * result + index;
+        result = 31 * result + Arrays.hashCode(squares);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("type", type)
+                .add("gameId", gameId)
+                .add("playerSlot", playerSlot)
+                .add("index", index)
+                .add("reason", reason)
+                .add("squares", Arrays.toString(squares))
+                .toString();
+    }
+
+}
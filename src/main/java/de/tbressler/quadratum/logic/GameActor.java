@@ -0,0 +1,189 @@
+package de.tbressler.quadratum.logic;
+
+import de.tbressler.quadratum.logic.players.HumanPlayerLogic;
+import de.tbressler.quadratum.model.Player;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Runs a game logic as an actor with a single-consumer mailbox. All commands (moves, start of the
+ * game and queries) are enqueued in the mailbox and processed one after another by a worker of
+ * the given executor, so the game logic is never used by two threads at the same time and no locks
+ * are needed. The listeners of the game logic are notified on the worker, after all previous
+ * commands were processed.
+ *
+ * <p>The actor doesn't own a thread. It only uses a worker of the executor while the mailbox is
+ * not empty, so many actors can share one executor, e.g. a thread pool or an executor with
+ * virtual threads.</p>
+ *
+ * <p>The moves of the player logics are requested while the command is processed, so the moves of
+ * bots are also made on the worker. Human players must place their pieces via
+ * {@link #placePiece(Player, int)}. Asynchronous player logics, which make their moves on other
+ * threads, should not be used with an actor.</p>
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class GameActor implements Executor {
+
+    /** The maximum number of commands, which are processed before the worker is released. */
+    public static final int BATCH_SIZE = 64;
+
+
+    /* The game logic. */
+    private final GameLogic gameLogic;
+
+    /* The executor of the worker. */
+    private final Executor executor;
+
+    /* The mailbox. */
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+
+    /* Is true while the worker is scheduled or running. */
+    private final AtomicBoolean isScheduled = new AtomicBoolean(false);
+
+    /* The task of the worker. */
+    private final Runnable worker = this::processMailbox;
+
+
+    /**
+     * Creates the game actor. The game logic must not have an executor.
+     *
+     * @param gameLogic The game logic, must not be null. The game logic must only be used by the
+     *                  actor afterwards.
+     * @param executor The executor, which runs the worker of the mailbox. Must not be null.
+     */
+    public GameActor(GameLogic gameLogic, Executor executor) {
+        this.gameLogic = requireNonNull(gameLogic);
+        this.executor = requireNonNull(executor);
+    }
+
+
+    /**
+     * Enqueues a command in the mailbox. The command is executed by the worker of the actor.
+     *
+     * @param command The command, must not be null.
+     */
+    @Override
+    public void execute(Runnable command) {
+        mailbox.offer(requireNonNull(command));
+        scheduleWorker();
+    }
+
+    /* Schedules the worker, if it is not already scheduled. */
+    private void scheduleWorker() {
+        if (isScheduled.compareAndSet(false, true))
+            executor.execute(worker);
+    }
+
+    /* Processes the commands in the mailbox. */
+    private void processMailbox() {
+        try {
+            Runnable command;
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                command = mailbox.poll();
+                if (command == null)
+                    break;
+                command.run();
+            }
+        } finally {
+            isScheduled.set(false);
+
+            // Commands can be enqueued after the last poll, but before the flag was reset:
+            if (!mailbox.isEmpty())
+                scheduleWorker();
+        }
+    }
+
+
+    /**
+     * Enqueues a command, which uses the game logic, e.g. a query of the score.
+     *
+     * @param command The command, must not be null.
+     * @param <T> The type of the result.
+     * @return A future with the result of the command, never null. If the command throws an
+     * exception, the future is completed exceptionally.
+     */
+    public <T> CompletableFuture<T> submit(Function<GameLogic, T> command) {
+        requireNonNull(command);
+        CompletableFuture<T> future = new CompletableFuture<>();
+        execute(() -> {
+            try {
+                future.complete(command.apply(gameLogic));
+            } catch (RuntimeException | Error e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Enqueues the start of the game.
+     *
+     * @param player The player, who can do the first turn. Must not be null.
+     * @return A future, which is completed when the game was started.
+     */
+    public CompletableFuture<Void> startGame(Player player) {
+        requireNonNull(player);
+        return submit(logic -> {
+            logic.startGame(player);
+            return null;
+        });
+    }
+
+    /**
+     * Enqueues a move of a human player. The move is made by the active player logic, if it is a
+     * {@link HumanPlayerLogic} of the given player.
+     *
+     * @param player The player, must not be null.
+     * @param index The field index, between 0..63.
+     * @return A future, which is completed with true if the piece was placed successfully or with
+     * false if the player is not active or the field is not empty.
+     */
+    public CompletableFuture<Boolean> placePiece(Player player, int index) {
+        requireNonNull(player);
+        return submit(logic -> {
+            IPlayerLogic playerLogic = logic.getActivePlayerLogic();
+            if (!(playerLogic instanceof HumanPlayerLogic) || !player.equals(playerLogic.getPlayer()))
+                return false;
+            return ((HumanPlayerLogic) playerLogic).placePiece(index);
+        });
+    }
+
+    /**
+     * Enqueues a takeback of the last move.
+     *
+     * @return A future, which is completed with true if the move was taken back.
+     */
+    public CompletableFuture<Boolean> takeback() {
+        return submit(GameLogic::takeback);
+    }
+
+
+    /**
+     * Returns the number of enqueued commands.
+     *
+     * @return The number of commands.
+     */
+    public int getMailboxSize() {
+        return mailbox.size();
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("gameLogic", gameLogic)
+                .add("mailboxSize", mailbox.size())
+                .toString();
+    }
+
+}
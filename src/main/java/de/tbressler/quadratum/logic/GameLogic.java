@@ -1,14 +1,28 @@
 package de.tbressler.quadratum.logic;
 
+import de.tbressler.quadratum.logic.players.BotPlayerLogic;
 import de.tbressler.quadratum.model.GameBoard;
 import de.tbressler.quadratum.model.Player;
 import de.tbressler.quadratum.model.Square;
+import de.tbressler.quadratum.utils.HashedWheelTimer;
 
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-
-import static com.google.common.collect.Range.closed;
+import java.util.concurrent.Executor;
+
+import static de.tbressler.quadratum.logic.GameOverReason.ADJUDICATION;
+import static de.tbressler.quadratum.logic.GameOverReason.REGULAR;
+import static de.tbressler.quadratum.logic.GameOverReason.TIMEOUT;
+import static de.tbressler.quadratum.logic.players.BotPlayerLogic.Strategy.LONG_TERM;
+import static de.tbressler.quadratum.utils.GameBoardUtils.assertIndex;
+import static de.tbressler.quadratum.utils.SquareTable.*;
+import static java.util.Arrays.fill;
+import static java.util.Arrays.sort;
+import static java.util.Collections.emptySet;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -19,6 +33,15 @@ import static java.util.Objects.requireNonNull;
  */
 public class GameLogic {
 
+    /* The version of the snapshot format. */
+    private static final byte SNAPSHOT_VERSION = 1;
+
+    /* The flag of a started game in the snapshot. */
+    private static final int FLAG_STARTED = 1;
+
+    /* The flag of a game, which is over, in the snapshot. */
+    private static final int FLAG_GAME_OVER = 2;
+
     /*The game board. */
     private final GameBoard gameBoard;
 
@@ -40,42 +63,124 @@ public class GameLogic {
     /* Is true if the game was started, otherwise false. */
     private boolean isStarted = false;
 
+    /* Is true if the game is over, otherwise false. */
+    private boolean isGameOver = false;
+
+    /* The winner or null, if the game is not over or a draw. */
+    private Player winner = null;
+
+    /* The reason why the game is over or null, if the game is not over. */
+    private GameOverReason gameOverReason = null;
+
+    /* Is true while moves are replayed. During the replay no events are fired and no moves are requested. */
+    private boolean isReplaying = false;
+
     /* The listeners. */
     private List<IGameLogicListener> listeners = new ArrayList<>();
 
+    /* The move outcome listeners. */
+    private List<IMoveOutcomeListener> moveOutcomeListeners = new ArrayList<>();
+
+    /* The field indexes of the moves of the current game. */
+    private final int[] moves = new int[64];
+
+    /* The new squares of the moves of the current game. */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final Set<Square>[] squaresOfMoves = new Set[64];
+
+    /* The number of moves of the current game. */
+    private int moveCount = 0;
+
+    /* The outcomes of the moves, indexed by move. The outcomes are reused by the next games. */
+    private final MoveOutcome[] moveOutcomes = new MoveOutcome[64];
+
+    /* The outcome of the current move. */
+    private MoveOutcome moveOutcome = null;
+
     /* The squares. */
     private SquareCollector squareCollector = new SquareCollector();
 
     /* The game over verifier. */
-    private GameOverVerifier gameOverVerifier = new GameOverVerifier(150, 15);
+    private GameOverVerifier gameOverVerifier;
 
 
     /* Callback for the player logic. */
     private ILogicCallback playerLogicCallback = new ILogicCallback() {
         @Override
-        public boolean makeMove(int index, Player player) {
+        public MoveOutcome makeMove(int index, Player player) {
             if (!isStarted)
                 throw new AssertionError("Game is not started!");
             if (!player.equals(activePlayerLogic.getPlayer()))
                 throw new AssertionError("The player is not active!");
-            if (!closed(0, 63).contains(index))
-                throw new AssertionError("Index must be between 0 and 63!");
+            assertIndex(index, "Index must be between 0 and 63!");
 
             if (!gameBoard.isFieldEmpty(index))
-                return false;
+                return null;
+
+            stopMoveClock();
+
+            int score = squareCollector.getScore(player);
 
             gameBoard.placePiece(index, player);
 
-            checkGameBoardForSquares(player);
-            if (checkIfGameIsOver())
-                return true;
+            Set<Square> foundSquares = checkGameBoardForSquares(player, index);
+
+            // Every move has its own outcome, so the outcome isn't changed by the moves, which are
+            // made by synchronous player logics while the next move is requested:
+            MoveOutcome outcome = outcomeOf(moveCount);
+            moveOutcome = outcome;
+
+            moves[moveCount] = index;
+            squaresOfMoves[moveCount] = foundSquares;
+            moveCount++;
+
+            outcome.setMove(index, player, foundSquares, squareCollector.getScore(player) - score);
 
-            switchActivePlayer();
+            if (!checkIfGameIsOver()) {
+                switchActivePlayer();
+                outcome.setNextPlayer(activePlayerLogic.getPlayer());
+            }
 
-            return true;
+            fireOnMoveMade(outcome);
+            requestPendingMove();
+
+            return outcome;
         }
     };
 
+    /* The executor for the move requests or null, if moves are requested on the calling thread. */
+    private volatile Executor executor = null;
+
+    /* Is true if a move must be requested at the active player logic. */
+    private volatile boolean isMoveRequestPending = false;
+
+    /* Is true while a move is requested at a player logic on the calling thread. */
+    private volatile boolean isRequestingMove = false;
+
+    /* The number of the last turn, which was scheduled at the executor. */
+    private int scheduledTurn = 0;
+
+    /* The number of the last turn, which was requested by the executor. */
+    private int requestedTurn = 0;
+
+    /* The task, which requests the move of the scheduled turn. */
+    private final Runnable turnTask = this::requestScheduledMove;
+
+    /* The move clock or null, if the time of the moves is not limited. */
+    private MoveClock moveClock = null;
+
+    /* The executor for the timeouts of the move clock. */
+    private Executor clockExecutor = null;
+
+    /* The timeout of the current move or null. */
+    private HashedWheelTimer.Timeout moveTimeout = null;
+
+    /* The number of started move clocks, which is used to ignore outdated timeouts. */
+    private int clockTurn = 0;
+
+    /* The bots, which make the moves of players who exceeded the time, indexed by player slot. */
+    private final IPlayerLogic[] botPlayerLogics = new IPlayerLogic[2];
+
 
     /**
      * Creates the game logic.
@@ -93,6 +198,15 @@ public class GameLogic {
         this.player2 = requireNonNull(playerLogic2.getPlayer());
 
         checkPlayers(gameBoard, player1, player2);
+
+        this.gameOverVerifier = new IncrementalGameOverVerifier(150, 15, gameBoard);
+    }
+
+    /* Returns the reusable outcome of the given move. */
+    private MoveOutcome outcomeOf(int move) {
+        if (moveOutcomes[move] == null)
+            moveOutcomes[move] = new MoveOutcome();
+        return moveOutcomes[move];
     }
 
     /* Checks if players of player logic and game board are corrent. */
@@ -104,6 +218,21 @@ public class GameLogic {
     }
 
 
+    /**
+     * Sets the executor, which is used to request the moves at the player logics. Every turn is
+     * executed as a separate task, so bot games don't block the calling thread and many games can
+     * share one executor (e.g. a thread pool or virtual threads).
+     *
+     * <p>If no executor is set, the moves are requested on the calling thread. In this case moves
+     * of synchronous player logics are requested in a loop instead of recursively.</p>
+     *
+     * @param executor The executor or null, if moves should be requested on the calling thread.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+
     /**
      * Set the square collector. This method should only be used for testing purposes.
      *
@@ -122,18 +251,98 @@ public class GameLogic {
         this.gameOverVerifier = requireNonNull(gameOverVerifier);
     }
 
-    /* Checks the game board for new squares. */
-    private void checkGameBoardForSquares(Player player) {
-        Set<Square> foundSquares = squareCollector.detect(gameBoard, player);
-        if (foundSquares.isEmpty())
+    /**
+     * Sets the move clock, which limits the time of every move. If the time of a move has expired,
+     * the pending move is cancelled at the player logic and the policy of the clock is applied: the
+     * active player forfeits the game ({@link GameOverReason#TIMEOUT}) or a bot makes the move.
+     *
+     * @param moveClock The move clock or null, if the time of the moves should not be limited.
+     * @param executor The executor, which handles the timeouts on the thread of the game, e.g. a
+     *                 {@link GameActor}. Must not be null if a move clock is set.
+     */
+    public void setMoveClock(MoveClock moveClock, Executor executor) {
+        if ((moveClock != null) && (executor == null))
+            throw new NullPointerException("executor must not be null!");
+        stopMoveClock();
+        this.moveClock = moveClock;
+        this.clockExecutor = executor;
+    }
+
+    /* Starts the move clock for the active player. */
+    private void startMoveClock() {
+        if (moveClock == null)
+            return;
+        stopMoveClock();
+        int turn = ++clockTurn;
+        moveTimeout = moveClock.start(() -> clockExecutor.execute(() -> onMoveTimeout(turn)));
+    }
+
+    /* Stops the move clock. */
+    private void stopMoveClock() {
+        if (moveTimeout == null)
+            return;
+        moveTimeout.cancel();
+        moveTimeout = null;
+    }
+
+    /* Applies the timeout policy, if the time of the move has expired. */
+    private void onMoveTimeout(int turn) {
+        // Skip if the move was made in the meantime:
+        if ((turn != clockTurn) || (moveTimeout == null))
             return;
-        fireOnNewSquaresFound(player, foundSquares);
+        moveTimeout = null;
+
+        activePlayerLogic.cancelMove();
+        Player player = activePlayerLogic.getPlayer();
+
+        switch (moveClock.getPolicy()) {
+            case FORFEIT:
+                isGameOver = true;
+                winner = player.equals(player1) ? player2 : player1;
+                gameOverReason = TIMEOUT;
+                fireOnGameOver(winner, TIMEOUT);
+                break;
+            case BOT_MOVE:
+                getBotPlayerLogic(player).requestMove(gameBoard, playerLogicCallback);
+                break;
+            default:
+                throw new IllegalStateException("Unknown policy!");
+        }
+    }
+
+    /* Returns the bot of the given player. */
+    private IPlayerLogic getBotPlayerLogic(Player player) {
+        int slot = toSlot(player) - 1;
+        if (botPlayerLogics[slot] == null)
+            botPlayerLogics[slot] = new BotPlayerLogic(player, LONG_TERM);
+        return botPlayerLogics[slot];
+    }
+
+    /**
+     * Enables or disables the adjudication of games. If adjudication is enabled, the game is over as
+     * soon as the winner is certain. In this case the listeners are notified with the reason
+     * {@link GameOverReason#ADJUDICATION}.
+     *
+     * @param adjudication True if games should be adjudicated, false by default.
+     */
+    public void setAdjudication(boolean adjudication) {
+        gameOverVerifier.setAdjudication(adjudication);
+    }
+
+    /* Checks the game board for new squares and returns the new squares. */
+    private Set<Square> checkGameBoardForSquares(Player player, int index) {
+        Set<Square> foundSquares = squareCollector.detect(gameBoard, player, index);
+        if (!foundSquares.isEmpty())
+            fireOnNewSquaresFound(player, foundSquares);
+        return foundSquares;
     }
 
     /* Notifies listener about new squares. */
     private void fireOnNewSquaresFound(Player player, Set<Square> foundSquares) {
-        for(IGameLogicListener listener : listeners)
-            listener.onNewSquaresFound(player, foundSquares);
+        if (isReplaying)
+            return;
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onNewSquaresFound(player, foundSquares);
     }
 
 
@@ -143,23 +352,44 @@ public class GameLogic {
             case NOT_OVER:
                 return false;
             case PLAYER1_WON:
-                fireOnGameOver(player1);
-                return true;
+                return gameOver(player1, REGULAR);
             case PLAYER2_WON:
-                fireOnGameOver(player2);
-                return true;
+                return gameOver(player2, REGULAR);
             case GAME_DRAW:
-                fireOnGameOver(null);
-                return true;
+                return gameOver(null, REGULAR);
+            case PLAYER1_ADJUDICATED:
+                return gameOver(player1, ADJUDICATION);
+            case PLAYER2_ADJUDICATED:
+                return gameOver(player2, ADJUDICATION);
             default:
                 throw new IllegalStateException("Unknown state!");
         }
     }
 
+    /* Ends the game with the given winner and reason. Always returns true. */
+    private boolean gameOver(Player winner, GameOverReason reason) {
+        this.isGameOver = true;
+        this.winner = winner;
+        this.gameOverReason = reason;
+        moveOutcome.setGameOver(winner, reason);
+        fireOnGameOver(winner, reason);
+        return true;
+    }
+
     /* Notifies listeners that game is over and given player won. */
-    private void fireOnGameOver(Player player) {
-        for(IGameLogicListener listener : listeners)
-            listener.onGameOver(player);
+    private void fireOnGameOver(Player player, GameOverReason reason) {
+        if (isReplaying)
+            return;
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onGameOver(player, reason);
+    }
+
+    /* Notifies the move outcome listeners about the outcome of a move. */
+    private void fireOnMoveMade(MoveOutcome outcome) {
+        if (isReplaying)
+            return;
+        for (int i = 0; i < moveOutcomeListeners.size(); i++)
+            moveOutcomeListeners.get(i).onMoveMade(outcome);
     }
 
     /**
@@ -170,17 +400,375 @@ public class GameLogic {
     public void startGame(Player player) {
         checkStartGamePrecondition(player);
 
+        resetGame();
+
+        fireOnGameStarted(player);
+
+        if (player.equals(player1))
+            setActivePlayerLogicTo(playerLogic1);
+        else
+            setActivePlayerLogicTo(playerLogic2);
+
+        requestPendingMove();
+    }
+
+    /* Cancels the moves of both player logics, so neither a pending move nor a premove is made in
+       the changed position. */
+    private void cancelMoves() {
+        playerLogic1.cancelMove();
+        playerLogic2.cancelMove();
+    }
+
+    /* Cancels the pending move, clears the game board and resets the state of the game. */
+    private void resetGame() {
+        // A move of the last game, which is computed asynchronously, must not be made in the new game:
+        if (activePlayerLogic != null)
+            cancelMoves();
+
+        stopMoveClock();
         gameBoard.clear();
         squareCollector.reset();
 
         isStarted = true;
+        isGameOver = false;
+        winner = null;
+        gameOverReason = null;
 
-        fireOnGameStarted(player);
+        moveCount = 0;
+        fill(squaresOfMoves, null);
+    }
+
+    /**
+     * Returns a compact binary snapshot of the game state. The snapshot contains the moves, the
+     * squares of the moves, the active player and the result of the game. Players are stored by
+     * their slot at the game board (player 1 or player 2), so the snapshot can be restored by
+     * another game logic with other player objects, e.g. in another JVM.
+     *
+     * @return The snapshot, never null.
+     */
+    public byte[] snapshot() {
+        int size = 6 + 2 * moveCount;
+        for (int i = 0; i < moveCount; i++)
+            size += 2 * squaresOfMoves[i].size();
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(SNAPSHOT_VERSION);
+        buffer.put((byte) ((isStarted ? FLAG_STARTED : 0) | (isGameOver ? FLAG_GAME_OVER : 0)));
+        buffer.put((byte) ((activePlayerLogic != null) ? toSlot(activePlayerLogic.getPlayer()) : 0));
+        buffer.put((byte) ((winner != null) ? toSlot(winner) : 0));
+        buffer.put((byte) ((gameOverReason != null) ? gameOverReason.ordinal() + 1 : 0));
+        buffer.put((byte) moveCount);
+
+        for (int i = 0; i < moveCount; i++) {
+            int slot = toSlot(gameBoard.getPiece(moves[i]));
+            buffer.put((byte) (moves[i] | ((slot - 1) << 6)));
+            buffer.put((byte) squaresOfMoves[i].size());
+            for (int square : toSortedSquareNumbers(squaresOfMoves[i]))
+                buffer.putShort((short) square);
+        }
+
+        return buffer.array();
+    }
+
+    /* Returns the sorted numbers of the squares in the square table. */
+    private static int[] toSortedSquareNumbers(Set<Square> squares) {
+        int[] numbers = new int[squares.size()];
+        int n = 0;
+        for (Square square : squares)
+            numbers[n++] = indexOf(square.getSortedPieces());
+        sort(numbers);
+        return numbers;
+    }
+
+    /* Returns the slot of the player at the game board (1 or 2). */
+    private int toSlot(Player player) {
+        return player.equals(player1) ? 1 : 2;
+    }
+
+    /* Returns the player of the slot at the game board. */
+    private Player fromSlot(int slot) {
+        switch (slot) {
+            case 1:
+                return player1;
+            case 2:
+                return player2;
+            default:
+                throw new AssertionError("Invalid player slot in snapshot!");
+        }
+    }
+
+    /**
+     * Restores the game state from a snapshot, which was created by {@link #snapshot()}. The
+     * squares are restored from the snapshot without a new detection. The listeners of the game
+     * logic are notified once by {@link IGameLogicListener#onGameRestored(Player)}. If the game is
+     * not over, the next move is requested at the active player logic.
+     *
+     * <p>The snapshot is validated completely before the game is changed, so the game is not
+     * changed by an invalid snapshot.</p>
+     *
+     * @param snapshot The snapshot, must not be null.
+     */
+    public void restore(byte[] snapshot) {
+        restoreState(snapshot);
+
+        fireOnGameRestored(isMoveRequestPending ? activePlayerLogic.getPlayer() : null);
+
+        requestPendingMove();
+    }
+
+    /* Validates the snapshot and restores the game state without notifying the listeners of the
+       game logic. */
+    private void restoreState(byte[] snapshot) {
+        ByteBuffer buffer = ByteBuffer.wrap(requireNonNull(snapshot));
+
+        boolean started;
+        boolean gameOver;
+        Player activePlayer;
+        Player restoredWinner;
+        GameOverReason restoredReason;
+        int[] restoredMoves;
+        List<Set<Square>> restoredSquares;
+        Player[] pieces = new Player[64];
+
+        try {
+            if (buffer.get() != SNAPSHOT_VERSION)
+                throw new AssertionError("Unsupported snapshot version!");
+
+            int flags = buffer.get();
+            started = (flags & FLAG_STARTED) != 0;
+            gameOver = (flags & FLAG_GAME_OVER) != 0;
+
+            int activeSlot = buffer.get();
+            activePlayer = (activeSlot == 0) ? null : fromSlot(activeSlot);
+            if (started && !gameOver && (activePlayer == null))
+                throw new AssertionError("Snapshot of a running game has no active player!");
+
+            int winnerSlot = buffer.get();
+            int reason = buffer.get();
+            restoredWinner = (gameOver && (winnerSlot != 0)) ? fromSlot(winnerSlot) : null;
+            restoredReason = gameOver ? toGameOverReason(reason) : null;
+
+            int count = buffer.get();
+            if ((count < 0) || (count > 64))
+                throw new AssertionError("Invalid number of moves in snapshot!");
+
+            restoredMoves = new int[count];
+            restoredSquares = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int move = buffer.get() & 0xFF;
+                Player player = fromSlot((move >> 6) + 1);
+                int index = move & 63;
+                if (pieces[index] != null)
+                    throw new AssertionError("Field of move " + (i + 1) + " is not empty in snapshot!");
+                pieces[index] = player;
+                restoredMoves[i] = index;
+                restoredSquares.add(restoreSquares(buffer, pieces, player, index));
+            }
+
+            if (buffer.hasRemaining())
+                throw new AssertionError("Snapshot is too long!");
+
+        } catch (BufferUnderflowException e) {
+            throw new AssertionError("Snapshot is truncated!", e);
+        }
+
+        resetGame();
+
+        for (int i = 0; i < restoredMoves.length; i++) {
+            gameBoard.placePiece(restoredMoves[i], pieces[restoredMoves[i]]);
+            moves[i] = restoredMoves[i];
+            squaresOfMoves[i] = restoredSquares.get(i);
+            squareCollector.add(squaresOfMoves[i]);
+        }
+        moveCount = restoredMoves.length;
+
+        isStarted = started;
+        isGameOver = gameOver;
+        winner = restoredWinner;
+        gameOverReason = restoredReason;
+        activePlayerLogic = (activePlayer == null) ? null : logicOf(activePlayer);
+
+        isMoveRequestPending = isStarted && !isGameOver;
+    }
+
+    /* Returns the reason of the game over in the snapshot. */
+    private static GameOverReason toGameOverReason(int reason) {
+        if ((reason < 1) || (reason > GameOverReason.values().length))
+            throw new AssertionError("Invalid game over reason in snapshot!");
+        return GameOverReason.values()[reason - 1];
+    }
+
+    /* Restores the squares of a move from the snapshot and checks them against the pieces. Every
+       square must contain the field of the move, which completed it. */
+    private static Set<Square> restoreSquares(ByteBuffer buffer, Player[] pieces, Player player, int index) {
+        int count = buffer.get();
+        if (count < 0)
+            throw new AssertionError("Invalid number of squares in snapshot!");
+        if (count == 0)
+            return emptySet();
+
+        Set<Square> squares = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            int square = buffer.getShort();
+            if ((square < 0) || (square >= SQUARES))
+                throw new AssertionError("Invalid square in snapshot!");
+            boolean containsMove = false;
+            for (int e = 0; e < 4; e++) {
+                int edge = getEdge(square, e);
+                if (pieces[edge] != player)
+                    throw new AssertionError("Square doesn't match the moves of the snapshot!");
+                containsMove |= (edge == index);
+            }
+            if (!containsMove)
+                throw new AssertionError("Square doesn't contain the field of its move in snapshot!");
+            if (!squares.add(new Square(getEdges(square), player)))
+                throw new AssertionError("Square is repeated in snapshot!");
+        }
+        return squares;
+    }
+
+    /* Returns the player logic of the given player. */
+    private IPlayerLogic logicOf(Player player) {
+        return player.equals(player1) ? playerLogic1 : playerLogic2;
+    }
+
+    /**
+     * Takes back the last move of the game. The piece is removed from the game board, the squares
+     * which were completed by the move are removed and the player of the move becomes the active
+     * player again. If the game was over, the game continues. The effort only depends on the number
+     * of squares, which were completed by the move.
+     *
+     * <p>The pending move request at the active player logic is cancelled and a new move is
+     * requested at the player logic of the player, whose move was taken back.</p>
+     *
+     * @return True if the move was taken back or false, if the game has no moves.
+     */
+    public boolean takeback() {
+        if (!isStarted || (moveCount == 0))
+            return false;
+
+        stopMoveClock();
+        moveCount--;
+        int index = moves[moveCount];
+        Set<Square> removedSquares = squaresOfMoves[moveCount];
+        squaresOfMoves[moveCount] = null;
+
+        Player player = gameBoard.getPiece(index);
+        gameBoard.removePiece(index);
+        squareCollector.remove(removedSquares);
+
+        isGameOver = false;
+        winner = null;
+        gameOverReason = null;
+
+        cancelMoves();
+
+        fireOnMoveTakenBack(player, index, removedSquares);
 
         if (player.equals(player1))
             setActivePlayerLogicTo(playerLogic1);
         else
             setActivePlayerLogicTo(playerLogic2);
+
+        requestPendingMove();
+
+        return true;
+    }
+
+    /* Notifies the listeners that a move was taken back. */
+    private void fireOnMoveTakenBack(Player player, int index, Set<Square> removedSquares) {
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onMoveTakenBack(player, index, removedSquares);
+    }
+
+    /**
+     * Returns the number of moves of the current game.
+     *
+     * @return The number of moves, between 0..64.
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Returns the field index of a move of the current game.
+     *
+     * @param move The number of the move, between 0..getMoveCount()-1.
+     * @return The field index of the move, between 0..63.
+     */
+    public int getMove(int move) {
+        if ((move < 0) || (move >= moveCount))
+            throw new AssertionError("move must be between 0 and getMoveCount()-1!");
+        return moves[move];
+    }
+
+    /**
+     * Replays the given moves as a new game, e.g. in order to restore or re-score an archived game.
+     * The moves are made alternately by both players, beginning with the given player. All rules
+     * are checked, but the listeners of the game logic are not notified about the single moves and
+     * no moves are requested at the player logics. The listeners of the game board are notified
+     * about every placed piece.
+     *
+     * <p>After all moves were made, the listeners are notified once by
+     * {@link IGameLogicListener#onGameRestored(Player)}. If the game is not over, the next move is
+     * requested at the active player logic.</p>
+     *
+     * <p>The fields of the moves are validated before the game is changed. If the game is over
+     * before the last move, the previous game is restored and an exception is thrown.</p>
+     *
+     * @param startingPlayer The player, who did the first move. Must not be null.
+     * @param moves The field indexes of the moves, must not be null. Can be empty.
+     */
+    public void replay(Player startingPlayer, int[] moves) {
+        checkStartGamePrecondition(startingPlayer);
+        requireNonNull(moves);
+        if (moves.length > 64)
+            throw new AssertionError("Number of moves must be <= 64!");
+        checkReplayedFields(moves);
+
+        byte[] previousGame = snapshot();
+        resetGame();
+
+        int movesMade = 0;
+        isReplaying = true;
+        try {
+            activePlayerLogic = startingPlayer.equals(player1) ? playerLogic1 : playerLogic2;
+            while ((movesMade < moves.length) && !isGameOver)
+                playerLogicCallback.makeMove(moves[movesMade++], activePlayerLogic.getPlayer());
+            if (movesMade < moves.length)
+                restoreState(previousGame);
+        } finally {
+            isReplaying = false;
+        }
+
+        if (movesMade < moves.length) {
+            // The move of the previous game is requested again:
+            requestPendingMove();
+            throw new AssertionError("The game is over after move " + movesMade + "!");
+        }
+
+        isMoveRequestPending = !isGameOver;
+
+        fireOnGameRestored(isGameOver ? null : activePlayerLogic.getPlayer());
+
+        requestPendingMove();
+    }
+
+    /* Checks that the fields of the replayed moves are valid and not used twice. */
+    private static void checkReplayedFields(int[] moves) {
+        long usedFields = 0L;
+        for (int i = 0; i < moves.length; i++) {
+            assertIndex(moves[i], "Index of move " + (i + 1) + " must be between 0 and 63!");
+            if ((usedFields & (1L << moves[i])) != 0)
+                throw new AssertionError("The field of move " + (i + 1) + " is not empty!");
+            usedFields |= 1L << moves[i];
+        }
+    }
+
+    /* Notifies the listeners that the game was restored. */
+    private void fireOnGameRestored(Player activePlayer) {
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onGameRestored(activePlayer);
     }
 
     /* Checks if the active player is valid. */
@@ -192,8 +780,8 @@ public class GameLogic {
 
     /* Notifies the game board listeners that the game has started. */
     private void fireOnGameStarted(Player activePlayer) {
-        for (IGameLogicListener listener : listeners)
-            listener.onGameStarted(activePlayer);
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onGameStarted(activePlayer);
     }
 
     /* Switches the active player. */
@@ -209,14 +797,57 @@ public class GameLogic {
         this.activePlayerLogic = playerLogic;
         fireOnActivePlayerChanged(playerLogic.getPlayer());
 
-        // Request move at the player logic.
-        playerLogic.requestMove(gameBoard, playerLogicCallback);
+        // The move is requested after the current move is finished.
+        isMoveRequestPending = true;
+    }
+
+    /* Requests the pending move at the active player logic. */
+    private void requestPendingMove() {
+        if (isReplaying)
+            return;
+
+        if (executor != null) {
+            if (!isMoveRequestPending)
+                return;
+            isMoveRequestPending = false;
+            scheduledTurn++;
+            executor.execute(turnTask);
+            return;
+        }
+
+        // If a player logic makes its move while the move is requested, the next move is requested
+        // by the loop below, so the stack doesn't grow with every move:
+        if (isRequestingMove)
+            return;
+
+        isRequestingMove = true;
+        try {
+            while (isMoveRequestPending) {
+                isMoveRequestPending = false;
+                startMoveClock();
+                activePlayerLogic.requestMove(gameBoard, playerLogicCallback);
+            }
+        } finally {
+            isRequestingMove = false;
+        }
+    }
+
+    /* Requests the move of the scheduled turn at the active player logic (executed by the executor). */
+    private void requestScheduledMove() {
+        // Skip if the turn was already requested, e.g. the game was restarted.
+        if (requestedTurn == scheduledTurn)
+            return;
+        requestedTurn = scheduledTurn;
+        startMoveClock();
+        activePlayerLogic.requestMove(gameBoard, playerLogicCallback);
     }
 
     /* Notifies all listeners that the active player has changed. */
     private void fireOnActivePlayerChanged(Player player) {
-        for (IGameLogicListener listener: listeners)
-            listener.onActivePlayerChanged(player);
+        if (isReplaying)
+            return;
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onActivePlayerChanged(player);
     }
 
 
@@ -251,6 +882,34 @@ public class GameLogic {
     }
 
 
+    /**
+     * Returns true if the game is over, otherwise the method returns false.
+     *
+     * @return true if the game is over, otherwise false.
+     */
+    public boolean isGameOver() {
+        return isGameOver;
+    }
+
+    /**
+     * Returns the winner of the game.
+     *
+     * @return The winner or null, if the game is not over or the game is a draw.
+     */
+    public Player getWinner() {
+        return winner;
+    }
+
+    /**
+     * Returns the reason why the game is over.
+     *
+     * @return The reason or null, if the game is not over.
+     */
+    public GameOverReason getGameOverReason() {
+        return gameOverReason;
+    }
+
+
     /**
      * Returns the game board.
      *
@@ -310,4 +969,23 @@ public class GameLogic {
         listeners.remove(requireNonNull(listener));
     }
 
+    /**
+     * Adds a listener for the outcomes of moves to the game logic. The listener is notified once
+     * per move.
+     *
+     * @param listener the listener, must not be null.
+     */
+    public void addMoveOutcomeListener(IMoveOutcomeListener listener) {
+        moveOutcomeListeners.add(requireNonNull(listener));
+    }
+
+    /**
+     * Removes a listener for the outcomes of moves from the game logic.
+     *
+     * @param listener the listener, must not be null.
+     */
+    public void removeMoveOutcomeListener(IMoveOutcomeListener listener) {
+        moveOutcomeListeners.remove(requireNonNull(listener));
+    }
+
 }
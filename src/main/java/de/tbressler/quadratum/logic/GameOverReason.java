@@ -0,0 +1,20 @@
+package de.tbressler.quadratum.logic;
+
+/**
+ * The reason why a game is over.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public enum GameOverReason {
+
+    /** The game is over by the rules, e.g. a player reached the minimum score with the minimum lead. */
+    REGULAR,
+
+    /** The game was adjudicated, because the outcome of the game can no longer change. */
+    ADJUDICATION,
+
+    /** The active player has exceeded the time of the move clock and forfeited the game. */
+    TIMEOUT
+
+}
@@ -5,6 +5,8 @@ import de.tbressler.quadratum.model.Player;
 
 import static de.tbressler.quadratum.logic.GameOverVerifier.GameOverState.*;
 import static de.tbressler.quadratum.logic.GameOverVerifier.PossibleMoves.*;
+import static de.tbressler.quadratum.utils.GameBoardUtils.toBitMask;
+import static de.tbressler.quadratum.utils.SquareTable.*;
 import static de.tbressler.quadratum.utils.SquareUtils.getPossiblePieces;
 import static java.util.Objects.requireNonNull;
 
@@ -25,7 +27,11 @@ public class GameOverVerifier {
         /** The game is over and player 2 won. */
         PLAYER2_WON,
         /** The game is over and the game is a draw. */
-        GAME_DRAW
+        GAME_DRAW,
+        /** The game is adjudicated, because player 1 will win the game for sure. */
+        PLAYER1_ADJUDICATED,
+        /** The game is adjudicated, because player 2 will win the game for sure. */
+        PLAYER2_ADJUDICATED
     }
 
     /** Possible moves. */
@@ -46,6 +52,12 @@ public class GameOverVerifier {
     /* The minimum difference between the player scores to win the game. */
     private final int minDifference;
 
+    /* The optional position cache or null. */
+    private PositionCache positionCache = null;
+
+    /* True if games should be adjudicated. */
+    private boolean adjudication = false;
+
 
     /**
      * Creates the game over verifier.
@@ -60,6 +72,29 @@ public class GameOverVerifier {
         this.minDifference = minDifference;
     }
 
+
+    /**
+     * Sets the position cache, which is used to look up if more squares are possible on known
+     * positions. The cache is only used, if the game board is scanned: the
+     * {@link IncrementalGameOverVerifier} of a game only uses it for other game boards.
+     *
+     * @param positionCache The position cache or null, if no cache should be used.
+     */
+    public void setPositionCache(PositionCache positionCache) {
+        this.positionCache = positionCache;
+    }
+
+    /**
+     * Enables or disables the adjudication of games. If adjudication is enabled, the game is over as
+     * soon as the outcome of the game can no longer change, i.e. if the score of a player is higher
+     * than the score that the opponent can reach with all squares that are still possible for him.
+     *
+     * @param adjudication True if games should be adjudicated.
+     */
+    public void setAdjudication(boolean adjudication) {
+        this.adjudication = adjudication;
+    }
+
     /**
      * Checks if the game is over.
      *
@@ -89,18 +124,63 @@ public class GameOverVerifier {
         // Check if more squares are possible:
         switch (canPlayersDoMoreSquares(gameBoard)) {
             case BOTH_PLAYERS:
-                return NOT_OVER;
+                return adjudicate(gameBoard, scorePlayer1, scorePlayer2);
             case NO_PLAYER:
                 return getGameDrawState(scorePlayer1, scorePlayer2);
             case ONLY_PLAYER1:
-                return (scorePlayer1 > scorePlayer2) ? PLAYER1_WON : NOT_OVER;
+                return (scorePlayer1 > scorePlayer2) ? PLAYER1_WON : adjudicate(gameBoard, scorePlayer1, scorePlayer2);
             case ONLY_PLAYER2:
-                return (scorePlayer2 > scorePlayer1) ? PLAYER2_WON : NOT_OVER;
+                return (scorePlayer2 > scorePlayer1) ? PLAYER2_WON : adjudicate(gameBoard, scorePlayer1, scorePlayer2);
             default:
                 throw new IllegalStateException("Unknown state!");
         }
     }
 
+    /* Adjudicates the game if adjudication is enabled, otherwise the game is not over. */
+    private GameOverState adjudicate(IReadOnlyGameBoard gameBoard, int scorePlayer1, int scorePlayer2) {
+        if (!adjudication)
+            return NOT_OVER;
+
+        // A player wins for sure, if the opponent can't reach his score anymore:
+        if (scorePlayer1 > scorePlayer2 + getReachableScore(gameBoard, gameBoard.getPlayer2()))
+            return PLAYER1_ADJUDICATED;
+        if (scorePlayer2 > scorePlayer1 + getReachableScore(gameBoard, gameBoard.getPlayer1()))
+            return PLAYER2_ADJUDICATED;
+
+        return NOT_OVER;
+    }
+
+    /**
+     * Returns an upper bound of the score, which the given player can still reach on the game board.
+     * The bound is the sum of the scores of all squares, which have an empty edge and no piece of
+     * the opponent.
+     *
+     * @param gameBoard The game board, never null.
+     * @param player The player, never null.
+     * @return The reachable score (in addition to the current score).
+     */
+    int getReachableScore(IReadOnlyGameBoard gameBoard, Player player) {
+        int reachableScore = 0;
+        Player piece;
+        boolean hasEmpty;
+        boolean hasOpponent;
+
+        for (int s = 0; s < SQUARES; s++) {
+            hasEmpty = false;
+            hasOpponent = false;
+            for (int e = 0; e < 4; e++) {
+                piece = gameBoard.getPiece(getEdge(s, e));
+                if (piece == null)
+                    hasEmpty = true;
+                else if (piece != player)
+                    hasOpponent = true;
+            }
+            if (hasEmpty && !hasOpponent)
+                reachableScore += getScore(s);
+        }
+        return reachableScore;
+    }
+
     /* Returns the game draw state. */
     private GameOverState getGameDrawState(int scorePlayer1, int scorePlayer2) {
         if (scorePlayer1 > scorePlayer2)
@@ -110,8 +190,24 @@ public class GameOverVerifier {
         return GAME_DRAW;
     }
 
-    /* Checks if the players can do more squares on the game board. */
-    private PossibleMoves canPlayersDoMoreSquares(IReadOnlyGameBoard gameBoard) {
+    /**
+     * Checks if the players can do more squares on the game board.
+     *
+     * @param gameBoard The game board, never null.
+     * @return The possible moves, never null.
+     */
+    PossibleMoves canPlayersDoMoreSquares(IReadOnlyGameBoard gameBoard) {
+        if (positionCache == null)
+            return scanGameBoardForMoreSquares(gameBoard);
+
+        long pieces1 = toBitMask(gameBoard, gameBoard.getPlayer1());
+        long pieces2 = toBitMask(gameBoard, gameBoard.getPlayer2());
+        return positionCache.getPossibleMoves(pieces1, pieces2,
+                () -> scanGameBoardForMoreSquares(gameBoard));
+    }
+
+    /* Scans the game board and checks if the players can do more squares. */
+    private PossibleMoves scanGameBoardForMoreSquares(IReadOnlyGameBoard gameBoard) {
         Player player1 = gameBoard.getPlayer1();
 
         int[] possible;
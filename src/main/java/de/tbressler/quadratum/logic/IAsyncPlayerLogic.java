@@ -0,0 +1,39 @@
+package de.tbressler.quadratum.logic;
+
+import de.tbressler.quadratum.model.IReadOnlyGameBoard;
+import de.tbressler.quadratum.model.Player;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The interface for an asynchronous player logic, e.g. a search engine that needs some time to
+ * compute its move. An asynchronous player logic can be used by the game logic via the class
+ * {@link de.tbressler.quadratum.logic.players.DeadlinePlayerLogic}, which enforces a deadline for
+ * every move.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public interface IAsyncPlayerLogic {
+
+    /**
+     * Returns the player of this logic.
+     *
+     * @return The player, never null.
+     */
+    Player getPlayer();
+
+    /**
+     * Starts the computation of the next move. The returned future must be completed with the field
+     * index of the move. The computation should be stopped if the future is cancelled, e.g. because
+     * the deadline of the move has passed.
+     *
+     * <p>The game board must not be modified while the move is computed, so implementations should
+     * not access the game board after the future was completed or cancelled.</p>
+     *
+     * @param gameBoard The game board (read-only), never null.
+     * @return The future of the field index, between 0..63, never null.
+     */
+    CompletableFuture<Integer> computeMove(IReadOnlyGameBoard gameBoard);
+
+}
@@ -18,8 +18,9 @@ public interface IGameLogicListener {
      * won the game. If the parameter is null, the game is a draw.
      *
      * @param winner The winner of the game or null if the game is a draw.
+     * @param reason The reason why the game is over, never null.
      */
-    void onGameOver(Player winner);
+    void onGameOver(Player winner, GameOverReason reason);
 
     /**
      * Method is called when new squares were found.
@@ -29,6 +30,17 @@ public interface IGameLogicListener {
      */
     void onNewSquaresFound(Player player, Set<Square> squares);
 
+    /**
+     * Method is called when a move was taken back. By default nothing is done.
+     *
+     * @param player The player whose move was taken back, never null.
+     * @param index The field index of the move, between 0..63.
+     * @param removedSquares The squares that were removed, never null.
+     */
+    default void onMoveTakenBack(Player player, int index, Set<Square> removedSquares) {
+        // Nothing to do.
+    }
+
     /**
      * Method is called when the active player changed.
      *
@@ -43,4 +55,15 @@ public interface IGameLogicListener {
      */
     void onGameStarted(Player activePlayer);
 
+    /**
+     * Method is called when a game was restored from a list of moves. This is the only event of the
+     * restored game, the squares, scores and the result can be requested at the game logic. By
+     * default nothing is done.
+     *
+     * @param activePlayer The active player or null, if the restored game is over.
+     */
+    default void onGameRestored(Player activePlayer) {
+        // Nothing to do.
+    }
+
 }
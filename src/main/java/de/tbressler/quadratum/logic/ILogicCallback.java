@@ -15,8 +15,10 @@ public interface ILogicCallback {
      *
      * @param index The field index, between 0..63.
      * @param player The player, must not be null.
-     * @return True if the move was successful or false if not.
+     * @return The outcome of the move or null, if the move was not successful. The outcome is valid
+     * until the move is taken back or a new game is started, even if the opponent already made its
+     * move.
      */
-    boolean makeMove(int index, Player player);
+    MoveOutcome makeMove(int index, Player player);
 
 }
@@ -0,0 +1,21 @@
+package de.tbressler.quadratum.logic;
+
+/**
+ * A listener for the outcomes of moves. The listener is notified once per move, after the
+ * listeners of the game board and the game logic.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public interface IMoveOutcomeListener {
+
+    /**
+     * Method is called when a move was made.
+     *
+     * @param outcome The outcome of the move, never null. The outcome is only valid until the move
+     *                is taken back or a new game is started, use {@link MoveOutcome#copy()} to keep
+     *                it.
+     */
+    void onMoveMade(MoveOutcome outcome);
+
+}
@@ -26,4 +26,13 @@ public interface IPlayerLogic {
      */
     void requestMove(IReadOnlyGameBoard gameBoard, ILogicCallback callback);
 
+    /**
+     * Cancels the last requested move, e.g. if a move was taken back. The player logic must not
+     * use the callback of the cancelled request anymore. The method is called for both players,
+     * also if no move is requested. By default nothing is done.
+     */
+    default void cancelMove() {
+        // Nothing to do.
+    }
+
 }
@@ -0,0 +1,184 @@
+package de.tbressler.quadratum.logic;
+
+import de.tbressler.quadratum.model.IGameBoardListener;
+import de.tbressler.quadratum.model.IReadOnlyGameBoard;
+import de.tbressler.quadratum.model.Player;
+
+import static de.tbressler.quadratum.logic.GameOverVerifier.PossibleMoves.*;
+import static de.tbressler.quadratum.utils.SquareTable.*;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A game over verifier, which keeps track of the completable squares of both players on one game
+ * board. A square is completable for a player, if it has an empty edge and no piece of the opponent.
+ * The verifier listens to the game board and only updates the squares which have an edge on the
+ * field of the last placed piece. So the check if more squares are possible doesn't need to scan
+ * the whole game board.
+ *
+ * <p>For other game boards than the one given in the constructor, the verifier falls back to
+ * scanning the game board.</p>
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class IncrementalGameOverVerifier extends GameOverVerifier implements IGameBoardListener {
+
+    /* The game board. */
+    private final IReadOnlyGameBoard gameBoard;
+
+    /* The number of pieces of player 1, indexed by square. */
+    private final int[] piecesOfPlayer1 = new int[SQUARES];
+
+    /* The number of pieces of player 2, indexed by square. */
+    private final int[] piecesOfPlayer2 = new int[SQUARES];
+
+    /* The number of squares without any pieces. */
+    private int emptySquares;
+
+    /* The number of squares with pieces of player 1 only and at least one empty edge. */
+    private int squaresOfPlayer1;
+
+    /* The number of squares with pieces of player 2 only and at least one empty edge. */
+    private int squaresOfPlayer2;
+
+    /* The total score of the squares without any pieces. */
+    private int scoreOfEmptySquares;
+
+    /* The total score of the squares with pieces of player 1 only and at least one empty edge. */
+    private int scoreOfPlayer1Squares;
+
+    /* The total score of the squares with pieces of player 2 only and at least one empty edge. */
+    private int scoreOfPlayer2Squares;
+
+
+    /**
+     * Creates the incremental game over verifier. The verifier registers itself as listener at the
+     * game board.
+     *
+     * @param minScore The minimum score to win, must be > 0 (suggested 150).
+     * @param minDifference The minimum difference between score, must be > 0 (suggested 15).
+     * @param gameBoard The game board, must not be null.
+     */
+    public IncrementalGameOverVerifier(int minScore, int minDifference, IReadOnlyGameBoard gameBoard) {
+        super(minScore, minDifference);
+        this.gameBoard = requireNonNull(gameBoard);
+        rebuild();
+        gameBoard.addGameBoardListener(this);
+    }
+
+
+    /**
+     * Rebuilds the counters from the current state of the game board.
+     */
+    public void rebuild() {
+        Player player1 = gameBoard.getPlayer1();
+        Player player;
+
+        for (int s = 0; s < SQUARES; s++) {
+            piecesOfPlayer1[s] = 0;
+            piecesOfPlayer2[s] = 0;
+            for (int e = 0; e < 4; e++) {
+                player = gameBoard.getPiece(getEdge(s, e));
+                if (player == null)
+                    continue;
+                if (player == player1)
+                    piecesOfPlayer1[s]++;
+                else
+                    piecesOfPlayer2[s]++;
+            }
+        }
+
+        emptySquares = 0;
+        squaresOfPlayer1 = 0;
+        squaresOfPlayer2 = 0;
+        scoreOfEmptySquares = 0;
+        scoreOfPlayer1Squares = 0;
+        scoreOfPlayer2Squares = 0;
+        for (int s = 0; s < SQUARES; s++)
+            count(s, 1);
+    }
+
+    /* Adds the given value to the counter of the state of the square. */
+    private void count(int square, int value) {
+        int pieces1 = piecesOfPlayer1[square];
+        int pieces2 = piecesOfPlayer2[square];
+        if ((pieces1 == 0) && (pieces2 == 0)) {
+            emptySquares += value;
+            scoreOfEmptySquares += value * getScore(square);
+        } else if ((pieces2 == 0) && (pieces1 < 4)) {
+            squaresOfPlayer1 += value;
+            scoreOfPlayer1Squares += value * getScore(square);
+        } else if ((pieces1 == 0) && (pieces2 < 4)) {
+            squaresOfPlayer2 += value;
+            scoreOfPlayer2Squares += value * getScore(square);
+        }
+    }
+
+
+    @Override
+    public void onPiecePlaced(int index, Player player) {
+        updateSquaresAt(index, player, 1);
+    }
+
+    @Override
+    public void onPieceRemoved(int index, Player player) {
+        updateSquaresAt(index, player, -1);
+    }
+
+    /* Adds the given value to the number of pieces of the player in all squares at the field. */
+    private void updateSquaresAt(int index, Player player, int value) {
+        int[] pieces = (player == gameBoard.getPlayer1()) ? piecesOfPlayer1 : piecesOfPlayer2;
+        int square;
+        for (int n = 0; n < getSquareCountAt(index); n++) {
+            square = getSquareAt(index, n);
+            count(square, -1);
+            pieces[square] += value;
+            count(square, 1);
+        }
+    }
+
+    @Override
+    public void onGameBoardCleared() {
+        rebuild();
+    }
+
+
+    /**
+     * Returns the number of completable squares of the given player. A square is completable, if it
+     * has an empty edge and no piece of the opponent.
+     *
+     * @param player The player, must not be null.
+     * @return The number of completable squares.
+     */
+    public int getCompletableSquareCount(Player player) {
+        if (requireNonNull(player) == gameBoard.getPlayer1())
+            return emptySquares + squaresOfPlayer1;
+        return emptySquares + squaresOfPlayer2;
+    }
+
+
+    @Override
+    int getReachableScore(IReadOnlyGameBoard gameBoard, Player player) {
+        if (gameBoard != this.gameBoard)
+            return super.getReachableScore(gameBoard, player);
+
+        if (player == gameBoard.getPlayer1())
+            return scoreOfEmptySquares + scoreOfPlayer1Squares;
+        return scoreOfEmptySquares + scoreOfPlayer2Squares;
+    }
+
+    @Override
+    PossibleMoves canPlayersDoMoreSquares(IReadOnlyGameBoard gameBoard) {
+        if (gameBoard != this.gameBoard)
+            return super.canPlayersDoMoreSquares(gameBoard);
+
+        if ((emptySquares > 0) || ((squaresOfPlayer1 > 0) && (squaresOfPlayer2 > 0)))
+            return BOTH_PLAYERS;
+        else if (squaresOfPlayer1 > 0)
+            return ONLY_PLAYER1;
+        else if (squaresOfPlayer2 > 0)
+            return ONLY_PLAYER2;
+        return NO_PLAYER;
+    }
+
+}
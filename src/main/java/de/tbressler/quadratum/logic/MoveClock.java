@@ -0,0 +1,94 @@
+package de.tbressler.quadratum.logic;
+
+import de.tbressler.quadratum.utils.HashedWheelTimer;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The move clock limits the time of every move. The clock uses a shared hashed wheel timer, so one
+ * clock can be used by many games. The clock is started when a move is requested at a player
+ * logic and stopped when the move was made.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class MoveClock {
+
+    /** The policy, which is applied if the time of a move has expired. */
+    public enum TimeoutPolicy {
+        /** The active player forfeits the game. */
+        FORFEIT,
+        /** A bot makes the move for the active player. */
+        BOT_MOVE
+    }
+
+
+    /* The timer. */
+    private final HashedWheelTimer timer;
+
+    /* The time per move in nanoseconds. */
+    private final long timePerMove;
+
+    /* The timeout policy. */
+    private final TimeoutPolicy policy;
+
+
+    /**
+     * Creates the move clock.
+     *
+     * @param timer The timer, must not be null.
+     * @param timePerMove The time per move, must be > 0.
+     * @param unit The time unit, must not be null.
+     * @param policy The timeout policy, must not be null.
+     */
+    public MoveClock(HashedWheelTimer timer, long timePerMove, TimeUnit unit, TimeoutPolicy policy) {
+        this.timer = requireNonNull(timer);
+        if (timePerMove < 1) throw new AssertionError("timePerMove must be > 0!");
+        this.timePerMove = requireNonNull(unit).toNanos(timePerMove);
+        this.policy = requireNonNull(policy);
+    }
+
+
+    /**
+     * Starts the clock of a move.
+     *
+     * @param task The task, which is executed if the time of the move has expired.
+     * @return The timeout of the move, which must be cancelled when the move was made.
+     */
+    HashedWheelTimer.Timeout start(Runnable task) {
+        return timer.schedule(task, timePerMove, TimeUnit.NANOSECONDS);
+    }
+
+
+    /**
+     * Returns the time per move.
+     *
+     * @param unit The time unit, must not be null.
+     * @return The time per move in the given time unit.
+     */
+    public long getTimePerMove(TimeUnit unit) {
+        return requireNonNull(unit).convert(timePerMove, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the timeout policy.
+     *
+     * @return The timeout policy, never null.
+     */
+    public TimeoutPolicy getPolicy() {
+        return policy;
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("timePerMove", timePerMove)
+                .add("policy", policy)
+                .toString();
+    }
+
+}
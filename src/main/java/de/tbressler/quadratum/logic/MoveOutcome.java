@@ -0,0 +1,183 @@
+package de.tbressler.quadratum.logic;
+
+import de.tbressler.quadratum.model.Player;
+import de.tbressler.quadratum.model.Square;
+
+import java.util.Set;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Collections.emptySet;
+
+/**
+ * The outcome of a move, which coalesces all changes of one move: the placed piece, the new squares,
+ * the score delta, the next player and the terminal state of the game.
+ *
+ * <p>The game logic reuses one instance per move number, so the outcome is only valid until the
+ * move is taken back or a new game is started. Use {@link #copy()} if the outcome must be kept.</p>
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class MoveOutcome {
+
+    /* The field index of the placed piece. */
+    private int index = -1;
+
+    /* The player who made the move. */
+    private Player player;
+
+    /* The new squares of the move. */
+    private Set<Square> newSquares = emptySet();
+
+    /* The score delta of the player who made the move. */
+    private int scoreDelta = 0;
+
+    /* The next active player or null, if the game is over. */
+    private Player nextPlayer;
+
+    /* True if the game is over after the move. */
+    private boolean isGameOver = false;
+
+    /* The winner or null, if the game is not over or a draw. */
+    private Player winner;
+
+    /* The reason why the game is over or null, if the game is not over. */
+    private GameOverReason reason;
+
+
+    /**
+     * Creates an empty move outcome.
+     */
+    MoveOutcome() {
+    }
+
+
+    /* Sets the move and resets the state of the game. */
+    void setMove(int index, Player player, Set<Square> newSquares, int scoreDelta) {
+        this.index = index;
+        this.player = player;
+        this.newSquares = newSquares;
+        this.scoreDelta = scoreDelta;
+        this.nextPlayer = null;
+        this.isGameOver = false;
+        this.winner = null;
+        this.reason = null;
+    }
+
+    /* Sets the next active player. */
+    void setNextPlayer(Player nextPlayer) {
+        this.nextPlayer = nextPlayer;
+    }
+
+    /* Sets the game over state. */
+    void setGameOver(Player winner, GameOverReason reason) {
+        this.isGameOver = true;
+        this.winner = winner;
+        this.reason = reason;
+    }
+
+
+    /**
+     * Returns the field index of the placed piece.
+     *
+     * @return The field index, between 0..63.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the player who made the move.
+     *
+     * @return The player, never null.
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Returns the new squares, which were completed by the move.
+     *
+     * @return The new squares or an empty set, never null.
+     */
+    public Set<Square> getNewSquares() {
+        return newSquares;
+    }
+
+    /**
+     * Returns the score delta of the player who made the move. The score of the opponent doesn't
+     * change by a move.
+     *
+     * @return The score delta, 0 if no new squares were found.
+     */
+    public int getScoreDelta() {
+        return scoreDelta;
+    }
+
+    /**
+     * Returns the next active player.
+     *
+     * @return The next active player or null, if the game is over.
+     */
+    public Player getNextPlayer() {
+        return nextPlayer;
+    }
+
+    /**
+     * Returns true if the game is over after the move.
+     *
+     * @return True if the game is over, otherwise false.
+     */
+    public boolean isGameOver() {
+        return isGameOver;
+    }
+
+    /**
+     * Returns the winner of the game.
+     *
+     * @return The winner or null, if the game is not over or the game is a draw.
+     */
+    public Player getWinner() {
+        return winner;
+    }
+
+    /**
+     * Returns the reason why the game is over.
+     *
+     * @return The reason or null, if the game is not over.
+     */
+    public GameOverReason getReason() {
+        return reason;
+    }
+
+
+    /**
+     * Returns a copy of this outcome, which is not changed by following moves.
+     *
+     * @return The copy, never null.
+     */
+    public MoveOutcome copy() {
+        MoveOutcome copy = new MoveOutcome();
+        copy.setMove(index, player, newSquares, scoreDelta);
+        copy.setNextPlayer(nextPlayer);
+        if (isGameOver)
+            copy.setGameOver(winner, reason);
+        return copy;
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("index", index)
+                .add("player", player)
+                .add("newSquares", newSquares.size())
+                .add("scoreDelta", scoreDelta)
+                .add("nextPlayer", nextPlayer)
+                .add("isGameOver", isGameOver)
+                .add("winner", winner)
+                .add("reason", reason)
+                .toString();
+    }
+
+}
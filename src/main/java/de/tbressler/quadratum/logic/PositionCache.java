@@ -0,0 +1,196 @@
+package de.tbressler.quadratum.logic;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+
+import java.util.function.Supplier;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A bounded cache for evaluation results of positions, which can be used by the square collector and
+ * the game over verifier. The cache is keyed by the pieces of the players (as bit masks), so it can
+ * be shared by many games, e.g. for replays, analysis or hints, which detect the squares or check
+ * the game over state on the whole game board. The moves of a game are checked incrementally and
+ * don't use the cache.
+ *
+ * <p>The cache evicts the least recently used entries, if the total weight of the entries exceeds
+ * the maximum weight. The weight of an entry is proportional to its size.</p>
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class PositionCache {
+
+    /* The cache. */
+    private final Cache<PositionKey, Object> cache;
+
+
+    /**
+     * Creates the position cache.
+     *
+     * @param maximumWeight The maximum total weight of the cached entries, must be > 0. An entry
+     *                      weighs 1 plus the number of squares it contains.
+     */
+    public PositionCache(long maximumWeight) {
+        if (maximumWeight < 1) throw new AssertionError("maximumWeight must be > 0!");
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher(new EntryWeigher())
+                .recordStats()
+                .build();
+    }
+
+
+    /**
+     * Returns all squares that are formed by the given pieces. The squares are computed by the given
+     * loader, if they are not in the cache.
+     *
+     * @param pieces The pieces of a player as bit mask.
+     * @param loader The loader, which computes the squares of the pieces, must not be null.
+     * @return The squares as arrays of 4 field indexes, never null. The arrays must not be modified.
+     */
+    int[][] getSquares(long pieces, Supplier<int[][]> loader) {
+        return get(new PositionKey(pieces, 0L, false), loader);
+    }
+
+    /**
+     * Returns which players can do more squares with the given pieces on the game board. The result
+     * is computed by the given loader, if it is not in the cache.
+     *
+     * @param pieces1 The pieces of player 1 as bit mask.
+     * @param pieces2 The pieces of player 2 as bit mask.
+     * @param loader The loader, which computes the possible moves, must not be null.
+     * @return The possible moves, never null.
+     */
+    GameOverVerifier.PossibleMoves getPossibleMoves(long pieces1, long pieces2,
+                                                     Supplier<GameOverVerifier.PossibleMoves> loader) {
+        return get(new PositionKey(pieces1, pieces2, true), loader);
+    }
+
+    /* Returns the cached value or loads and caches the value. */
+    @SuppressWarnings("unchecked")
+    private <T> T get(PositionKey key, Supplier<T> loader) {
+        T value = (T) cache.getIfPresent(key);
+        if (value != null)
+            return value;
+        value = requireNonNull(loader.get());
+        cache.put(key, value);
+        return value;
+    }
+
+
+    /**
+     * Returns the number of cache hits.
+     *
+     * @return The number of hits.
+     */
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    /**
+     * Returns the number of cache misses.
+     *
+     * @return The number of misses.
+     */
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    /**
+     * Returns the number of evicted entries.
+     *
+     * @return The number of evictions.
+     */
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * Returns the approximate number of entries in the cache.
+     *
+     * @return The number of entries.
+     */
+    public long getSize() {
+        return cache.size();
+    }
+
+
+    /**
+     * Removes all entries from the cache. The hit and miss counters are not reset.
+     */
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+
+    @Override
+    public String toString() {
+        CacheStats stats = cache.stats();
+        return toStringHelper(this)
+                .add("size", cache.size())
+                .add("hits", stats.hitCount())
+                .add("misses", stats.missCount())
+                .toString();
+    }
+
+
+    /* The key of a position. */
+    private static final class PositionKey {
+
+        /* The first bit mask. */
+        private final long pieces1;
+
+        /* The second bit mask. */
+        private final long pieces2;
+
+        /* True if the key is used for possible moves, false if it is used for squares. */
+        private final boolean possibleMoves;
+
+
+        /* Creates the key. */
+        private PositionKey(long pieces1, long pieces2, boolean possibleMoves) {
+            this.pieces1 = pieces1;
+            this.pieces2 = pieces2;
+            this.possibleMoves = possibleMoves;
+        }
+
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            PositionKey key = (PositionKey) o;
+
+            return (pieces1 == key.pieces1) && (pieces2 == key.pieces2) &&
+                    (possibleMoves == key.possibleMoves);
+        }
+
+        @Override
+        public int hashCode() {
+            long hash = pieces1 * 0x9E3779B97F4A7C15L + pieces2;
+            hash ^= (hash >>> 32);
+            return (int) hash + (possibleMoves ? 1 : 0);
+        }
+
+    }
+
+
+    /* The weigher for the entries. */
+    private static final class EntryWeigher implements Weigher<PositionKey, Object> {
+
+        @Override
+        public int weigh(PositionKey key, Object value) {
+            if (value instanceof int[][])
+                return 1 + ((int[][]) value).length;
+            return 1;
+        }
+
+    }
+
+}
@@ -4,10 +4,20 @@ import de.tbressler.quadratum.model.IReadOnlyGameBoard;
 import de.tbressler.quadratum.model.Player;
 import de.tbressler.quadratum.model.Square;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import static de.tbressler.quadratum.utils.GameBoardUtils.assertIndex;
+import static de.tbressler.quadratum.utils.GameBoardUtils.toBitMask;
+import static de.tbressler.quadratum.utils.SquareTable.*;
 import static de.tbressler.quadratum.utils.SquareUtils.getPossiblePieces;
+import static java.util.Arrays.fill;
+import static java.util.Arrays.sort;
 import static java.util.Collections.emptySet;
 import static java.util.Objects.requireNonNull;
 
@@ -22,6 +32,28 @@ public class SquareCollector {
     /* A set of squares found by this detector. */
     private final Set<Square> squares = new HashSet<>();
 
+    /* The found squares, indexed by the number of the square in the square table. */
+    private final Square[] squaresByNumber = new Square[SQUARES];
+
+    /* The score and the number of squares, indexed by player. */
+    private final Map<Player, int[]> scores = new IdentityHashMap<>();
+
+    /* The optional position cache or null. */
+    private PositionCache positionCache = null;
+
+
+    /**
+     * Sets the position cache, which is used to look up the squares of known positions. The cache
+     * is only used by {@link #detect(IReadOnlyGameBoard, Player)}, which scans the whole game board,
+     * e.g. for replays, analysis or hints. The detection at the last placed piece of a move doesn't
+     * need a cache.
+     *
+     * @param positionCache The position cache or null, if no cache should be used.
+     */
+    public void setPositionCache(PositionCache positionCache) {
+        this.positionCache = positionCache;
+    }
+
 
     /**
      * Detect new squares of the given player on the game board.
@@ -39,13 +71,163 @@ public class SquareCollector {
         if (foundSquares.isEmpty())
             return emptySet();
 
-        squares.addAll(foundSquares);
+        for (Square square : foundSquares)
+            addSquare(square);
+
+        return foundSquares;
+    }
+
+    /**
+     * Detect new squares of the given player, which have an edge on the given field. This method
+     * only checks the squares that can be formed with the piece on the given field, so it should be
+     * used after a piece was placed on the field. It doesn't allocate memory if no new squares are
+     * found.
+     *
+     * @param gameBoard The game board, must not be null.
+     * @param player The player, must not be null.
+     * @param index The field index of the last placed piece, between 0..63.
+     * @return A set of the new detected squares for the player, never null.
+     */
+    public Set<Square> detect(IReadOnlyGameBoard gameBoard, Player player, int index) {
+        requireNonNull(gameBoard);
+        requireNonNull(player);
+        assertIndex(index, "Index must be between 0 and 63!");
+
+        Set<Square> foundSquares = null;
+        int square;
+
+        for (int n = 0; n < getSquareCountAt(index); n++) {
+            square = getSquareAt(index, n);
+
+            // Skip if square is well-known or not complete
+            if ((squaresByNumber[square] != null) || !isSquareOfPlayer(gameBoard, player, square))
+                continue;
+
+            if (foundSquares == null)
+                foundSquares = new HashSet<>();
+            foundSquares.add(new Square(getEdges(square), player));
+        }
+
+        if (foundSquares == null)
+            return emptySet();
+
+        for (Square foundSquare : foundSquares)
+            addSquare(foundSquare);
 
         return foundSquares;
     }
 
+    /* Returns true if all edges of the square are occupied by the given player. */
+    private boolean isSquareOfPlayer(IReadOnlyGameBoard gameBoard, Player player, int square) {
+        for (int e = 0; e < 4; e++)
+            if (gameBoard.getPiece(getEdge(square, e)) != player)
+                return false;
+        return true;
+    }
+
+    /**
+     * Adds the given squares to the found squares without a detection, e.g. if a game is restored.
+     *
+     * @param squaresToAdd The squares to add, must not be null.
+     */
+    void add(Set<Square> squaresToAdd) {
+        for (Square square : requireNonNull(squaresToAdd))
+            addSquare(square);
+    }
+
+    /**
+     * Removes the given squares from the found squares, e.g. if the move which completed the
+     * squares is taken back.
+     *
+     * @param squaresToRemove The squares to remove, must not be null.
+     */
+    public void remove(Set<Square> squaresToRemove) {
+        for (Square square : requireNonNull(squaresToRemove))
+            removeSquare(square);
+    }
+
+    /* Removes the square from the found squares. */
+    private void removeSquare(Square square) {
+        if (!squares.remove(square))
+            return;
+
+        squaresByNumber[indexOf(square.getSortedPieces())] = null;
+
+        int[] score = scores.get(square.getPlayer());
+        score[0] -= square.getScore();
+        score[1]--;
+    }
+
+    /* Adds the square to the found squares. */
+    private void addSquare(Square square) {
+        if (!squares.add(square))
+            return;
+
+        squaresByNumber[indexOf(square.getSortedPieces())] = square;
+
+        int[] score = scores.get(square.getPlayer());
+        if (score == null) {
+            score = new int[2];
+            scores.put(square.getPlayer(), score);
+        }
+        score[0] += square.getScore();
+        score[1]++;
+    }
+
     /* Finds new squares for the given player. */
     private void findNewSquares(IReadOnlyGameBoard gameBoard, Player player, Set<Square> found) {
+        if (positionCache == null) {
+            findNewSquaresOnGameBoard(gameBoard, player, found);
+            return;
+        }
+
+        long pieces = toBitMask(gameBoard, player);
+        int[][] cachedSquares = positionCache.getSquares(pieces, () -> findAllSquares(pieces));
+
+        Square square;
+        for (int[] cachedSquare : cachedSquares) {
+            square = new Square(cachedSquare.clone(), player);
+            if (!squares.contains(square))
+                found.add(square);
+        }
+    }
+
+    /* Finds all squares that are formed by the given pieces. */
+    private static int[][] findAllSquares(long pieces) {
+        List<int[]> result = new ArrayList<>();
+        int[] possible;
+
+        for (int i = 0; i < 55; i++) {
+            if ((pieces & (1L << i)) == 0)
+                continue;
+            for (int j = i + 1; j < 64; j++) {
+                if ((pieces & (1L << j)) == 0)
+                    continue;
+
+                possible = getPossiblePieces(i, j);
+                if (possible.length != 2) continue;
+
+                if (((pieces & (1L << possible[0])) != 0) && ((pieces & (1L << possible[1])) != 0))
+                    result.add(new int[]{i, j, possible[0], possible[1]});
+            }
+        }
+
+        // Every square is found twice (once for each of its two sides starting at the first index):
+        List<int[]> distinct = new ArrayList<>();
+        for (int[] square : result) {
+            sort(square);
+            boolean isKnown = false;
+            for (int[] other : distinct)
+                if (Arrays.equals(square, other))
+                    isKnown = true;
+            if (!isKnown)
+                distinct.add(square);
+        }
+        return distinct.toArray(new int[distinct.size()][]);
+    }
+
+    /* Finds new squares for the given player on the game board. */
+    private void findNewSquaresOnGameBoard(IReadOnlyGameBoard gameBoard, Player player, Set<Square> found) {
         int[] possible;
         Square square;
 
@@ -99,12 +281,8 @@ public class SquareCollector {
      * @return The current number of squares
      */
     public int getSquareCount(Player player) {
-        requireNonNull(player);
-        int count = 0;
-        for (Square square : squares)
-            if (square.getPlayer() == player)
-                count++;
-        return count;
+        int[] score = scores.get(requireNonNull(player));
+        return (score == null) ? 0 : score[1];
     }
 
 
@@ -115,12 +293,8 @@ public class SquareCollector {
      * @return The current score of the player
      */
     public int getScore(Player player) {
-        requireNonNull(player);
-        int score = 0;
-        for (Square square : squares)
-            if (square.getPlayer() == player)
-                score += square.getScore();
-        return score;
+        int[] score = scores.get(requireNonNull(player));
+        return (score == null) ? 0 : score[0];
     }
 
 
@@ -129,6 +303,8 @@ public class SquareCollector {
      */
     public void reset() {
         squares.clear();
+        fill(squaresByNumber, null);
+        scores.clear();
     }
 
 }
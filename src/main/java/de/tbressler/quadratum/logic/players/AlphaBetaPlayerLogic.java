@@ -0,0 +1,161 @@
+package de.tbressler.quadratum.logic.players;
+
+import de.tbressler.quadratum.logic.ILogicCallback;
+import de.tbressler.quadratum.model.IReadOnlyGameBoard;
+import de.tbressler.quadratum.model.Player;
+import de.tbressler.quadratum.search.AlphaBetaSearch;
+import de.tbressler.quadratum.search.LazySmpSearch;
+import de.tbressler.quadratum.search.SearchBoard;
+import de.tbressler.quadratum.search.TranspositionTable;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static de.tbressler.quadratum.search.AlphaBetaSearch.MAX_DEPTH;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A bot, which searches its moves with a negamax search with alpha-beta pruning and iterative
+ * deepening (see {@link AlphaBetaSearch}). The search is limited by a time budget per move. The
+ * evaluation is based on the score difference and the potential of the completable squares, the
+ * win conditions are the same as the conditions of the game logic.
+ *
+ * <p>The search can use several threads (see {@link LazySmpSearch}), the threads share the
+ * transposition table. So a multi-threaded bot needs a transposition table.</p>
+ *
+ * <p>The move is computed on the thread, which requests the move. If the game logic should not be
+ * blocked, the game logic should use an executor (see
+ * {@link de.tbressler.quadratum.logic.GameLogic#setExecutor(java.util.concurrent.Executor)}).</p>
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class AlphaBetaPlayerLogic extends AbstractPlayerLogic {
+
+    /* The time budget of a move in nanoseconds. */
+    private final long timeBudget;
+
+    /* The board of the search. */
+    private final SearchBoard board = new SearchBoard(150, 15);
+
+    /* The search. */
+    private final LazySmpSearch search;
+
+    /* The number of the last move request, a cancelled request is never made. */
+    private final AtomicInteger request = new AtomicInteger(0);
+
+    /* The maximum depth of the search. */
+    private volatile int maxDepth = MAX_DEPTH;
+
+    /* The transposition table or null. */
+    private volatile TranspositionTable table = null;
+
+
+    /**
+     * Creates the alpha-beta player logic.
+     *
+     * @param player The player, must not be null.
+     * @param timeBudget The time budget of a move, must be > 0.
+     * @param unit The time unit of the time budget, must not be null.
+     */
+    public AlphaBetaPlayerLogic(Player player, long timeBudget, TimeUnit unit) {
+        this(player, timeBudget, unit, 1, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates the alpha-beta player logic with a multi-threaded search. The threads only work
+     * together, if a transposition table is set (see {@link #setTranspositionTable(TranspositionTable)}).
+     *
+     * @param player The player, must not be null.
+     * @param timeBudget The time budget of a move, must be > 0.
+     * @param unit The time unit of the time budget, must not be null.
+     * @param threads The number of threads including the thread, which requests the move. Must be > 0.
+     * @param pool The fork-join pool of the helper threads, must not be null. The parallelism of the
+     *             pool should not be lower than the number of helper threads (threads - 1).
+     */
+    public AlphaBetaPlayerLogic(Player player, long timeBudget, TimeUnit unit, int threads, ForkJoinPool pool) {
+        super(player);
+        if (timeBudget < 1) throw new AssertionError("timeBudget must be > 0!");
+        this.timeBudget = requireNonNull(unit).toNanos(timeBudget);
+        this.search = new LazySmpSearch(threads, pool);
+    }
+
+
+    /**
+     * Sets the maximum depth of the search.
+     *
+     * @param maxDepth The maximum depth, between 1..{@link AlphaBetaSearch#MAX_DEPTH}. The default
+     *                 is {@link AlphaBetaSearch#MAX_DEPTH}.
+     */
+    public void setMaxDepth(int maxDepth) {
+        if ((maxDepth < 1) || (maxDepth > MAX_DEPTH))
+            throw new AssertionError("maxDepth must be between 1 and " + MAX_DEPTH + "!");
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Sets the transposition table of the search. A table with a few MB makes the search
+     * considerably faster, because positions which are reached by another order of moves are not
+     * searched again.
+     *
+     * @param table The transposition table or null, if no table should be used (default).
+     */
+    public void setTranspositionTable(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Returns the (main) search of the bot, e.g. to read the statistics of the last search.
+     *
+     * @return The search, never null.
+     */
+    public AlphaBetaSearch getSearch() {
+        return search.getMainSearch();
+    }
+
+    /**
+     * Returns the number of threads of the search.
+     *
+     * @return The number of threads.
+     */
+    public int getThreadCount() {
+        return search.getThreadCount();
+    }
+
+
+    @Override
+    public synchronized void requestMove(IReadOnlyGameBoard gameBoard, ILogicCallback callback) {
+        requireNonNull(gameBoard);
+        requireNonNull(callback);
+
+        int number = request.incrementAndGet();
+        TranspositionTable currentTable = table;
+        if (currentTable != null)
+            currentTable.newSearch();
+        search.setTranspositionTable(currentTable);
+        board.load(gameBoard, getPlayer());
+        int index = search.findBestMove(board, maxDepth, timeBudget);
+
+        if (request.get() == number)
+            callback.makeMove(index, getPlayer());
+    }
+
+    @Override
+    public void cancelMove() {
+        request.incrementAndGet();
+        search.stop();
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("timeBudget", timeBudget)
+                .add("maxDepth", maxDepth)
+                .add("threads", search.getThreadCount())
+                .toString();
+    }
+
+}
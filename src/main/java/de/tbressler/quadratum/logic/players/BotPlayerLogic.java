@@ -15,13 +15,17 @@ import static java.util.Objects.requireNonNull;
 /**
  * The implementation of the player logic interface for artificial intelligence players (bots).
  *
+ * <p>By default the bot computes its heat maps from the whole game board for every move. If the
+ * bot is attached to the game board (see {@link #attachTo(IReadOnlyGameBoard)}), the heat maps are
+ * updated by the events of the game board and a move only searches the hottest field.</p>
+ *
  * @author Tobias Bressler
  * @version 1.0
  */
 public class BotPlayerLogic extends AbstractPlayerLogic {
 
     /** Enum for different bot strategies. */
-    enum Strategy {
+    public enum Strategy {
         /** Finds best index by adding all square scores to heat map. */
         LONG_TERM,
         /** Finds best index by using best square score for heat map. */
@@ -38,6 +42,9 @@ public class BotPlayerLogic extends AbstractPlayerLogic {
     /* Random number generator. */
     private Random random = new Random();
 
+    /* The incrementally updated heat maps or null, if the bot is not attached to a game board. */
+    private IncrementalHeatMaps heatMaps = null;
+
 
     /**
      * Creates the bot player logic.
@@ -72,14 +79,103 @@ public class BotPlayerLogic extends AbstractPlayerLogic {
     }
 
 
+    /**
+     * Attaches the bot to the game board. The bot listens to the game board and updates its heat
+     * maps with every placed or removed piece, instead of computing them for every move. The bot
+     * makes the same moves as without the game board. If the bot was attached to another game board
+     * before, it is detached from that game board.
+     *
+     * @param gameBoard The game board, must not be null.
+     */
+    public synchronized void attachTo(IReadOnlyGameBoard gameBoard) {
+        requireNonNull(gameBoard);
+        detach();
+        heatMaps = new IncrementalHeatMaps(gameBoard, getPlayer(), strategy);
+        gameBoard.addGameBoardListener(heatMaps);
+    }
+
+    /**
+     * Detaches the bot from its game board, the heat maps are computed for every move again.
+     */
+    public synchronized void detach() {
+        if (heatMaps == null)
+            return;
+        heatMaps.getGameBoard().removeGameBoardListener(heatMaps);
+        heatMaps = null;
+    }
+
+    /**
+     * Returns true if the bot is attached to a game board.
+     *
+     * @return True if the bot is attached.
+     */
+    public synchronized boolean isAttached() {
+        return heatMaps != null;
+    }
+
+
     @Override
     public void requestMove(IReadOnlyGameBoard gameBoard, ILogicCallback callback) {
         requireNonNull(gameBoard);
         requireNonNull(callback);
 
-        int[] playerHeatMap = new int[64];
-        int[] opponentHeatMap = new int[64];
+        int[] playerHeatMap;
+        int[] opponentHeatMap;
 
+        IncrementalHeatMaps attachedHeatMaps;
+        synchronized (this) {
+            attachedHeatMaps = heatMaps;
+        }
+        if ((attachedHeatMaps != null) && (attachedHeatMaps.getGameBoard() == gameBoard)) {
+            playerHeatMap = attachedHeatMaps.getPlayerHeatMap();
+            opponentHeatMap = attachedHeatMaps.getOpponentHeatMap();
+        } else {
+            playerHeatMap = new int[64];
+            opponentHeatMap = new int[64];
+            computeHeatMaps(gameBoard, playerHeatMap, opponentHeatMap);
+        }
+
+        int value;
+        int maxValue = -1;
+        int indexWithMaxValue = -1;
+
+        // Analyze heat map:
+        for(int i = 0; i < 64; i++) {
+
+            // Skip if field is not empty.
+            if (!gameBoard.isFieldEmpty(i))
+                continue;
+
+            // Check chances to score:
+            if (playerHeatMap[i] >= opponentHeatMap[i]) {
+                // ... the chance for a player score is higher or equal.
+                value = playerHeatMap[i];
+            } else {
+                // ... the chance for a opponent score is higher.
+                value = opponentHeatMap[i];
+            }
+
+            // Check if chance is higher:
+            if ((value > maxValue) ||
+                    ((value == maxValue) && doRandomization())) {
+                maxValue = value;
+                indexWithMaxValue = i;
+            }
+        }
+
+        assertIndex(indexWithMaxValue, "Bot logic error! Invalid field index.");
+
+        callback.makeMove(indexWithMaxValue, getPlayer());
+    }
+
+    /**
+     * Computes the heat maps of the player and the opponent from the whole game board.
+     *
+     * @param gameBoard The game board.
+     * @param playerHeatMap The heat map of the player, must be filled with 0.
+     * @param opponentHeatMap The heat map of the opponent, must be filled with 0.
+     */
+    void computeHeatMaps(IReadOnlyGameBoard gameBoard, int[] playerHeatMap, int[] opponentHeatMap) {
         Player[] pieces = new Player[4];
         int[] possible;
 
@@ -141,38 +237,6 @@ public class BotPlayerLogic extends AbstractPlayerLogic {
                 }
             }
         }
-
-        int value;
-        int maxValue = -1;
-        int indexWithMaxValue = -1;
-
-        // Analyze heat map:
-        for(int i = 0; i < 64; i++) {
-
-            // Skip if field is not empty.
-            if (!gameBoard.isFieldEmpty(i))
-                continue;
-
-            // Check chances to score:
-            if (playerHeatMap[i] >= opponentHeatMap[i]) {
-                // ... the chance for a player score is higher or equal.
-                value = playerHeatMap[i];
-            } else {
-                // ... the chance for a opponent score is higher.
-                value = opponentHeatMap[i];
-            }
-
-            // Check if chance is higher:
-            if ((value > maxValue) ||
-                    ((value == maxValue) && doRandomization())) {
-                maxValue = value;
-                indexWithMaxValue = i;
-            }
-        }
-
-        assertIndex(indexWithMaxValue, "Bot logic error! Invalid field index.");
-
-        callback.makeMove(indexWithMaxValue, getPlayer());
     }
 
     /* Updates the heat map at the given index with the score. */
@@ -0,0 +1,231 @@
+package de.tbressler.quadratum.logic.players;
+
+import de.tbressler.quadratum.logic.IAsyncPlayerLogic;
+import de.tbressler.quadratum.logic.ILogicCallback;
+import de.tbressler.quadratum.logic.IPlayerLogic;
+import de.tbressler.quadratum.model.IReadOnlyGameBoard;
+import de.tbressler.quadratum.model.Player;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static de.tbressler.quadratum.logic.players.BotPlayerLogic.Strategy.LONG_TERM;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A player logic, which uses an asynchronous player logic and enforces a deadline for every move.
+ * If the asynchronous player logic doesn't complete its move in time, fails or returns an invalid
+ * move, the move is cancelled and a fallback player logic makes the move instead.
+ *
+ * <p>A move request never blocks the calling thread. The game logic is not thread-safe, so the
+ * computed move and the fallback move are made by the executor of the game thread, e.g. the
+ * {@link de.tbressler.quadratum.logic.GameActor} of the game. An exception of a move is thrown on
+ * the game thread. If the executor itself fails on the thread, which completes the move or runs the
+ * deadline, the exception is passed to the uncaught exception handler of this thread.</p>
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class DeadlinePlayerLogic extends AbstractPlayerLogic {
+
+    /* The asynchronous player logic. */
+    private final IAsyncPlayerLogic asyncPlayerLogic;
+
+    /* The fallback player logic. */
+    private final IPlayerLogic fallbackPlayerLogic;
+
+    /* The deadline of a move. */
+    private final long deadline;
+
+    /* The time unit of the deadline. */
+    private final TimeUnit unit;
+
+    /* The scheduler for the deadlines. */
+    private final ScheduledExecutorService scheduler;
+
+    /* The executor of the game thread, which makes the moves. */
+    private final Executor executor;
+
+    /* The last requested move or null. */
+    private volatile PendingMove pendingMove = null;
+
+
+    /**
+     * Creates the deadline player logic with a bot as fallback, which uses the heat map of the
+     * game board.
+     *
+     * @param asyncPlayerLogic The asynchronous player logic, must not be null.
+     * @param deadline The deadline of a move, must be > 0.
+     * @param unit The time unit of the deadline, must not be null.
+     * @param scheduler The scheduler for the deadlines, must not be null.
+     * @param executor The executor of the game thread, which makes the moves, e.g. the game actor of
+     *                 the game. Must not be null.
+     */
+    public DeadlinePlayerLogic(IAsyncPlayerLogic asyncPlayerLogic, long deadline, TimeUnit unit,
+                               ScheduledExecutorService scheduler, Executor executor) {
+        this(asyncPlayerLogic, new BotPlayerLogic(asyncPlayerLogic.getPlayer(), LONG_TERM), deadline,
+                unit, scheduler, executor);
+    }
+
+    /**
+     * Creates the deadline player logic.
+     *
+     * @param asyncPlayerLogic The asynchronous player logic, must not be null.
+     * @param fallbackPlayerLogic The fallback player logic, must not be null and must use the same
+     *                            player as the asynchronous player logic. The fallback player logic
+     *                            should make its move fast and synchronously.
+     * @param deadline The deadline of a move, must be > 0.
+     * @param unit The time unit of the deadline, must not be null.
+     * @param scheduler The scheduler for the deadlines, must not be null.
+     * @param executor The executor of the game thread, which makes the moves, e.g. the game actor of
+     *                 the game. Must not be null.
+     */
+    public DeadlinePlayerLogic(IAsyncPlayerLogic asyncPlayerLogic, IPlayerLogic fallbackPlayerLogic,
+                               long deadline, TimeUnit unit, ScheduledExecutorService scheduler,
+                               Executor executor) {
+        super(requireNonNull(asyncPlayerLogic).getPlayer());
+        this.asyncPlayerLogic = asyncPlayerLogic;
+        this.fallbackPlayerLogic = requireNonNull(fallbackPlayerLogic);
+        if (!getPlayer().equals(fallbackPlayerLogic.getPlayer()))
+            throw new AssertionError("fallbackPlayerLogic must use the same player!");
+        if (deadline < 1) throw new AssertionError("deadline must be > 0!");
+        this.deadline = deadline;
+        this.unit = requireNonNull(unit);
+        this.scheduler = requireNonNull(scheduler);
+        this.executor = requireNonNull(executor);
+    }
+
+
+    @Override
+    public void requestMove(IReadOnlyGameBoard gameBoard, ILogicCallback callback) {
+        requireNonNull(gameBoard);
+        requireNonNull(callback);
+
+        CompletableFuture<Integer> future;
+        try {
+            future = requireNonNull(asyncPlayerLogic.computeMove(gameBoard));
+        } catch (RuntimeException e) {
+            fallbackPlayerLogic.requestMove(gameBoard, callback);
+            return;
+        }
+
+        pendingMove = new PendingMove(gameBoard, callback, future);
+        pendingMove.start();
+    }
+
+    @Override
+    public void cancelMove() {
+        PendingMove move = pendingMove;
+        if (move != null)
+            move.cancel();
+        fallbackPlayerLogic.cancelMove();
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("asyncPlayerLogic", asyncPlayerLogic)
+                .add("fallbackPlayerLogic", fallbackPlayerLogic)
+                .add("deadline", deadline)
+                .add("unit", unit)
+                .toString();
+    }
+
+
+    /* Runs the task and passes an exception to the uncaught exception handler of the thread, because
+       the future and the scheduler would swallow it. */
+    private static void runReporting(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException | Error e) {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+
+    /* A move, which is computed by the asynchronous player logic. */
+    private class PendingMove {
+
+        /* The game board. */
+        private final IReadOnlyGameBoard gameBoard;
+
+        /* The logic callback. */
+        private final ILogicCallback callback;
+
+        /* The future of the move. */
+        private final CompletableFuture<Integer> future;
+
+        /* Is true if the move was computed, cancelled or the deadline has passed. */
+        private final AtomicBoolean isDone = new AtomicBoolean(false);
+
+        /* Is true if the move was cancelled, only used by the game thread. */
+        private boolean isCancelled = false;
+
+
+        /* Creates the pending move. */
+        private PendingMove(IReadOnlyGameBoard gameBoard, ILogicCallback callback,
+                            CompletableFuture<Integer> future) {
+            this.gameBoard = gameBoard;
+            this.callback = callback;
+            this.future = future;
+        }
+
+        /* Starts the deadline and waits for the move. */
+        private void start() {
+            ScheduledFuture<?> timeout = scheduler.schedule(() -> runReporting(this::onDeadline), deadline, unit);
+            future.whenComplete((index, error) -> {
+                timeout.cancel(false);
+                runReporting(() -> onMoveComputed(index, error));
+            });
+        }
+
+        /* Makes the computed move on the game thread or the fallback move if the computed move is
+           invalid. */
+        private void onMoveComputed(Integer index, Throwable error) {
+            if (!isDone.compareAndSet(false, true))
+                return;
+
+            executor.execute(() -> {
+                // The move could have been cancelled, before the game thread runs the move:
+                if (isCancelled)
+                    return;
+                if ((error == null) && isValidMove(index) && (callback.makeMove(index, getPlayer()) != null))
+                    return;
+                fallbackPlayerLogic.requestMove(gameBoard, callback);
+            });
+        }
+
+        /* Returns true if the move is valid. */
+        private boolean isValidMove(Integer index) {
+            return (index != null) && (index >= 0) && (index <= 63) && gameBoard.isFieldEmpty(index);
+        }
+
+        /* Cancels the computation without making a move, called by the game thread. */
+        private void cancel() {
+            isCancelled = true;
+            if (isDone.compareAndSet(false, true))
+                future.cancel(true);
+        }
+
+        /* Cancels the computation and makes the fallback move on the game thread. */
+        private void onDeadline() {
+            if (!isDone.compareAndSet(false, true))
+                return;
+
+            future.cancel(true);
+            executor.execute(() -> {
+                if (!isCancelled)
+                    fallbackPlayerLogic.requestMove(gameBoard, callback);
+            });
+        }
+
+    }
+
+}
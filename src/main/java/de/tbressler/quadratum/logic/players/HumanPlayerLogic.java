@@ -4,7 +4,9 @@ import de.tbressler.quadratum.logic.ILogicCallback;
 import de.tbressler.quadratum.model.IReadOnlyGameBoard;
 import de.tbressler.quadratum.model.Player;
 
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static de.tbressler.quadratum.utils.GameBoardUtils.assertIndex;
 import static java.util.Objects.requireNonNull;
@@ -13,19 +15,51 @@ import static java.util.Objects.requireNonNull;
  * The player logic for a human player. This logic can be used by the user interface of the
  * application, which accepts the user input.
  *
+ * <p>The logic is lock-free. The turn of the player is a state machine in a single atomic field,
+ * which holds the number of the turn and its state (idle, active or moving). A move is handed over
+ * to the callback by a compare-and-set from active to moving, so of many concurrent calls of
+ * {@link #placePiece(int)} exactly one makes the move and all others return false immediately.</p>
+ *
+ * <p>While the opponent is active, the player can queue premoves with {@link #premove(int)}. When
+ * the next move is requested, the first premove on an empty field is made immediately, without a
+ * round-trip to the user interface. Premoves on fields, which are not empty anymore, are
+ * dropped. A premove, which loses the turn to a concurrent move, is kept for the next turn. The
+ * premoves are removed, if the move is cancelled, e.g. by a takeback or a new game.</p>
+ *
  * @author Tobias Bressler
  * @version 1.0
  */
 public class HumanPlayerLogic extends AbstractPlayerLogic {
 
-    /* True if the player is active. */
-    private boolean isPlayerActive = false;
+    /* The states of the turn. */
+    private static final int IDLE = 0;
+    private static final int ACTIVE = 1;
+    private static final int MOVING = 2;
+
+    /** The maximum number of queued premoves. */
+    public static final int MAX_PREMOVES = 64;
+
+    /* The mask of the state and the increment of the turn number. */
+    private static final int STATE_MASK = 3;
+    private static final int NEXT_TURN = 4;
+
 
-    /* Lock. */
-    private final ReentrantLock lock = new ReentrantLock(true);
+    /* The number of the turn and its state. */
+    private final AtomicInteger turn = new AtomicInteger(IDLE);
 
-    /* The logic callback. */
-    private ILogicCallback logicCallback = null;
+    /* The logic callback, which is published by the turn. The callback is not cleared, if the turn
+       is cancelled, so an active turn always has a callback, even if a move is requested while an
+       older turn is cancelled. */
+    private volatile ILogicCallback logicCallback = null;
+
+    /* The game board of the current turn. */
+    private volatile IReadOnlyGameBoard gameBoard = null;
+
+    /* The queued premoves. */
+    private final Deque<Integer> premoves = new ConcurrentLinkedDeque<>();
+
+    /* The number of times the premoves were cleared. */
+    private final AtomicInteger premoveClears = new AtomicInteger(0);
 
 
     /**
@@ -39,15 +73,84 @@ public class HumanPlayerLogic extends AbstractPlayerLogic {
 
     @Override
     public void requestMove(IReadOnlyGameBoard gameBoard, ILogicCallback callback) {
-        try {
-            lock.lock();
+        this.logicCallback = requireNonNull(callback);
+        this.gameBoard = gameBoard;
 
-            this.logicCallback = requireNonNull(callback);
+        // Start a new turn, an outdated move can't complete it:
+        int current;
+        do {
+            current = turn.get();
+        } while (!turn.compareAndSet(current, ((current & ~STATE_MASK) + NEXT_TURN) | ACTIVE));
 
-            isPlayerActive = true;
+        applyPremoves();
+    }
 
-        } finally {
-            lock.unlock();
+    @Override
+    public void cancelMove() {
+        clearPremoves();
+
+        int current;
+        do {
+            current = turn.get();
+            if ((current & STATE_MASK) == IDLE)
+                return;
+        } while (!turn.compareAndSet(current, current & ~STATE_MASK));
+    }
+
+
+    /**
+     * Queues a premove, which is made when the next move of the player is requested. If the player
+     * is already active, the premove is made immediately.
+     *
+     * @param index The field index, between 0..63.
+     * @return True if the premove was queued, false if the queue is full.
+     */
+    public boolean premove(int index) {
+        assertIndex(index, "Index must be between 0 and 63!");
+        if (premoves.size() >= MAX_PREMOVES)
+            return false;
+        premoves.offer(index);
+
+        // The move could have been requested before the premove was queued:
+        if (isPlayerActive())
+            applyPremoves();
+        return true;
+    }
+
+    /**
+     * Removes all queued premoves.
+     */
+    public void clearPremoves() {
+        premoveClears.incrementAndGet();
+        premoves.clear();
+    }
+
+    /**
+     * Returns the number of queued premoves.
+     *
+     * @return The number of premoves.
+     */
+    public int getPremoveCount() {
+        return premoves.size();
+    }
+
+    /* Makes the first queued premove on an empty field, if the player is active. */
+    private void applyPremoves() {
+        while (isPlayerActive()) {
+            int clears = premoveClears.get();
+            IReadOnlyGameBoard board = gameBoard;
+            Integer index = premoves.pollFirst();
+            if (index == null)
+                return;
+            if ((board == null) || !board.isFieldEmpty(index))
+                continue;
+            if (makeMove(index) != null)
+                return;
+
+            // A concurrent move has won the turn, so the premove is kept for the next turn:
+            premoves.offerFirst(index);
+            if (premoveClears.get() != clears)
+                premoves.removeFirstOccurrence(index);
         }
     }
 
@@ -58,7 +161,7 @@ public class HumanPlayerLogic extends AbstractPlayerLogic {
      * @return True if the player is active.
      */
     public boolean isPlayerActive() {
-        return isPlayerActive;
+        return (turn.get() & STATE_MASK) == ACTIVE;
     }
 
 
@@ -70,18 +173,27 @@ public class HumanPlayerLogic extends AbstractPlayerLogic {
      */
     public boolean placePiece(int index) {
         assertIndex(index, "Index must be between 0 and 63!");
-        try {
-            lock.lock();
-
-            if (!isPlayerActive)
-                return false;
+        return makeMove(index) == Boolean.TRUE;
+    }
 
-            isPlayerActive = false;
+    /* Hands the move over to the callback. Returns true if the piece was placed, false if the move
+       was rejected or null if the player was not active. */
+    private Boolean makeMove(int index) {
+        int active = turn.get();
+        if ((active & STATE_MASK) != ACTIVE)
+            return null;
 
-            return logicCallback.makeMove(index, getPlayer());
+        // The callback is published before the turn, so it belongs to this or a later turn:
+        ILogicCallback callback = logicCallback;
+        int moving = (active & ~STATE_MASK) | MOVING;
+        if (!turn.compareAndSet(active, moving))
+            return null;
 
+        try {
+            return callback.makeMove(index, getPlayer()) != null;
         } finally {
-            lock.unlock();
+            // Complete the turn, unless a new turn was started or the turn was cancelled:
+            turn.compareAndSet(moving, moving & ~STATE_MASK);
         }
     }
 
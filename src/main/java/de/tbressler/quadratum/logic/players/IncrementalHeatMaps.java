@@ -0,0 +1,203 @@
+package de.tbressler.quadratum.logic.players;
+
+import de.tbressler.quadratum.logic.players.BotPlayerLogic.Strategy;
+import de.tbressler.quadratum.model.IGameBoardListener;
+import de.tbressler.quadratum.model.IReadOnlyGameBoard;
+import de.tbressler.quadratum.model.Player;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static de.tbressler.quadratum.utils.SquareTable.*;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The heat maps of a bot, which are updated by the events of the game board. A placed or removed
+ * piece only changes the squares, which have an edge on its field, so only the heat of the edges
+ * of these squares is updated. The heat maps are always the same as the heat maps, which are
+ * computed from the whole game board by {@link BotPlayerLogic}.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+final class IncrementalHeatMaps implements IGameBoardListener {
+
+    /* Every square is rated by two pairs of its edges, so the long term heat counts it twice. */
+    private static final int LONG_TERM_FACTOR = 2;
+
+
+    /* The game board. */
+    private final IReadOnlyGameBoard gameBoard;
+
+    /* The player of the bot. */
+    private final Player player;
+
+    /* The strategy of the bot. */
+    private final Strategy strategy;
+
+    /* The number of pieces of the player, indexed by square. */
+    private final int[] playerPieces = new int[SQUARES];
+
+    /* The number of pieces of the opponent, indexed by square. */
+    private final int[] opponentPieces = new int[SQUARES];
+
+    /* The heat of the square for the player, indexed by square. */
+    private final int[] playerSquareHeat = new int[SQUARES];
+
+    /* The heat of the square for the opponent, indexed by square. */
+    private final int[] opponentSquareHeat = new int[SQUARES];
+
+    /* The heat map of the player. */
+    private final int[] playerHeatMap = new int[64];
+
+    /* The heat map of the opponent. */
+    private final int[] opponentHeatMap = new int[64];
+
+
+    /**
+     * Creates the heat maps of the current pieces of the game board. The heat maps must be added
+     * as listener to the game board.
+     *
+     * @param gameBoard The game board, must not be null.
+     * @param player The player of the bot, must not be null.
+     * @param strategy The strategy of the bot, must not be null.
+     */
+    IncrementalHeatMaps(IReadOnlyGameBoard gameBoard, Player player, Strategy strategy) {
+        this.gameBoard = requireNonNull(gameBoard);
+        this.player = requireNonNull(player);
+        this.strategy = requireNonNull(strategy);
+        reload();
+    }
+
+
+    /* Recomputes the heat maps from the pieces of the game board. */
+    private void reload() {
+        for (int s = 0; s < SQUARES; s++) {
+            playerPieces[s] = 0;
+            opponentPieces[s] = 0;
+            for (int e = 0; e < 4; e++) {
+                Player piece = gameBoard.getPiece(getEdge(s, e));
+                if (piece == player)
+                    playerPieces[s]++;
+                else if (piece != null)
+                    opponentPieces[s]++;
+            }
+            rateSquare(s);
+        }
+        for (int i = 0; i < 64; i++)
+            computeHeat(i);
+    }
+
+    /* Updates the pieces of the squares at the field and the heat of their edges. */
+    private void update(int index, Player piece, int sign) {
+        int[] pieces = (piece == player) ? playerPieces : opponentPieces;
+        long changedFields = 0;
+
+        for (int n = getSquareCountAt(index) - 1; n >= 0; n--) {
+            int s = getSquareAt(index, n);
+            if (strategy == Strategy.LONG_TERM)
+                addSquareHeat(s, -1);
+            pieces[s] += sign;
+            rateSquare(s);
+            if (strategy == Strategy.LONG_TERM)
+                addSquareHeat(s, 1);
+            else
+                for (int e = 0; e < 4; e++)
+                    changedFields |= 1L << getEdge(s, e);
+        }
+
+        // The short term heat is the maximum, so it is recomputed for the changed fields:
+        for (; changedFields != 0; changedFields &= changedFields - 1)
+            computeHeat(Long.numberOfTrailingZeros(changedFields));
+    }
+
+    /* Computes the heat of the square for the player and the opponent. */
+    private void rateSquare(int square) {
+        int score = getScore(square);
+        playerSquareHeat[square] = 0;
+        opponentSquareHeat[square] = 0;
+        if ((opponentPieces[square] > 0) && (playerPieces[square] == 0))
+            opponentSquareHeat[square] = score * (opponentPieces[square] + 1);
+        else if (opponentPieces[square] == 0)
+            playerSquareHeat[square] = score * (playerPieces[square] + 1);
+    }
+
+    /* Adds (sign 1) or removes (sign -1) the long term heat of the square at its edges. */
+    private void addSquareHeat(int square, int sign) {
+        for (int e = 0; e < 4; e++) {
+            int edge = getEdge(square, e);
+            playerHeatMap[edge] += sign * LONG_TERM_FACTOR * playerSquareHeat[square];
+            opponentHeatMap[edge] += sign * LONG_TERM_FACTOR * opponentSquareHeat[square];
+        }
+    }
+
+    /* Computes the heat of the field from the squares at the field. */
+    private void computeHeat(int index) {
+        int playerHeat = 0;
+        int opponentHeat = 0;
+        for (int n = getSquareCountAt(index) - 1; n >= 0; n--) {
+            int s = getSquareAt(index, n);
+            if (strategy == Strategy.LONG_TERM) {
+                playerHeat += LONG_TERM_FACTOR * playerSquareHeat[s];
+                opponentHeat += LONG_TERM_FACTOR * opponentSquareHeat[s];
+            } else {
+                playerHeat = Math.max(playerHeat, playerSquareHeat[s]);
+                opponentHeat = Math.max(opponentHeat, opponentSquareHeat[s]);
+            }
+        }
+        playerHeatMap[index] = playerHeat;
+        opponentHeatMap[index] = opponentHeat;
+    }
+
+
+    /**
+     * Returns the game board of the heat maps.
+     *
+     * @return The game board, never null.
+     */
+    IReadOnlyGameBoard getGameBoard() {
+        return gameBoard;
+    }
+
+    /**
+     * Returns the heat map of the player. The array must not be changed.
+     *
+     * @return The heat map, indexed by field.
+     */
+    int[] getPlayerHeatMap() {
+        return playerHeatMap;
+    }
+
+    /**
+     * Returns the heat map of the opponent. The array must not be changed.
+     *
+     * @return The heat map, indexed by field.
+     */
+    int[] getOpponentHeatMap() {
+        return opponentHeatMap;
+    }
+
+
+    @Override
+    public void onPiecePlaced(int index, Player player) {
+        update(index, player, 1);
+    }
+
+    @Override
+    public void onPieceRemoved(int index, Player player) {
+        update(index, player, -1);
+    }
+
+    @Override
+    public void onGameBoardCleared() {
+        reload();
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("player", player)
+                .add("strategy", strategy)
+                .toString();
+    }
+
+}
@@ -0,0 +1,229 @@
+package de.tbressler.quadratum.logic.players;
+
+import de.tbressler.quadratum.logic.ILogicCallback;
+import de.tbressler.quadratum.model.IReadOnlyGameBoard;
+import de.tbressler.quadratum.model.Player;
+import de.tbressler.quadratum.search.MonteCarloTreeSearch;
+import de.tbressler.quadratum.search.MonteCarloTreeSearch.PlayoutPolicy;
+import de.tbressler.quadratum.search.SearchBoard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static de.tbressler.quadratum.search.MonteCarloTreeSearch.DEFAULT_MAX_NODES;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A bot, which searches its moves with a Monte Carlo tree search (see
+ * {@link MonteCarloTreeSearch}). The search is parallelized at the root: every worker searches
+ * the position with its own tree and its own random playouts on a fork-join pool. At the end of
+ * the time budget the visits of the root moves of all workers are merged and the move with the
+ * most visits is made. So additional workers make the bot stronger without any synchronization
+ * between the workers.
+ *
+ * <p>The move is computed on the thread, which requests the move. If the game logic should not be
+ * blocked, the game logic should use an executor (see
+ * {@link de.tbressler.quadratum.logic.GameLogic#setExecutor(java.util.concurrent.Executor)}).</p>
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class MonteCarloPlayerLogic extends AbstractPlayerLogic {
+
+    /* The time budget of a move in nanoseconds. */
+    private final long timeBudget;
+
+    /* The fork-join pool of the workers. */
+    private final ForkJoinPool pool;
+
+    /* The searches of the workers. */
+    private final MonteCarloTreeSearch[] searches;
+
+    /* The boards of the workers. */
+    private final SearchBoard[] boards;
+
+    /* The visits of the root moves, indexed by worker. */
+    private final long[][] rootVisits;
+
+    /* The tasks of the workers. */
+    private final List<Callable<Void>> tasks = new ArrayList<>();
+
+    /* The number of the last move request, a cancelled request is never made. */
+    private final AtomicInteger request = new AtomicInteger(0);
+
+    /* The deadline of the running search. */
+    private volatile long deadline;
+
+    /* The number of iterations of the last search. */
+    private volatile long iterations = 0;
+
+
+    /**
+     * Creates the Monte Carlo player logic with playouts, which prefer hot fields.
+     *
+     * @param player The player, must not be null.
+     * @param workers The number of workers, must be > 0.
+     * @param timeBudget The time budget of a move, must be > 0.
+     * @param unit The time unit of the time budget, must not be null.
+     * @param pool The fork-join pool of the workers, must not be null. The parallelism of the pool
+     *             should not be lower than the number of workers.
+     */
+    public MonteCarloPlayerLogic(Player player, int workers, long timeBudget, TimeUnit unit, ForkJoinPool pool) {
+        this(player, workers, timeBudget, unit, pool, PlayoutPolicy.HEAT);
+    }
+
+    /**
+     * Creates the Monte Carlo player logic.
+     *
+     * @param player The player, must not be null.
+     * @param workers The number of workers, must be > 0.
+     * @param timeBudget The time budget of a move, must be > 0.
+     * @param unit The time unit of the time budget, must not be null.
+     * @param pool The fork-join pool of the workers, must not be null. The parallelism of the pool
+     *             should not be lower than the number of workers.
+     * @param policy The playout policy, must not be null.
+     */
+    public MonteCarloPlayerLogic(Player player, int workers, long timeBudget, TimeUnit unit, ForkJoinPool pool,
+                                 PlayoutPolicy policy) {
+        super(player);
+        if (workers < 1) throw new AssertionError("workers must be > 0!");
+        if (timeBudget < 1) throw new AssertionError("timeBudget must be > 0!");
+        this.timeBudget = requireNonNull(unit).toNanos(timeBudget);
+        this.pool = requireNonNull(pool);
+        requireNonNull(policy);
+
+        SplittableRandom seeds = new SplittableRandom();
+        this.searches = new MonteCarloTreeSearch[workers];
+        this.boards = new SearchBoard[workers];
+        this.rootVisits = new long[workers][64];
+        for (int i = 0; i < workers; i++) {
+            searches[i] = new MonteCarloTreeSearch(DEFAULT_MAX_NODES, policy, seeds.nextLong());
+            boards[i] = new SearchBoard(150, 15);
+            int worker = i;
+            tasks.add(() -> {
+                Arrays.fill(rootVisits[worker], 0);
+                searches[worker].search(boards[worker], deadline, rootVisits[worker]);
+                return null;
+            });
+        }
+    }
+
+
+    /**
+     * Sets the maximum number of iterations of every worker per move. With a limited number of
+     * iterations and a seed the moves don't depend on the time (see {@link #setSeed(long)}).
+     *
+     * @param maxIterations The maximum number of iterations, must be > 0. Not limited by default.
+     */
+    public synchronized void setMaxIterations(long maxIterations) {
+        for (MonteCarloTreeSearch search : searches)
+            search.setMaxIterations(maxIterations);
+    }
+
+    /**
+     * Sets the seed of the random playouts of the workers. By default the seed is random.
+     *
+     * @param seed The seed.
+     */
+    public synchronized void setSeed(long seed) {
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (MonteCarloTreeSearch search : searches)
+            search.setSeed(seeds.nextLong());
+    }
+
+
+    @Override
+    public synchronized void requestMove(IReadOnlyGameBoard gameBoard, ILogicCallback callback) {
+        requireNonNull(gameBoard);
+        requireNonNull(callback);
+
+        // The stop of the last move is reset before the request is counted, so a cancel of this
+        // move stops the workers, even if they are not started yet:
+        for (MonteCarloTreeSearch search : searches)
+            search.clearStop();
+        int number = request.incrementAndGet();
+        for (SearchBoard board : boards)
+            board.load(gameBoard, getPlayer());
+        deadline = System.nanoTime() + timeBudget;
+
+        for (Future<Void> future : pool.invokeAll(tasks)) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search failed!", e.getCause());
+            }
+        }
+
+        int index = mergeRootVisits();
+        if (request.get() == number)
+            callback.makeMove(index, getPlayer());
+    }
+
+    /* Merges the visits of the root moves of all workers and returns the move with most visits. */
+    private int mergeRootVisits() {
+        int bestMove = -1;
+        long bestVisits = -1;
+        for (int i = 0; i < 64; i++) {
+            long moveVisits = 0;
+            for (long[] workerVisits : rootVisits)
+                moveVisits += workerVisits[i];
+            if ((moveVisits > bestVisits) && boards[0].isFieldEmpty(i)) {
+                bestVisits = moveVisits;
+                bestMove = i;
+            }
+        }
+
+        long sum = 0;
+        for (MonteCarloTreeSearch search : searches)
+            sum += search.getIterationCount();
+        iterations = sum;
+        return bestMove;
+    }
+
+    @Override
+    public void cancelMove() {
+        request.incrementAndGet();
+        for (MonteCarloTreeSearch search : searches)
+            search.stop();
+    }
+
+    /**
+     * Returns the number of iterations of all workers of the last move.
+     *
+     * @return The number of iterations.
+     */
+    public long getIterationCount() {
+        return iterations;
+    }
+
+    /**
+     * Returns the number of workers.
+     *
+     * @return The number of workers.
+     */
+    public int getWorkerCount() {
+        return searches.length;
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("workers", searches.length)
+                .add("timeBudget", timeBudget)
+                .toString();
+    }
+
+}
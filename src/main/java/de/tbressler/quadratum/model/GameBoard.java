@@ -65,8 +65,8 @@ public class GameBoard implements IReadOnlyGameBoard {
 
     /* Notifies listeners that the game board was cleared. */
     private void fireOnGameBoardCleared() {
-        for(IGameBoardListener listener : listeners)
-            listener.onGameBoardCleared();
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onGameBoardCleared();
     }
 
 
@@ -94,8 +94,28 @@ public class GameBoard implements IReadOnlyGameBoard {
 
     /* Notifies all listeners that a piece was placed on the game board. */
     private void fireOnPiecePlaced(int index, Player player) {
-        for(IGameBoardListener listener : listeners)
-            listener.onPiecePlaced(index, player);
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onPiecePlaced(index, player);
+    }
+
+
+    /**
+     * Removes a piece from the game board, e.g. if a move is taken back.
+     *
+     * @param index The field index, between 0 and 63. The field must not be empty.
+     */
+    public void removePiece(int index) {
+        Player player = getPiece(index);
+        if (player == null)
+            throw new AssertionError("The given field index is empty!");
+        board[index] = 0;
+        fireOnPieceRemoved(index, player);
+    }
+
+    /* Notifies all listeners that a piece was removed from the game board. */
+    private void fireOnPieceRemoved(int index, Player player) {
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onPieceRemoved(index, player);
     }
 
 
@@ -16,6 +16,17 @@ public interface IGameBoardListener {
      */
     void onPiecePlaced(int index, Player player);
 
+    /**
+     * This method is called, if a piece was removed from the game board, e.g. if a move was taken
+     * back. By default nothing is done.
+     *
+     * @param index The index where the piece was removed.
+     * @param player The player whose piece was removed.
+     */
+    default void onPieceRemoved(int index, Player player) {
+        // Nothing to do.
+    }
+
     /**
      * This method is called, if the game board was cleared.
      */
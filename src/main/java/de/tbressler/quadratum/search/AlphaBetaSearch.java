@@ -0,0 +1,428 @@
+package de.tbressler.quadratum.search;
+
+import java.util.SplittableRandom;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static de.tbressler.quadratum.search.TranspositionTable.*;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A negamax search with alpha-beta pruning and iterative deepening. The search deepens the
+ * position depth by depth until the deadline has passed and returns the best move of the deepest
+ * completed depth.
+ *
+ * <p>The search doesn't allocate memory per position: the moves are made and unmade on the
+ * {@link SearchBoard} and the move lists are preallocated for every ply. The moves are ordered by
+ * the best move of the previous depth, by killer moves, by the history of cutoffs and near the
+ * root by the heat of the fields.</p>
+ *
+ * <p>If the search has a {@link TranspositionTable}, the results of the searched positions are
+ * stored in the table and positions, which are reached again by another order of moves, are not
+ * searched again. The best move of a stored position is searched first.</p>
+ *
+ * <p>A search is not thread-safe, every thread needs its own search. Several searches can search
+ * the same position in parallel with a shared table (see {@link LazySmpSearch}).</p>
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class AlphaBetaSearch {
+
+    /** The maximum depth of the search. */
+    public static final int MAX_DEPTH = 64;
+
+    /* The scores above this bound are won games. */
+    private static final int WIN_BOUND = SearchBoard.WIN_SCORE - MAX_DEPTH;
+
+    /* The minimum remaining depth, at which the moves are ordered by heat. */
+    private static final int HEAT_ORDERING_DEPTH = 3;
+
+    /* The number of nodes between two checks of the deadline. */
+    private static final int CHECK_INTERVAL = 1024;
+
+    /* The maximum random ordering key of a helper search. */
+    private static final int HELPER_ORDERING_NOISE = 64;
+
+    /* The schedules of the depths of the helpers: helper h skips the depths d with
+       ((d + SKIP_PHASE[i]) / SKIP_SIZE[i]) odd, i = (h - 1) % 20. So the helpers skip blocks of 1..4
+       depths in different phases and 20 helpers search 20 different sequences of depths. */
+    private static final int[] SKIP_SIZE = {1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4, 4};
+    private static final int[] SKIP_PHASE = {0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6, 7};
+
+
+    /* The moves, indexed by ply. */
+    private final int[][] moves = new int[MAX_DEPTH + 1][64];
+
+    /* The ordering keys of the moves, indexed by ply. */
+    private final int[][] keys = new int[MAX_DEPTH + 1][64];
+
+    /* The killer moves, indexed by ply. */
+    private final int[][] killers = new int[MAX_DEPTH + 1][2];
+
+    /* The history of cutoffs, indexed by side and field. */
+    private final int[][] history = new int[2][64];
+
+    /* The random ordering keys of the fields, only used by helper searches. */
+    private final int[] orderingNoise = new int[64];
+
+    /* The size of the blocks of skipped depths or 0, if no depth is skipped (main search). */
+    private int skipSize = 0;
+
+    /* The phase of the blocks of skipped depths. */
+    private int skipPhase = 0;
+
+    /* The transposition table or null. */
+    private TranspositionTable table = null;
+
+    /* The board of the running search. */
+    private SearchBoard board;
+
+    /* The deadline in nanoseconds. */
+    private long deadline;
+
+    /* Is true if the search must stop. */
+    private volatile boolean isStopped = false;
+
+    /* Is true if the current depth was aborted. */
+    private boolean isAborted = false;
+
+    /* The countdown to the next check of the deadline. */
+    private int checkCountdown;
+
+    /* The number of searched nodes. */
+    private long nodes = 0;
+
+    /* The deepest completed depth. */
+    private int completedDepth = 0;
+
+    /* The score of the best move. */
+    private int bestScore = 0;
+
+
+    /**
+     * Sets the transposition table of the search. The table can be shared with other searches.
+     *
+     * @param table The transposition table or null, if no table should be used.
+     */
+    public void setTranspositionTable(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Searches the best move for the player to move.
+     *
+     * @param board The board, must not be null and must have at least one empty field. The board is
+     *              changed during the search and restored afterwards.
+     * @param maxDepth The maximum depth, between 1..{@link #MAX_DEPTH}.
+     * @param timeBudget The time budget in nanoseconds, must be > 0. At least depth 1 is searched.
+     * @return The field index of the best move, between 0..63.
+     */
+    public int findBestMove(SearchBoard board, int maxDepth, long timeBudget) {
+        if (timeBudget < 1) throw new AssertionError("timeBudget must be > 0!");
+        isStopped = false;
+        return searchUntil(board, maxDepth, System.nanoTime() + timeBudget);
+    }
+
+    /**
+     * Searches the best move for the player to move until the deadline has passed or the search is
+     * stopped. Unlike {@link #findBestMove(SearchBoard, int, long)} a previous call of
+     * {@link #stop()} is not reset, so a search can be stopped before it was started.
+     *
+     * @param board The board, must not be null and must have at least one empty field.
+     * @param maxDepth The maximum depth, between 1..{@link #MAX_DEPTH}.
+     * @param deadline The deadline as {@link System#nanoTime()}.
+     * @return The field index of the best move, between 0..63.
+     */
+    int searchUntil(SearchBoard board, int maxDepth, long deadline) {
+        requireNonNull(board);
+        if ((maxDepth < 1) || (maxDepth > MAX_DEPTH))
+            throw new AssertionError("maxDepth must be between 1 and " + MAX_DEPTH + "!");
+        if (board.getEmptyFields() == 0)
+            throw new AssertionError("The board has no empty fields!");
+
+        this.board = board;
+        this.deadline = deadline;
+        this.checkCountdown = CHECK_INTERVAL;
+        this.nodes = 0;
+        this.completedDepth = 0;
+        clearOrdering();
+
+        int rootCount = generateMoves(0, HEAT_ORDERING_DEPTH, NO_MOVE);
+        int[] rootMoves = moves[0];
+        int[] rootScores = keys[0];
+        sortMoves(rootMoves, rootScores, rootCount);
+
+        int bestMove = rootMoves[0];
+        int depthLimit = Math.min(maxDepth, Long.bitCount(board.getEmptyFields()));
+
+        for (int depth = 1; depth <= depthLimit; depth++) {
+            if (isDepthSkipped(depth))
+                continue;
+            isAborted = false;
+            int alpha = -SearchBoard.WIN_SCORE - 1;
+            int depthBestMove = -1;
+
+            for (int i = 0; i < rootCount; i++) {
+                int move = rootMoves[i];
+                board.make(move);
+                int score = -search(depth - 1, 1, -SearchBoard.WIN_SCORE - 1, -alpha);
+                board.unmake(move);
+                if (isAborted)
+                    break;
+
+                rootScores[i] = score;
+                if (score > alpha) {
+                    alpha = score;
+                    depthBestMove = move;
+                }
+            }
+
+            // An aborted depth is only used, if the best move of the previous depth was searched:
+            if (depthBestMove >= 0) {
+                bestMove = depthBestMove;
+                bestScore = alpha;
+            }
+            if (isAborted)
+                break;
+
+            completedDepth = depth;
+            if (Math.abs(alpha) >= WIN_BOUND)
+                break;
+            sortMoves(rootMoves, rootScores, rootCount);
+        }
+
+        this.board = null;
+        return bestMove;
+    }
+
+    /**
+     * Stops the running search. The search returns the best move, which was found so far.
+     */
+    public void stop() {
+        isStopped = true;
+    }
+
+    /**
+     * Resets a previous call of {@link #stop()} before {@link #searchUntil(SearchBoard, int, long)}.
+     */
+    void clearStop() {
+        isStopped = false;
+    }
+
+    /**
+     * Makes the search a helper of a parallel search or the main search (helper 0). The helpers
+     * skip blocks of depths of the iterative deepening by their own schedule and order the moves
+     * with random keys, so they search different parts of the tree and fill the shared table for
+     * each other.
+     *
+     * @param helper The number of the helper or 0 for the main search.
+     */
+    void setHelper(int helper) {
+        if (helper < 0) throw new AssertionError("helper must be >= 0!");
+        skipSize = (helper == 0) ? 0 : SKIP_SIZE[(helper - 1) % SKIP_SIZE.length];
+        skipPhase = (helper == 0) ? 0 : SKIP_PHASE[(helper - 1) % SKIP_PHASE.length];
+        SplittableRandom random = new SplittableRandom(helper);
+        for (int i = 0; i < 64; i++)
+            orderingNoise[i] = (helper == 0) ? 0 : random.nextInt(HELPER_ORDERING_NOISE);
+    }
+
+    /**
+     * Returns true if the depth is skipped by the iterative deepening of this search. The main
+     * search doesn't skip depths.
+     *
+     * @param depth The depth, must be > 0.
+     * @return True if the depth is skipped.
+     */
+    boolean isDepthSkipped(int depth) {
+        return (skipSize > 0) && (((depth + skipPhase) / skipSize) % 2 != 0);
+    }
+
+    /* Clears the killer moves and ages the history. */
+    private void clearOrdering() {
+        for (int[] killer : killers) {
+            killer[0] = -1;
+            killer[1] = -1;
+        }
+        for (int[] sideHistory : history)
+            for (int i = 0; i < 64; i++)
+                sideHistory[i] >>= 2;
+    }
+
+    /* The negamax search with alpha-beta pruning. */
+    private int search(int depth, int ply, int alpha, int beta) {
+        nodes++;
+        if (--checkCountdown <= 0) {
+            checkCountdown = CHECK_INTERVAL;
+            if (isStopped || (System.nanoTime() - deadline > 0))
+                isAborted = true;
+        }
+        if (isAborted)
+            return 0;
+
+        int evaluation = board.evaluate();
+        if (board.isGameOver())
+            return (evaluation > 0) ? evaluation - ply : (evaluation < 0) ? evaluation + ply : 0;
+        if ((depth <= 0) || (ply >= MAX_DEPTH))
+            return evaluation;
+
+        long hash = board.getHash();
+        int tableMove = NO_MOVE;
+        if (table != null) {
+            long data = table.probe(hash);
+            if (data != MISS) {
+                tableMove = getMove(data);
+                if (getDepth(data) >= depth) {
+                    int score = fromTable(getScore(data), ply);
+                    int bound = getBound(data);
+                    if ((bound == EXACT) || ((bound == LOWER_BOUND) && (score >= beta)) ||
+                            ((bound == UPPER_BOUND) && (score <= alpha)))
+                        return score;
+                }
+            }
+        }
+
+        int count = generateMoves(ply, depth, tableMove);
+        if (count == 0)
+            return evaluation;
+        int[] plyMoves = moves[ply];
+        sortMoves(plyMoves, keys[ply], count);
+
+        int side = board.getSide();
+        int originalAlpha = alpha;
+        int bestScore = -SearchBoard.WIN_SCORE - 1;
+        int bestMove = NO_MOVE;
+        for (int i = 0; i < count; i++) {
+            int move = plyMoves[i];
+            board.make(move);
+            int score = -search(depth - 1, ply + 1, -beta, -alpha);
+            board.unmake(move);
+            if (isAborted)
+                return 0;
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        storeCutoff(ply, side, move, depth);
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (table != null) {
+            int bound = (bestScore <= originalAlpha) ? UPPER_BOUND : (bestScore >= beta) ? LOWER_BOUND : EXACT;
+            table.store(hash, depth, bound, toTable(bestScore, ply), bestMove);
+        }
+        return bestScore;
+    }
+
+    /* Returns the score for the table, the scores of won games are relative to the position. */
+    private static int toTable(int score, int ply) {
+        return (score >= WIN_BOUND) ? score + ply : (score <= -WIN_BOUND) ? score - ply : score;
+    }
+
+    /* Returns the score from the table, the scores of won games are relative to the root. */
+    private static int fromTable(int score, int ply) {
+        return (score >= WIN_BOUND) ? score - ply : (score <= -WIN_BOUND) ? score + ply : score;
+    }
+
+    /* Generates the empty fields as moves and their ordering keys. Returns the number of moves. */
+    private int generateMoves(int ply, int depth, int tableMove) {
+        int[] plyMoves = moves[ply];
+        int[] plyKeys = keys[ply];
+        int[] sideHistory = history[board.getSide()];
+        int[] killer = killers[ply];
+        boolean useHeat = depth >= HEAT_ORDERING_DEPTH;
+
+        int count = 0;
+        long empty = board.getEmptyFields();
+        while (empty != 0) {
+            int index = Long.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+
+            int key = sideHistory[index] + orderingNoise[index];
+            if (useHeat)
+                key += board.getHeat(index);
+            if (index == tableMove)
+                key += 1 << 22;
+            else if (index == killer[0])
+                key += 1 << 20;
+            else if (index == killer[1])
+                key += 1 << 19;
+
+            plyMoves[count] = index;
+            plyKeys[count] = key;
+            count++;
+        }
+        return count;
+    }
+
+    /* Sorts the moves by their keys in descending order (insertion sort). */
+    private static void sortMoves(int[] plyMoves, int[] plyKeys, int count) {
+        for (int i = 1; i < count; i++) {
+            int move = plyMoves[i];
+            int key = plyKeys[i];
+            int j = i - 1;
+            while ((j >= 0) && (plyKeys[j] < key)) {
+                plyMoves[j + 1] = plyMoves[j];
+                plyKeys[j + 1] = plyKeys[j];
+                j--;
+            }
+            plyMoves[j + 1] = move;
+            plyKeys[j + 1] = key;
+        }
+    }
+
+    /* Stores a move, which caused a cutoff, as killer move and in the history. */
+    private void storeCutoff(int ply, int side, int move, int depth) {
+        int[] killer = killers[ply];
+        if (killer[0] != move) {
+            killer[1] = killer[0];
+            killer[0] = move;
+        }
+        int[] sideHistory = history[side];
+        sideHistory[move] = Math.min(sideHistory[move] + depth * depth, 1 << 18);
+    }
+
+
+    /**
+     * Returns the number of nodes, which were searched by the last search.
+     *
+     * @return The number of nodes.
+     */
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    /**
+     * Returns the deepest depth, which was completed by the last search.
+     *
+     * @return The depth.
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * Returns the score of the best move of the last search from the view of the player to move.
+     *
+     * @return The score.
+     */
+    public int getBestScore() {
+        return bestScore;
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("nodes", nodes)
+                .add("completedDepth", completedDepth)
+                .add("bestScore", bestScore)
+                .toString();
+    }
+
+}
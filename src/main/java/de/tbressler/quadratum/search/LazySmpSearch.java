@@ -0,0 +1,181 @@
+package de.tbressler.quadratum.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A parallel alpha-beta search (Lazy SMP). The main search runs on the calling thread, the helper
+ * searches search the same position on a fork-join pool. The searches don't communicate directly,
+ * they only share the {@link TranspositionTable}: the helpers search other depths and other
+ * orders of moves, so they store results in the table, which cut off parts of the tree of the main
+ * search. The best move of the main search is the result, the helpers are stopped as soon as the
+ * main search is finished.
+ *
+ * <p>Without a transposition table the helpers are useless, so only the main search is run.</p>
+ *
+ * <p>A search is not thread-safe, it must not be used by several threads at the same time.</p>
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class LazySmpSearch {
+
+    /* The fork-join pool of the helpers. */
+    private final ForkJoinPool pool;
+
+    /* The searches, the first is the main search and the others are the helpers. */
+    private final AlphaBetaSearch[] searches;
+
+    /* The helper tasks of the running search. */
+    private final List<Future<Integer>> helperTasks = new ArrayList<>();
+
+    /* The transposition table or null. */
+    private TranspositionTable table = null;
+
+    /* The number of helpers of the last search. */
+    private int helpers = 0;
+
+
+    /**
+     * Creates the Lazy SMP search.
+     *
+     * @param threads The number of threads including the calling thread, must be > 0.
+     * @param pool The fork-join pool of the helpers, must not be null. The parallelism of the pool
+     *             should not be lower than the number of helpers (threads - 1).
+     */
+    public LazySmpSearch(int threads, ForkJoinPool pool) {
+        if (threads < 1) throw new AssertionError("threads must be > 0!");
+        this.pool = requireNonNull(pool);
+
+        this.searches = new AlphaBetaSearch[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new AlphaBetaSearch();
+            searches[i].setHelper(i);
+        }
+    }
+
+
+    /**
+     * Sets the transposition table, which is shared by all searches.
+     *
+     * @param table The transposition table or null, if no table should be used. Without a table
+     *              only the main search is run.
+     */
+    public void setTranspositionTable(TranspositionTable table) {
+        this.table = table;
+        for (AlphaBetaSearch search : searches)
+            search.setTranspositionTable(table);
+    }
+
+    /**
+     * Searches the best move for the player to move with all threads.
+     *
+     * @param board The board, must not be null and must have at least one empty field. The board is
+     *              changed by the main search and restored afterwards, the helpers search copies.
+     * @param maxDepth The maximum depth, between 1..{@link AlphaBetaSearch#MAX_DEPTH}.
+     * @param timeBudget The time budget in nanoseconds, must be > 0. At least depth 1 is searched.
+     * @return The field index of the best move of the main search, between 0..63.
+     */
+    public int findBestMove(SearchBoard board, int maxDepth, long timeBudget) {
+        requireNonNull(board);
+        if ((maxDepth < 1) || (maxDepth > AlphaBetaSearch.MAX_DEPTH))
+            throw new AssertionError("maxDepth must be between 1 and " + AlphaBetaSearch.MAX_DEPTH + "!");
+        if (timeBudget < 1) throw new AssertionError("timeBudget must be > 0!");
+        if (board.getEmptyFields() == 0)
+            throw new AssertionError("The board has no empty fields!");
+        long deadline = System.nanoTime() + timeBudget;
+
+        for (AlphaBetaSearch search : searches)
+            search.clearStop();
+
+        helpers = (table != null) ? searches.length - 1 : 0;
+        for (int i = 1; i <= helpers; i++) {
+            AlphaBetaSearch helper = searches[i];
+            SearchBoard helperBoard = board.copy();
+            helperTasks.add(pool.submit(() -> helper.searchUntil(helperBoard, maxDepth, deadline)));
+        }
+
+        try {
+            return searches[0].searchUntil(board, maxDepth, deadline);
+        } finally {
+            stopHelpers();
+        }
+    }
+
+    /* Stops the helpers and waits until they are finished. */
+    private void stopHelpers() {
+        for (int i = 1; i < searches.length; i++)
+            searches[i].stop();
+
+        try {
+            for (Future<Integer> task : helperTasks) {
+                try {
+                    task.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Helper search failed!", e.getCause());
+                }
+            }
+        } finally {
+            helperTasks.clear();
+        }
+    }
+
+    /**
+     * Stops the running search. The search returns the best move, which was found so far.
+     */
+    public void stop() {
+        for (AlphaBetaSearch search : searches)
+            search.stop();
+    }
+
+
+    /**
+     * Returns the main search, e.g. to read the completed depth of the last search.
+     *
+     * @return The main search, never null.
+     */
+    public AlphaBetaSearch getMainSearch() {
+        return searches[0];
+    }
+
+    /**
+     * Returns the number of threads including the calling thread.
+     *
+     * @return The number of threads.
+     */
+    public int getThreadCount() {
+        return searches.length;
+    }
+
+    /**
+     * Returns the number of nodes, which were searched by all threads in the last search.
+     *
+     * @return The number of nodes.
+     */
+    public long getNodeCount() {
+        long nodes = 0;
+        for (int i = 0; i <= helpers; i++)
+            nodes += searches[i].getNodeCount();
+        return nodes;
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("threads", searches.length)
+                .add("nodes", getNodeCount())
+                .add("completedDepth", searches[0].getCompletedDepth())
+                .toString();
+    }
+
+}
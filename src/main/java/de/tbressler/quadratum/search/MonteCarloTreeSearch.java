@@ -0,0 +1,360 @@
+package de.tbressler.quadratum.search;
+
+import java.util.SplittableRandom;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A Monte Carlo tree search with UCT selection. Every iteration selects a path through the tree
+ * by the upper confidence bound of the moves, expands the leaf and plays the game to its end with
+ * fast playouts. The result of the playout is propagated back along the path.
+ *
+ * <p>The tree is stored in preallocated arrays with a fixed number of nodes, the children of a
+ * node are stored side by side. If the tree is full, the leaves are not expanded anymore. The
+ * moves are made and unmade on the {@link SearchBoard}, so an iteration doesn't allocate memory.</p>
+ *
+ * <p>A search is not thread-safe, every thread needs its own search. Several searches of the same
+ * position can be merged by their visits of the root moves (root parallelization).</p>
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class MonteCarloTreeSearch {
+
+    /** The policy of the playouts. */
+    public enum PlayoutPolicy {
+        /** The moves of the playouts are random. */
+        RANDOM,
+        /** The moves of the playouts are the hottest of a few random fields (see {@link SearchBoard#getHeat(int)}). */
+        HEAT
+    }
+
+
+    /** The default number of nodes of the tree. */
+    public static final int DEFAULT_MAX_NODES = 1 << 18;
+
+    /* The exploration constant of the upper confidence bound. */
+    private static final double EXPLORATION = 0.4;
+
+    /* The number of random fields, of which the hottest is played by the heat policy. */
+    private static final int HEAT_CANDIDATES = 4;
+
+    /* The number of iterations between two checks of the deadline. */
+    private static final int CHECK_INTERVAL = 64;
+
+    /* The winner of a game, which is not finished. */
+    private static final int NOT_FINISHED = -2;
+
+    /* The winner of a game, which is a draw. */
+    private static final int DRAW = -1;
+
+
+    /* The maximum number of nodes. */
+    private final int maxNodes;
+
+    /* The playout policy. */
+    private final PlayoutPolicy policy;
+
+    /* The random number generator. */
+    private SplittableRandom random;
+
+    /* The index of the first child, indexed by node. */
+    private final int[] firstChild;
+
+    /* The number of children, indexed by node. */
+    private final byte[] childCount;
+
+    /* The move, which leads to the node, indexed by node. */
+    private final byte[] move;
+
+    /* The number of visits, indexed by node. */
+    private final int[] visits;
+
+    /* The sum of the rewards in half points for the player, who made the move to the node (2 for a
+       win, 1 for a draw), indexed by node. Integers keep the sum exact for any number of visits. */
+    private final int[] rewards;
+
+    /* The nodes of the selected path. */
+    private final int[] path = new int[65];
+
+    /* The moves of the playout. */
+    private final int[] playoutMoves = new int[64];
+
+    /* The number of nodes. */
+    private int nodeCount = 0;
+
+    /* Is true if the search must stop. */
+    private volatile boolean isStopped = false;
+
+    /* The maximum number of iterations of a search. */
+    private long maxIterations = Long.MAX_VALUE;
+
+    /* The number of iterations of the last search. */
+    private long iterations = 0;
+
+
+    /**
+     * Creates the Monte Carlo tree search.
+     *
+     * @param maxNodes The maximum number of nodes of the tree, must be > 64.
+     * @param policy The playout policy, must not be null.
+     * @param seed The seed of the random number generator.
+     */
+    public MonteCarloTreeSearch(int maxNodes, PlayoutPolicy policy, long seed) {
+        if (maxNodes <= 64) throw new AssertionError("maxNodes must be > 64!");
+        this.maxNodes = maxNodes;
+        this.policy = requireNonNull(policy);
+        this.random = new SplittableRandom(seed);
+
+        this.firstChild = new int[maxNodes];
+        this.childCount = new byte[maxNodes];
+        this.move = new byte[maxNodes];
+        this.visits = new int[maxNodes];
+        this.rewards = new int[maxNodes];
+    }
+
+
+    /**
+     * Sets the maximum number of iterations of a search. With a limited number of iterations the
+     * result of a search only depends on the seed and not on the time, e.g. for tests.
+     *
+     * @param maxIterations The maximum number of iterations, must be > 0. Not limited by default.
+     */
+    public void setMaxIterations(long maxIterations) {
+        if (maxIterations < 1) throw new AssertionError("maxIterations must be > 0!");
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Sets the seed of the random number generator. The method must not be called during a search.
+     *
+     * @param seed The seed of the random number generator.
+     */
+    public void setSeed(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Searches the position until the deadline has passed or the maximum number of iterations is
+     * reached and adds the visits of the root moves to the given array. The move with the most
+     * visits is the best move. A previous call of {@link #stop()} is not reset, so a search can be
+     * stopped before it was started (see {@link #clearStop()}).
+     *
+     * @param board The board, must not be null and must have at least one empty field. The board is
+     *              changed during the search and restored afterwards.
+     * @param deadline The deadline as {@link System#nanoTime()}.
+     * @param rootVisits The array of 64 fields, to which the visits of the root moves are added.
+     */
+    public void search(SearchBoard board, long deadline, long[] rootVisits) {
+        requireNonNull(board);
+        if (requireNonNull(rootVisits).length != 64)
+            throw new AssertionError("rootVisits must have 64 fields!");
+        if (board.getEmptyFields() == 0)
+            throw new AssertionError("The board has no empty fields!");
+
+        iterations = 0;
+        nodeCount = 1;
+        childCount[0] = 0;
+        visits[0] = 0;
+        rewards[0] = 0;
+        expand(0, board);
+
+        int countdown = CHECK_INTERVAL;
+        while (!isStopped && (iterations < maxIterations)) {
+            iterate(board);
+            iterations++;
+            if (--countdown == 0) {
+                countdown = CHECK_INTERVAL;
+                if (System.nanoTime() - deadline > 0)
+                    break;
+            }
+        }
+
+        for (int child = firstChild[0]; child < firstChild[0] + childCount[0]; child++)
+            rootVisits[move[child]] += visits[child];
+    }
+
+    /**
+     * Stops the running search.
+     */
+    public void stop() {
+        isStopped = true;
+    }
+
+    /**
+     * Resets a previous call of {@link #stop()} before the next search.
+     */
+    public void clearStop() {
+        isStopped = false;
+    }
+
+    /* Runs one iteration: selection, expansion, playout and backpropagation. */
+    private void iterate(SearchBoard board) {
+        int rootSide = board.getSide();
+        int depth = 0;
+        int node = 0;
+        path[0] = 0;
+
+        // Selection:
+        while (childCount[node] > 0) {
+            node = select(node);
+            board.make(move[node]);
+            path[++depth] = node;
+        }
+
+        // Expansion and playout:
+        int winner = finishedWinner(board);
+        if ((winner == NOT_FINISHED) && (visits[node] > 0) && expand(node, board)) {
+            node = firstChild[node] + random.nextInt(childCount[node]);
+            board.make(move[node]);
+            path[++depth] = node;
+            winner = finishedWinner(board);
+        }
+        if (winner == NOT_FINISHED)
+            winner = playout(board);
+
+        // Backpropagation:
+        for (int d = depth; d >= 0; d--) {
+            int n = path[d];
+            visits[n]++;
+            if (d > 0) {
+                int mover = rootSide ^ ((d - 1) & 1);
+                rewards[n] += (winner == DRAW) ? 1 : (winner == mover) ? 2 : 0;
+                board.unmake(move[n]);
+            }
+        }
+    }
+
+    /* Selects the child with the highest upper confidence bound, unvisited children first. */
+    private int select(int node) {
+        int first = firstChild[node];
+        int count = childCount[node];
+        double logVisits = Math.log(visits[node] + 1);
+
+        int best = first;
+        double bestValue = -1;
+        for (int child = first; child < first + count; child++) {
+            int childVisits = visits[child];
+            if (childVisits == 0)
+                return child;
+            double value = rewards[child] / (2.0 * childVisits) + EXPLORATION * Math.sqrt(logVisits / childVisits);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /* Adds the empty fields as children of the node. Returns false if the tree is full. */
+    private boolean expand(int node, SearchBoard board) {
+        long empty = board.getEmptyFields();
+        int count = Long.bitCount(empty);
+        if ((count == 0) || (nodeCount + count > maxNodes))
+            return false;
+
+        int first = nodeCount;
+        int child = first;
+        while (empty != 0) {
+            move[child] = (byte) Long.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+            firstChild[child] = 0;
+            childCount[child] = 0;
+            visits[child] = 0;
+            rewards[child] = 0;
+            child++;
+        }
+
+        // Shuffle the children, so ties are broken randomly:
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte m = move[first + i];
+            move[first + i] = move[first + j];
+            move[first + j] = m;
+        }
+
+        firstChild[node] = first;
+        childCount[node] = (byte) count;
+        nodeCount += count;
+        return true;
+    }
+
+    /* Returns the side of the winner, DRAW or NOT_FINISHED. */
+    private static int finishedWinner(SearchBoard board) {
+        int evaluation = board.evaluate();
+        if (!board.isGameOver())
+            return NOT_FINISHED;
+        if (evaluation == 0)
+            return DRAW;
+        return (evaluation > 0) ? board.getSide() : board.getSide() ^ 1;
+    }
+
+    /* Plays the game to its end and returns the winner. The board is restored afterwards. */
+    private int playout(SearchBoard board) {
+        int count = 0;
+        int winner;
+        while ((winner = finishedWinner(board)) == NOT_FINISHED) {
+            int index = (policy == PlayoutPolicy.HEAT) ? hotField(board) : randomField(board.getEmptyFields());
+            board.make(index);
+            playoutMoves[count++] = index;
+        }
+        while (count > 0)
+            board.unmake(playoutMoves[--count]);
+        return winner;
+    }
+
+    /* Returns a random empty field. */
+    private int randomField(long empty) {
+        for (int n = random.nextInt(Long.bitCount(empty)); n > 0; n--)
+            empty &= empty - 1;
+        return Long.numberOfTrailingZeros(empty);
+    }
+
+    /* Returns the hottest of a few random empty fields. */
+    private int hotField(SearchBoard board) {
+        long empty = board.getEmptyFields();
+        int best = randomField(empty);
+        int bestHeat = board.getHeat(best);
+        for (int i = 1; i < HEAT_CANDIDATES; i++) {
+            int index = randomField(empty);
+            int heat = board.getHeat(index);
+            if (heat > bestHeat) {
+                bestHeat = heat;
+                best = index;
+            }
+        }
+        return best;
+    }
+
+
+    /**
+     * Returns the number of iterations of the last search.
+     *
+     * @return The number of iterations.
+     */
+    public long getIterationCount() {
+        return iterations;
+    }
+
+    /**
+     * Returns the number of nodes of the tree of the last search.
+     *
+     * @return The number of nodes.
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("maxNodes", maxNodes)
+                .add("policy", policy)
+                .add("iterations", iterations)
+                .add("nodeCount", nodeCount)
+                .toString();
+    }
+
+}
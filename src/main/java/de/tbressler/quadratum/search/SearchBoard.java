@@ -0,0 +1,433 @@
+package de.tbressler.quadratum.search;
+
+import de.tbressler.quadratum.model.IReadOnlyGameBoard;
+import de.tbressler.quadratum.model.Player;
+
+import java.util.SplittableRandom;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static de.tbressler.quadratum.utils.GameBoardUtils.assertIndex;
+import static de.tbressler.quadratum.utils.GameBoardUtils.toBitMask;
+import static de.tbressler.quadratum.utils.SquareTable.*;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A compact game board for search engines. The pieces of the players are stored as bit masks and
+ * the moves are made and unmade in place (make/unmake), so a search never copies the board and
+ * never allocates memory per position. The board keeps track of the completable squares of both
+ * players and only updates the squares, which have an edge on the field of a move, so the
+ * evaluation doesn't need to scan the board.
+ *
+ * <p>The board knows the player to move and checks the win conditions of the
+ * {@link de.tbressler.quadratum.logic.GameOverVerifier} without adjudication. The evaluation and
+ * the result are always from the view of the player to move.</p>
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public final class SearchBoard {
+
+    /** The score of a won game. A won game is always better than any evaluation. */
+    public static final int WIN_SCORE = 1_000_000;
+
+    /* The weight of the score difference in the evaluation. */
+    private static final int SCORE_WEIGHT = 16;
+
+    /* The weight of a completable square by the number of pieces of the player. */
+    private static final int[] POTENTIAL_WEIGHTS = {0, 1, 3, 0};
+
+    /* The weight of a square with 3 pieces of the player to move, it can be completed now. */
+    private static final int OWN_THREAT_WEIGHT = 12;
+
+    /* The weight of a square with 3 pieces of the opponent, it can be blocked now. */
+    private static final int OPPONENT_THREAT_WEIGHT = 4;
+
+    /* The weight of a square for move ordering by the number of pieces of a player. */
+    private static final int[] HEAT_WEIGHTS = {1, 2, 4, 16};
+
+    /* The bit masks of the squares. */
+    private static final long[] MASKS = new long[SQUARES];
+
+    /* The hash keys of the pieces, indexed by player and field. */
+    private static final long[][] PIECE_KEYS = new long[2][64];
+
+    /* The hash key of player 2 to move. */
+    private static final long SIDE_KEY;
+
+    static {
+        for (int s = 0; s < SQUARES; s++)
+            for (int e = 0; e < 4; e++)
+                MASKS[s] |= 1L << getEdge(s, e);
+
+        // The keys are fixed, so the hashes are the same in every JVM:
+        SplittableRandom random = new SplittableRandom(0x5155414452415455L);
+        for (int p = 0; p < 2; p++)
+            for (int i = 0; i < 64; i++)
+                PIECE_KEYS[p][i] = random.nextLong();
+        SIDE_KEY = random.nextLong();
+    }
+
+
+    /* The minimum score to win the game. */
+    private final int minScore;
+
+    /* The minimum difference between the scores to win the game. */
+    private final int minDifference;
+
+    /* The pieces of player 1 and player 2. */
+    private final long[] pieces = new long[2];
+
+    /* The scores of player 1 and player 2. */
+    private final int[] scores = new int[2];
+
+    /* The potentials of the completable squares of player 1 and player 2. */
+    private final int[] potentials = new int[2];
+
+    /* The scores of the completable squares with 3 pieces of player 1 and player 2. */
+    private final int[] threats = new int[2];
+
+    /* The number of completable squares of player 1 and player 2, which have pieces. */
+    private final int[] openSquares = new int[2];
+
+    /* The number of squares without any pieces. */
+    private int freeSquares = 0;
+
+    /* The scores of the made moves, indexed by ply. */
+    private final int[] moveScores = new int[64];
+
+    /* The number of made moves. */
+    private int ply = 0;
+
+    /* The player to move, 0 for player 1 or 1 for player 2. */
+    private int side = 0;
+
+    /* The hash of the position. */
+    private long hash = 0;
+
+    /* Is true if the game was over at the last evaluation. */
+    private boolean isGameOver = false;
+
+
+    /**
+     * Creates the search board.
+     *
+     * @param minScore The minimum score to win, must be > 0 (suggested 150).
+     * @param minDifference The minimum difference between score, must be > 0 (suggested 15).
+     */
+    public SearchBoard(int minScore, int minDifference) {
+        if (minScore < 1) throw new AssertionError("minScore must be > 0!");
+        if (minDifference < 1) throw new AssertionError("minDifference must be > 0!");
+        this.minScore = minScore;
+        this.minDifference = minDifference;
+    }
+
+
+    /**
+     * Loads the position of a game board. The scores are computed from the completed squares.
+     *
+     * @param gameBoard The game board, must not be null.
+     * @param playerToMove The player to move, must not be null.
+     */
+    public void load(IReadOnlyGameBoard gameBoard, Player playerToMove) {
+        requireNonNull(gameBoard);
+        requireNonNull(playerToMove);
+        set(toBitMask(gameBoard, gameBoard.getPlayer1()), toBitMask(gameBoard, gameBoard.getPlayer2()),
+                playerToMove.equals(gameBoard.getPlayer1()) ? 0 : 1);
+    }
+
+    /**
+     * Sets the position. The scores are computed from the completed squares.
+     *
+     * @param pieces1 The pieces of player 1 as bit mask.
+     * @param pieces2 The pieces of player 2 as bit mask, must not overlap the pieces of player 1.
+     * @param side The player to move, 0 for player 1 or 1 for player 2.
+     */
+    public void set(long pieces1, long pieces2, int side) {
+        if ((pieces1 & pieces2) != 0)
+            throw new AssertionError("The pieces must not overlap!");
+        if ((side < 0) || (side > 1))
+            throw new AssertionError("side must be 0 or 1!");
+
+        pieces[0] = pieces1;
+        pieces[1] = pieces2;
+        scores[0] = 0;
+        scores[1] = 0;
+        potentials[0] = 0;
+        potentials[1] = 0;
+        threats[0] = 0;
+        threats[1] = 0;
+        openSquares[0] = 0;
+        openSquares[1] = 0;
+        freeSquares = 0;
+        for (int s = 0; s < SQUARES; s++) {
+            if ((pieces1 & MASKS[s]) == MASKS[s])
+                scores[0] += getScore(s);
+            else if ((pieces2 & MASKS[s]) == MASKS[s])
+                scores[1] += getScore(s);
+            updateSquare(s, 1);
+        }
+        this.side = side;
+        this.ply = 0;
+        this.isGameOver = false;
+        this.hash = hashOf(pieces1, pieces2, side);
+    }
+
+    /**
+     * Returns the hash of a position (Zobrist hashing). The hash is the same as the hash of the
+     * board after {@link #set(long, long, int)} or after the moves to this position.
+     *
+     * @param pieces1 The pieces of player 1 as bit mask.
+     * @param pieces2 The pieces of player 2 as bit mask.
+     * @param side The player to move, 0 for player 1 or 1 for player 2.
+     * @return The hash.
+     */
+    public static long hashOf(long pieces1, long pieces2, int side) {
+        long hash = (side == 1) ? SIDE_KEY : 0;
+        for (long mask = pieces1; mask != 0; mask &= mask - 1)
+            hash ^= PIECE_KEYS[0][Long.numberOfTrailingZeros(mask)];
+        for (long mask = pieces2; mask != 0; mask &= mask - 1)
+            hash ^= PIECE_KEYS[1][Long.numberOfTrailingZeros(mask)];
+        return hash;
+    }
+
+    /**
+     * Returns a new board with the same win conditions and the current position of this board,
+     * e.g. for another thread. The made moves are not copied, so the copy starts at ply 0.
+     *
+     * @return The copy, never null.
+     */
+    public SearchBoard copy() {
+        SearchBoard copy = new SearchBoard(minScore, minDifference);
+        copy.set(pieces[0], pieces[1], side);
+        return copy;
+    }
+
+
+    /**
+     * Places a piece of the player to move and passes the move to the opponent.
+     *
+     * @param index The field index, must be empty.
+     * @return The score of the squares, which were completed by the move.
+     */
+    public int make(int index) {
+        updateSquaresAt(index, -1);
+        long own = pieces[side] | (1L << index);
+        pieces[side] = own;
+        updateSquaresAt(index, 1);
+
+        int score = 0;
+        for (int n = getSquareCountAt(index) - 1; n >= 0; n--) {
+            int s = getSquareAt(index, n);
+            if ((own & MASKS[s]) == MASKS[s])
+                score += getScore(s);
+        }
+        scores[side] += score;
+        moveScores[ply++] = score;
+        hash ^= PIECE_KEYS[side][index] ^ SIDE_KEY;
+        side ^= 1;
+        return score;
+    }
+
+    /**
+     * Takes back the last move, which was made by {@link #make(int)}.
+     *
+     * @param index The field index of the last move.
+     */
+    public void unmake(int index) {
+        side ^= 1;
+        hash ^= PIECE_KEYS[side][index] ^ SIDE_KEY;
+        scores[side] -= moveScores[--ply];
+        updateSquaresAt(index, -1);
+        pieces[side] &= ~(1L << index);
+        updateSquaresAt(index, 1);
+    }
+
+    /* Adds (sign 1) or removes (sign -1) the squares at the field to the counters. */
+    private void updateSquaresAt(int index, int sign) {
+        for (int n = getSquareCountAt(index) - 1; n >= 0; n--)
+            updateSquare(getSquareAt(index, n), sign);
+    }
+
+    /* Adds (sign 1) or removes (sign -1) the square to the counters. */
+    private void updateSquare(int square, int sign) {
+        long mask = MASKS[square];
+        int pieces1 = Long.bitCount(pieces[0] & mask);
+        int pieces2 = Long.bitCount(pieces[1] & mask);
+        if (pieces1 + pieces2 == 4)
+            return;
+
+        if (pieces2 == 0) {
+            if (pieces1 == 0) {
+                freeSquares += sign;
+            } else {
+                addOpenSquare(0, square, pieces1, sign);
+            }
+        } else if (pieces1 == 0) {
+            addOpenSquare(1, square, pieces2, sign);
+        }
+    }
+
+    /* Adds (sign 1) or removes (sign -1) a completable square of the player to the counters. */
+    private void addOpenSquare(int player, int square, int count, int sign) {
+        openSquares[player] += sign;
+        if (count == 3)
+            threats[player] += sign * getScore(square);
+        else
+            potentials[player] += sign * getScore(square) * POTENTIAL_WEIGHTS[count];
+    }
+
+
+    /**
+     * Evaluates the position from the view of the player to move and checks if the game is over.
+     * If the game is over, the result is {@link #WIN_SCORE}, -{@link #WIN_SCORE} or 0 for a draw
+     * and {@link #isGameOver()} returns true.
+     *
+     * <p>The evaluation is the score difference and the potential of the completable squares of
+     * both players. A square is completable for a player, if it has an empty edge and no piece of
+     * the opponent. A square with 3 pieces counts more for the player to move, who can complete it
+     * now, than for the opponent, whose square can be blocked now.</p>
+     *
+     * @return The evaluation.
+     */
+    public int evaluate() {
+        int opponent = side ^ 1;
+        int ownScore = scores[side];
+        int opponentScore = scores[opponent];
+
+        isGameOver = true;
+        if ((ownScore >= minScore) || (opponentScore >= minScore)) {
+            if (ownScore - opponentScore >= minDifference)
+                return WIN_SCORE;
+            if (opponentScore - ownScore >= minDifference)
+                return -WIN_SCORE;
+        }
+
+        if (freeSquares == 0) {
+            boolean hasOwnSquares = openSquares[side] > 0;
+            boolean hasOpponentSquares = openSquares[opponent] > 0;
+            if (!hasOwnSquares && !hasOpponentSquares)
+                return Integer.compare(ownScore, opponentScore) * WIN_SCORE;
+            if (!hasOpponentSquares && (ownScore > opponentScore))
+                return WIN_SCORE;
+            if (!hasOwnSquares && (opponentScore > ownScore))
+                return -WIN_SCORE;
+        }
+
+        isGameOver = false;
+        return SCORE_WEIGHT * (ownScore - opponentScore) + potentials[side] - potentials[opponent] +
+                OWN_THREAT_WEIGHT * threats[side] - OPPONENT_THREAT_WEIGHT * threats[opponent];
+    }
+
+    /**
+     * Returns true if the game was over at the last call of {@link #evaluate()}.
+     *
+     * @return True if the game is over.
+     */
+    public boolean isGameOver() {
+        return isGameOver;
+    }
+
+    /**
+     * Returns the heat of an empty field for move ordering. The heat is the potential of the
+     * completable squares of both players, which have an edge on the field.
+     *
+     * @param index The field index.
+     * @return The heat, >= 0.
+     */
+    public int getHeat(int index) {
+        long own = pieces[side];
+        long opponent = pieces[side ^ 1];
+        int heat = 0;
+        for (int n = getSquareCountAt(index) - 1; n >= 0; n--) {
+            int s = getSquareAt(index, n);
+            long mask = MASKS[s];
+            long ownEdges = own & mask;
+            long opponentEdges = opponent & mask;
+            if (opponentEdges == 0)
+                heat += getScore(s) * HEAT_WEIGHTS[Long.bitCount(ownEdges)];
+            else if (ownEdges == 0)
+                heat += getScore(s) * HEAT_WEIGHTS[Long.bitCount(opponentEdges)];
+        }
+        return heat;
+    }
+
+
+    /**
+     * Returns the empty fields as bit mask.
+     *
+     * @return The bit mask of the empty fields.
+     */
+    public long getEmptyFields() {
+        return ~(pieces[0] | pieces[1]);
+    }
+
+    /**
+     * Returns true if the field is empty.
+     *
+     * @param index The field index, between 0..63.
+     * @return True if the field is empty.
+     */
+    public boolean isFieldEmpty(int index) {
+        assertIndex(index, "Index must be between 0 and 63!");
+        return ((pieces[0] | pieces[1]) & (1L << index)) == 0;
+    }
+
+    /**
+     * Returns the pieces of a player as bit mask.
+     *
+     * @param side The player, 0 for player 1 or 1 for player 2.
+     * @return The bit mask of the pieces.
+     */
+    public long getPieces(int side) {
+        return pieces[side];
+    }
+
+    /**
+     * Returns the score of a player.
+     *
+     * @param side The player, 0 for player 1 or 1 for player 2.
+     * @return The score.
+     */
+    public int getPlayerScore(int side) {
+        return scores[side];
+    }
+
+    /**
+     * Returns the hash of the position, which is updated by every move.
+     *
+     * @return The hash.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Returns the player to move.
+     *
+     * @return 0 for player 1 or 1 for player 2.
+     */
+    public int getSide() {
+        return side;
+    }
+
+    /**
+     * Returns the number of moves, which were made since the position was loaded.
+     *
+     * @return The number of moves.
+     */
+    public int getPly() {
+        return ply;
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("pieces1", Long.toHexString(pieces[0]))
+                .add("pieces2", Long.toHexString(pieces[1]))
+                .add("scores", scores[0] + ":" + scores[1])
+                .add("side", side)
+                .toString();
+    }
+
+}
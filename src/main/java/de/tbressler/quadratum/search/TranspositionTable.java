@@ -0,0 +1,261 @@
+package de.tbressler.quadratum.search;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * A transposition table for search engines, which stores the results of searched positions by
+ * the hash of the position (see {@link SearchBoard#getHash()}). The table is stored off-heap in a
+ * direct buffer with a fixed size, so even a large table doesn't cause pressure on the garbage
+ * collector.
+ *
+ * <p>The table can be shared by concurrent search threads without locks. An entry consists of two
+ * words: the data (score, best move, bound, depth and generation) and the hash XOR the data. A
+ * thread, which reads a torn entry from two concurrent writes, gets a wrong hash and ignores the
+ * entry (lockless hashing). The entries are grouped into buckets of 4 entries, one cache line.
+ * A new entry replaces the entry of the same position or the entry with the lowest depth, where
+ * entries of older searches count less.</p>
+ *
+ * <p>The data of an entry is returned as a long, which can be decoded by the static methods, so
+ * a probe never allocates memory.</p>
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TranspositionTable {
+
+    /** The maximum size of the table in MB. */
+    public static final int MAX_SIZE_IN_MB = 1024;
+
+    /** The result of a probe, if the table contains no entry for the position. */
+    public static final long MISS = 0;
+
+    /** The bound type of an exact score. */
+    public static final int EXACT = 1;
+
+    /** The bound type of a score, which is a lower bound (the search failed high). */
+    public static final int LOWER_BOUND = 2;
+
+    /** The bound type of a score, which is an upper bound (the search failed low). */
+    public static final int UPPER_BOUND = 3;
+
+    /** The best move of an entry without a best move. */
+    public static final int NO_MOVE = -1;
+
+    /* The size of an entry in bytes. */
+    private static final int ENTRY_SIZE = 16;
+
+    /* The number of entries in a bucket. */
+    private static final int BUCKET_ENTRIES = 4;
+
+    /* The size of a bucket in bytes, one cache line. */
+    private static final int BUCKET_SIZE = ENTRY_SIZE * BUCKET_ENTRIES;
+
+    // The layout of the data:
+    private static final int MOVE_SHIFT = 32;
+    private static final int BOUND_SHIFT = 39;
+    private static final int DEPTH_SHIFT = 41;
+    private static final int GENERATION_SHIFT = 48;
+    private static final int EMPTY_MOVE = 127;
+
+    /* The view of the buffer as longs with atomic access. */
+    private static final VarHandle WORDS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+
+    /* The entries, aligned to cache lines. */
+    private final ByteBuffer buffer;
+
+    /* The mask of the bucket index. */
+    private final long bucketMask;
+
+    /* The generation of the current search. */
+    private volatile int generation = 0;
+
+
+    /**
+     * Creates the transposition table. The number of buckets is rounded down to a power of 2.
+     *
+     * @param sizeInMb The size of the table in MB, between 1..{@link #MAX_SIZE_IN_MB}.
+     */
+    public TranspositionTable(int sizeInMb) {
+        if ((sizeInMb < 1) || (sizeInMb > MAX_SIZE_IN_MB))
+            throw new AssertionError("sizeInMb must be between 1 and " + MAX_SIZE_IN_MB + "!");
+
+        int buckets = Integer.highestOneBit(sizeInMb * (1024 * 1024 / BUCKET_SIZE));
+        this.buffer = ByteBuffer.allocateDirect(buckets * BUCKET_SIZE + BUCKET_SIZE)
+                .alignedSlice(BUCKET_SIZE).order(ByteOrder.nativeOrder());
+        this.bucketMask = buckets - 1;
+    }
+
+
+    /**
+     * Starts a new search. The entries of older searches are replaced first.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Removes all entries. The table must not be used by other threads during this call.
+     */
+    public void clear() {
+        for (int offset = 0; offset < buffer.capacity(); offset += 8)
+            WORDS.setOpaque(buffer, offset, 0L);
+        generation = 0;
+    }
+
+
+    /**
+     * Returns the data of the entry of the position.
+     *
+     * @param hash The hash of the position.
+     * @return The data of the entry or {@link #MISS}, if the table contains no entry.
+     */
+    public long probe(long hash) {
+        int bucket = bucketOffset(hash);
+        for (int offset = bucket; offset < bucket + BUCKET_SIZE; offset += ENTRY_SIZE) {
+            long data = (long) WORDS.getOpaque(buffer, offset + 8);
+            if ((((long) WORDS.getOpaque(buffer, offset) ^ data) == hash) && (getBound(data) != 0))
+                return data;
+        }
+        return MISS;
+    }
+
+    /**
+     * Stores the result of a searched position.
+     *
+     * @param hash The hash of the position.
+     * @param depth The searched depth, between 0..127.
+     * @param bound The bound type, {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}.
+     * @param score The score.
+     * @param move The best move between 0..63 or {@link #NO_MOVE}.
+     */
+    public void store(long hash, int depth, int bound, int score, int move) {
+        int currentGeneration = generation;
+        int bucket = bucketOffset(hash);
+
+        int target = bucket;
+        int lowestPriority = Integer.MAX_VALUE;
+        for (int offset = bucket; offset < bucket + BUCKET_SIZE; offset += ENTRY_SIZE) {
+            long data = (long) WORDS.getOpaque(buffer, offset + 8);
+            if (((long) WORDS.getOpaque(buffer, offset) ^ data) == hash) {
+                // Keep a deeper entry of the same search and the best move of the position:
+                if ((getDepth(data) > depth) && (generationOf(data) == currentGeneration) && (bound != EXACT))
+                    return;
+                if (move == NO_MOVE)
+                    move = getMove(data);
+                target = offset;
+                break;
+            }
+
+            int priority = (getBound(data) == 0) ? Integer.MIN_VALUE :
+                    getDepth(data) - 8 * ((currentGeneration - generationOf(data)) & 0xFF);
+            if (priority < lowestPriority) {
+                lowestPriority = priority;
+                target = offset;
+            }
+        }
+
+        long data = (score & 0xFFFFFFFFL) |
+                ((long) ((move == NO_MOVE) ? EMPTY_MOVE : move) << MOVE_SHIFT) |
+                ((long) bound << BOUND_SHIFT) |
+                ((long) Math.min(depth, 127) << DEPTH_SHIFT) |
+                ((long) currentGeneration << GENERATION_SHIFT);
+        WORDS.setOpaque(buffer, target + 8, data);
+        WORDS.setOpaque(buffer, target, hash ^ data);
+    }
+
+    /* Returns the offset of the bucket of the hash. */
+    private int bucketOffset(long hash) {
+        return (int) (hash & bucketMask) * BUCKET_SIZE;
+    }
+
+    /* Returns the generation of the data. */
+    private static int generationOf(long data) {
+        return (int) (data >>> GENERATION_SHIFT) & 0xFF;
+    }
+
+
+    /**
+     * Returns the score of the data of an entry.
+     *
+     * @param data The data of an entry.
+     * @return The score.
+     */
+    public static int getScore(long data) {
+        return (int) data;
+    }
+
+    /**
+     * Returns the best move of the data of an entry.
+     *
+     * @param data The data of an entry.
+     * @return The best move between 0..63 or {@link #NO_MOVE}.
+     */
+    public static int getMove(long data) {
+        int move = (int) (data >>> MOVE_SHIFT) & 0x7F;
+        return (move == EMPTY_MOVE) ? NO_MOVE : move;
+    }
+
+    /**
+     * Returns the bound type of the data of an entry.
+     *
+     * @param data The data of an entry.
+     * @return The bound type, {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}.
+     */
+    public static int getBound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+
+    /**
+     * Returns the depth of the data of an entry.
+     *
+     * @param data The data of an entry.
+     * @return The depth.
+     */
+    public static int getDepth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0x7F;
+    }
+
+
+    /**
+     * Returns the number of entries of the table.
+     *
+     * @return The number of entries.
+     */
+    public long getCapacity() {
+        return (bucketMask + 1) * BUCKET_ENTRIES;
+    }
+
+    /**
+     * Returns the usage of the table by the current search in permill, sampled over the first 1000
+     * entries.
+     *
+     * @return The usage, between 0..1000.
+     */
+    public int getUsage() {
+        int samples = (int) Math.min(1000, getCapacity());
+        int currentGeneration = generation;
+        int used = 0;
+        for (int i = 0; i < samples; i++) {
+            long data = (long) WORDS.getOpaque(buffer, i * ENTRY_SIZE + 8);
+            if ((getBound(data) != 0) && (generationOf(data) == currentGeneration))
+                used++;
+        }
+        return used * 1000 / samples;
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("capacity", getCapacity())
+                .add("generation", generation)
+                .toString();
+    }
+
+}
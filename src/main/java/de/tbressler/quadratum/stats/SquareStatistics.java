@@ -0,0 +1,361 @@
+package de.tbressler.quadratum.stats;
+
+import de.tbressler.quadratum.logic.GameOverReason;
+import de.tbressler.quadratum.logic.IGameLogicListener;
+import de.tbressler.quadratum.model.IReadOnlyGameBoard;
+import de.tbressler.quadratum.model.Player;
+import de.tbressler.quadratum.model.Square;
+
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static de.tbressler.quadratum.utils.SquareUtils.size;
+import static de.tbressler.quadratum.utils.SquareUtils.tilt;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Aggregates statistics about completed squares over many games. The statistics count how often a
+ * square of a given geometry (size and tilt) was completed, by which player (slot 1 or 2 of the
+ * game board) and at which move number.
+ *
+ * <p>The statistics can be shared by many concurrently running games. Every game needs its own
+ * listener, which can be created with {@link #createListener(IReadOnlyGameBoard)}.</p>
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class SquareStatistics {
+
+    /** The number of player slots. */
+    public static final int PLAYERS = 2;
+
+    /** The number of different square geometries on the game board (size 2..8, tilt 0..size-2). */
+    public static final int GEOMETRIES = 28;
+
+    /** The maximum number of moves in a game. */
+    public static final int MOVES = 64;
+
+
+    /* The counters, indexed by player slot, geometry and move number. */
+    private final LongAdder[] counters = new LongAdder[PLAYERS * GEOMETRIES * MOVES];
+
+    /* The number of started games. */
+    private final LongAdder games = new LongAdder();
+
+
+    /**
+     * Creates the square statistics.
+     */
+    public SquareStatistics() {
+        for (int i = 0; i < counters.length; i++)
+            counters[i] = new LongAdder();
+    }
+
+
+    /**
+     * Creates a listener for a single game, which feeds the statistics. The listener must be added
+     * to the game logic of the game.
+     *
+     * @param gameBoard The game board of the game, must not be null.
+     * @return The listener, never null.
+     */
+    public IGameLogicListener createListener(IReadOnlyGameBoard gameBoard) {
+        return new GameListener(requireNonNull(gameBoard));
+    }
+
+
+    /**
+     * Records a completed square.
+     *
+     * @param playerSlot The player slot, 1 or 2.
+     * @param size The size of the square, between 2..8.
+     * @param tilt The tilt of the square, between 0..size-2.
+     * @param moveNumber The move number, between 1..64.
+     */
+    public void record(int playerSlot, int size, int tilt, int moveNumber) {
+        counters[counterIndex(playerSlot, size, tilt, moveNumber)].increment();
+    }
+
+    /* Returns the index of the counter. */
+    private static int counterIndex(int playerSlot, int size, int tilt, int moveNumber) {
+        if ((playerSlot < 1) || (playerSlot > PLAYERS))
+            throw new AssertionError("playerSlot must be 1 or 2!");
+        if ((moveNumber < 1) || (moveNumber > MOVES))
+            throw new AssertionError("moveNumber must be between 1..64!");
+        return ((playerSlot - 1) * GEOMETRIES + geometryIndex(size, tilt)) * MOVES + (moveNumber - 1);
+    }
+
+    /* Returns the index of the counter of the square. */
+    private static int counterIndex(int playerSlot, Square square, int moveNumber) {
+        int[] pieces = square.getSortedPieces();
+        return counterIndex(playerSlot, size(pieces), tilt(pieces), moveNumber);
+    }
+
+    /* Returns the index of the geometry. */
+    private static int geometryIndex(int size, int tilt) {
+        if ((size < 2) || (size > 8))
+            throw new AssertionError("size must be between 2..8!");
+        if ((tilt < 0) || (tilt > size - 2))
+            throw new AssertionError("tilt must be between 0..size-2!");
+        return ((size - 1) * (size - 2)) / 2 + tilt;
+    }
+
+
+    /**
+     * Returns a snapshot of the current statistics. The snapshot is not an atomic view if games are
+     * running concurrently, but every counter is read exactly once.
+     *
+     * @return The snapshot, never null.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[counters.length];
+        for (int i = 0; i < counters.length; i++)
+            counts[i] = counters[i].sum();
+        return new Snapshot(System.currentTimeMillis(), games.sum(), counts);
+    }
+
+    /**
+     * Schedules periodic snapshots of the statistics, e.g. for reporting.
+     *
+     * @param executor The executor, must not be null.
+     * @param period The period between two snapshots, must be > 0.
+     * @param unit The time unit of the period, must not be null.
+     * @param consumer The consumer of the snapshots, must not be null.
+     * @return The future of the scheduled task, which can be used to cancel the snapshots.
+     */
+    public ScheduledFuture<?> scheduleSnapshots(ScheduledExecutorService executor, long period,
+                                                TimeUnit unit, Consumer<Snapshot> consumer) {
+        requireNonNull(executor);
+        requireNonNull(unit);
+        requireNonNull(consumer);
+        if (period < 1) throw new AssertionError("period must be > 0!");
+        return executor.scheduleAtFixedRate(() -> consumer.accept(snapshot()), period, period, unit);
+    }
+
+
+    /**
+     * Resets all counters.
+     */
+    public void reset() {
+        for (LongAdder counter : counters)
+            counter.reset();
+        games.reset();
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("games", games.sum())
+                .toString();
+    }
+
+
+    /**
+     * A snapshot of the square statistics.
+     */
+    public static class Snapshot {
+
+        /* The time of the snapshot in milliseconds. */
+        private final long timestamp;
+
+        /* The number of started games. */
+        private final long gameCount;
+
+        /* The counts, indexed by player slot, geometry and move number. */
+        private final long[] counts;
+
+
+        /* Creates the snapshot. */
+        private Snapshot(long timestamp, long gameCount, long[] counts) {
+            this.timestamp = timestamp;
+            this.gameCount = gameCount;
+            this.counts = counts;
+        }
+
+
+        /**
+         * Returns the time of the snapshot.
+         *
+         * @return The time in milliseconds since the epoch.
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * Returns the number of started games.
+         *
+         * @return The number of games.
+         */
+        public long getGameCount() {
+            return gameCount;
+        }
+
+        /**
+         * Returns the number of completed squares with the given geometry, player slot and move
+         * number.
+         *
+         * @param playerSlot The player slot, 1 or 2.
+         * @param size The size of the square, between 2..8.
+         * @param tilt The tilt of the square, between 0..size-2.
+         * @param moveNumber The move number, between 1..64.
+         * @return The number of squares.
+         */
+        public long getCount(int playerSlot, int size, int tilt, int moveNumber) {
+            return counts[counterIndex(playerSlot, size, tilt, moveNumber)];
+        }
+
+        /**
+         * Returns the number of completed squares with the given geometry and player slot over
+         * all move numbers.
+         *
+         * @param playerSlot The player slot, 1 or 2.
+         * @param size The size of the square, between 2..8.
+         * @param tilt The tilt of the square, between 0..size-2.
+         * @return The number of squares.
+         */
+        public long getCount(int playerSlot, int size, int tilt) {
+            int offset = counterIndex(playerSlot, size, tilt, 1);
+            long count = 0;
+            for (int i = 0; i < MOVES; i++)
+                count += counts[offset + i];
+            return count;
+        }
+
+        /**
+         * Returns the number of squares which were completed at the given move number.
+         *
+         * @param moveNumber The move number, between 1..64.
+         * @return The number of squares.
+         */
+        public long getCountAtMove(int moveNumber) {
+            if ((moveNumber < 1) || (moveNumber > MOVES))
+                throw new AssertionError("moveNumber must be between 1..64!");
+            long count = 0;
+            for (int i = moveNumber - 1; i < counts.length; i += MOVES)
+                count += counts[i];
+            return count;
+        }
+
+        /**
+         * Returns the total number of completed squares.
+         *
+         * @return The number of squares.
+         */
+        public long getTotalCount() {
+            long count = 0;
+            for (long c : counts)
+                count += c;
+            return count;
+        }
+
+        /**
+         * Returns the difference between this snapshot and an earlier snapshot, e.g. in order to
+         * report the statistics of a single period.
+         *
+         * @param earlier The earlier snapshot, must not be null.
+         * @return The difference as a snapshot with the timestamp of this snapshot, never null.
+         */
+        public Snapshot minus(Snapshot earlier) {
+            long[] delta = new long[counts.length];
+            for (int i = 0; i < counts.length; i++)
+                delta[i] = counts[i] - earlier.counts[i];
+            return new Snapshot(timestamp, gameCount - earlier.gameCount, delta);
+        }
+
+
+        @Override
+        public String toString() {
+            return toStringHelper(this)
+                    .add("timestamp", timestamp)
+                    .add("games", gameCount)
+                    .add("squares", getTotalCount())
+                    .toString();
+        }
+
+    }
+
+
+    /* The listener for a single game, which tracks the move number. */
+    private class GameListener implements IGameLogicListener {
+
+        /* The game board of the game. */
+        private final IReadOnlyGameBoard gameBoard;
+
+        /* The current move number. */
+        private int moveNumber = 0;
+
+
+        /* Creates the listener. */
+        private GameListener(IReadOnlyGameBoard gameBoard) {
+            this.gameBoard = gameBoard;
+        }
+
+
+        @Override
+        public void onGameStarted(Player activePlayer) {
+            moveNumber = 0;
+            games.increment();
+        }
+
+        @Override
+        public void onMoveTakenBack(Player player, int index, Set<Square> removedSquares) {
+            // The piece of the move is already removed from the game board:
+            int pieces = countPieces();
+            if (pieces < MOVES)
+                for (Square square : removedSquares)
+                    counters[counterIndex(getPlayerSlot(player), square, pieces + 1)].decrement();
+
+            // The move number is incremented when the active player changes:
+            moveNumber = pieces;
+        }
+
+        @Override
+        public void onActivePlayerChanged(Player activePlayer) {
+            moveNumber++;
+        }
+
+        @Override
+        public void onNewSquaresFound(Player player, Set<Square> squares) {
+            if ((moveNumber < 1) || (moveNumber > MOVES))
+                return;
+            int playerSlot = getPlayerSlot(player);
+            for (Square square : squares)
+                counters[counterIndex(playerSlot, square, moveNumber)].increment();
+        }
+
+        @Override
+        public void onGameOver(Player winner, GameOverReason reason) {
+            // Nothing to do.
+        }
+
+        @Override
+        public void onGameRestored(Player activePlayer) {
+            // The squares of the restored moves are not part of the statistics, but the following
+            // moves are counted:
+            moveNumber = countPieces() + 1;
+        }
+
+        /* Returns the player slot of the given player. */
+        private int getPlayerSlot(Player player) {
+            return player.equals(gameBoard.getPlayer1()) ? 1 : 2;
+        }
+
+        /* Returns the number of pieces on the game board. */
+        private int countPieces() {
+            int pieces = 0;
+            for (int i = 0; i < 64; i++)
+                if (!gameBoard.isFieldEmpty(i))
+                    pieces++;
+            return pieces;
+        }
+
+    }
+
+}
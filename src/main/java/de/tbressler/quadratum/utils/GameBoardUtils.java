@@ -1,5 +1,10 @@
 package de.tbressler.quadratum.utils;
 
+import de.tbressler.quadratum.model.IReadOnlyGameBoard;
+import de.tbressler.quadratum.model.Player;
+
+import static java.util.Objects.requireNonNull;
+
 /**
  * Utils for the game board.
  *
@@ -47,9 +52,7 @@ public class GameBoardUtils {
     public static int difX(int index1, int index2) {
         assertIndex(index1, "index1 must be between 0..63!");
         assertIndex(index2, "index2 must be between 0..63!");
-        int[] c1 = toCoords(index1);
-        int[] c2 = toCoords(index2);
-        return c2[0] - c1[0];
+        return (index2 % 8) - (index1 % 8);
     }
 
     /**
@@ -62,9 +65,40 @@ public class GameBoardUtils {
     public static int difY(int index1, int index2) {
         assertIndex(index1, "index1 must be between 0..63!");
         assertIndex(index2, "index2 must be between 0..63!");
-        int[] c1 = toCoords(index1);
-        int[] c2 = toCoords(index2);
-        return c2[1] - c1[1];
+        return (index2 / 8) - (index1 / 8);
+    }
+
+    /**
+     * Returns the pieces of the given player as a bit mask. Bit i of the mask is set, if the piece on
+     * field i belongs to the player.
+     *
+     * @param gameBoard The game board, must not be null.
+     * @param player The player, must not be null.
+     * @return The bit mask of the pieces.
+     */
+    public static long toBitMask(IReadOnlyGameBoard gameBoard, Player player) {
+        requireNonNull(gameBoard);
+        requireNonNull(player);
+        long mask = 0L;
+        for (int i = 0; i < 64; i++)
+            if (gameBoard.getPiece(i) == player)
+                mask |= 1L << i;
+        return mask;
+    }
+
+    /**
+     * Returns the given fields as a bit mask. Bit i of the mask is set, if field i is given.
+     *
+     * @param indexes The field indexes, between 0..63.
+     * @return The bit mask of the fields.
+     */
+    public static long toBitMask(int... indexes) {
+        long mask = 0L;
+        for (int index : indexes) {
+            assertIndex(index, "Index must be between 0 and 63!");
+            mask |= 1L << index;
+        }
+        return mask;
     }
 
     /**
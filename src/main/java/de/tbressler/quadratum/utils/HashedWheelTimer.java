@@ -0,0 +1,353 @@
+package de.tbressler.quadratum.utils;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A timer for a large number of timeouts, e.g. the move clocks of many games. The timeouts are
+ * kept in a wheel of buckets, one bucket per tick. Scheduling and cancelling a timeout is O(1),
+ * independent of the number of pending timeouts. The accuracy of the timer is one tick.
+ *
+ * <p>The timer uses a single daemon thread, which is started with the first timeout. The tasks of
+ * the timeouts are executed on this thread, so they must be short and must not block.</p>
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class HashedWheelTimer {
+
+    /* The maximum number of new timeouts, which are transferred to the wheel per tick. */
+    private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+
+    /* The duration of a tick in nanoseconds. */
+    private final long tickDuration;
+
+    /* The buckets of the wheel. */
+    private final Bucket[] wheel;
+
+    /* The mask for the index of a bucket. */
+    private final int mask;
+
+    /* The new timeouts, which are not in the wheel yet. */
+    private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+
+    /* The cancelled timeouts, which must be removed from the wheel. */
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+
+    /* The number of pending timeouts. */
+    private final AtomicInteger pendingTimeouts = new AtomicInteger(0);
+
+    /* The worker thread. */
+    private final Thread workerThread;
+
+    /* The state of the worker (0 = init, 1 = started, 2 = stopped). */
+    private final AtomicInteger workerState = new AtomicInteger(0);
+
+    /* The start time of the worker in nanoseconds. */
+    private volatile long startTime = 0;
+
+    /* The current tick of the worker. */
+    private long tick = 0;
+
+
+    /**
+     * Creates the timer.
+     *
+     * @param tickDuration The duration of a tick, must be > 0.
+     * @param unit The time unit of the tick duration, must not be null.
+     * @param ticksPerWheel The number of ticks (buckets) of the wheel, must be between 1 and 2^20.
+     *                      The number is rounded up to a power of two.
+     */
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if (tickDuration < 1) throw new AssertionError("tickDuration must be > 0!");
+        if ((ticksPerWheel < 1) || (ticksPerWheel > (1 << 20)))
+            throw new AssertionError("ticksPerWheel must be between 1 and 2^20!");
+
+        this.tickDuration = requireNonNull(unit).toNanos(tickDuration);
+
+        int size = Integer.highestOneBit(ticksPerWheel);
+        if (size < ticksPerWheel)
+            size <<= 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++)
+            wheel[i] = new Bucket();
+        this.mask = size - 1;
+
+        this.workerThread = new Thread(this::runWorker, "hashed-wheel-timer");
+        this.workerThread.setDaemon(true);
+    }
+
+
+    /**
+     * Schedules a task, which is executed once after the given delay.
+     *
+     * @param task The task, must not be null.
+     * @param delay The delay, values <= 0 execute the task with the next tick.
+     * @param unit The time unit of the delay, must not be null.
+     * @return The timeout, which can be used to cancel the task. Never null.
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        requireNonNull(task);
+        requireNonNull(unit);
+        start();
+
+        Timeout timeout = new Timeout(task, System.nanoTime() + unit.toNanos(delay) - startTime);
+        pendingTimeouts.incrementAndGet();
+        newTimeouts.offer(timeout);
+        return timeout;
+    }
+
+    /* Starts the worker thread, if it was not started yet. */
+    private void start() {
+        switch (workerState.get()) {
+            case 0:
+                if (workerState.compareAndSet(0, 1)) {
+                    startTime = System.nanoTime();
+                    workerThread.start();
+                }
+                break;
+            case 1:
+                break;
+            default:
+                throw new IllegalStateException("Timer is stopped!");
+        }
+
+        // Wait until the start time was initialized by the starting thread:
+        while (startTime == 0)
+            Thread.yield();
+    }
+
+    /**
+     * Stops the timer. Pending timeouts are not executed anymore.
+     */
+    public void stop() {
+        if (workerState.getAndSet(2) == 1)
+            workerThread.interrupt();
+    }
+
+    /**
+     * Returns the number of pending timeouts.
+     *
+     * @return The number of timeouts, which were neither executed nor cancelled.
+     */
+    public int getPendingTimeouts() {
+        return pendingTimeouts.get();
+    }
+
+
+    /* The loop of the worker thread. */
+    private void runWorker() {
+        while (workerState.get() == 1) {
+            long deadline = waitForNextTick();
+            if (deadline < 0)
+                return;
+
+            removeCancelledTimeouts();
+            transferNewTimeouts();
+            wheel[(int) (tick & mask)].expireTimeouts(deadline);
+            tick++;
+        }
+    }
+
+    /* Waits for the next tick and returns the current time relative to the start time or -1. */
+    private long waitForNextTick() {
+        long deadline = tickDuration * (tick + 1);
+        while (true) {
+            long currentTime = System.nanoTime() - startTime;
+            long sleepTime = deadline - currentTime;
+            if (sleepTime <= 0)
+                return currentTime;
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepTime);
+            } catch (InterruptedException e) {
+                if (workerState.get() != 1)
+                    return -1;
+            }
+        }
+    }
+
+    /* Removes the cancelled timeouts from their buckets. */
+    private void removeCancelledTimeouts() {
+        Timeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null)
+            if (timeout.bucket != null)
+                timeout.bucket.remove(timeout);
+    }
+
+    /* Transfers the new timeouts to the buckets of the wheel. */
+    private void transferNewTimeouts() {
+        Timeout timeout;
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            timeout = newTimeouts.poll();
+            if (timeout == null)
+                return;
+            if (timeout.state.get() == Timeout.CANCELLED)
+                continue;
+
+            long calculated = timeout.deadline / tickDuration;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+
+            // Timeouts in the past are executed with the current tick:
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("tickDuration", tickDuration)
+                .add("ticksPerWheel", wheel.length)
+                .add("pendingTimeouts", pendingTimeouts.get())
+                .toString();
+    }
+
+
+    /**
+     * A scheduled task of the timer.
+     */
+    public final class Timeout {
+
+        /* The states of the timeout. */
+        private static final int INIT = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        /* The task. */
+        private final Runnable task;
+
+        /* The deadline relative to the start time of the timer in nanoseconds. */
+        private final long deadline;
+
+        /* The state of the timeout. */
+        private final AtomicInteger state = new AtomicInteger(INIT);
+
+        /* The remaining rounds of the wheel, until the timeout expires. */
+        private long remainingRounds;
+
+        /* The bucket of the timeout or null, if the timeout is not in the wheel. */
+        private Bucket bucket;
+
+        /* The previous and next timeout in the bucket. */
+        private Timeout previous;
+        private Timeout next;
+
+
+        /* Creates the timeout. */
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+
+        /**
+         * Cancels the timeout. The task is not executed, if it was not executed yet.
+         *
+         * @return True if the timeout was cancelled, false if it was executed or cancelled before.
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(INIT, CANCELLED))
+                return false;
+            pendingTimeouts.decrementAndGet();
+            cancelledTimeouts.offer(this);
+            return true;
+        }
+
+        /**
+         * Returns true if the timeout was cancelled.
+         *
+         * @return True if the timeout was cancelled.
+         */
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        /**
+         * Returns true if the timeout has expired and the task was executed.
+         *
+         * @return True if the timeout has expired.
+         */
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        /* Executes the task, if the timeout was not cancelled. */
+        private void expire() {
+            if (!state.compareAndSet(INIT, EXPIRED))
+                return;
+            pendingTimeouts.decrementAndGet();
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // The worker must survive failing tasks.
+            }
+        }
+
+    }
+
+
+    /* A bucket of the wheel, which is a doubly linked list of timeouts. */
+    private static final class Bucket {
+
+        /* The first and last timeout of the bucket. */
+        private Timeout head;
+        private Timeout tail;
+
+
+        /* Adds the timeout to the bucket. */
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.previous = tail;
+                tail = timeout;
+            }
+        }
+
+        /* Removes the timeout from the bucket. */
+        private void remove(Timeout timeout) {
+            if (timeout.previous != null)
+                timeout.previous.next = timeout.next;
+            else
+                head = timeout.next;
+            if (timeout.next != null)
+                timeout.next.previous = timeout.previous;
+            else
+                tail = timeout.previous;
+            timeout.previous = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        /* Expires the timeouts of the current round, whose deadline has passed. */
+        private void expireTimeouts(long currentTime) {
+            Timeout timeout = head;
+            Timeout next;
+            while (timeout != null) {
+                next = timeout.next;
+                if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds <= 0) {
+                    if (timeout.deadline <= currentTime) {
+                        remove(timeout);
+                        timeout.expire();
+                    }
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+    }
+
+}
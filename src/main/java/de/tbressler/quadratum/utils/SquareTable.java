@@ -0,0 +1,150 @@
+package de.tbressler.quadratum.utils;
+
+import static de.tbressler.quadratum.utils.GameBoardUtils.assertIndex;
+import static de.tbressler.quadratum.utils.SquareUtils.score;
+import static java.util.Arrays.sort;
+
+/**
+ * A precomputed table of all possible squares on the game board. Every square has a number between
+ * 0 and {@link #SQUARES} - 1. For every field the table contains the squares, which have an edge on
+ * this field.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class SquareTable {
+
+    /** The number of possible squares on the game board. */
+    public static final int SQUARES = 336;
+
+
+    /* The sorted edges of the squares. */
+    private static final int[][] EDGES = new int[SQUARES][];
+
+    /* The scores of the squares. */
+    private static final int[] SCORES = new int[SQUARES];
+
+    /* The squares which have an edge on a field, indexed by field. */
+    private static final int[][] SQUARES_AT = new int[64][];
+
+
+    static {
+        int[] count = new int[64];
+        int n = 0;
+
+        // Every square is built by one edge (x,y) and the side vector (a,b) with a > 0 and b >= 0:
+        for (int y = 0; y < 8; y++)
+            for (int x = 0; x < 8; x++)
+                for (int a = 1; a < 8; a++)
+                    for (int b = 0; a + b < 8; b++) {
+                        int[] pieces = toPieces(x, y, a, b);
+                        if (pieces == null)
+                            continue;
+                        sort(pieces);
+                        EDGES[n] = pieces;
+                        SCORES[n] = score(pieces);
+                        for (int piece : pieces)
+                            count[piece]++;
+                        n++;
+                    }
+
+        if (n != SQUARES)
+            throw new IllegalStateException("Unexpected number of squares!");
+
+        for (int i = 0; i < 64; i++)
+            SQUARES_AT[i] = new int[count[i]];
+        int[] next = new int[64];
+        for (int s = 0; s < SQUARES; s++)
+            for (int piece : EDGES[s])
+                SQUARES_AT[piece][next[piece]++] = s;
+    }
+
+    /* Returns the edges of the square or null, if the square is not on the game board. */
+    private static int[] toPieces(int x, int y, int a, int b) {
+        int[] xs = new int[]{x, x + a, x + a - b, x - b};
+        int[] ys = new int[]{y, y + b, y + b + a, y + a};
+        int[] pieces = new int[4];
+        for (int i = 0; i < 4; i++) {
+            if ((xs[i] < 0) || (xs[i] > 7) || (ys[i] < 0) || (ys[i] > 7))
+                return null;
+            pieces[i] = ys[i] * 8 + xs[i];
+        }
+        return pieces;
+    }
+
+
+    /* Private constructor. */
+    private SquareTable() {}
+
+
+    /**
+     * Returns an edge of the given square. The edges are sorted by their field index.
+     *
+     * @param square The number of the square, between 0..335.
+     * @param edge The number of the edge, between 0..3.
+     * @return The field index of the edge, between 0..63.
+     */
+    public static int getEdge(int square, int edge) {
+        return EDGES[square][edge];
+    }
+
+    /**
+     * Returns the edges of the given square as a new sorted array.
+     *
+     * @param square The number of the square, between 0..335.
+     * @return A new array with the 4 field indexes of the edges, never null.
+     */
+    public static int[] getEdges(int square) {
+        return EDGES[square].clone();
+    }
+
+    /**
+     * Returns the score of the given square.
+     *
+     * @param square The number of the square, between 0..335.
+     * @return The score of the square, between 4..64.
+     */
+    public static int getScore(int square) {
+        return SCORES[square];
+    }
+
+    /**
+     * Returns the number of squares, which have an edge on the given field.
+     *
+     * @param index The field index, between 0..63.
+     * @return The number of squares.
+     */
+    public static int getSquareCountAt(int index) {
+        return SQUARES_AT[index].length;
+    }
+
+    /**
+     * Returns a square, which has an edge on the given field.
+     *
+     * @param index The field index, between 0..63.
+     * @param n The number of the square at the field, between 0..getSquareCountAt(index)-1.
+     * @return The number of the square, between 0..335.
+     */
+    public static int getSquareAt(int index, int n) {
+        return SQUARES_AT[index][n];
+    }
+
+    /**
+     * Returns the number of the square, which is formed by the given pieces.
+     *
+     * @param pieces The sorted array with the 4 indexes of the edges of the square.
+     * @return The number of the square, between 0..335, or -1 if the pieces don't form a square.
+     */
+    public static int indexOf(int[] pieces) {
+        assertIndex(pieces[0], "pieces must be between 0..63!");
+        int[] squares = SQUARES_AT[pieces[0]];
+        for (int square : squares) {
+            int[] edges = EDGES[square];
+            if ((edges[0] == pieces[0]) && (edges[1] == pieces[1]) &&
+                    (edges[2] == pieces[2]) && (edges[3] == pieces[3]))
+                return square;
+        }
+        return -1;
+    }
+
+}
@@ -113,4 +113,32 @@ public class SquareUtils {
         return dx * dx;
     }
 
+
+    /**
+     * Returns the size of the given square. The size is the number of fields which are covered by the
+     * bounding box of the square in x or y direction, e.g. 2 for a 2x2 square.
+     *
+     * @param pieces The array with the 4 indexes of the edges of the square.
+     * @return The size of the square, between 2..8.
+     */
+    public static int size(int[] pieces) {
+        int minIndex = min(min(pieces[0], pieces[1]), min(pieces[2], pieces[3]));
+        int maxIndex = max(max(pieces[0], pieces[1]), max(pieces[2], pieces[3]));
+        return difY(minIndex, maxIndex) + 1;
+    }
+
+    /**
+     * Returns the tilt of the given square. The tilt is the distance in x direction between the left
+     * border of the bounding box and the top edge of the square. The tilt of an axis-aligned square
+     * is 0.
+     *
+     * @param pieces The array with the 4 indexes of the edges of the square.
+     * @return The tilt of the square, between 0..size-2.
+     */
+    public static int tilt(int[] pieces) {
+        int minIndex = min(min(pieces[0], pieces[1]), min(pieces[2], pieces[3]));
+        int minX = min(min(pieces[0] % 8, pieces[1] % 8), min(pieces[2] % 8, pieces[3] % 8));
+        return (minIndex % 8) - minX;
+    }
+
 }
@@ -0,0 +1,67 @@
+package de.tbressler.quadratum;
+
+import de.tbressler.quadratum.search.LazySmpSearch;
+import de.tbressler.quadratum.search.SearchBoard;
+import de.tbressler.quadratum.search.TranspositionTable;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Integration tests for the time to depth of the Lazy SMP search with different numbers of threads.
+ * Every number of threads searches the same position to the same depth with a new transposition
+ * table, so the measured times can be compared between runs and machines with more cores.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class IntTestLazySmpSearch {
+
+    /* The depth, which must be completed by every number of threads. */
+    private static final int DEPTH = 6;
+
+    /* The numbers of threads. */
+    private static final int[] THREADS = {1, 2, 4, 8, 16};
+
+
+    @Test
+    public void findBestMove_withMoreThreads_completesSameDepth() {
+        long[] timeToDepth = new long[THREADS.length];
+        for (int t = 0; t < THREADS.length; t++) {
+            ForkJoinPool pool = new ForkJoinPool(THREADS[t]);
+            try {
+                LazySmpSearch search = new LazySmpSearch(THREADS[t], pool);
+                search.setTranspositionTable(new TranspositionTable(16));
+                SearchBoard board = createPosition();
+
+                long start = System.nanoTime();
+                int move = search.findBestMove(board, DEPTH, MINUTES.toNanos(5));
+                timeToDepth[t] = System.nanoTime() - start;
+
+                assertEquals(DEPTH, search.getMainSearch().getCompletedDepth());
+                assertTrue(board.isFieldEmpty(move));
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        for (int t = 0; t < THREADS.length; t++)
+            assertTrue("Time to depth " + DEPTH + " with " + THREADS[t] + " threads: " +
+                    NANOSECONDS.toMillis(timeToDepth[t]) + "ms", timeToDepth[t] < MINUTES.toNanos(5));
+    }
+
+    /* Returns a position of the middle game. */
+    private static SearchBoard createPosition() {
+        SearchBoard board = new SearchBoard(150, 15);
+        int[] moves = {27, 36, 28, 35, 18, 45, 9, 54, 21, 42};
+        for (int move : moves)
+            board.make(move);
+        return board;
+    }
+
+}
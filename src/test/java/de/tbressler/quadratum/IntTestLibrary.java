@@ -13,7 +13,9 @@ import org.mockito.ArgumentCaptor;
 import java.util.HashSet;
 import java.util.Set;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentCaptor.forClass;
 import static org.mockito.Mockito.*;
@@ -83,6 +85,102 @@ public class IntTestLibrary {
         assertSetOfSquares(squaresFromLogic, player1, player2);
     }
 
+    @Test
+    public void integrationTest_withReplayedMoves() {
+
+        int[] moves = new int[] {1, 34, 15, 59, 48, 54, 62, 29, 10, 36, 12, 38, 14, 52, 26, 18, 30, 20, 28};
+
+        Player player1 = new Player("player1");
+        Player player2 = new Player("player2");
+
+        GameBoard gameBoard = new GameBoard(player1, player2);
+
+        HumanPlayerLogic playerLogic1 = new HumanPlayerLogic(player1);
+        HumanPlayerLogic playerLogic2 = new HumanPlayerLogic(player2);
+
+        GameLogic gameLogic = new GameLogic(gameBoard, playerLogic1, playerLogic2);
+        gameLogic.addGameLogicListener(logicListener);
+
+        gameLogic.replay(player1, moves);
+
+        verify(logicListener, times(1)).onGameRestored(player2);
+        verify(logicListener, never()).onNewSquaresFound(any(Player.class), any(Set.class));
+        assertSetOfSquares(gameLogic.getSquares(), player1, player2);
+        assertTrue(playerLogic2.isPlayerActive());
+    }
+
+    @Test
+    public void integrationTest_withTakebackOfAllMoves() {
+
+        int[] moves = new int[] {1, 34, 15, 59, 48, 54, 62, 29, 10, 36, 12, 38, 14, 52, 26, 18, 30, 20, 28};
+
+        Player player1 = new Player("player1");
+        Player player2 = new Player("player2");
+
+        GameBoard gameBoard = new GameBoard(player1, player2);
+
+        HumanPlayerLogic playerLogic1 = new HumanPlayerLogic(player1);
+        HumanPlayerLogic playerLogic2 = new HumanPlayerLogic(player2);
+
+        GameLogic gameLogic = new GameLogic(gameBoard, playerLogic1, playerLogic2);
+        gameLogic.replay(player1, moves);
+
+        // Take back the last move of player 1, which completed two squares:
+        assertTrue(gameLogic.takeback());
+        assertEquals(5, gameLogic.getSquares().size());
+        assertTrue(playerLogic1.isPlayerActive());
+        assertTrue(playerLogic1.placePiece(28));
+        assertSetOfSquares(gameLogic.getSquares(), player1, player2);
+
+        while (gameLogic.takeback())
+            continue;
+
+        assertTrue(gameLogic.getSquares().isEmpty());
+        assertEquals(0, gameLogic.getScore(player1));
+        assertEquals(0, gameLogic.getScore(player2));
+        for (int i = 0; i < 64; i++)
+            assertTrue(gameBoard.isFieldEmpty(i));
+        assertTrue(playerLogic1.isPlayerActive());
+        assertFalse(playerLogic2.isPlayerActive());
+    }
+
+    @Test
+    public void integrationTest_withSnapshotRestoredByOtherGameLogic() {
+
+        int[] moves = new int[] {1, 34, 15, 59, 48, 54, 62, 29, 10, 36, 12, 38, 14, 52, 26, 18, 30, 20};
+
+        GameBoard gameBoard = new GameBoard(new Player("player1"), new Player("player2"));
+        GameLogic gameLogic = new GameLogic(gameBoard, new HumanPlayerLogic(gameBoard.getPlayer1()),
+                new HumanPlayerLogic(gameBoard.getPlayer2()));
+        gameLogic.replay(gameBoard.getPlayer1(), moves);
+
+        byte[] snapshot = gameLogic.snapshot();
+
+        // Restore the game with other player objects:
+        Player player1 = new Player("player1");
+        Player player2 = new Player("player2");
+
+        GameBoard restoredGameBoard = new GameBoard(player1, player2);
+
+        HumanPlayerLogic playerLogic1 = new HumanPlayerLogic(player1);
+        HumanPlayerLogic playerLogic2 = new HumanPlayerLogic(player2);
+
+        GameLogic restoredGameLogic = new GameLogic(restoredGameBoard, playerLogic1, playerLogic2);
+        restoredGameLogic.addGameLogicListener(logicListener);
+        restoredGameLogic.restore(snapshot);
+
+        verify(logicListener, times(1)).onGameRestored(player1);
+        assertEquals(5, restoredGameLogic.getSquares().size());
+        for (int i = 0; i < 64; i++)
+            assertEquals(gameBoard.isFieldEmpty(i), restoredGameBoard.isFieldEmpty(i));
+
+        // Continue the restored game:
+        assertTrue(playerLogic1.placePiece(28));
+        assertSetOfSquares(restoredGameLogic.getSquares(), player1, player2);
+        assertTrue(restoredGameLogic.takeback());
+        assertArrayEquals(snapshot, restoredGameLogic.snapshot());
+    }
+
     /* Assert if the set of squares contains the correct squares. */
     private void assertSetOfSquares(Set squares, Player player1, Player player2) {
 
@@ -0,0 +1,160 @@
+package de.tbressler.quadratum;
+
+import de.tbressler.quadratum.logic.GameLogic;
+import de.tbressler.quadratum.logic.GameOverReason;
+import de.tbressler.quadratum.logic.IGameLogicListener;
+import de.tbressler.quadratum.logic.players.HumanPlayerLogic;
+import de.tbressler.quadratum.model.GameBoard;
+import de.tbressler.quadratum.model.IGameBoardListener;
+import de.tbressler.quadratum.model.Player;
+import de.tbressler.quadratum.model.Square;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Integration tests for the allocation budget of a move. A move without new squares must not
+ * allocate memory in the steady state.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class IntTestMoveAllocation {
+
+    /* The number of games to warm up the JIT compiler. */
+    private static final int WARM_UP_GAMES = 5000;
+
+    /* The number of measured games. */
+    private static final int MEASURED_GAMES = 100;
+
+    // The moves, which don't form any squares:
+    private static final int[] MOVES_OF_PLAYER1 = new int[] {0, 1, 2, 3, 4, 5, 6, 7};
+    private static final int[] MOVES_OF_PLAYER2 = new int[] {8, 9, 10, 11, 12, 13, 14, 15};
+
+    // The thread MX bean with support for allocation measurement:
+    private com.sun.management.ThreadMXBean threadBean;
+
+    private HumanPlayerLogic playerLogic1;
+    private HumanPlayerLogic playerLogic2;
+    private GameLogic gameLogic;
+    private Player player1;
+
+
+    @Before
+    public void setUp() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        player1 = new Player("player1");
+        Player player2 = new Player("player2");
+
+        GameBoard gameBoard = new GameBoard(player1, player2);
+        gameBoard.addGameBoardListener(new NoOpGameBoardListener());
+
+        playerLogic1 = new HumanPlayerLogic(player1);
+        playerLogic2 = new HumanPlayerLogic(player2);
+
+        gameLogic = new GameLogic(gameBoard, playerLogic1, playerLogic2);
+        gameLogic.addGameLogicListener(new NoOpGameLogicListener());
+    }
+
+
+    @Test
+    public void makeMove_withoutNewSquares_allocatesNoMemory() {
+        for (int i = 0; i < WARM_UP_GAMES; i++)
+            playGame();
+
+        long overhead = measureOverhead();
+
+        long allocatedBytes = 0;
+        for (int i = 0; i < MEASURED_GAMES; i++)
+            allocatedBytes += playGame() - overhead;
+
+        assertEquals("Allocated bytes per move", 0,
+                allocatedBytes / (MEASURED_GAMES * 2 * MOVES_OF_PLAYER1.length));
+    }
+
+    /* Plays a game and returns the number of bytes, which were allocated by the moves. */
+    private long playGame() {
+        gameLogic.startGame(player1);
+
+        long before = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int i = 0; i < MOVES_OF_PLAYER1.length; i++) {
+            playerLogic1.placePiece(MOVES_OF_PLAYER1[i]);
+            playerLogic2.placePiece(MOVES_OF_PLAYER2[i]);
+        }
+        long after = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+
+        return after - before;
+    }
+
+    /* Returns the number of bytes, which are allocated by the measurement itself. */
+    private long measureOverhead() {
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 100; i++) {
+            long before = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            long after = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            overhead = Math.min(overhead, after - before);
+        }
+        return overhead;
+    }
+
+
+    /* A game board listener, which does nothing. */
+    private static class NoOpGameBoardListener implements IGameBoardListener {
+
+        @Override
+        public void onPiecePlaced(int index, Player player) {
+            // Nothing to do.
+        }
+
+        @Override
+        public void onPieceRemoved(int index, Player player) {
+            // Nothing to do.
+        }
+
+        @Override
+        public void onGameBoardCleared() {
+            // Nothing to do.
+        }
+
+    }
+
+    /* A game logic listener, which does nothing. */
+    private static class NoOpGameLogicListener implements IGameLogicListener {
+
+        @Override
+        public void onGameStarted(Player activePlayer) {
+            // Nothing to do.
+        }
+
+        @Override
+        public void onMoveTakenBack(Player player, int index, Set<Square> removedSquares) {
+            // Nothing to do.
+        }
+
+        @Override
+        public void onActivePlayerChanged(Player activePlayer) {
+            // Nothing to do.
+        }
+
+        @Override
+        public void onNewSquaresFound(Player player, Set<Square> squares) {
+            // Nothing to do.
+        }
+
+        @Override
+        public void onGameOver(Player winner, GameOverReason reason) {
+            // Nothing to do.
+        }
+
+    }
+
+}
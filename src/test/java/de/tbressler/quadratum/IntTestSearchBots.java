@@ -0,0 +1,82 @@
+package de.tbressler.quadratum;
+
+import de.tbressler.quadratum.logic.GameLogic;
+import de.tbressler.quadratum.logic.IPlayerLogic;
+import de.tbressler.quadratum.logic.players.AlphaBetaPlayerLogic;
+import de.tbressler.quadratum.logic.players.BotPlayerLogic;
+import de.tbressler.quadratum.logic.players.BotPlayerLogic.Strategy;
+import de.tbressler.quadratum.logic.players.MonteCarloPlayerLogic;
+import de.tbressler.quadratum.model.GameBoard;
+import de.tbressler.quadratum.model.Player;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Integration tests for the search bots. The search bots must beat the heat map bot with both
+ * strategies and both starting players. The heat map bot doesn't randomize its moves.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class IntTestSearchBots {
+
+    /* The number of games against the heat map bot (both strategies and both starting players). */
+    private static final int GAMES = 4;
+
+
+    @Test
+    public void alphaBetaPlayerLogic_beatsHeatMapBot() {
+        // The search is limited by its depth and not by the time, so the games are deterministic:
+        assertEquals(GAMES, playGames(player -> {
+            AlphaBetaPlayerLogic playerLogic = new AlphaBetaPlayerLogic(player, 60, SECONDS);
+            playerLogic.setMaxDepth(3);
+            return playerLogic;
+        }));
+    }
+
+    @Test
+    public void monteCarloPlayerLogic_beatsHeatMapBot() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            // The search is limited by its iterations and the playouts are seeded, so the games are
+            // deterministic:
+            assertEquals(GAMES, playGames(player -> {
+                MonteCarloPlayerLogic playerLogic = new MonteCarloPlayerLogic(player, 2, 60, SECONDS, pool);
+                playerLogic.setMaxIterations(1000);
+                playerLogic.setSeed(2);
+                return playerLogic;
+            }));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+
+    /* Plays games against both strategies of the heat map bot and returns the number of won games. */
+    private int playGames(Function<Player, IPlayerLogic> searchBotFactory) {
+        int wonGames = 0;
+        for (Strategy strategy : Strategy.values()) {
+            for (int game = 0; game < 2; game++) {
+                Player searchPlayer = new Player("search");
+                Player heatMapPlayer = new Player("heatMap");
+
+                BotPlayerLogic heatMapBot = new BotPlayerLogic(heatMapPlayer, strategy);
+                heatMapBot.setRandomizeMoves(false);
+                GameLogic gameLogic = new GameLogic(new GameBoard(searchPlayer, heatMapPlayer),
+                        searchBotFactory.apply(searchPlayer), heatMapBot);
+
+                gameLogic.startGame((game == 0) ? searchPlayer : heatMapPlayer);
+
+                if (searchPlayer.equals(gameLogic.getWinner()))
+                    wonGames++;
+            }
+        }
+        return wonGames;
+    }
+
+}
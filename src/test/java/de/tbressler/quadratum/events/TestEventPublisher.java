@@ -0,0 +1,320 @@
+package de.tbressler.quadratum.events;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import static de.tbressler.quadratum.events.EventPublisher.OverflowPolicy.*;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for class EventPublisher.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestEventPublisher {
+
+    // Class under test:
+    private EventPublisher<Integer> publisher;
+
+    // The tasks of the executor:
+    private List<Runnable> tasks = new ArrayList<>();
+
+    // The subscriber:
+    private RecordingSubscriber subscriber = new RecordingSubscriber();
+
+
+    @Before
+    public void setUp() {
+        publisher = new EventPublisher<>(tasks::add);
+    }
+
+
+    /* Runs the scheduled tasks until no task is left. */
+    private void runTasks() {
+        while (!tasks.isEmpty())
+            tasks.remove(0).run();
+    }
+
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullExecutor_throwsException() {
+        new EventPublisher<Integer>(null);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void subscribe_withZeroBufferSize_throwsException() {
+        publisher.subscribe(subscriber, 0, DROP_OLDEST);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void submit_withNullItem_throwsException() {
+        publisher.submit(null);
+    }
+
+    @Test
+    public void subscribe_callsOnSubscribeOnExecutor() {
+        publisher.subscribe(subscriber);
+        assertNull(subscriber.subscription);
+        assertEquals(1, publisher.getSubscriberCount());
+
+        runTasks();
+        assertNotNull(subscriber.subscription);
+    }
+
+    @Test
+    public void submit_withDemand_deliversItems() {
+        publisher.subscribe(subscriber);
+        runTasks();
+        subscriber.subscription.request(2);
+
+        publisher.submit(1);
+        publisher.submit(2);
+        publisher.submit(3);
+        runTasks();
+
+        assertEquals(asList(1, 2), subscriber.items);
+
+        subscriber.subscription.request(1);
+        runTasks();
+        assertEquals(asList(1, 2, 3), subscriber.items);
+    }
+
+    @Test
+    public void submit_withFullBufferAndDropOldest_dropsOldestItems() {
+        publisher.subscribe(subscriber, 2, DROP_OLDEST);
+        for (int i = 1; i <= 4; i++)
+            publisher.submit(i);
+        runTasks();
+
+        subscriber.subscription.request(10);
+        runTasks();
+        assertEquals(asList(3, 4), subscriber.items);
+    }
+
+    @Test
+    public void submit_withFullBufferAndConflate_deliversLatestItem() {
+        publisher.subscribe(subscriber, 1, CONFLATE);
+        for (int i = 1; i <= 4; i++)
+            publisher.submit(i);
+        runTasks();
+
+        subscriber.subscription.request(10);
+        runTasks();
+        assertEquals(asList(4), subscriber.items);
+    }
+
+    @Test
+    public void submit_withFullBufferAndFail_signalsError() {
+        publisher.subscribe(subscriber, 1, FAIL);
+        publisher.submit(1);
+        publisher.submit(2);
+        runTasks();
+
+        assertTrue(subscriber.error instanceof IllegalStateException);
+        assertTrue(subscriber.items.isEmpty());
+        assertEquals(0, publisher.getSubscriberCount());
+    }
+
+    @Test
+    public void submit_withFullBufferAndResync_skipsItemsUntilSnapshot() {
+        publisher.subscribe(subscriber, 2, RESYNC);
+        for (int i = 1; i <= 4; i++)
+            publisher.submit(i);
+        runTasks();
+        assertTrue(publisher.hasLaggingSubscribers());
+
+        publisher.resync(100);
+        publisher.submit(5);
+        assertFalse(publisher.hasLaggingSubscribers());
+
+        subscriber.subscription.request(10);
+        runTasks();
+        assertEquals(asList(100, 5), subscriber.items);
+    }
+
+    @Test
+    public void resync_withoutLaggingSubscriber_isIgnored() {
+        publisher.subscribe(subscriber, 2, RESYNC);
+        publisher.submit(1);
+        publisher.resync(100);
+        runTasks();
+
+        subscriber.subscription.request(10);
+        runTasks();
+        assertEquals(asList(1), subscriber.items);
+    }
+
+    @Test
+    public void submit_withSlowAndFastSubscriber_deliversIndependently() {
+        RecordingSubscriber slowSubscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        publisher.subscribe(slowSubscriber, 1, CONFLATE);
+        runTasks();
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        for (int i = 1; i <= 3; i++)
+            publisher.submit(i);
+        runTasks();
+        slowSubscriber.subscription.request(1);
+        runTasks();
+
+        assertEquals(asList(1, 2, 3), subscriber.items);
+        assertEquals(asList(3), slowSubscriber.items);
+    }
+
+    @Test
+    public void request_withZeroDemand_signalsError() {
+        publisher.subscribe(subscriber);
+        runTasks();
+        subscriber.subscription.request(0);
+        runTasks();
+
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertEquals(0, publisher.getSubscriberCount());
+    }
+
+    @Test
+    public void cancel_stopsDelivery() {
+        publisher.subscribe(subscriber);
+        runTasks();
+        subscriber.subscription.request(10);
+        subscriber.subscription.cancel();
+        publisher.submit(1);
+        runTasks();
+
+        assertTrue(subscriber.items.isEmpty());
+        assertFalse(publisher.hasSubscribers());
+    }
+
+    @Test
+    public void subscribe_withSameSubscriber_signalsError() {
+        publisher.subscribe(subscriber);
+        RecordingSubscriber duplicate = subscriber;
+        publisher.subscribe(duplicate);
+        runTasks();
+
+        assertTrue(subscriber.error instanceof IllegalStateException);
+        assertEquals(1, publisher.getSubscriberCount());
+    }
+
+    @Test
+    public void close_completesSubscriberAfterBufferedItems() {
+        publisher.subscribe(subscriber);
+        publisher.submit(1);
+        publisher.close();
+        runTasks();
+        assertFalse(subscriber.isCompleted);
+
+        subscriber.subscription.request(1);
+        runTasks();
+        assertEquals(asList(1), subscriber.items);
+        assertTrue(subscriber.isCompleted);
+    }
+
+    @Test
+    public void subscribe_afterClose_completesSubscriber() {
+        publisher.close();
+        publisher.subscribe(subscriber);
+        runTasks();
+
+        assertTrue(subscriber.isCompleted);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void submit_afterClose_throwsException() {
+        publisher.close();
+        publisher.submit(1);
+    }
+
+    @Test
+    public void trySubmit_afterClose_returnsFalse() {
+        publisher.subscribe(subscriber);
+        publisher.close();
+
+        assertFalse(publisher.trySubmit(1));
+        runTasks();
+        assertTrue(subscriber.items.isEmpty());
+    }
+
+    @Test
+    public void submit_withThrowingOnNext_cancelsSubscriptionAndSignalsError() {
+        RuntimeException failure = new RuntimeException("onNext failed!");
+        RecordingSubscriber throwingSubscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(Integer item) {
+                super.onNext(item);
+                throw failure;
+            }
+        };
+        publisher.subscribe(throwingSubscriber);
+        publisher.subscribe(subscriber);
+        runTasks();
+        throwingSubscriber.subscription.request(10);
+        subscriber.subscription.request(10);
+
+        publisher.submit(1);
+        runTasks();
+        publisher.submit(2);
+        runTasks();
+
+        assertEquals(asList(1), throwingSubscriber.items);
+        assertSame(failure, throwingSubscriber.error);
+        assertEquals(asList(1, 2), subscriber.items);
+        assertEquals(1, publisher.getSubscriberCount());
+    }
+
+    @Test
+    public void subscribe_withThrowingOnSubscribe_signalsError() {
+        RuntimeException failure = new RuntimeException("onSubscribe failed!");
+        RecordingSubscriber throwingSubscriber = new RecordingSubscriber() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                throw failure;
+            }
+        };
+        publisher.subscribe(throwingSubscriber);
+        runTasks();
+
+        assertSame(failure, throwingSubscriber.error);
+        assertFalse(publisher.hasSubscribers());
+        assertTrue(tasks.isEmpty());
+    }
+
+
+    /* A subscriber, which records the signals. */
+    private static class RecordingSubscriber implements Flow.Subscriber<Integer> {
+
+        private Flow.Subscription subscription;
+        private List<Integer> items = new ArrayList<>();
+        private Throwable error;
+        private boolean isCompleted = false;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            this.isCompleted = true;
+        }
+
+    }
+
+}
@@ -0,0 +1,163 @@
+package de.tbressler.quadratum.events;
+
+import de.tbressler.quadratum.logic.GameLogic;
+import de.tbressler.quadratum.logic.players.HumanPlayerLogic;
+import de.tbressler.quadratum.model.GameBoard;
+import de.tbressler.quadratum.model.Player;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import static de.tbressler.quadratum.events.EventPublisher.OverflowPolicy.CONFLATE;
+import static de.tbressler.quadratum.events.GameEvent.Type.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for class GameEventPublisher.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestGameEventPublisher {
+
+    // Class under test:
+    private GameEventPublisher gameEventPublisher;
+
+    private Player player1 = new Player("player1");
+    private Player player2 = new Player("player2");
+
+    private GameBoard gameBoard = new GameBoard(player1, player2);
+    private HumanPlayerLogic playerLogic1 = new HumanPlayerLogic(player1);
+    private HumanPlayerLogic playerLogic2 = new HumanPlayerLogic(player2);
+    private GameLogic gameLogic = new GameLogic(gameBoard, playerLogic1, playerLogic2);
+
+    // The tasks of the executor:
+    private List<Runnable> tasks = new ArrayList<>();
+
+
+    @Before
+    public void setUp() {
+        gameEventPublisher = new GameEventPublisher(gameLogic, tasks::add);
+    }
+
+
+    /* Runs the scheduled tasks until no task is left. */
+    private void runTasks() {
+        while (!tasks.isEmpty())
+            tasks.remove(0).run();
+    }
+
+    /* Plays moves, so that player 1 completes a square. */
+    private void playSquare() {
+        gameLogic.startGame(player1);
+        playerLogic1.placePiece(0);
+        playerLogic2.placePiece(16);
+        playerLogic1.placePiece(1);
+        playerLogic2.placePiece(24);
+        playerLogic1.placePiece(8);
+        playerLogic2.placePiece(32);
+        playerLogic1.placePiece(9);
+    }
+
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullGameLogic_throwsException() {
+        new GameEventPublisher(null, tasks::add);
+    }
+
+    @Test
+    public void getEvents_withSubscriber_publishesEvents() {
+        List<GameEvent> events = new ArrayList<>();
+        gameEventPublisher.getEvents().subscribe(new RequestingSubscriber<>(events));
+
+        playSquare();
+        runTasks();
+
+        assertEquals(BOARD_CLEARED, events.get(0).getType());
+        assertTrue(events.stream().anyMatch(event -> event.getType() == GAME_STARTED));
+
+        GameEvent squaresFound = events.stream().filter(event -> event.getType() == SQUARES_FOUND).findFirst().get();
+        assertEquals(player1, squaresFound.getPlayer());
+        assertEquals(1, squaresFound.getSquares().size());
+
+        GameEvent last = events.get(events.size() - 1);
+        assertEquals(ACTIVE_PLAYER_CHANGED, last.getType());
+        assertEquals(player2, last.getPlayer());
+    }
+
+    @Test
+    public void getBoardStates_withConflatingSubscriber_deliversLatestState() {
+        List<BoardState> states = new ArrayList<>();
+        RequestingSubscriber<BoardState> subscriber = new RequestingSubscriber<>(states);
+        subscriber.isRequesting = false;
+        gameEventPublisher.getBoardStates().subscribe(subscriber, 1, CONFLATE);
+        runTasks();
+
+        playSquare();
+        subscriber.subscription.request(10);
+        runTasks();
+
+        assertEquals(1, states.size());
+        BoardState state = states.get(0);
+        assertEquals(player1, state.getPiece(9));
+        assertEquals(player2, state.getActivePlayer());
+        assertEquals(gameLogic.getScore(player1), state.getScorePlayer1());
+        assertTrue(state.getScorePlayer1() > 0);
+        assertFalse(state.isGameOver());
+    }
+
+    @Test
+    public void close_removesListenersAndCompletesSubscribers() {
+        List<GameEvent> events = new ArrayList<>();
+        RequestingSubscriber<GameEvent> subscriber = new RequestingSubscriber<>(events);
+        gameEventPublisher.getEvents().subscribe(subscriber);
+
+        gameEventPublisher.close();
+        gameLogic.startGame(player1);
+        runTasks();
+
+        assertTrue(events.isEmpty());
+        assertTrue(subscriber.isCompleted);
+    }
+
+
+    /* A subscriber, which requests all items and records them. */
+    private static class RequestingSubscriber<T> implements Flow.Subscriber<T> {
+
+        private final List<T> items;
+        private Flow.Subscription subscription;
+        private boolean isRequesting = true;
+        private boolean isCompleted = false;
+
+        private RequestingSubscriber(List<T> items) {
+            this.items = items;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (isRequesting)
+                subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            fail(throwable.getMessage());
+        }
+
+        @Override
+        public void onComplete() {
+            isCompleted = true;
+        }
+
+    }
+
+}
@@ -0,0 +1,184 @@
+package de.tbressler.quadratum.events;
+
+import de.tbressler.quadratum.logic.GameLogic;
+import de.tbressler.quadratum.logic.players.HumanPlayerLogic;
+import de.tbressler.quadratum.model.GameBoard;
+import de.tbressler.quadratum.model.Player;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import static de.tbressler.quadratum.events.SpectatorFrame.Type.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for class SpectatorBroadcaster.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestSpectatorBroadcaster {
+
+    // Class under test:
+    private SpectatorBroadcaster broadcaster;
+
+    private Player player1 = new Player("player1");
+    private Player player2 = new Player("player2");
+
+    private GameBoard gameBoard = new GameBoard(player1, player2);
+    private HumanPlayerLogic playerLogic1 = new HumanPlayerLogic(player1);
+    private HumanPlayerLogic playerLogic2 = new HumanPlayerLogic(player2);
+    private GameLogic gameLogic = new GameLogic(gameBoard, playerLogic1, playerLogic2);
+
+    // The tasks of the executor:
+    private List<Runnable> tasks = new ArrayList<>();
+
+
+    @Before
+    public void setUp() {
+        broadcaster = new SpectatorBroadcaster(gameLogic, tasks::add);
+    }
+
+
+    /* Runs the scheduled tasks until no task is left. */
+    private void runTasks() {
+        while (!tasks.isEmpty())
+            tasks.remove(0).run();
+    }
+
+    /* Plays moves, so that player 1 completes a square. */
+    private void playSquare() {
+        gameLogic.startGame(player1);
+        playerLogic1.placePiece(0);
+        playerLogic2.placePiece(16);
+        playerLogic1.placePiece(1);
+        playerLogic2.placePiece(24);
+        playerLogic1.placePiece(8);
+        playerLogic2.placePiece(32);
+        playerLogic1.placePiece(9);
+    }
+
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullGameLogic_throwsException() {
+        new SpectatorBroadcaster(null, tasks::add);
+    }
+
+    @Test
+    public void broadcast_withManySpectators_sharesFramesByReference() {
+        Spectator spectator1 = new Spectator(true);
+        Spectator spectator2 = new Spectator(true);
+        broadcaster.subscribe(spectator1, 1024);
+        broadcaster.subscribe(spectator2, 1024);
+
+        playSquare();
+        runTasks();
+
+        assertEquals(broadcaster.getEncodedFrameCount(), spectator1.frames.size());
+        assertEquals(spectator1.frames.size(), spectator2.frames.size());
+        for (int i = 0; i < spectator1.frames.size(); i++)
+            assertSame(spectator1.frames.get(i), spectator2.frames.get(i));
+        assertEquals(0, broadcaster.getEncodedSnapshotCount());
+    }
+
+    @Test
+    public void broadcast_returnsFramesInSequence() {
+        Spectator spectator = new Spectator(true);
+        broadcaster.subscribe(spectator, 1024);
+
+        playSquare();
+        runTasks();
+
+        for (int i = 0; i < spectator.frames.size(); i++)
+            assertEquals(i + 1, spectator.frames.get(i).getSequence());
+        assertEquals(broadcaster.getSequence(), spectator.frames.get(spectator.frames.size() - 1).getSequence());
+
+        SpectatorFrame squaresFound = spectator.frames.stream().filter(frame -> frame.getType() == SQUARES_FOUND).findFirst().get();
+        assertEquals(1, squaresFound.getPlayerSlot());
+        assertEquals(1, squaresFound.getSquares().length);
+    }
+
+    @Test
+    public void broadcast_withLaggingSpectator_sendsSnapshot() {
+        Spectator spectator = new Spectator(false);
+        broadcaster.subscribe(spectator, 2);
+        runTasks();
+
+        playSquare();
+        spectator.subscription.request(Long.MAX_VALUE);
+        runTasks();
+
+        assertTrue(broadcaster.getEncodedSnapshotCount() > 0);
+        SpectatorFrame snapshot = spectator.frames.stream().filter(frame -> frame.getType() == SNAPSHOT).findFirst().get();
+        assertEquals(broadcaster.getSequence(), spectator.frames.get(spectator.frames.size() - 1).getSequence());
+
+        Player spectatorPlayer1 = new Player("player1");
+        Player spectatorPlayer2 = new Player("player2");
+        GameLogic spectatorGame = new GameLogic(new GameBoard(spectatorPlayer1, spectatorPlayer2),
+                new HumanPlayerLogic(spectatorPlayer1), new HumanPlayerLogic(spectatorPlayer2));
+        spectatorGame.restore(snapshot.getSnapshot());
+
+        assertEquals(gameLogic.getMoveCount(), spectatorGame.getMoveCount());
+        assertEquals(gameLogic.getScore(player1), spectatorGame.getScore(spectatorPlayer1));
+    }
+
+    @Test
+    public void broadcast_withoutSpectators_encodesNoFrames() {
+        playSquare();
+        assertEquals(0, broadcaster.getEncodedFrameCount());
+        assertTrue(broadcaster.getSequence() > 0);
+    }
+
+    @Test
+    public void close_completesSpectators() {
+        Spectator spectator = new Spectator(true);
+        broadcaster.subscribe(spectator);
+        broadcaster.close();
+        playSquare();
+        runTasks();
+
+        assertTrue(spectator.frames.isEmpty());
+        assertTrue(spectator.isCompleted);
+    }
+
+
+    /* A spectator, which records the frames. */
+    private static class Spectator implements Flow.Subscriber<SpectatorFrame> {
+
+        private final boolean isRequesting;
+        private final List<SpectatorFrame> frames = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private boolean isCompleted = false;
+
+        private Spectator(boolean isRequesting) {
+            this.isRequesting = isRequesting;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (isRequesting)
+                subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(SpectatorFrame frame) {
+            frames.add(frame);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            fail(throwable.getMessage());
+        }
+
+        @Override
+        public void onComplete() {
+            isCompleted = true;
+        }
+
+    }
+
+}
@@ -0,0 +1,80 @@
+package de.tbressler.quadratum.events;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+
+import static de.tbressler.quadratum.events.SpectatorFrame.Type.*;
+import static de.tbressler.quadratum.logic.GameOverReason.ADJUDICATION;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for class SpectatorFrame.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestSpectatorFrame {
+
+    @Test
+    public void encode_returnsFrameWithFields() {
+        SpectatorFrame frame = SpectatorFrame.encode(SQUARES_FOUND, 42L, 2, -1, null, new int[] {7, 1000});
+
+        assertEquals(SQUARES_FOUND, frame.getType());
+        assertEquals(42L, frame.getSequence());
+        assertEquals(2, frame.getPlayerSlot());
+        assertEquals(-1, frame.getIndex());
+        assertNull(frame.getReason());
+        assertArrayEquals(new int[] {7, 1000}, frame.getSquares());
+        assertNull(frame.getSnapshot());
+        assertEquals(SpectatorFrame.HEADER_SIZE + 4, frame.size());
+    }
+
+    @Test
+    public void encode_withReason_returnsReason() {
+        SpectatorFrame frame = SpectatorFrame.encode(GAME_OVER, 1L, 1, -1, ADJUDICATION, new int[0]);
+        assertEquals(ADJUDICATION, frame.getReason());
+    }
+
+    @Test
+    public void encodeSnapshot_returnsSnapshot() {
+        byte[] snapshot = {1, 2, 3};
+        SpectatorFrame frame = SpectatorFrame.encodeSnapshot(5L, snapshot);
+
+        assertEquals(SNAPSHOT, frame.getType());
+        assertEquals(5L, frame.getSequence());
+        assertArrayEquals(snapshot, frame.getSnapshot());
+        assertEquals(0, frame.getSquares().length);
+    }
+
+    @Test
+    public void decode_withEncodedFrame_returnsEqualFrame() {
+        SpectatorFrame frame = SpectatorFrame.encode(PIECE_PLACED, 3L, 1, 63, null, new int[0]);
+        SpectatorFrame decoded = SpectatorFrame.decode(frame.toByteArray());
+
+        assertEquals(frame, decoded);
+        assertEquals(63, decoded.getIndex());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decode_withTruncatedFrame_throwsException() {
+        byte[] bytes = SpectatorFrame.encode(SQUARES_FOUND, 1L, 1, -1, null, new int[] {1}).toByteArray();
+        SpectatorFrame.decode(Arrays.copyOf(bytes, bytes.length - 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decode_withInvalidType_throwsException() {
+        byte[] bytes = SpectatorFrame.encode(PIECE_PLACED, 1L, 1, 0, null, new int[0]).toByteArray();
+        bytes[0] = 99;
+        SpectatorFrame.decode(bytes);
+    }
+
+    @Test(expected = ReadOnlyBufferException.class)
+    public void asByteBuffer_returnsReadOnlyBuffer() {
+        ByteBuffer buffer = SpectatorFrame.encode(PIECE_PLACED, 1L, 1, 0, null, new int[0]).asByteBuffer();
+        buffer.put(0, (byte) 1);
+    }
+
+}
@@ -0,0 +1,88 @@
+package de.tbressler.quadratum.host;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for class FileGameStore.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestFileGameStore {
+
+    // Class under test:
+    private FileGameStore gameStore;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+
+
+    @Before
+    public void setUp() throws IOException {
+        directory = folder.getRoot().toPath().resolve("games");
+        gameStore = new FileGameStore(directory);
+    }
+
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullDirectory_throwsException() {
+        new FileGameStore(null);
+    }
+
+    @Test
+    public void new_withMissingDirectory_createsDirectory() {
+        assertTrue(Files.isDirectory(directory));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void save_withNullSnapshot_throwsException() {
+        gameStore.save(1, null);
+    }
+
+    @Test
+    public void load_withoutSnapshot_returnsNull() {
+        assertNull(gameStore.load(1));
+    }
+
+    @Test
+    public void load_afterSave_returnsSnapshot() {
+        gameStore.save(1, new byte[]{1, 2, 3});
+        gameStore.save(-1, new byte[]{4});
+
+        assertArrayEquals(new byte[]{1, 2, 3}, gameStore.load(1));
+        assertArrayEquals(new byte[]{4}, gameStore.load(-1));
+    }
+
+    @Test
+    public void save_withExistingSnapshot_replacesSnapshot() throws IOException {
+        gameStore.save(1, new byte[]{1, 2, 3});
+        gameStore.save(1, new byte[]{5});
+
+        assertArrayEquals(new byte[]{5}, gameStore.load(1));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void delete_afterSave_deletesSnapshot() {
+        gameStore.save(1, new byte[]{1, 2, 3});
+        gameStore.delete(1);
+        gameStore.delete(2);
+
+        assertNull(gameStore.load(1));
+    }
+
+}
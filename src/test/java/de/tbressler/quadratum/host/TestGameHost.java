@@ -0,0 +1,505 @@
+package de.tbressler.quadratum.host;
+
+import de.tbressler.quadratum.logic.GameActor;
+import de.tbressler.quadratum.logic.GameLogic;
+import de.tbressler.quadratum.logic.players.HumanPlayerLogic;
+import de.tbressler.quadratum.model.GameBoard;
+import de.tbressler.quadratum.model.Player;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for class GameHost.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestGameHost {
+
+    // Class under test:
+    private GameHost gameHost;
+
+    // Players:
+    private Player player1 = new Player("player1");
+    private Player player2 = new Player("player2");
+
+    // The tasks of the executors:
+    private List<Runnable> tasks = new ArrayList<>();
+
+    // The store of the hibernated games:
+    private MemoryGameStore gameStore = new MemoryGameStore();
+
+
+    @Before
+    public void setUp() {
+        gameHost = new GameHost(4, shard -> tasks::add);
+    }
+
+
+    /* Runs the scheduled tasks until no task is left. */
+    private void runTasks() {
+        while (!tasks.isEmpty())
+            tasks.remove(0).run();
+    }
+
+    /* Creates a game logic with two human players. */
+    private GameLogic createGameLogic() {
+        return new GameLogic(new GameBoard(player1, player2),
+                new HumanPlayerLogic(player1), new HumanPlayerLogic(player2));
+    }
+
+
+    @Test(expected = AssertionError.class)
+    public void new_withZeroShards_throwsException() {
+        new GameHost(0, shard -> tasks::add);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullExecutorFactory_throwsException() {
+        new GameHost(4, null);
+    }
+
+    @Test
+    public void new_withShardCount_roundsUpToPowerOfTwo() {
+        assertEquals(8, new GameHost(5, shard -> tasks::add).getShardCount());
+    }
+
+    @Test(expected = AssertionError.class)
+    public void addGame_withExistingGameId_throwsException() {
+        gameHost.addGame(1, createGameLogic());
+        gameHost.addGame(1, createGameLogic());
+    }
+
+    @Test
+    public void addGame_withExistingGameId_doesNotCountMovesOfRejectedGame() {
+        gameHost.addGame(1, createGameLogic());
+        GameLogic rejectedGameLogic = createGameLogic();
+        try {
+            gameHost.addGame(1, rejectedGameLogic);
+            fail("Exception expected!");
+        } catch (AssertionError e) {
+            // Expected.
+        }
+
+        rejectedGameLogic.replay(player1, new int[]{1, 2});
+        HumanPlayerLogic playerLogic = (HumanPlayerLogic) rejectedGameLogic.getActivePlayerLogic();
+        playerLogic.placePiece(3);
+
+        assertEquals(3, rejectedGameLogic.getMoveCount());
+        assertEquals(0, gameHost.getMoveCount());
+        assertEquals(1, gameHost.getCreatedGameCount());
+    }
+
+    @Test
+    public void addGame_withGameId_returnsGameActor() {
+        GameActor gameActor = gameHost.addGame(1, createGameLogic());
+
+        assertSame(gameActor, gameHost.getGame(1));
+        assertNull(gameHost.getGame(2));
+        assertEquals(1, gameHost.getGameCount());
+        assertEquals(1, gameHost.getCreatedGameCount());
+    }
+
+    @Test
+    public void addGame_withManyGames_distributesGamesOverShards() {
+        for (int i = 0; i < 1000; i++)
+            gameHost.addGame(i, createGameLogic());
+
+        assertEquals(1000, gameHost.getGameCount());
+        for (int shard = 0; shard < gameHost.getShardCount(); shard++)
+            assertTrue(gameHost.getGameCount(shard) > 150);
+        for (int i = 0; i < 1000; i++)
+            assertNotNull(gameHost.getGame(i));
+    }
+
+    @Test
+    public void addGame_withMultiplesOfPowerOfTwo_distributesGamesOverShards() {
+        for (long i = 0; i < 1000; i++)
+            gameHost.addGame(i << 32, createGameLogic());
+
+        for (int shard = 0; shard < gameHost.getShardCount(); shard++)
+            assertTrue(gameHost.getGameCount(shard) > 150);
+        for (long i = 0; i < 1000; i += 2)
+            assertTrue(gameHost.removeGame(i << 32));
+        for (long i = 1; i < 1000; i += 2)
+            assertNotNull(gameHost.getGame(i << 32));
+        assertEquals(500, gameHost.getGameCount());
+    }
+
+    @Test
+    public void removeGame_withManyGames_keepsOtherGames() {
+        for (int i = 0; i < 1000; i++)
+            gameHost.addGame(i, createGameLogic());
+        for (int i = 0; i < 1000; i += 2)
+            assertTrue(gameHost.removeGame(i));
+
+        assertFalse(gameHost.removeGame(0));
+        assertEquals(500, gameHost.getGameCount());
+        assertEquals(500, gameHost.getRemovedGameCount());
+        for (int i = 0; i < 1000; i++)
+            assertEquals(i % 2 == 1, gameHost.getGame(i) != null);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void getGameCount_withInvalidShard_throwsException() {
+        gameHost.getGameCount(4);
+    }
+
+    @Test
+    public void placePiece_withGameId_routesMoveToGame() {
+        gameHost.addGame(1, createGameLogic());
+        gameHost.addGame(2, createGameLogic());
+
+        gameHost.startGame(1, player1);
+        gameHost.startGame(2, player2);
+        CompletableFuture<Boolean> move1 = gameHost.placePiece(1, player1, 5);
+        CompletableFuture<Boolean> move2 = gameHost.placePiece(2, player1, 5);
+        runTasks();
+
+        assertTrue(move1.join());
+        assertFalse(move2.join());
+        assertEquals(1, gameHost.getMoveCount());
+
+        CompletableFuture<Integer> moves1 = gameHost.submit(1, GameLogic::getMoveCount);
+        CompletableFuture<Integer> moves2 = gameHost.submit(2, GameLogic::getMoveCount);
+        runTasks();
+
+        assertEquals(1, (int) moves1.join());
+        assertEquals(0, (int) moves2.join());
+    }
+
+    @Test
+    public void takeback_withGameId_takesBackMove() {
+        gameHost.addGame(1, createGameLogic());
+        gameHost.startGame(1, player1);
+        gameHost.placePiece(1, player1, 5);
+        CompletableFuture<Boolean> takeback = gameHost.takeback(1);
+        runTasks();
+
+        assertTrue(takeback.join());
+    }
+
+    @Test
+    public void submit_withUnknownGameId_completesExceptionally() throws InterruptedException {
+        CompletableFuture<Boolean> move = gameHost.placePiece(1, player1, 5);
+
+        try {
+            move.get();
+            fail("Exception expected!");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof NoSuchElementException);
+        }
+        assertTrue(gameHost.submit(1, GameLogic::isStarted).isCompletedExceptionally());
+        assertTrue(gameHost.startGame(1, player1).isCompletedExceptionally());
+        assertTrue(gameHost.takeback(1).isCompletedExceptionally());
+        assertEquals(4, gameHost.getRejectedCommandCount());
+    }
+
+    @Test
+    public void placePiece_withFinishingMove_countsFinishedGame() {
+        GameLogic gameLogic = createGameLogic();
+        gameLogic.setAdjudication(false);
+        gameHost.addGame(1, gameLogic);
+        gameHost.startGame(1, player1);
+
+        // Both players fill the game board until the game is over:
+        for (int i = 0; i < 32; i++) {
+            gameHost.placePiece(1, player1, i);
+            gameHost.placePiece(1, player2, 63 - i);
+        }
+        runTasks();
+
+        assertEquals(1, gameHost.getFinishedGameCount());
+        assertTrue(gameHost.getAveragePlacePieceLatency(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    public void placePiece_withShardThreads_playsManyGamesConcurrently() throws Exception {
+        List<ExecutorService> executors = new ArrayList<>();
+        GameHost host = new GameHost(4, shard -> {
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            executors.add(executor);
+            return executor;
+        });
+        try {
+            for (int i = 0; i < 100; i++) {
+                host.addGame(i, createGameLogic());
+                host.startGame(i, player1);
+            }
+
+            List<CompletableFuture<Boolean>> moves = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                moves.add(host.placePiece(i, player1, 0));
+                moves.add(host.placePiece(i, player2, 1));
+            }
+            for (CompletableFuture<Boolean> move : moves)
+                assertTrue(move.get(5, TimeUnit.SECONDS));
+
+            assertEquals(200, host.getMoveCount());
+        } finally {
+            for (ExecutorService executor : executors)
+                executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void setHibernation_withNullGameFactory_throwsException() {
+        gameHost.setHibernation(gameStore, null, 1, NANOSECONDS);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void setHibernation_withZeroIdleTime_throwsException() {
+        gameHost.setHibernation(gameStore, gameId -> createGameLogic(), 0, NANOSECONDS);
+    }
+
+    @Test
+    public void hibernateIdleGames_withoutHibernation_doesNothing() {
+        gameHost.addGame(1, createGameLogic());
+
+        assertEquals(0, gameHost.hibernateIdleGames());
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void hibernateIdleGames_withIdleGame_hibernatesAndRestoresGame() {
+        gameHost.setHibernation(gameStore, gameId -> createGameLogic(), 1, NANOSECONDS);
+        GameActor gameActor = gameHost.addGame(1, createGameLogic());
+        gameHost.startGame(1, player1);
+        gameHost.placePiece(1, player1, 5);
+        runTasks();
+
+        assertEquals(1, gameHost.hibernateIdleGames());
+        runTasks();
+
+        assertEquals(1, gameHost.getHibernatedGameCount());
+        assertEquals(1, gameHost.getHibernationCount());
+        assertTrue(gameStore.snapshots.containsKey(1L));
+
+        CompletableFuture<Boolean> move = gameHost.placePiece(1, player2, 6);
+        CompletableFuture<Integer> moveCount = gameHost.submit(1, GameLogic::getMoveCount);
+        runTasks();
+
+        assertTrue(move.join());
+        assertEquals(2, (int) moveCount.join());
+        assertNotSame(gameActor, gameHost.getGame(1));
+        assertEquals(0, gameHost.getHibernatedGameCount());
+        assertEquals(1, gameHost.getRehydrationCount());
+        assertEquals(2, gameHost.getMoveCount());
+        assertFalse(gameStore.snapshots.containsKey(1L));
+    }
+
+    @Test
+    public void hibernateIdleGames_withCommandAfterScheduling_keepsGameInMemory() {
+        gameHost.setHibernation(gameStore, gameId -> createGameLogic(), 1, NANOSECONDS);
+        GameActor gameActor = gameHost.addGame(1, createGameLogic());
+        gameHost.startGame(1, player1);
+        runTasks();
+
+        assertEquals(1, gameHost.hibernateIdleGames());
+        CompletableFuture<Boolean> move = gameHost.placePiece(1, player1, 5);
+        runTasks();
+
+        assertTrue(move.join());
+        assertEquals(0, gameHost.getHibernatedGameCount());
+        assertSame(gameActor, gameHost.getGame(1));
+        assertTrue(gameStore.snapshots.isEmpty());
+    }
+
+    @Test
+    public void hibernateIdleGames_withActiveGame_keepsGameInMemory() {
+        gameHost.setHibernation(gameStore, gameId -> createGameLogic(), 1, HOURS);
+        gameHost.addGame(1, createGameLogic());
+
+        assertEquals(0, gameHost.hibernateIdleGames());
+    }
+
+    @Test
+    public void removeGame_withHibernatedGame_deletesSnapshot() {
+        gameHost.setHibernation(gameStore, gameId -> createGameLogic(), 1, NANOSECONDS);
+        gameHost.addGame(1, createGameLogic());
+        gameHost.hibernateIdleGames();
+        runTasks();
+
+        assertTrue(gameHost.removeGame(1));
+        assertEquals(0, gameHost.getHibernatedGameCount());
+        assertTrue(gameStore.snapshots.isEmpty());
+        assertNull(gameHost.getGame(1));
+    }
+
+    @Test
+    public void removeGame_whileGameIsHibernated_deletesSnapshot() {
+        gameHost.setHibernation(gameStore, gameId -> createGameLogic(), 1, NANOSECONDS);
+        gameHost.addGame(1, createGameLogic());
+        gameHost.hibernateIdleGames();
+
+        assertTrue(gameHost.removeGame(1));
+        runTasks();
+
+        assertEquals(0, gameHost.getHibernatedGameCount());
+        assertTrue(gameStore.snapshots.isEmpty());
+    }
+
+    @Test
+    public void placePiece_withMissingSnapshot_completesExceptionallyAndKeepsGameHibernated() {
+        gameHost.setHibernation(gameStore, gameId -> createGameLogic(), 1, NANOSECONDS);
+        gameHost.addGame(1, createGameLogic());
+        gameHost.startGame(1, player1);
+        runTasks();
+        gameHost.hibernateIdleGames();
+        runTasks();
+        byte[] snapshot = gameStore.snapshots.remove(1L);
+
+        CompletableFuture<Boolean> move = gameHost.placePiece(1, player1, 5);
+
+        try {
+            move.join();
+            fail("Exception expected!");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(1, gameHost.getHibernatedGameCount());
+        assertEquals(0, gameHost.getRehydrationCount());
+        assertEquals(0, gameHost.getRejectedCommandCount());
+
+        gameStore.snapshots.put(1L, snapshot);
+        move = gameHost.placePiece(1, player1, 5);
+        runTasks();
+
+        assertTrue(move.join());
+        assertEquals(1, gameHost.getRehydrationCount());
+    }
+
+    @Test
+    public void getGame_withFailingStore_throwsException() {
+        gameHost.setHibernation(new MemoryGameStore() {
+            @Override
+            public byte[] load(long gameId) {
+                throw new UncheckedIOException(new IOException("Disk failed!"));
+            }
+        }, gameId -> createGameLogic(), 1, NANOSECONDS);
+        gameHost.addGame(1, createGameLogic());
+        gameHost.hibernateIdleGames();
+        runTasks();
+
+        try {
+            gameHost.getGame(1);
+            fail("Exception expected!");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof UncheckedIOException);
+        }
+        assertEquals(1, gameHost.getHibernatedGameCount());
+    }
+
+    @Test(timeout = 10000)
+    public void getGame_whileSnapshotIsLoaded_doesNotBlockOtherGames() throws InterruptedException {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        gameHost = new GameHost(1, shard -> tasks::add);
+        gameHost.setHibernation(new MemoryGameStore() {
+            @Override
+            public byte[] load(long gameId) {
+                loading.countDown();
+                awaitUninterruptibly(release);
+                return super.load(gameId);
+            }
+        }, gameId -> createGameLogic(), 1, NANOSECONDS);
+        gameHost.addGame(1, createGameLogic());
+        gameHost.hibernateIdleGames();
+        runTasks();
+        GameActor gameActor = gameHost.addGame(2, createGameLogic());
+
+        AtomicReference<GameActor> restored = new AtomicReference<>();
+        Thread loader = new Thread(() -> restored.set(gameHost.getGame(1)));
+        loader.start();
+        loading.await();
+
+        assertSame(gameActor, gameHost.getGame(2));
+
+        release.countDown();
+        loader.join();
+        assertNotNull(restored.get());
+        assertSame(restored.get(), gameHost.getGame(1));
+    }
+
+    @Test(timeout = 10000)
+    public void removeGame_whileSnapshotIsDeleted_doesNotBlockOtherGames() throws InterruptedException {
+        CountDownLatch deleting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        gameHost = new GameHost(1, shard -> tasks::add);
+        gameHost.setHibernation(new MemoryGameStore() {
+            @Override
+            public void delete(long gameId) {
+                deleting.countDown();
+                awaitUninterruptibly(release);
+                super.delete(gameId);
+            }
+        }, gameId -> createGameLogic(), 1, NANOSECONDS);
+        gameHost.addGame(1, createGameLogic());
+        gameHost.hibernateIdleGames();
+        runTasks();
+        GameActor gameActor = gameHost.addGame(2, createGameLogic());
+
+        Thread remover = new Thread(() -> gameHost.removeGame(1));
+        remover.start();
+        deleting.await();
+
+        assertSame(gameActor, gameHost.getGame(2));
+
+        release.countDown();
+        remover.join();
+        assertNull(gameHost.getGame(1));
+    }
+
+    /* Waits for the latch without interruption. */
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    /* A game store, which keeps the snapshots in memory. */
+    private static class MemoryGameStore implements IGameStore {
+
+        private final Map<Long, byte[]> snapshots = new HashMap<>();
+
+        @Override
+        public void save(long gameId, byte[] snapshot) {
+            snapshots.put(gameId, snapshot);
+        }
+
+        @Override
+        public byte[] load(long gameId) {
+            return snapshots.get(gameId);
+        }
+
+        @Override
+        public void delete(long gameId) {
+            snapshots.remove(gameId);
+        }
+
+    }
+
+}
@@ -0,0 +1,359 @@
+package de.tbressler.quadratum.journal;
+
+import de.tbressler.quadratum.logic.GameLogic;
+import de.tbressler.quadratum.logic.players.HumanPlayerLogic;
+import de.tbressler.quadratum.model.GameBoard;
+import de.tbressler.quadratum.model.Player;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static de.tbressler.quadratum.journal.JournalRecord.Type.*;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for class GameJournal and JournalReader.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestGameJournal {
+
+    // Class under test:
+    private GameJournal journal;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+
+
+    @Before
+    public void setUp() {
+        directory = folder.getRoot().toPath().resolve("journal");
+        journal = new GameJournal(directory, 1024 * 1024, 100, 10, MILLISECONDS);
+    }
+
+    @After
+    public void tearDown() {
+        journal.close();
+    }
+
+
+    /* Reads all records of the journal. */
+    private List<JournalRecord> readRecords() {
+        List<JournalRecord> records = new ArrayList<>();
+        new JournalReader(directory).read(records::add);
+        return records;
+    }
+
+    /* Returns a record of a placed piece. */
+    private static JournalRecord piecePlaced(long gameId, int index) {
+        return new JournalRecord(PIECE_PLACED, gameId, 1, index, null, new int[0]);
+    }
+
+
+    @Test(expected = AssertionError.class)
+    public void new_withTooSmallSegmentSize_throwsException() {
+        new GameJournal(directory, GameJournal.MIN_SEGMENT_SIZE - 1, 1, 1, SECONDS);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void new_withZeroSyncBatchSize_throwsException() {
+        new GameJournal(directory, GameJournal.MIN_SEGMENT_SIZE, 0, 1, SECONDS);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullDirectory_throwsException() {
+        new GameJournal(null, GameJournal.MIN_SEGMENT_SIZE, 1, 1, SECONDS);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void append_withNullRecord_throwsException() {
+        journal.append(null);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void append_afterClose_throwsException() {
+        journal.close();
+        journal.append(piecePlaced(1, 1));
+    }
+
+    @Test
+    public void sync_afterAppend_syncsRecords() throws InterruptedException {
+        journal.append(piecePlaced(1, 1));
+        journal.append(piecePlaced(2, 2));
+        journal.sync();
+
+        assertEquals(2, journal.getAppendedRecordCount());
+        assertEquals(2, journal.getSyncedRecordCount());
+        List<JournalRecord> records = readRecords();
+        assertEquals(2, records.size());
+        assertEquals(piecePlaced(1, 1), records.get(0));
+        assertEquals(piecePlaced(2, 2), records.get(1));
+    }
+
+    @Test
+    public void sync_withoutRecords_returns() throws InterruptedException {
+        journal.sync();
+
+        assertEquals(0, journal.getSyncedRecordCount());
+    }
+
+    @Test
+    public void sync_afterClose_returns() throws InterruptedException {
+        journal.append(piecePlaced(1, 1));
+        journal.close();
+
+        journal.sync();
+
+        assertEquals(1, journal.getSyncedRecordCount());
+    }
+
+    @Test
+    public void sync_fromManyThreads_syncsRecordsOfEveryThread() throws InterruptedException {
+        Thread[] threads = new Thread[4];
+        AtomicInteger missingRecords = new AtomicInteger(0);
+        for (int t = 0; t < threads.length; t++) {
+            long gameId = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 100; i++) {
+                        journal.append(piecePlaced(gameId, i % 64));
+                        journal.sync();
+                        // The own records must be written, even if other threads appended concurrently:
+                        if (countRecords(gameId) < i + 1)
+                            missingRecords.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(0, missingRecords.get());
+        assertEquals(400, journal.getSyncedRecordCount());
+    }
+
+    /* Returns the number of records of the game, which are written to the segments. */
+    private int countRecords(long gameId) {
+        AtomicInteger records = new AtomicInteger(0);
+        new JournalReader(directory).read(record -> {
+            if (record.getGameId() == gameId)
+                records.incrementAndGet();
+        });
+        return records.get();
+    }
+
+    @Test
+    public void close_afterAppend_syncsRecords() {
+        for (int i = 0; i < 1000; i++)
+            journal.append(piecePlaced(i, i % 64));
+        journal.close();
+
+        assertEquals(1000, journal.getSyncedRecordCount());
+        assertEquals(1000, readRecords().size());
+    }
+
+    @Test
+    public void append_withFullSegment_rotatesSegment() throws InterruptedException {
+        journal.close();
+        journal = new GameJournal(directory, GameJournal.MIN_SEGMENT_SIZE, 100, 10, MILLISECONDS);
+
+        // Every record has 21 bytes, so 1000 records need 6 segments:
+        for (int i = 0; i < 1000; i++)
+            journal.append(piecePlaced(i, i % 64));
+        journal.sync();
+
+        assertEquals(6, journal.getSegmentCount());
+        List<JournalRecord> records = readRecords();
+        assertEquals(1000, records.size());
+        for (int i = 0; i < 1000; i++)
+            assertEquals(i, records.get(i).getGameId());
+    }
+
+    @Test
+    public void new_withExistingSegments_startsNewSegment() {
+        journal.append(piecePlaced(1, 1));
+        journal.close();
+
+        journal = new GameJournal(directory, 1024 * 1024, 100, 10, MILLISECONDS);
+        journal.append(piecePlaced(2, 2));
+        journal.close();
+
+        assertTrue(Files.exists(directory.resolve(GameJournal.segmentName(2))));
+        List<JournalRecord> records = readRecords();
+        assertEquals(2, records.size());
+        assertEquals(2, records.get(1).getGameId());
+    }
+
+    @Test
+    public void append_fromManyThreads_writesAllRecords() throws InterruptedException {
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            long gameId = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++)
+                    journal.append(piecePlaced(gameId, i % 64));
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+        journal.sync();
+
+        int[] recordsPerGame = new int[threads.length];
+        for (JournalRecord record : readRecords())
+            recordsPerGame[(int) record.getGameId()]++;
+        for (int records : recordsPerGame)
+            assertEquals(1000, records);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void new_withZeroQueueCapacity_throwsException() {
+        new GameJournal(directory, GameJournal.MIN_SEGMENT_SIZE, 1, 1, SECONDS, 0);
+    }
+
+    @Test
+    public void append_withSmallQueueCapacity_waitsForWriter() throws InterruptedException {
+        journal.close();
+        journal = new GameJournal(directory, 1024 * 1024, 100, 10, MILLISECONDS, 2);
+
+        for (int i = 0; i < 1000; i++)
+            journal.append(piecePlaced(i, i % 64));
+        journal.sync();
+
+        assertEquals(1000, readRecords().size());
+    }
+
+    @Test
+    public void append_afterWriterFailed_throwsException() throws IOException {
+        journal.close();
+        journal = new GameJournal(directory, GameJournal.MIN_SEGMENT_SIZE, 100, 10, MILLISECONDS);
+        // The next segment can't be created, so the writer fails when the first segment is full:
+        Files.createFile(directory.resolve(GameJournal.segmentName(3)));
+
+        try {
+            for (int i = 0; i < 100000; i++)
+                journal.append(piecePlaced(i, i % 64));
+            fail("Exception expected!");
+        } catch (UncheckedIOException e) {
+            // Expected.
+        }
+        try {
+            journal.close();
+            fail("Exception expected!");
+        } catch (UncheckedIOException e) {
+            // Expected.
+        }
+    }
+
+    @Test
+    public void close_whileAppending_writesAllAcceptedRecords() throws InterruptedException {
+        Thread[] threads = new Thread[4];
+        AtomicInteger acceptedRecords = new AtomicInteger(0);
+        for (int t = 0; t < threads.length; t++) {
+            long gameId = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 100000; i++) {
+                        journal.append(piecePlaced(gameId, i % 64));
+                        acceptedRecords.incrementAndGet();
+                    }
+                } catch (IllegalStateException e) {
+                    // Closed.
+                }
+            });
+            threads[t].start();
+        }
+        Thread.sleep(20);
+        journal.close();
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(acceptedRecords.get(), journal.getAppendedRecordCount());
+        assertEquals(acceptedRecords.get(), readRecords().size());
+    }
+
+    @Test
+    public void read_withTornRecord_skipsRestOfSegment() throws IOException {
+        journal.append(piecePlaced(1, 1));
+        journal.append(piecePlaced(2, 2));
+        journal.close();
+
+        // Simulate a crash during the write of the last record:
+        Path segment = directory.resolve(GameJournal.segmentName(1));
+        long size = Files.size(segment);
+        try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        JournalReader reader = new JournalReader(directory);
+        List<JournalRecord> records = new ArrayList<>();
+        assertEquals(1, reader.read(records::add));
+        assertEquals(piecePlaced(1, 1), records.get(0));
+        assertEquals(size - 3 - piecePlaced(1, 1).getEncodedSize(), reader.getSkippedBytes());
+    }
+
+    @Test
+    public void read_withMissingDirectory_readsNothing() {
+        assertEquals(0, new JournalReader(directory.resolve("missing")).read(record -> fail()));
+    }
+
+    @Test
+    public void createListener_withGame_journalsEvents() {
+        Player player1 = new Player("player1");
+        Player player2 = new Player("player2");
+        GameBoard gameBoard = new GameBoard(player1, player2);
+        HumanPlayerLogic playerLogic1 = new HumanPlayerLogic(player1);
+        HumanPlayerLogic playerLogic2 = new HumanPlayerLogic(player2);
+        GameLogic gameLogic = new GameLogic(gameBoard, playerLogic1, playerLogic2);
+
+        JournalListener listener = journal.createListener(7, gameBoard);
+        gameBoard.addGameBoardListener(listener);
+        gameLogic.addGameLogicListener(listener);
+
+        gameLogic.startGame(player1);
+        playerLogic1.placePiece(0);
+        playerLogic2.placePiece(16);
+        playerLogic1.placePiece(1);
+        playerLogic2.placePiece(24);
+        playerLogic1.placePiece(8);
+        playerLogic2.placePiece(32);
+        playerLogic1.placePiece(9);
+        journal.close();
+
+        List<JournalRecord> records = readRecords();
+        assertEquals(BOARD_CLEARED, records.get(0).getType());
+        assertEquals(GAME_STARTED, records.get(1).getType());
+        assertEquals(1, records.get(1).getPlayerSlot());
+        assertEquals(PIECE_PLACED, records.get(2).getType());
+        assertEquals(0, records.get(2).getIndex());
+        assertEquals(PIECE_PLACED, records.get(3).getType());
+        assertEquals(2, records.get(3).getPlayerSlot());
+
+        JournalRecord squares = records.get(records.size() - 1);
+        assertEquals(SQUARES_FOUND, squares.getType());
+        assertEquals(1, squares.getPlayerSlot());
+        assertEquals(1, squares.getSquares().length);
+        for (JournalRecord record : records)
+            assertEquals(7, record.getGameId());
+    }
+
+}
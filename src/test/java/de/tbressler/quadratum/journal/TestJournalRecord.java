@@ -0,0 +1,84 @@
+package de.tbressler.quadratum.journal;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static de.tbressler.quadratum.journal.JournalRecord.Type.*;
+import static de.tbressler.quadratum.logic.GameOverReason.TIMEOUT;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for class JournalRecord.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestJournalRecord {
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullType_throwsException() {
+        new JournalRecord(null, 1, 1, 5, null, new int[0]);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void new_withInvalidPlayerSlot_throwsException() {
+        new JournalRecord(PIECE_PLACED, 1, 3, 5, null, new int[0]);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void new_withInvalidIndex_throwsException() {
+        new JournalRecord(PIECE_PLACED, 1, 1, 64, null, new int[0]);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void new_withInvalidSquare_throwsException() {
+        new JournalRecord(SQUARES_FOUND, 1, 1, -1, null, new int[]{336});
+    }
+
+    @Test
+    public void decode_afterEncode_returnsEqualRecords() {
+        JournalRecord record1 = new JournalRecord(SQUARES_FOUND, Long.MAX_VALUE, 2, -1, null, new int[]{0, 17, 335});
+        JournalRecord record2 = new JournalRecord(GAME_OVER, -1, 0, -1, TIMEOUT, new int[0]);
+        ByteBuffer buffer = ByteBuffer.allocate(100);
+
+        record1.encode(buffer);
+        record2.encode(buffer);
+        assertEquals(record1.getEncodedSize() + record2.getEncodedSize(), buffer.position());
+        buffer.flip();
+
+        assertEquals(record1, JournalRecord.decode(buffer));
+        assertEquals(record2, JournalRecord.decode(buffer));
+        assertNull(JournalRecord.decode(buffer));
+    }
+
+    @Test
+    public void decode_withTruncatedRecord_returnsNull() {
+        ByteBuffer buffer = ByteBuffer.allocate(100);
+        new JournalRecord(PIECE_PLACED, 1, 1, 5, null, new int[0]).encode(buffer);
+        buffer.flip();
+        buffer.limit(buffer.limit() - 1);
+
+        assertNull(JournalRecord.decode(buffer));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void decode_withCorruptRecord_returnsNull() {
+        ByteBuffer buffer = ByteBuffer.allocate(100);
+        new JournalRecord(PIECE_PLACED, 1, 1, 5, null, new int[0]).encode(buffer);
+        buffer.flip();
+        buffer.put(JournalRecord.HEADER_SIZE + 1, (byte) 7);
+
+        assertNull(JournalRecord.decode(buffer));
+    }
+
+    @Test
+    public void getSquares_returnsCopy() {
+        JournalRecord record = new JournalRecord(SQUARES_FOUND, 1, 1, -1, null, new int[]{3});
+        record.getSquares()[0] = 4;
+
+        assertArrayEquals(new int[]{3}, record.getSquares());
+    }
+
+}
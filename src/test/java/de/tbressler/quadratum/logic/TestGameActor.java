@@ -0,0 +1,209 @@
+package de.tbressler.quadratum.logic;
+
+import de.tbressler.quadratum.logic.players.HumanPlayerLogic;
+import de.tbressler.quadratum.model.GameBoard;
+import de.tbressler.quadratum.model.Player;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for class GameActor.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestGameActor {
+
+    // Class under test:
+    private GameActor gameActor;
+
+    // Players:
+    private Player player1 = new Player("player1");
+    private Player player2 = new Player("player2");
+
+    private GameBoard gameBoard = new GameBoard(player1, player2);
+
+    private HumanPlayerLogic playerLogic1 = new HumanPlayerLogic(player1);
+    private HumanPlayerLogic playerLogic2 = new HumanPlayerLogic(player2);
+
+    private GameLogic gameLogic = new GameLogic(gameBoard, playerLogic1, playerLogic2);
+
+    // The tasks of the executor:
+    private List<Runnable> tasks = new ArrayList<>();
+
+
+    @Before
+    public void setUp() {
+        gameActor = new GameActor(gameLogic, tasks::add);
+    }
+
+
+    /* Runs the scheduled tasks until no task is left. */
+    private void runTasks() {
+        while (!tasks.isEmpty())
+            tasks.remove(0).run();
+    }
+
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullGameLogic_throwsException() {
+        new GameActor(null, tasks::add);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullExecutor_throwsException() {
+        new GameActor(gameLogic, null);
+    }
+
+    @Test
+    public void execute_withManyCommands_schedulesWorkerOnce() {
+        Runnable command = mock(Runnable.class, "command");
+        gameActor.execute(command);
+        gameActor.execute(command);
+
+        assertEquals(1, tasks.size());
+        assertEquals(2, gameActor.getMailboxSize());
+
+        runTasks();
+        verify(command, times(2)).run();
+        assertEquals(0, gameActor.getMailboxSize());
+    }
+
+    @Test
+    public void execute_withMoreCommandsThanBatchSize_reschedulesWorker() {
+        Runnable command = mock(Runnable.class, "command");
+        for (int i = 0; i < GameActor.BATCH_SIZE + 1; i++)
+            gameActor.execute(command);
+
+        tasks.remove(0).run();
+        verify(command, times(GameActor.BATCH_SIZE)).run();
+        assertEquals(1, tasks.size());
+
+        runTasks();
+        verify(command, times(GameActor.BATCH_SIZE + 1)).run();
+    }
+
+    @Test
+    public void execute_withFailingCommand_processesFollowingCommands() {
+        Runnable command = mock(Runnable.class, "command");
+        gameActor.execute(() -> {
+            throw new IllegalStateException("failed");
+        });
+        gameActor.execute(command);
+
+        try {
+            tasks.remove(0).run();
+            fail("Exception expected!");
+        } catch (IllegalStateException e) {
+            // Expected.
+        }
+
+        runTasks();
+        verify(command, times(1)).run();
+    }
+
+    @Test
+    public void submit_withCommand_completesFutureWithResult() {
+        CompletableFuture<Boolean> result = gameActor.submit(GameLogic::isStarted);
+        assertFalse(result.isDone());
+
+        runTasks();
+        assertFalse(result.join());
+    }
+
+    @Test
+    public void submit_withFailingCommand_completesFutureExceptionally() {
+        CompletableFuture<Object> result = gameActor.submit(logic -> {
+            throw new IllegalStateException("failed");
+        });
+
+        runTasks();
+        assertTrue(result.isCompletedExceptionally());
+    }
+
+    @Test
+    public void startGame_andPlacePiece_makesMovesInMailbox() {
+        gameActor.startGame(player1);
+        CompletableFuture<Boolean> move1 = gameActor.placePiece(player1, 1);
+        CompletableFuture<Boolean> move2 = gameActor.placePiece(player2, 2);
+
+        assertTrue(gameBoard.isFieldEmpty(1));
+        runTasks();
+
+        assertTrue(move1.join());
+        assertTrue(move2.join());
+        assertEquals(player1, gameBoard.getPiece(1));
+        assertEquals(player2, gameBoard.getPiece(2));
+        assertEquals(player1, gameLogic.getActivePlayer());
+    }
+
+    @Test
+    public void placePiece_withInactivePlayer_returnsFalse() {
+        gameActor.startGame(player1);
+        CompletableFuture<Boolean> move = gameActor.placePiece(player2, 2);
+
+        runTasks();
+
+        assertFalse(move.join());
+        assertTrue(gameBoard.isFieldEmpty(2));
+    }
+
+    @Test
+    public void takeback_afterMove_takesBackMove() {
+        gameActor.startGame(player1);
+        gameActor.placePiece(player1, 1);
+        CompletableFuture<Boolean> takeback = gameActor.takeback();
+
+        runTasks();
+
+        assertTrue(takeback.join());
+        assertTrue(gameBoard.isFieldEmpty(1));
+        assertEquals(player1, gameLogic.getActivePlayer());
+    }
+
+    @Test
+    public void placePiece_fromManyThreads_serializesMoves() throws Exception {
+        ExecutorService pool = newFixedThreadPool(4);
+        try {
+            GameActor actor = new GameActor(gameLogic, pool);
+            actor.startGame(player1).get(5, TimeUnit.SECONDS);
+
+            // Both players try to place pieces on all fields concurrently:
+            List<CompletableFuture<Boolean>> moves = new ArrayList<>();
+            List<Thread> threads = new ArrayList<>();
+            for (Player player : new Player[]{player1, player2}) {
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < 64; i++)
+                        synchronized (moves) {
+                            moves.add(actor.placePiece(player, i));
+                        }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads)
+                thread.join();
+
+            int successfulMoves = 0;
+            for (CompletableFuture<Boolean> move : moves)
+                if (move.get(5, TimeUnit.SECONDS))
+                    successfulMoves++;
+
+            int pieces = actor.submit(logic -> logic.getMoveCount()).get(5, TimeUnit.SECONDS);
+            assertEquals(pieces, successfulMoves);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+}
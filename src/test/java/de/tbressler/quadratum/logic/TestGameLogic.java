@@ -1,12 +1,31 @@
 package de.tbressler.quadratum.logic;
 
+import de.tbressler.quadratum.logic.players.HumanPlayerLogic;
 import de.tbressler.quadratum.model.GameBoard;
 import de.tbressler.quadratum.model.Player;
+import de.tbressler.quadratum.model.Square;
+import de.tbressler.quadratum.utils.HashedWheelTimer;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static de.tbressler.quadratum.logic.GameOverReason.ADJUDICATION;
+import static de.tbressler.quadratum.logic.GameOverReason.REGULAR;
+import static de.tbressler.quadratum.logic.GameOverReason.TIMEOUT;
 import static de.tbressler.quadratum.logic.GameOverVerifier.GameOverState.*;
+import static de.tbressler.quadratum.logic.MoveClock.TimeoutPolicy.BOT_MOVE;
+import static de.tbressler.quadratum.logic.MoveClock.TimeoutPolicy.FORFEIT;
+import static java.util.Collections.singleton;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentCaptor.forClass;
 import static org.mockito.Mockito.*;
@@ -140,6 +159,15 @@ public class TestGameLogic {
     }
 
 
+    /**
+     * Checks if the game logic registers an incremental game over verifier at the game board.
+     */
+    @Test
+    public void new_addsIncrementalGameOverVerifierToGameBoard() {
+        verify(gameBoard, times(1)).addGameBoardListener(any(IncrementalGameOverVerifier.class));
+    }
+
+
     /**
      * Checks if an  exception is thrown if setSquareCollector() is called with null.
      */
@@ -272,7 +300,7 @@ public class TestGameLogic {
         verify(playerLogic1, times(1)).requestMove(eq(gameBoard), callback.capture());
         when(gameBoard.isFieldEmpty(1)).thenReturn(true);
 
-        assertTrue(callback.getValue().makeMove(1, player1));
+        assertNotNull(callback.getValue().makeMove(1, player1));
         verify(gameBoard, times(1)).placePiece(1, player1);
     }
 
@@ -286,7 +314,7 @@ public class TestGameLogic {
         verify(playerLogic1, times(1)).requestMove(eq(gameBoard), callback.capture());
         when(gameBoard.isFieldEmpty(1)).thenReturn(false);
 
-        assertFalse(callback.getValue().makeMove(1, player1));
+        assertNull(callback.getValue().makeMove(1, player1));
         verify(gameBoard, never()).placePiece(1, player1);
     }
 
@@ -332,7 +360,7 @@ public class TestGameLogic {
         verify(playerLogic2, times(1)).requestMove(eq(gameBoard), callback.capture());
         when(gameBoard.isFieldEmpty(1)).thenReturn(true);
 
-        assertTrue(callback.getValue().makeMove(1, player2));
+        assertNotNull(callback.getValue().makeMove(1, player2));
         verify(gameBoard, times(1)).placePiece(1, player2);
     }
 
@@ -411,7 +439,7 @@ public class TestGameLogic {
 
         callback.getValue().makeMove(1, player1);
 
-        verify(listener, times(1)).onGameOver(player1);
+        verify(listener, times(1)).onGameOver(player1, REGULAR);
         verify(listener, never()).onActivePlayerChanged(player2);
         verify(playerLogic2, never()).requestMove(eq(gameBoard), callback.capture());
     }
@@ -428,7 +456,7 @@ public class TestGameLogic {
 
         callback.getValue().makeMove(1, player1);
 
-        verify(listener, times(1)).onGameOver(player2);
+        verify(listener, times(1)).onGameOver(player2, REGULAR);
         verify(listener, never()).onActivePlayerChanged(player2);
         verify(playerLogic2, never()).requestMove(eq(gameBoard), callback.capture());
     }
@@ -445,11 +473,54 @@ public class TestGameLogic {
 
         callback.getValue().makeMove(1, player1);
 
-        verify(listener, times(1)).onGameOver(null);
+        verify(listener, times(1)).onGameOver(null, REGULAR);
         verify(listener, never()).onActivePlayerChanged(player2);
         verify(playerLogic2, never()).requestMove(eq(gameBoard), callback.capture());
     }
 
+    /**
+     * Checks if listeners get notified with the reason adjudication when player 1 is adjudicated
+     * as winner after his move.
+     */
+    @Test
+    public void startGame_withPlayer1MakesMoveAndPlayer1Adjudicated_notifiesListeners() {
+        gameLogic.startGame(player1);
+        verify(playerLogic1, times(1)).requestMove(eq(gameBoard), callback.capture());
+        when(gameOverVerifier.isGameOver(gameBoard, squareCollector)).thenReturn(PLAYER1_ADJUDICATED);
+        when(gameBoard.isFieldEmpty(1)).thenReturn(true);
+
+        callback.getValue().makeMove(1, player1);
+
+        verify(listener, times(1)).onGameOver(player1, ADJUDICATION);
+        verify(listener, never()).onActivePlayerChanged(player2);
+    }
+
+    /**
+     * Checks if listeners get notified with the reason adjudication when player 2 is adjudicated
+     * as winner after a move.
+     */
+    @Test
+    public void startGame_withPlayer1MakesMoveAndPlayer2Adjudicated_notifiesListeners() {
+        gameLogic.startGame(player1);
+        verify(playerLogic1, times(1)).requestMove(eq(gameBoard), callback.capture());
+        when(gameOverVerifier.isGameOver(gameBoard, squareCollector)).thenReturn(PLAYER2_ADJUDICATED);
+        when(gameBoard.isFieldEmpty(1)).thenReturn(true);
+
+        callback.getValue().makeMove(1, player1);
+
+        verify(listener, times(1)).onGameOver(player2, ADJUDICATION);
+        verify(listener, never()).onActivePlayerChanged(player2);
+    }
+
+    /**
+     * Checks if setAdjudication() enables the adjudication at the game over verifier.
+     */
+    @Test
+    public void setAdjudication_withTrue_enablesAdjudicationAtGameOverVerifier() {
+        gameLogic.setAdjudication(true);
+        verify(gameOverVerifier, times(1)).setAdjudication(true);
+    }
+
     /**
      * Checks if listeners doesn't get notified when game is not over after a move.
      */
@@ -462,12 +533,95 @@ public class TestGameLogic {
 
         callback.getValue().makeMove(1, player1);
 
-        verify(listener, never()).onGameOver(null);
+        verify(listener, never()).onGameOver(any(Player.class), any(GameOverReason.class));
         verify(listener, times(1)).onActivePlayerChanged(player2);
         verify(playerLogic2, times(1)).requestMove(eq(gameBoard), callback.capture());
     }
 
 
+    /**
+     * Checks if moves of synchronous player logics are requested in a loop and not recursively.
+     */
+    @Test
+    public void startGame_withSynchronousPlayerLogics_requestsMovesWithoutRecursion() {
+        int[] depth = new int[2];
+        int[] moves = new int[1];
+        when(gameBoard.isFieldEmpty(anyInt())).thenReturn(true);
+        Answer<Void> makeMove = invocation -> {
+            depth[0]++;
+            depth[1] = Math.max(depth[0], depth[1]);
+            if (moves[0] < 10) {
+                IPlayerLogic playerLogic = (IPlayerLogic) invocation.getMock();
+                ((ILogicCallback) invocation.getArguments()[1]).makeMove(moves[0]++, playerLogic.getPlayer());
+            }
+            depth[0]--;
+            return null;
+        };
+        doAnswer(makeMove).when(playerLogic1).requestMove(eq(gameBoard), any(ILogicCallback.class));
+        doAnswer(makeMove).when(playerLogic2).requestMove(eq(gameBoard), any(ILogicCallback.class));
+
+        gameLogic.startGame(player1);
+
+        assertEquals(10, moves[0]);
+        assertEquals(1, depth[1]);
+        verify(playerLogic1, times(6)).requestMove(eq(gameBoard), any(ILogicCallback.class));
+        verify(playerLogic2, times(5)).requestMove(eq(gameBoard), any(ILogicCallback.class));
+    }
+
+    /**
+     * Checks if startGame() requests the move via the executor, if an executor is set.
+     */
+    @Test
+    public void startGame_withExecutor_requestsMoveViaExecutor() {
+        List<Runnable> tasks = new ArrayList<>();
+        gameLogic.setExecutor(tasks::add);
+
+        gameLogic.startGame(player1);
+        verify(playerLogic1, never()).requestMove(eq(gameBoard), any(ILogicCallback.class));
+        assertEquals(1, tasks.size());
+
+        tasks.get(0).run();
+        verify(playerLogic1, times(1)).requestMove(eq(gameBoard), any(ILogicCallback.class));
+    }
+
+    /**
+     * Checks if every move is requested by a separate task of the executor.
+     */
+    @Test
+    public void makeMove_withExecutor_requestsNextMoveViaExecutor() {
+        List<Runnable> tasks = new ArrayList<>();
+        gameLogic.setExecutor(tasks::add);
+        gameLogic.startGame(player1);
+        tasks.get(0).run();
+        verify(playerLogic1, times(1)).requestMove(eq(gameBoard), callback.capture());
+        when(gameBoard.isFieldEmpty(1)).thenReturn(true);
+
+        assertNotNull(callback.getValue().makeMove(1, player1));
+        verify(playerLogic2, never()).requestMove(eq(gameBoard), any(ILogicCallback.class));
+        assertEquals(2, tasks.size());
+
+        tasks.get(1).run();
+        verify(playerLogic2, times(1)).requestMove(eq(gameBoard), any(ILogicCallback.class));
+    }
+
+    /**
+     * Checks if a scheduled move of a restarted game is only requested once.
+     */
+    @Test
+    public void startGame_withExecutorAndRestartedGame_requestsMoveOnlyOnce() {
+        List<Runnable> tasks = new ArrayList<>();
+        gameLogic.setExecutor(tasks::add);
+        gameLogic.startGame(player1);
+        gameLogic.startGame(player2);
+
+        for (Runnable task : tasks)
+            task.run();
+
+        verify(playerLogic1, never()).requestMove(eq(gameBoard), any(ILogicCallback.class));
+        verify(playerLogic2, times(1)).requestMove(eq(gameBoard), any(ILogicCallback.class));
+    }
+
+
     /**
      * Checks if the active player is null after the initialization of the game logic, because
      * the game has not started yet.
@@ -599,4 +753,676 @@ public class TestGameLogic {
         gameLogic.removeGameLogicListener(null);
     }
 
+    /**
+     * Checks if the outcome of a move is returned and delivered once to the move outcome listeners.
+     */
+    @Test
+    public void makeMove_withValidMove_notifiesMoveOutcomeListenerOnce() {
+        IMoveOutcomeListener outcomeListener = mock(IMoveOutcomeListener.class, "outcomeListener");
+        gameLogic.addMoveOutcomeListener(outcomeListener);
+        gameLogic.startGame(player1);
+        verify(playerLogic1, times(1)).requestMove(eq(gameBoard), callback.capture());
+        when(gameBoard.isFieldEmpty(1)).thenReturn(true);
+
+        MoveOutcome outcome = callback.getValue().makeMove(1, player1);
+
+        verify(outcomeListener, times(1)).onMoveMade(outcome);
+        assertEquals(1, outcome.getIndex());
+        assertEquals(player1, outcome.getPlayer());
+        assertTrue(outcome.getNewSquares().isEmpty());
+        assertEquals(0, outcome.getScoreDelta());
+        assertEquals(player2, outcome.getNextPlayer());
+        assertFalse(outcome.isGameOver());
+        assertNull(outcome.getWinner());
+        assertNull(outcome.getReason());
+    }
+
+    /**
+     * Checks if the outcome of a move contains the new squares and the score delta.
+     */
+    @Test
+    public void makeMove_withNewSquares_returnsOutcomeWithSquaresAndScoreDelta() {
+        Set<Square> squares = singleton(new Square(new int[]{0, 1, 8, 9}, player1));
+        when(squareCollector.detect(gameBoard, player1, 9)).thenReturn(squares);
+        when(squareCollector.getScore(player1)).thenReturn(10, 14);
+        gameLogic.startGame(player1);
+        verify(playerLogic1, times(1)).requestMove(eq(gameBoard), callback.capture());
+        when(gameBoard.isFieldEmpty(9)).thenReturn(true);
+
+        MoveOutcome outcome = callback.getValue().makeMove(9, player1);
+
+        assertSame(squares, outcome.getNewSquares());
+        assertEquals(4, outcome.getScoreDelta());
+        verify(listener, times(1)).onNewSquaresFound(player1, squares);
+    }
+
+    /**
+     * Checks if the outcome of the last move contains the terminal state of the game.
+     */
+    @Test
+    public void makeMove_withGameOver_returnsOutcomeWithWinner() {
+        gameLogic.startGame(player1);
+        verify(playerLogic1, times(1)).requestMove(eq(gameBoard), callback.capture());
+        when(gameOverVerifier.isGameOver(gameBoard, squareCollector)).thenReturn(PLAYER2_ADJUDICATED);
+        when(gameBoard.isFieldEmpty(1)).thenReturn(true);
+
+        MoveOutcome outcome = callback.getValue().makeMove(1, player1);
+
+        assertTrue(outcome.isGameOver());
+        assertEquals(player2, outcome.getWinner());
+        assertEquals(ADJUDICATION, outcome.getReason());
+        assertNull(outcome.getNextPlayer());
+    }
+
+    /**
+     * Checks if the returned outcome is the outcome of the move, even if the opponent made its move
+     * synchronously while its move was requested.
+     */
+    @Test
+    public void makeMove_withSynchronousOpponent_returnsOutcomeOfMove() {
+        when(gameBoard.isFieldEmpty(anyInt())).thenReturn(true);
+        doAnswer(invocation -> {
+            ((ILogicCallback) invocation.getArguments()[1]).makeMove(2, player2);
+            return null;
+        }).when(playerLogic2).requestMove(eq(gameBoard), any(ILogicCallback.class));
+        gameLogic.startGame(player1);
+        verify(playerLogic1, times(1)).requestMove(eq(gameBoard), callback.capture());
+
+        MoveOutcome outcome = callback.getValue().makeMove(1, player1);
+
+        verify(playerLogic2, times(1)).requestMove(eq(gameBoard), any(ILogicCallback.class));
+        assertEquals(1, outcome.getIndex());
+        assertEquals(player1, outcome.getPlayer());
+        assertEquals(player2, outcome.getNextPlayer());
+    }
+
+    /**
+     * Checks if a copy of the outcome is not changed by the next move.
+     */
+    @Test
+    public void copy_ofMoveOutcome_isNotChangedByNextMove() {
+        gameLogic.startGame(player1);
+        verify(playerLogic1, times(1)).requestMove(eq(gameBoard), callback.capture());
+        when(gameBoard.isFieldEmpty(anyInt())).thenReturn(true);
+
+        MoveOutcome copy = callback.getValue().makeMove(1, player1).copy();
+        verify(playerLogic2, times(1)).requestMove(eq(gameBoard), callback.capture());
+        callback.getValue().makeMove(2, player2);
+
+        assertEquals(1, copy.getIndex());
+        assertEquals(player1, copy.getPlayer());
+        assertEquals(player2, copy.getNextPlayer());
+    }
+
+    /**
+     * Checks if a removed move outcome listener is not notified.
+     */
+    @Test
+    public void removeMoveOutcomeListener_doesNotNotifyListener() {
+        IMoveOutcomeListener outcomeListener = mock(IMoveOutcomeListener.class, "outcomeListener");
+        gameLogic.addMoveOutcomeListener(outcomeListener);
+        gameLogic.removeMoveOutcomeListener(outcomeListener);
+        gameLogic.startGame(player1);
+        verify(playerLogic1, times(1)).requestMove(eq(gameBoard), callback.capture());
+        when(gameBoard.isFieldEmpty(1)).thenReturn(true);
+
+        callback.getValue().makeMove(1, player1);
+
+        verify(outcomeListener, never()).onMoveMade(any(MoveOutcome.class));
+    }
+
+    /**
+     * Checks if replay() places all pieces without notifying the listeners about the single moves.
+     */
+    @Test
+    public void replay_withMoves_placesPiecesWithoutMoveEvents() {
+        IMoveOutcomeListener outcomeListener = mock(IMoveOutcomeListener.class, "outcomeListener");
+        gameLogic.addMoveOutcomeListener(outcomeListener);
+        when(gameBoard.isFieldEmpty(anyInt())).thenReturn(true);
+
+        gameLogic.replay(player1, new int[]{1, 2, 3});
+
+        verify(gameBoard, times(1)).clear();
+        verify(squareCollector, times(1)).reset();
+        verify(gameBoard, times(1)).placePiece(1, player1);
+        verify(gameBoard, times(1)).placePiece(2, player2);
+        verify(gameBoard, times(1)).placePiece(3, player1);
+        verify(listener, never()).onActivePlayerChanged(any(Player.class));
+        verify(listener, never()).onGameStarted(any(Player.class));
+        verify(outcomeListener, never()).onMoveMade(any(MoveOutcome.class));
+    }
+
+    /**
+     * Checks if replay() notifies the listeners once and requests the next move.
+     */
+    @Test
+    public void replay_withMoves_notifiesListenersOnceAndRequestsNextMove() {
+        when(gameBoard.isFieldEmpty(anyInt())).thenReturn(true);
+
+        gameLogic.replay(player1, new int[]{1, 2, 3});
+
+        verify(listener, times(1)).onGameRestored(player2);
+        assertEquals(player2, gameLogic.getActivePlayer());
+        assertTrue(gameLogic.isStarted());
+        assertFalse(gameLogic.isGameOver());
+        verify(playerLogic1, never()).requestMove(eq(gameBoard), any(ILogicCallback.class));
+        verify(playerLogic2, times(1)).requestMove(eq(gameBoard), any(ILogicCallback.class));
+    }
+
+    /**
+     * Checks if replay() without moves requests the move of the starting player.
+     */
+    @Test
+    public void replay_withoutMoves_requestsMoveOfStartingPlayer() {
+        gameLogic.replay(player2, new int[0]);
+
+        verify(listener, times(1)).onGameRestored(player2);
+        verify(playerLogic2, times(1)).requestMove(eq(gameBoard), any(ILogicCallback.class));
+    }
+
+    /**
+     * Checks if replay() of a finished game notifies the listeners without an active player.
+     */
+    @Test
+    public void replay_withGameOverAfterLastMove_notifiesListenersWithoutActivePlayer() {
+        when(gameBoard.isFieldEmpty(anyInt())).thenReturn(true);
+        when(gameOverVerifier.isGameOver(gameBoard, squareCollector)).thenReturn(NOT_OVER, PLAYER1_WON);
+
+        gameLogic.replay(player1, new int[]{1, 2});
+
+        verify(listener, times(1)).onGameRestored(null);
+        verify(listener, never()).onGameOver(any(Player.class), any(GameOverReason.class));
+        assertTrue(gameLogic.isGameOver());
+        assertEquals(player1, gameLogic.getWinner());
+        assertEquals(REGULAR, gameLogic.getGameOverReason());
+        verify(playerLogic1, never()).requestMove(eq(gameBoard), any(ILogicCallback.class));
+        verify(playerLogic2, never()).requestMove(eq(gameBoard), any(ILogicCallback.class));
+    }
+
+    /**
+     * Checks if replay() throws an exception if a move follows the end of the game.
+     */
+    @Test(expected = AssertionError.class)
+    public void replay_withMoveAfterGameOver_throwsException() {
+        when(gameBoard.isFieldEmpty(anyInt())).thenReturn(true);
+        when(gameOverVerifier.isGameOver(gameBoard, squareCollector)).thenReturn(PLAYER1_WON);
+
+        gameLogic.replay(player1, new int[]{1, 2});
+    }
+
+    /**
+     * Checks if replay() throws an exception if a field is not empty.
+     */
+    @Test(expected = AssertionError.class)
+    public void replay_withNotEmptyField_throwsException() {
+        when(gameBoard.isFieldEmpty(1)).thenReturn(true, false);
+
+        gameLogic.replay(player1, new int[]{1, 1});
+    }
+
+    /**
+     * Checks if replay() with an invalid field doesn't change the running game.
+     */
+    @Test
+    public void replay_withInvalidField_doesNotChangeGame() {
+        gameLogic.startGame(player2);
+
+        try {
+            gameLogic.replay(player1, new int[]{1, 64});
+            fail("Exception expected!");
+        } catch (AssertionError e) {
+            // Expected.
+        }
+
+        verify(gameBoard, times(1)).clear();
+        verify(gameBoard, never()).placePiece(1, player1);
+        verify(playerLogic2, never()).cancelMove();
+        assertEquals(player2, gameLogic.getActivePlayer());
+    }
+
+    /**
+     * Checks if replay() restores the previous game, if a move follows the end of the game.
+     */
+    @Test
+    public void replay_withMoveAfterGameOver_restoresPreviousGame() {
+        gameLogic.startGame(player2);
+        when(gameBoard.isFieldEmpty(anyInt())).thenReturn(true);
+        when(gameOverVerifier.isGameOver(gameBoard, squareCollector)).thenReturn(PLAYER1_WON);
+
+        try {
+            gameLogic.replay(player1, new int[]{1, 2});
+            fail("Exception expected!");
+        } catch (AssertionError e) {
+            // Expected.
+        }
+
+        assertFalse(gameLogic.isGameOver());
+        assertEquals(0, gameLogic.getMoveCount());
+        assertEquals(player2, gameLogic.getActivePlayer());
+        verify(playerLogic2, times(2)).requestMove(eq(gameBoard), any(ILogicCallback.class));
+        verify(listener, never()).onGameRestored(any(Player.class));
+    }
+
+    /**
+     * Checks if replay() throws an exception if the moves are null.
+     */
+    @Test(expected = NullPointerException.class)
+    public void replay_withNullMoves_throwsException() {
+        gameLogic.replay(player1, null);
+    }
+
+    /**
+     * Checks if replay() throws an exception if the starting player is unknown.
+     */
+    @Test(expected = AssertionError.class)
+    public void replay_withUnknownPlayer_throwsException() {
+        gameLogic.replay(mock(Player.class), new int[0]);
+    }
+
+    /**
+     * Checks if startGame() resets the result of a finished game.
+     */
+    @Test
+    public void startGame_afterGameOver_resetsResult() {
+        when(gameBoard.isFieldEmpty(anyInt())).thenReturn(true);
+        when(gameOverVerifier.isGameOver(gameBoard, squareCollector)).thenReturn(PLAYER2_WON);
+        gameLogic.replay(player1, new int[]{1});
+
+        gameLogic.startGame(player1);
+
+        assertFalse(gameLogic.isGameOver());
+        assertNull(gameLogic.getWinner());
+        assertNull(gameLogic.getGameOverReason());
+    }
+
+    /**
+     * Checks if startGame() cancels the moves of both player logics of the last game.
+     */
+    @Test
+    public void startGame_afterStartedGame_cancelsMovesOfPlayerLogics() {
+        gameLogic.startGame(player1);
+        verify(playerLogic1, never()).cancelMove();
+
+        gameLogic.startGame(player2);
+
+        verify(playerLogic1, times(1)).cancelMove();
+        verify(playerLogic2, times(1)).cancelMove();
+    }
+
+    /**
+     * Checks if replay() cancels the pending move of the active player logic of the last game.
+     */
+    @Test
+    public void replay_afterStartedGame_cancelsMoveOfActivePlayerLogic() {
+        gameLogic.startGame(player2);
+
+        gameLogic.replay(player1, new int[0]);
+
+        verify(playerLogic2, times(1)).cancelMove();
+    }
+
+    /**
+     * Checks if takeback() returns false if the game was not started.
+     */
+    @Test
+    public void takeback_withoutStartedGame_returnsFalse() {
+        assertFalse(gameLogic.takeback());
+    }
+
+    /**
+     * Checks if takeback() returns false if the game has no moves.
+     */
+    @Test
+    public void takeback_withoutMoves_returnsFalse() {
+        gameLogic.startGame(player1);
+        assertFalse(gameLogic.takeback());
+        verify(gameBoard, never()).removePiece(anyInt());
+    }
+
+    /**
+     * Checks if takeback() removes the piece and the squares of the last move and switches the
+     * active player.
+     */
+    @Test
+    public void takeback_afterMove_removesPieceAndSquaresAndSwitchesActivePlayer() {
+        Set<Square> squares = singleton(new Square(new int[]{0, 1, 8, 9}, player1));
+        when(squareCollector.detect(gameBoard, player1, 9)).thenReturn(squares);
+        gameLogic.startGame(player1);
+        verify(playerLogic1, times(1)).requestMove(eq(gameBoard), callback.capture());
+        when(gameBoard.isFieldEmpty(9)).thenReturn(true);
+        callback.getValue().makeMove(9, player1);
+        when(gameBoard.getPiece(9)).thenReturn(player1);
+
+        assertTrue(gameLogic.takeback());
+
+        verify(gameBoard, times(1)).removePiece(9);
+        verify(squareCollector, times(1)).remove(squares);
+        verify(playerLogic1, times(1)).cancelMove();
+        verify(playerLogic2, times(1)).cancelMove();
+        verify(listener, times(1)).onMoveTakenBack(player1, 9, squares);
+        verify(listener, times(2)).onActivePlayerChanged(player1);
+        verify(playerLogic1, times(2)).requestMove(eq(gameBoard), any(ILogicCallback.class));
+        assertEquals(player1, gameLogic.getActivePlayer());
+        assertEquals(0, gameLogic.getMoveCount());
+    }
+
+    /**
+     * Checks if takeback() continues a game, which was over after the last move.
+     */
+    @Test
+    public void takeback_afterGameOver_continuesGame() {
+        when(gameBoard.isFieldEmpty(anyInt())).thenReturn(true);
+        when(gameOverVerifier.isGameOver(gameBoard, squareCollector)).thenReturn(NOT_OVER, PLAYER2_WON);
+        gameLogic.replay(player1, new int[]{1, 2});
+        when(gameBoard.getPiece(2)).thenReturn(player2);
+
+        assertTrue(gameLogic.takeback());
+
+        assertFalse(gameLogic.isGameOver());
+        assertNull(gameLogic.getWinner());
+        assertEquals(player2, gameLogic.getActivePlayer());
+        assertEquals(1, gameLogic.getMoveCount());
+        assertEquals(1, gameLogic.getMove(0));
+        verify(playerLogic2, times(1)).requestMove(eq(gameBoard), any(ILogicCallback.class));
+    }
+
+    /**
+     * Checks if getMove() throws an exception if the move doesn't exist.
+     */
+    @Test(expected = AssertionError.class)
+    public void getMove_withUnknownMove_throwsException() {
+        gameLogic.startGame(player1);
+        gameLogic.getMove(0);
+    }
+
+    /**
+     * Checks if the snapshot of a new game logic has the expected size.
+     */
+    @Test
+    public void snapshot_withoutGame_returnsHeaderOnly() {
+        assertEquals(6, gameLogic.snapshot().length);
+    }
+
+    /**
+     * Checks if the snapshot contains the moves and the squares of the moves.
+     */
+    @Test
+    public void snapshot_withMoves_containsMovesAndSquares() {
+        Set<Square> squares = singleton(new Square(new int[]{0, 1, 8, 9}, player1));
+        when(squareCollector.detect(gameBoard, player1, 9)).thenReturn(squares);
+        when(gameBoard.isFieldEmpty(anyInt())).thenReturn(true);
+        gameLogic.replay(player1, new int[]{9, 12});
+        when(gameBoard.getPiece(9)).thenReturn(player1);
+        when(gameBoard.getPiece(12)).thenReturn(player2);
+
+        byte[] snapshot = gameLogic.snapshot();
+
+        assertEquals(6 + 2 + 2 + 2, snapshot.length);
+        assertEquals(9, snapshot[6]);
+        assertEquals(1, snapshot[7]);
+        assertEquals(12 | 64, snapshot[10]);
+        assertEquals(0, snapshot[11]);
+    }
+
+    /**
+     * Checks if restore() restores the moves, squares and the active player of a snapshot.
+     */
+    @Test
+    public void restore_withSnapshot_restoresGameWithoutDetection() {
+        byte[] snapshot = new byte[]{1, 1, 2, 0, 0, 7, 0, 0, 20 | 64, 0, 1, 0, 21 | 64, 0, 8, 0,
+                22 | 64, 0, 9, 1, 0, 0};
+
+        gameLogic.restore(snapshot);
+
+        verify(gameBoard, times(1)).placePiece(9, player1);
+        verify(gameBoard, times(1)).placePiece(22, player2);
+        verify(squareCollector, times(1)).add(singleton(new Square(new int[]{0, 1, 8, 9}, player1)));
+        verify(squareCollector, never()).detect(eq(gameBoard), any(Player.class), anyInt());
+        verify(listener, times(1)).onGameRestored(player2);
+        verify(playerLogic2, times(1)).requestMove(eq(gameBoard), any(ILogicCallback.class));
+        assertEquals(7, gameLogic.getMoveCount());
+        assertEquals(9, gameLogic.getMove(6));
+        assertEquals(player2, gameLogic.getActivePlayer());
+    }
+
+    /**
+     * Checks if restore() restores the result of a finished game.
+     */
+    @Test
+    public void restore_withSnapshotOfFinishedGame_restoresResult() {
+        gameLogic.restore(new byte[]{1, 3, 1, 2, 2, 0});
+
+        assertTrue(gameLogic.isStarted());
+        assertTrue(gameLogic.isGameOver());
+        assertEquals(player2, gameLogic.getWinner());
+        assertEquals(ADJUDICATION, gameLogic.getGameOverReason());
+        verify(listener, times(1)).onGameRestored(null);
+        verify(playerLogic1, never()).requestMove(eq(gameBoard), any(ILogicCallback.class));
+    }
+
+    /**
+     * Checks if restore() throws an exception if the version of the snapshot is unknown.
+     */
+    @Test(expected = AssertionError.class)
+    public void restore_withUnknownVersion_throwsException() {
+        gameLogic.restore(new byte[]{2, 0, 0, 0, 0, 0});
+    }
+
+    /**
+     * Checks if restore() throws an exception if the snapshot is truncated.
+     */
+    @Test(expected = AssertionError.class)
+    public void restore_withTruncatedSnapshot_throwsException() {
+        gameLogic.restore(new byte[]{1, 1, 2, 0, 0, 1, 9});
+    }
+
+    /**
+     * Checks if restore() throws an exception if a square doesn't match the game board.
+     */
+    @Test(expected = AssertionError.class)
+    public void restore_withSquareNotOnGameBoard_throwsException() {
+        gameLogic.restore(new byte[]{1, 1, 2, 0, 0, 1, 9, 1, 0, 0});
+    }
+
+    /**
+     * Checks if restore() throws an exception if the number of squares of a move is negative.
+     */
+    @Test
+    public void restore_withNegativeNumberOfSquares_throwsException() {
+        try {
+            gameLogic.restore(new byte[]{1, 1, 2, 0, 0, 1, 9, -1, 0, 0});
+            fail("Exception expected!");
+        } catch (AssertionError e) {
+            assertEquals("Invalid number of squares in snapshot!", e.getMessage());
+        }
+    }
+
+    /**
+     * Checks if restore() throws an exception if a square doesn't contain the field of its move.
+     */
+    @Test
+    public void restore_withSquareWithoutFieldOfMove_throwsException() {
+        try {
+            gameLogic.restore(new byte[]{1, 1, 2, 0, 0, 5, 0, 0, 1, 0, 8, 0, 9, 0, 10, 1, 0, 0});
+            fail("Exception expected!");
+        } catch (AssertionError e) {
+            assertEquals("Square doesn't contain the field of its move in snapshot!", e.getMessage());
+        }
+    }
+
+    /**
+     * Checks if restore() throws an exception if a square of a move is repeated.
+     */
+    @Test(expected = AssertionError.class)
+    public void restore_withRepeatedSquare_throwsException() {
+        gameLogic.restore(new byte[]{1, 1, 2, 0, 0, 4, 0, 0, 1, 0, 8, 0, 9, 2, 0, 0, 0, 0});
+    }
+
+    /**
+     * Checks if restore() throws an exception if a field is used by two moves.
+     */
+    @Test(expected = AssertionError.class)
+    public void restore_withFieldOfTwoMoves_throwsException() {
+        gameLogic.restore(new byte[]{1, 1, 1, 0, 0, 2, 9, 0, 9 | 64, 0});
+    }
+
+    /**
+     * Checks if restore() throws an exception if a running game has no active player.
+     */
+    @Test(expected = AssertionError.class)
+    public void restore_withRunningGameWithoutActivePlayer_throwsException() {
+        gameLogic.restore(new byte[]{1, 1, 0, 0, 0, 0});
+    }
+
+    /**
+     * Checks if restore() throws an exception if the reason of a finished game is unknown.
+     */
+    @Test(expected = AssertionError.class)
+    public void restore_withUnknownGameOverReason_throwsException() {
+        gameLogic.restore(new byte[]{1, 3, 1, 2, 9, 0});
+    }
+
+    /**
+     * Checks if restore() throws an exception if the snapshot is too long.
+     */
+    @Test(expected = AssertionError.class)
+    public void restore_withTooLongSnapshot_throwsException() {
+        gameLogic.restore(new byte[]{1, 0, 0, 0, 0, 0, 0});
+    }
+
+    /**
+     * Checks if restore() doesn't change the game, if the snapshot is invalid.
+     */
+    @Test
+    public void restore_withInvalidSnapshot_doesNotChangeGame() {
+        gameLogic.startGame(player1);
+
+        try {
+            gameLogic.restore(new byte[]{1, 1, 2, 0, 0, 1, 9, 0, 0});
+            fail("Exception expected!");
+        } catch (AssertionError e) {
+            // Expected.
+        }
+
+        verify(gameBoard, times(1)).clear();
+        verify(gameBoard, never()).placePiece(anyInt(), any(Player.class));
+        verify(playerLogic1, never()).cancelMove();
+        verify(listener, never()).onGameRestored(any(Player.class));
+        assertTrue(gameLogic.isStarted());
+        assertEquals(player1, gameLogic.getActivePlayer());
+    }
+
+    /**
+     * Checks if restore() throws an exception if the snapshot is null.
+     */
+    @Test(expected = NullPointerException.class)
+    public void restore_withNull_throwsException() {
+        gameLogic.restore(null);
+    }
+
+
+    /**
+     * Checks if setMoveClock() throws an exception if the executor is null.
+     */
+    @Test(expected = NullPointerException.class)
+    public void setMoveClock_withNullExecutor_throwsException() {
+        gameLogic.setMoveClock(new MoveClock(new HashedWheelTimer(1, MILLISECONDS, 8), 1, SECONDS, FORFEIT), null);
+    }
+
+    /**
+     * Checks if the active player forfeits the game, if the time of the move has expired.
+     */
+    @Test
+    public void moveClock_withForfeitPolicy_endsGameIfTimeExpired() throws InterruptedException {
+        HashedWheelTimer timer = new HashedWheelTimer(1, MILLISECONDS, 8);
+        BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+        gameLogic.setMoveClock(new MoveClock(timer, 10, MILLISECONDS, FORFEIT), tasks::add);
+        try {
+            gameLogic.startGame(player1);
+
+            tasks.poll(5, SECONDS).run();
+
+            verify(playerLogic1, times(1)).cancelMove();
+            verify(listener, times(1)).onGameOver(player2, TIMEOUT);
+            assertTrue(gameLogic.isGameOver());
+            assertEquals(player2, gameLogic.getWinner());
+            assertEquals(TIMEOUT, gameLogic.getGameOverReason());
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Checks if the move clock is restarted for the next player, if a move was made.
+     */
+    @Test
+    public void moveClock_afterMove_restartsClockForNextPlayer() {
+        HashedWheelTimer timer = new HashedWheelTimer(1, MILLISECONDS, 8);
+        gameLogic.setMoveClock(new MoveClock(timer, 1, HOURS, FORFEIT), Runnable::run);
+        try {
+            gameLogic.startGame(player1);
+            assertEquals(1, timer.getPendingTimeouts());
+
+            verify(playerLogic1, times(1)).requestMove(eq(gameBoard), callback.capture());
+            when(gameBoard.isFieldEmpty(0)).thenReturn(true);
+            callback.getValue().makeMove(0, player1);
+
+            verify(playerLogic2, times(1)).requestMove(eq(gameBoard), any(ILogicCallback.class));
+            assertEquals(1, timer.getPendingTimeouts());
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Checks if the move clock is stopped, if the game is over.
+     */
+    @Test
+    public void moveClock_afterGameOver_stopsClock() {
+        HashedWheelTimer timer = new HashedWheelTimer(1, MILLISECONDS, 8);
+        gameLogic.setMoveClock(new MoveClock(timer, 1, HOURS, FORFEIT), Runnable::run);
+        try {
+            gameLogic.startGame(player1);
+
+            verify(playerLogic1, times(1)).requestMove(eq(gameBoard), callback.capture());
+            when(gameBoard.isFieldEmpty(0)).thenReturn(true);
+            when(gameOverVerifier.isGameOver(gameBoard, squareCollector)).thenReturn(PLAYER1_WON);
+            callback.getValue().makeMove(0, player1);
+
+            assertEquals(0, timer.getPendingTimeouts());
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Checks if a bot makes the move, if the time of the move has expired and the policy is
+     * BOT_MOVE.
+     */
+    @Test
+    public void moveClock_withBotMovePolicy_makesMoveByBot() throws InterruptedException {
+        Player humanPlayer1 = new Player("human1");
+        Player humanPlayer2 = new Player("human2");
+        GameBoard realGameBoard = new GameBoard(humanPlayer1, humanPlayer2);
+        IPlayerLogic humanLogic1 = new HumanPlayerLogic(humanPlayer1);
+        IPlayerLogic humanLogic2 = new HumanPlayerLogic(humanPlayer2);
+        GameLogic logic = new GameLogic(realGameBoard, humanLogic1, humanLogic2);
+
+        HashedWheelTimer timer = new HashedWheelTimer(1, MILLISECONDS, 8);
+        BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+        logic.setMoveClock(new MoveClock(timer, 10, MILLISECONDS, BOT_MOVE), tasks::add);
+        try {
+            logic.startGame(humanPlayer1);
+
+            tasks.poll(5, SECONDS).run();
+
+            assertEquals(1, logic.getMoveCount());
+            assertEquals(humanPlayer1, realGameBoard.getPiece(logic.getMove(0)));
+            assertEquals(humanPlayer2, logic.getActivePlayer());
+            assertFalse(logic.isGameOver());
+        } finally {
+            timer.stop();
+        }
+    }
+
 }
@@ -211,4 +211,81 @@ public class TestGameOverVerifier {
         assertEquals(NOT_OVER, gameOverVerifier.isGameOver(gameBoard, squareCollector));
     }
 
+
+    @Test
+    public void isGameOver_withPositionCache_returnsSameStateAsWithoutCache() {
+        gameOverVerifier.setPositionCache(new PositionCache(100));
+        when(squareCollector.getScore(player1)).thenReturn(30);
+        when(squareCollector.getScore(player2)).thenReturn(60);
+        when(gameBoard.getPiece(anyInt())).thenReturn(player1);
+        when(gameBoard.getPiece(10)).thenReturn(null);
+        assertEquals(NOT_OVER, gameOverVerifier.isGameOver(gameBoard, squareCollector));
+        assertEquals(NOT_OVER, gameOverVerifier.isGameOver(gameBoard, squareCollector));
+    }
+
+    @Test
+    public void isGameOver_withPositionCacheAndKnownPosition_returnsCachedState() {
+        PositionCache positionCache = new PositionCache(100);
+        gameOverVerifier.setPositionCache(positionCache);
+        when(squareCollector.getScore(player1)).thenReturn(30);
+        when(squareCollector.getScore(player2)).thenReturn(30);
+        when(gameBoard.getPiece(anyInt())).thenReturn(player1);
+
+        assertEquals(GAME_DRAW, gameOverVerifier.isGameOver(gameBoard, squareCollector));
+        assertEquals(GAME_DRAW, gameOverVerifier.isGameOver(gameBoard, squareCollector));
+        assertEquals(1, positionCache.getMissCount());
+        assertEquals(1, positionCache.getHitCount());
+    }
+
+
+    @Test
+    public void isGameOver_withoutAdjudicationAndCertainWinner_returnsNOT_OVER() {
+        mockGameBoardWithFourReachablePointsForPlayer1();
+        when(squareCollector.getScore(player1)).thenReturn(30);
+        when(squareCollector.getScore(player2)).thenReturn(35);
+        assertEquals(NOT_OVER, gameOverVerifier.isGameOver(gameBoard, squareCollector));
+    }
+
+    @Test
+    public void isGameOver_withAdjudicationAndCertainWinner_returnsPLAYER2_ADJUDICATED() {
+        gameOverVerifier.setAdjudication(true);
+        mockGameBoardWithFourReachablePointsForPlayer1();
+        when(squareCollector.getScore(player1)).thenReturn(30);
+        when(squareCollector.getScore(player2)).thenReturn(35);
+        assertEquals(PLAYER2_ADJUDICATED, gameOverVerifier.isGameOver(gameBoard, squareCollector));
+    }
+
+    @Test
+    public void isGameOver_withAdjudicationAndPossibleDraw_returnsNOT_OVER() {
+        gameOverVerifier.setAdjudication(true);
+        mockGameBoardWithFourReachablePointsForPlayer1();
+        when(squareCollector.getScore(player1)).thenReturn(30);
+        when(squareCollector.getScore(player2)).thenReturn(34);
+        assertEquals(NOT_OVER, gameOverVerifier.isGameOver(gameBoard, squareCollector));
+    }
+
+    @Test
+    public void isGameOver_withAdjudicationAndEmptyGameBoard_returnsNOT_OVER() {
+        gameOverVerifier.setAdjudication(true);
+        when(squareCollector.getScore(player1)).thenReturn(0);
+        when(squareCollector.getScore(player2)).thenReturn(0);
+        assertEquals(NOT_OVER, gameOverVerifier.isGameOver(gameBoard, squareCollector));
+    }
+
+    @Test
+    public void getReachableScore_returnsScoreOfPossibleSquares() {
+        mockGameBoardWithFourReachablePointsForPlayer1();
+        assertEquals(4, gameOverVerifier.getReachableScore(gameBoard, player1));
+    }
+
+    /* Mocks a game board, where player 1 can only do the square 0,1,8,9 and player 2 can do more squares. */
+    private void mockGameBoardWithFourReachablePointsForPlayer1() {
+        when(gameBoard.getPiece(anyInt())).thenReturn(player2);
+        when(gameBoard.getPiece(0)).thenReturn(player1);
+        when(gameBoard.getPiece(1)).thenReturn(player1);
+        when(gameBoard.getPiece(8)).thenReturn(player1);
+        when(gameBoard.getPiece(9)).thenReturn(null);
+        when(gameBoard.getPiece(63)).thenReturn(null);
+    }
+
 }
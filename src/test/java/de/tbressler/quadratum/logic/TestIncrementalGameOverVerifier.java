@@ -0,0 +1,177 @@
+package de.tbressler.quadratum.logic;
+
+import de.tbressler.quadratum.model.GameBoard;
+import de.tbressler.quadratum.model.IReadOnlyGameBoard;
+import de.tbressler.quadratum.model.Player;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static de.tbressler.quadratum.logic.GameOverVerifier.GameOverState.*;
+import static de.tbressler.quadratum.logic.GameOverVerifier.PossibleMoves.*;
+import static de.tbressler.quadratum.utils.SquareTable.SQUARES;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for class IncrementalGameOverVerifier.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestIncrementalGameOverVerifier {
+
+    // Class under test:
+    private IncrementalGameOverVerifier gameOverVerifier;
+
+    // Players:
+    private Player player1 = new Player("player1");
+    private Player player2 = new Player("player2");
+
+    private GameBoard gameBoard = new GameBoard(player1, player2);
+
+    // Mocks:
+    private SquareCollector squareCollector = mock(SquareCollector.class, "squareCollector");
+
+
+    @Before
+    public void setUp() {
+        gameOverVerifier = new IncrementalGameOverVerifier(150, 15, gameBoard);
+    }
+
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullGameBoard_throwsException() {
+        new IncrementalGameOverVerifier(150, 15, null);
+    }
+
+    @Test
+    public void new_addsListenerToGameBoard() {
+        IReadOnlyGameBoard board = mock(IReadOnlyGameBoard.class, "board");
+        IncrementalGameOverVerifier verifier = new IncrementalGameOverVerifier(150, 15, board);
+        verify(board, times(1)).addGameBoardListener(verifier);
+    }
+
+    @Test
+    public void getCompletableSquareCount_withEmptyGameBoard_returnsAllSquares() {
+        assertEquals(SQUARES, gameOverVerifier.getCompletableSquareCount(player1));
+        assertEquals(SQUARES, gameOverVerifier.getCompletableSquareCount(player2));
+    }
+
+    @Test
+    public void getCompletableSquareCount_afterPieceOfOpponent_returnsLessSquares() {
+        gameBoard.placePiece(0, player2);
+        assertEquals(SQUARES - 7, gameOverVerifier.getCompletableSquareCount(player1));
+        assertEquals(SQUARES, gameOverVerifier.getCompletableSquareCount(player2));
+    }
+
+    @Test
+    public void getCompletableSquareCount_afterClear_returnsAllSquares() {
+        gameBoard.placePiece(0, player2);
+        gameBoard.clear();
+        assertEquals(SQUARES, gameOverVerifier.getCompletableSquareCount(player1));
+    }
+
+    @Test
+    public void isGameOver_withFullGameBoardAndEqualScore_returnsGAME_DRAW() {
+        for (int i = 0; i < 64; i++)
+            gameBoard.placePiece(i, (i % 3 == 0) ? player1 : player2);
+        when(squareCollector.getScore(player1)).thenReturn(30);
+        when(squareCollector.getScore(player2)).thenReturn(30);
+        assertEquals(GAME_DRAW, gameOverVerifier.isGameOver(gameBoard, squareCollector));
+    }
+
+    @Test
+    public void isGameOver_withEmptyGameBoard_returnsNOT_OVER() {
+        assertEquals(NOT_OVER, gameOverVerifier.isGameOver(gameBoard, squareCollector));
+    }
+
+    @Test
+    public void canPlayersDoMoreSquares_withRandomGames_returnsSameResultAsScan() {
+        GameOverVerifier scanningVerifier = new GameOverVerifier(150, 15);
+        Random random = new Random(4711);
+
+        for (int game = 0; game < 50; game++) {
+            gameBoard.clear();
+            int[] fields = shuffledFields(random);
+            for (int i = 0; i < 64; i++) {
+                gameBoard.placePiece(fields[i], random.nextBoolean() ? player1 : player2);
+                assertEquals(scanningVerifier.canPlayersDoMoreSquares(gameBoard),
+                        gameOverVerifier.canPlayersDoMoreSquares(gameBoard));
+            }
+        }
+    }
+
+    @Test
+    public void getReachableScore_withRandomGames_returnsSameResultAsScan() {
+        GameOverVerifier scanningVerifier = new GameOverVerifier(150, 15);
+        Random random = new Random(815);
+
+        for (int game = 0; game < 20; game++) {
+            gameBoard.clear();
+            int[] fields = shuffledFields(random);
+            for (int i = 0; i < 64; i++) {
+                gameBoard.placePiece(fields[i], random.nextBoolean() ? player1 : player2);
+                assertEquals(scanningVerifier.getReachableScore(gameBoard, player1),
+                        gameOverVerifier.getReachableScore(gameBoard, player1));
+                assertEquals(scanningVerifier.getReachableScore(gameBoard, player2),
+                        gameOverVerifier.getReachableScore(gameBoard, player2));
+            }
+        }
+    }
+
+    @Test
+    public void isGameOver_withAdjudicationAndCertainWinner_returnsPLAYER1_ADJUDICATED() {
+        gameOverVerifier.setAdjudication(true);
+        for (int i = 0; i < 64; i++)
+            if ((i != 9) && (i != 63))
+                gameBoard.placePiece(i, ((i == 0) || (i == 1) || (i == 8)) ? player2 : player1);
+        when(squareCollector.getScore(player1)).thenReturn(35);
+        when(squareCollector.getScore(player2)).thenReturn(30);
+        assertEquals(PLAYER1_ADJUDICATED, gameOverVerifier.isGameOver(gameBoard, squareCollector));
+    }
+
+    @Test
+    public void canPlayersDoMoreSquares_withOtherGameBoard_scansGameBoard() {
+        GameBoard otherGameBoard = new GameBoard(player1, player2);
+        for (int i = 0; i < 64; i++)
+            otherGameBoard.placePiece(i, player1);
+        assertEquals(NO_PLAYER, gameOverVerifier.canPlayersDoMoreSquares(otherGameBoard));
+        assertEquals(BOTH_PLAYERS, gameOverVerifier.canPlayersDoMoreSquares(gameBoard));
+    }
+
+    /* Returns the shuffled field indexes. */
+    private int[] shuffledFields(Random random) {
+        int[] fields = new int[64];
+        for (int i = 0; i < 64; i++)
+            fields[i] = i;
+        for (int i = 63; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = fields[i];
+            fields[i] = fields[j];
+            fields[j] = tmp;
+        }
+        return fields;
+    }
+
+    @Test
+    public void getReachableScore_withRandomTakebacks_returnsSameResultAsScan() {
+        GameOverVerifier scanningVerifier = new GameOverVerifier(150, 15);
+        Random random = new Random(42);
+
+        int[] fields = shuffledFields(random);
+        for (int i = 0; i < 64; i++)
+            gameBoard.placePiece(fields[i], random.nextBoolean() ? player1 : player2);
+
+        for (int i = 63; i >= 0; i--) {
+            gameBoard.removePiece(fields[i]);
+            assertEquals(scanningVerifier.getReachableScore(gameBoard, player1),
+                    gameOverVerifier.getReachableScore(gameBoard, player1));
+            assertEquals(scanningVerifier.canPlayersDoMoreSquares(gameBoard),
+                    gameOverVerifier.canPlayersDoMoreSquares(gameBoard));
+        }
+        assertEquals(SQUARES, gameOverVerifier.getCompletableSquareCount(player2));
+    }
+
+}
@@ -0,0 +1,71 @@
+package de.tbressler.quadratum.logic;
+
+import de.tbressler.quadratum.utils.HashedWheelTimer;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static de.tbressler.quadratum.logic.MoveClock.TimeoutPolicy.BOT_MOVE;
+import static de.tbressler.quadratum.logic.MoveClock.TimeoutPolicy.FORFEIT;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for class MoveClock.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestMoveClock {
+
+    // The timer:
+    private HashedWheelTimer timer = new HashedWheelTimer(1, MILLISECONDS, 64);
+
+
+    @After
+    public void tearDown() {
+        timer.stop();
+    }
+
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullTimer_throwsException() {
+        new MoveClock(null, 1, SECONDS, FORFEIT);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void new_withZeroTimePerMove_throwsException() {
+        new MoveClock(timer, 0, SECONDS, FORFEIT);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullUnit_throwsException() {
+        new MoveClock(timer, 1, null, FORFEIT);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullPolicy_throwsException() {
+        new MoveClock(timer, 1, SECONDS, null);
+    }
+
+    @Test
+    public void getTimePerMove_returnsTimeInUnit() {
+        MoveClock moveClock = new MoveClock(timer, 2, SECONDS, BOT_MOVE);
+        assertEquals(2000, moveClock.getTimePerMove(MILLISECONDS));
+        assertEquals(BOT_MOVE, moveClock.getPolicy());
+    }
+
+    @Test
+    public void start_executesTaskAfterTimePerMove() throws InterruptedException {
+        MoveClock moveClock = new MoveClock(timer, 10, MILLISECONDS, FORFEIT);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        moveClock.start(latch::countDown);
+
+        assertTrue(latch.await(5, SECONDS));
+    }
+
+}
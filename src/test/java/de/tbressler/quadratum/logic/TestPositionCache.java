@@ -0,0 +1,103 @@
+package de.tbressler.quadratum.logic;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.function.Supplier;
+
+import static de.tbressler.quadratum.logic.GameOverVerifier.PossibleMoves.BOTH_PLAYERS;
+import static de.tbressler.quadratum.logic.GameOverVerifier.PossibleMoves.NO_PLAYER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for class PositionCache.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestPositionCache {
+
+    // Class under test:
+    private PositionCache positionCache;
+
+
+    @Before
+    public void setUp() {
+        positionCache = new PositionCache(100);
+    }
+
+
+    @Test(expected = AssertionError.class)
+    public void new_withMaximumWeight0_throwsException() {
+        new PositionCache(0);
+    }
+
+    @Test
+    public void getHitCountAndMissCount_afterNew_return0() {
+        assertEquals(0, positionCache.getHitCount());
+        assertEquals(0, positionCache.getMissCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void getSquares_withUnknownPosition_callsLoader() {
+        int[][] squares = new int[][]{{0, 1, 8, 9}};
+        Supplier<int[][]> loader = mock(Supplier.class, "loader");
+        when(loader.get()).thenReturn(squares);
+
+        assertSame(squares, positionCache.getSquares(0x303L, loader));
+        verify(loader, times(1)).get();
+        assertEquals(0, positionCache.getHitCount());
+        assertEquals(1, positionCache.getMissCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void getSquares_withKnownPosition_doesNotCallLoader() {
+        int[][] squares = new int[][]{{0, 1, 8, 9}};
+        positionCache.getSquares(0x303L, () -> squares);
+
+        Supplier<int[][]> loader = mock(Supplier.class, "loader");
+        assertSame(squares, positionCache.getSquares(0x303L, loader));
+        verify(loader, never()).get();
+        assertEquals(1, positionCache.getHitCount());
+        assertEquals(1, positionCache.getMissCount());
+    }
+
+    @Test
+    public void getPossibleMoves_withKnownPosition_returnsCachedValue() {
+        positionCache.getPossibleMoves(1L, 2L, () -> NO_PLAYER);
+
+        assertEquals(NO_PLAYER, positionCache.getPossibleMoves(1L, 2L, () -> BOTH_PLAYERS));
+        assertEquals(BOTH_PLAYERS, positionCache.getPossibleMoves(2L, 1L, () -> BOTH_PLAYERS));
+        assertEquals(1, positionCache.getHitCount());
+        assertEquals(2, positionCache.getMissCount());
+    }
+
+    @Test
+    public void getPossibleMoves_andGetSquaresWithSameMask_doNotShareEntries() {
+        positionCache.getSquares(1L, () -> new int[0][]);
+        positionCache.getPossibleMoves(1L, 0L, () -> NO_PLAYER);
+        assertEquals(0, positionCache.getHitCount());
+        assertEquals(2, positionCache.getSize());
+    }
+
+    @Test
+    public void getSquares_withEntriesAboveMaximumWeight_evictsEntries() {
+        for (long i = 0; i < 50; i++)
+            positionCache.getSquares(i, () -> new int[][]{{0, 1, 8, 9}, {1, 2, 9, 10}});
+
+        assertEquals(true, positionCache.getSize() < 50);
+        assertEquals(true, positionCache.getEvictionCount() > 0);
+    }
+
+    @Test
+    public void clear_removesAllEntries() {
+        positionCache.getSquares(1L, () -> new int[0][]);
+        positionCache.clear();
+        assertEquals(0, positionCache.getSize());
+    }
+
+}
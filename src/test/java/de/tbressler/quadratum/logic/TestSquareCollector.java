@@ -8,6 +8,7 @@ import org.junit.Test;
 
 import java.util.Set;
 
+import static java.util.Collections.singleton;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -314,4 +315,155 @@ public class TestSquareCollector {
 
         assertEquals(0, squareCollector.getSquareCount(player1));
     }
+
+
+    @Test
+    public void detect_withPositionCache_returnsSetWithSquares() {
+        squareCollector.setPositionCache(new PositionCache(100));
+        when(gameBoard.getPiece(1)).thenReturn(player1);
+        when(gameBoard.getPiece(15)).thenReturn(player1);
+        when(gameBoard.getPiece(48)).thenReturn(player1);
+        when(gameBoard.getPiece(62)).thenReturn(player1);
+        when(gameBoard.getPiece(0)).thenReturn(player1);
+        when(gameBoard.getPiece(8)).thenReturn(player1);
+        when(gameBoard.getPiece(9)).thenReturn(player1);
+
+        Set<Square> result = squareCollector.detect(gameBoard, player1);
+
+        assertEquals(2, result.size());
+        assertTrue(result.contains(new Square(new int[]{1,15,48,62}, player1)));
+        assertTrue(result.contains(new Square(new int[]{0,1,8,9}, player1)));
+    }
+
+    @Test
+    public void detect_withPositionCacheCalledSecondTime_returnsEmptySet() {
+        squareCollector.setPositionCache(new PositionCache(100));
+        when(gameBoard.getPiece(0)).thenReturn(player1);
+        when(gameBoard.getPiece(1)).thenReturn(player1);
+        when(gameBoard.getPiece(8)).thenReturn(player1);
+        when(gameBoard.getPiece(9)).thenReturn(player1);
+        squareCollector.detect(gameBoard, player1);
+
+        assertTrue(squareCollector.detect(gameBoard, player1).isEmpty());
+        assertEquals(1, squareCollector.getSquareCount(player1));
+    }
+
+    @Test
+    public void detect_withSharedPositionCache_looksUpSquaresOfKnownPosition() {
+        PositionCache positionCache = new PositionCache(100);
+        squareCollector.setPositionCache(positionCache);
+        when(gameBoard.getPiece(0)).thenReturn(player1);
+        when(gameBoard.getPiece(1)).thenReturn(player1);
+        when(gameBoard.getPiece(8)).thenReturn(player1);
+        when(gameBoard.getPiece(9)).thenReturn(player1);
+        squareCollector.detect(gameBoard, player1);
+
+        SquareCollector otherCollector = new SquareCollector();
+        otherCollector.setPositionCache(positionCache);
+        Set<Square> result = otherCollector.detect(gameBoard, player1);
+
+        assertEquals(1, result.size());
+        assertTrue(result.contains(new Square(new int[]{0,1,8,9}, player1)));
+        assertEquals(1, positionCache.getHitCount());
+    }
+
+    @Test(expected = AssertionError.class)
+    public void detectAtIndex_withIndex64_throwsException() {
+        squareCollector.detect(gameBoard, player1, 64);
+    }
+
+    @Test
+    public void detectAtIndex_withSquaresOnField_returnsSetWithSquares() {
+        when(gameBoard.getPiece(1)).thenReturn(player1);
+        when(gameBoard.getPiece(15)).thenReturn(player1);
+        when(gameBoard.getPiece(48)).thenReturn(player1);
+        when(gameBoard.getPiece(62)).thenReturn(player1);
+        when(gameBoard.getPiece(0)).thenReturn(player1);
+        when(gameBoard.getPiece(8)).thenReturn(player1);
+        when(gameBoard.getPiece(9)).thenReturn(player1);
+
+        Set<Square> result = squareCollector.detect(gameBoard, player1, 1);
+
+        assertEquals(2, result.size());
+        assertTrue(result.contains(new Square(new int[]{1,15,48,62}, player1)));
+        assertTrue(result.contains(new Square(new int[]{0,1,8,9}, player1)));
+        assertEquals(68, squareCollector.getScore(player1));
+        assertEquals(2, squareCollector.getSquareCount(player1));
+    }
+
+    @Test
+    public void detectAtIndex_withSquareNotOnField_returnsEmptySet() {
+        when(gameBoard.getPiece(0)).thenReturn(player1);
+        when(gameBoard.getPiece(1)).thenReturn(player1);
+        when(gameBoard.getPiece(8)).thenReturn(player1);
+        when(gameBoard.getPiece(9)).thenReturn(player1);
+
+        assertTrue(squareCollector.detect(gameBoard, player1, 2).isEmpty());
+        assertEquals(0, squareCollector.getSquareCount(player1));
+    }
+
+    @Test
+    public void detectAtIndex_withSquareOfOtherPlayer_returnsEmptySet() {
+        when(gameBoard.getPiece(0)).thenReturn(player1);
+        when(gameBoard.getPiece(1)).thenReturn(player1);
+        when(gameBoard.getPiece(8)).thenReturn(player1);
+        when(gameBoard.getPiece(9)).thenReturn(player1);
+
+        assertTrue(squareCollector.detect(gameBoard, player2, 0).isEmpty());
+    }
+
+    @Test
+    public void detectAtIndex_calledSecondTime_returnsEmptySet() {
+        when(gameBoard.getPiece(0)).thenReturn(player1);
+        when(gameBoard.getPiece(1)).thenReturn(player1);
+        when(gameBoard.getPiece(8)).thenReturn(player1);
+        when(gameBoard.getPiece(9)).thenReturn(player1);
+        squareCollector.detect(gameBoard, player1, 9);
+
+        assertTrue(squareCollector.detect(gameBoard, player1, 9).isEmpty());
+        assertTrue(squareCollector.detect(gameBoard, player1).isEmpty());
+        assertEquals(1, squareCollector.getSquareCount(player1));
+        assertEquals(4, squareCollector.getScore(player1));
+    }
+
+    @Test
+    public void detectAtIndex_afterReset_returnsSquareAgain() {
+        when(gameBoard.getPiece(0)).thenReturn(player1);
+        when(gameBoard.getPiece(1)).thenReturn(player1);
+        when(gameBoard.getPiece(8)).thenReturn(player1);
+        when(gameBoard.getPiece(9)).thenReturn(player1);
+        squareCollector.detect(gameBoard, player1, 9);
+        squareCollector.reset();
+
+        assertEquals(1, squareCollector.detect(gameBoard, player1, 9).size());
+        assertEquals(4, squareCollector.getScore(player1));
+    }
+
+    @Test
+    public void remove_withDetectedSquare_rollsBackScoreAndSquareCount() {
+        when(gameBoard.getPiece(0)).thenReturn(player1);
+        when(gameBoard.getPiece(1)).thenReturn(player1);
+        when(gameBoard.getPiece(8)).thenReturn(player1);
+        when(gameBoard.getPiece(9)).thenReturn(player1);
+        Set<Square> squares = squareCollector.detect(gameBoard, player1, 9);
+
+        squareCollector.remove(squares);
+
+        assertTrue(squareCollector.getDetectedSquares().isEmpty());
+        assertEquals(0, squareCollector.getScore(player1));
+        assertEquals(0, squareCollector.getSquareCount(player1));
+        assertEquals(1, squareCollector.detect(gameBoard, player1, 9).size());
+    }
+
+    @Test
+    public void remove_withUnknownSquare_doesNothing() {
+        squareCollector.remove(singleton(new Square(new int[]{0, 1, 8, 9}, player1)));
+        assertEquals(0, squareCollector.getScore(player1));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void remove_withNull_throwsException() {
+        squareCollector.remove(null);
+    }
+
 }
@@ -0,0 +1,139 @@
+package de.tbressler.quadratum.logic.players;
+
+import de.tbressler.quadratum.logic.ILogicCallback;
+import de.tbressler.quadratum.model.GameBoard;
+import de.tbressler.quadratum.model.Player;
+import de.tbressler.quadratum.search.TranspositionTable;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for class AlphaBetaPlayerLogic.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestAlphaBetaPlayerLogic {
+
+    // Class under test:
+    private AlphaBetaPlayerLogic alphaBetaPlayerLogic;
+
+    // Mocks:
+    private ILogicCallback logicCallback = mock(ILogicCallback.class, "logicCallback");
+
+    private Player player = new Player("player");
+    private Player opponent = new Player("opponent");
+
+    private GameBoard gameBoard = new GameBoard(player, opponent);
+
+
+    @Before
+    public void setUp() {
+        alphaBetaPlayerLogic = new AlphaBetaPlayerLogic(player, 5, SECONDS);
+        alphaBetaPlayerLogic.setMaxDepth(3);
+    }
+
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullPlayer_throwsException() {
+        new AlphaBetaPlayerLogic(null, 1, SECONDS);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void new_withTimeBudget0_throwsException() {
+        new AlphaBetaPlayerLogic(player, 0, SECONDS);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullUnit_throwsException() {
+        new AlphaBetaPlayerLogic(player, 1, null);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void new_with0Threads_throwsException() {
+        new AlphaBetaPlayerLogic(player, 1, SECONDS, 0, ForkJoinPool.commonPool());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullPool_throwsException() {
+        new AlphaBetaPlayerLogic(player, 1, SECONDS, 2, null);
+    }
+
+    @Test
+    public void getThreadCount_returnsThreads() {
+        assertEquals(1, alphaBetaPlayerLogic.getThreadCount());
+        assertEquals(2, new AlphaBetaPlayerLogic(player, 1, SECONDS, 2, ForkJoinPool.commonPool()).getThreadCount());
+    }
+
+    @Test(expected = AssertionError.class)
+    public void setMaxDepth_with0_throwsException() {
+        alphaBetaPlayerLogic.setMaxDepth(0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void requestMove_withNullGameBoard_throwsException() {
+        alphaBetaPlayerLogic.requestMove(null, logicCallback);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void requestMove_withNullCallback_throwsException() {
+        alphaBetaPlayerLogic.requestMove(gameBoard, null);
+    }
+
+    @Test
+    public void requestMove_withOpenSquare_completesSquare() {
+        gameBoard.placePiece(0, player);
+        gameBoard.placePiece(7, player);
+        gameBoard.placePiece(56, player);
+        gameBoard.placePiece(20, opponent);
+        gameBoard.placePiece(21, opponent);
+
+        alphaBetaPlayerLogic.requestMove(gameBoard, logicCallback);
+
+        verify(logicCallback).makeMove(63, player);
+    }
+
+    @Test
+    public void requestMove_withOpenSquareOfOpponent_blocksSquare() {
+        gameBoard.placePiece(0, opponent);
+        gameBoard.placePiece(7, opponent);
+        gameBoard.placePiece(56, opponent);
+        gameBoard.placePiece(20, player);
+        gameBoard.placePiece(22, player);
+
+        new AlphaBetaPlayerLogic(player, 100, MILLISECONDS).requestMove(gameBoard, logicCallback);
+
+        verify(logicCallback).makeMove(63, player);
+    }
+
+
+    @Test
+    public void requestMove_withThreads_completesSquare() {
+        gameBoard.placePiece(0, player);
+        gameBoard.placePiece(7, player);
+        gameBoard.placePiece(56, player);
+        gameBoard.placePiece(20, opponent);
+        gameBoard.placePiece(21, opponent);
+
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            AlphaBetaPlayerLogic playerLogic = new AlphaBetaPlayerLogic(player, 5, SECONDS, 2, pool);
+            playerLogic.setTranspositionTable(new TranspositionTable(1));
+            playerLogic.setMaxDepth(3);
+            playerLogic.requestMove(gameBoard, logicCallback);
+        } finally {
+            pool.shutdown();
+        }
+
+        verify(logicCallback).makeMove(63, player);
+    }
+
+}
@@ -1,6 +1,8 @@
 package de.tbressler.quadratum.logic.players;
 
 import de.tbressler.quadratum.logic.ILogicCallback;
+import de.tbressler.quadratum.model.GameBoard;
+import de.tbressler.quadratum.model.IGameBoardListener;
 import de.tbressler.quadratum.model.IReadOnlyGameBoard;
 import de.tbressler.quadratum.model.Player;
 import org.junit.Before;
@@ -9,6 +11,10 @@ import org.junit.Test;
 import java.util.Random;
 
 import static de.tbressler.quadratum.logic.players.BotPlayerLogic.Strategy.LONG_TERM;
+import static de.tbressler.quadratum.logic.players.BotPlayerLogic.Strategy.SHORT_TERM;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.*;
 
@@ -139,4 +145,75 @@ public class TestBotPlayerLogic {
         verify(logicCallback, times(1)).makeMove(11, player);
     }
 
+
+    @Test(expected = NullPointerException.class)
+    public void attachTo_withNullGameBoard_throwsException() {
+        botPlayerLogic.attachTo(null);
+    }
+
+    @Test
+    public void attachTo_addsListenerToGameBoard() {
+        botPlayerLogic.attachTo(gameBoard);
+
+        verify(gameBoard, times(1)).addGameBoardListener(any(IGameBoardListener.class));
+        assertTrue(botPlayerLogic.isAttached());
+    }
+
+    @Test
+    public void detach_removesListenerFromGameBoard() {
+        botPlayerLogic.attachTo(gameBoard);
+        botPlayerLogic.detach();
+
+        verify(gameBoard, times(1)).removeGameBoardListener(any(IGameBoardListener.class));
+        assertFalse(botPlayerLogic.isAttached());
+    }
+
+    @Test
+    public void attachTo_withOtherGameBoard_detachesFromGameBoard() {
+        botPlayerLogic.attachTo(gameBoard);
+        botPlayerLogic.attachTo(mock(IReadOnlyGameBoard.class, "otherGameBoard"));
+
+        verify(gameBoard, times(1)).removeGameBoardListener(any(IGameBoardListener.class));
+        assertTrue(botPlayerLogic.isAttached());
+    }
+
+    @Test
+    public void requestMove_withAttachedLongTermBot_makesSameMovesAsBot() {
+        assertSameMovesWhenAttached(LONG_TERM);
+    }
+
+    @Test
+    public void requestMove_withAttachedShortTermBot_makesSameMovesAsBot() {
+        assertSameMovesWhenAttached(SHORT_TERM);
+    }
+
+    /* Plays a game of two bots and checks the moves of an attached bot with the same strategy. */
+    private void assertSameMovesWhenAttached(BotPlayerLogic.Strategy strategy) {
+        Player player1 = new Player("player1");
+        Player player2 = new Player("player2");
+        GameBoard board = new GameBoard(player1, player2);
+
+        BotPlayerLogic bot1 = new BotPlayerLogic(player1, strategy);
+        BotPlayerLogic bot2 = new BotPlayerLogic(player2, LONG_TERM);
+        BotPlayerLogic attachedBot = new BotPlayerLogic(player1, strategy);
+        bot1.setRandomizeMoves(false);
+        bot2.setRandomizeMoves(false);
+        attachedBot.setRandomizeMoves(false);
+        attachedBot.attachTo(board);
+
+        ILogicCallback attachedCallback = mock(ILogicCallback.class, "attachedCallback");
+        for (int move = 0; move < 60; move += 2) {
+            bot1.requestMove(board, (index, p) -> {
+                attachedBot.requestMove(board, attachedCallback);
+                verify(attachedCallback).makeMove(index, player1);
+                board.placePiece(index, p);
+                return null;
+            });
+            bot2.requestMove(board, (index, p) -> {
+                board.placePiece(index, p);
+                return null;
+            });
+        }
+    }
+
 }
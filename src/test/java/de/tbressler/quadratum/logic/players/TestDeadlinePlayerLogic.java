@@ -0,0 +1,290 @@
+package de.tbressler.quadratum.logic.players;
+
+import de.tbressler.quadratum.logic.IAsyncPlayerLogic;
+import de.tbressler.quadratum.logic.ILogicCallback;
+import de.tbressler.quadratum.logic.MoveOutcome;
+import de.tbressler.quadratum.logic.IPlayerLogic;
+import de.tbressler.quadratum.model.IReadOnlyGameBoard;
+import de.tbressler.quadratum.model.Player;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for class DeadlinePlayerLogic.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestDeadlinePlayerLogic {
+
+    // Class under test:
+    private DeadlinePlayerLogic deadlinePlayerLogic;
+
+
+    // Mocks:
+    private Player player = mock(Player.class, "player");
+
+    private IAsyncPlayerLogic asyncPlayerLogic = mock(IAsyncPlayerLogic.class, "asyncPlayerLogic");
+
+    private IPlayerLogic fallbackPlayerLogic = mock(IPlayerLogic.class, "fallbackPlayerLogic");
+
+    private ILogicCallback logicCallback = mock(ILogicCallback.class, "logicCallback");
+
+    private IReadOnlyGameBoard gameBoard = mock(IReadOnlyGameBoard.class, "gameBoard");
+
+    private ScheduledExecutorService scheduler;
+
+    // The tasks of the game thread:
+    private BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+
+
+    @Before
+    public void setUp() {
+        when(asyncPlayerLogic.getPlayer()).thenReturn(player);
+        when(fallbackPlayerLogic.getPlayer()).thenReturn(player);
+        when(gameBoard.isFieldEmpty(anyInt())).thenReturn(true);
+        when(logicCallback.makeMove(anyInt(), eq(player))).thenReturn(mock(MoveOutcome.class));
+        scheduler = newSingleThreadScheduledExecutor();
+        deadlinePlayerLogic = new DeadlinePlayerLogic(asyncPlayerLogic, fallbackPlayerLogic, 50,
+                MILLISECONDS, scheduler, tasks::add);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+
+    /* Runs the tasks of the game thread, which are already scheduled. */
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null)
+            task.run();
+    }
+
+    /* Waits for the next task of the game thread and runs it. */
+    private void awaitAndRunTask() throws InterruptedException {
+        Runnable task = tasks.poll(5, SECONDS);
+        assertNotNull(task);
+        task.run();
+    }
+
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullAsyncPlayerLogic_throwsException() {
+        new DeadlinePlayerLogic(null, fallbackPlayerLogic, 50, MILLISECONDS, scheduler, tasks::add);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullFallbackPlayerLogic_throwsException() {
+        new DeadlinePlayerLogic(asyncPlayerLogic, null, 50, MILLISECONDS, scheduler, tasks::add);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void new_withFallbackPlayerLogicOfOtherPlayer_throwsException() {
+        when(fallbackPlayerLogic.getPlayer()).thenReturn(mock(Player.class, "otherPlayer"));
+        new DeadlinePlayerLogic(asyncPlayerLogic, fallbackPlayerLogic, 50, MILLISECONDS, scheduler, tasks::add);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullExecutor_throwsException() {
+        new DeadlinePlayerLogic(asyncPlayerLogic, fallbackPlayerLogic, 50, MILLISECONDS, scheduler, null);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void new_withDeadline0_throwsException() {
+        new DeadlinePlayerLogic(asyncPlayerLogic, fallbackPlayerLogic, 0, MILLISECONDS, scheduler, tasks::add);
+    }
+
+    @Test
+    public void new_withoutFallbackPlayerLogic_usesPlayerOfAsyncPlayerLogic() {
+        assertTrue(new DeadlinePlayerLogic(asyncPlayerLogic, 50, MILLISECONDS, scheduler, tasks::add).getPlayer() == player);
+    }
+
+    @Test
+    public void requestMove_withCompletedMove_makesMove() {
+        when(asyncPlayerLogic.computeMove(gameBoard)).thenReturn(completedFuture(12));
+
+        deadlinePlayerLogic.requestMove(gameBoard, logicCallback);
+        verify(logicCallback, never()).makeMove(12, player);
+        runTasks();
+
+        verify(logicCallback, times(1)).makeMove(12, player);
+        verify(fallbackPlayerLogic, never()).requestMove(gameBoard, logicCallback);
+    }
+
+    @Test
+    public void requestMove_withMoveCompletedBeforeDeadline_makesMove() {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        when(asyncPlayerLogic.computeMove(gameBoard)).thenReturn(future);
+
+        deadlinePlayerLogic.requestMove(gameBoard, logicCallback);
+        verify(logicCallback, never()).makeMove(anyInt(), eq(player));
+
+        future.complete(5);
+        runTasks();
+        verify(logicCallback, times(1)).makeMove(5, player);
+        verify(fallbackPlayerLogic, never()).requestMove(gameBoard, logicCallback);
+    }
+
+    @Test
+    public void requestMove_withMoveNotCompletedBeforeDeadline_cancelsMoveAndRequestsFallbackMove() throws InterruptedException {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        when(asyncPlayerLogic.computeMove(gameBoard)).thenReturn(future);
+
+        deadlinePlayerLogic.requestMove(gameBoard, logicCallback);
+        awaitAndRunTask();
+
+        verify(fallbackPlayerLogic, times(1)).requestMove(gameBoard, logicCallback);
+        assertTrue(future.isCancelled());
+        verify(logicCallback, never()).makeMove(anyInt(), eq(player));
+    }
+
+    @Test
+    public void cancelMove_withPendingMove_cancelsMoveWithoutFallbackMove() {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        when(asyncPlayerLogic.computeMove(gameBoard)).thenReturn(future);
+        deadlinePlayerLogic.requestMove(gameBoard, logicCallback);
+
+        deadlinePlayerLogic.cancelMove();
+        runTasks();
+
+        assertTrue(future.isCancelled());
+        verify(fallbackPlayerLogic, times(1)).cancelMove();
+        verify(fallbackPlayerLogic, never()).requestMove(gameBoard, logicCallback);
+        verify(logicCallback, never()).makeMove(anyInt(), eq(player));
+    }
+
+    @Test
+    public void requestMove_withFailedMove_requestsFallbackMove() {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        future.completeExceptionally(new IllegalStateException("engine failed"));
+        when(asyncPlayerLogic.computeMove(gameBoard)).thenReturn(future);
+
+        deadlinePlayerLogic.requestMove(gameBoard, logicCallback);
+        runTasks();
+
+        verify(fallbackPlayerLogic, times(1)).requestMove(gameBoard, logicCallback);
+    }
+
+    @Test
+    public void requestMove_withExceptionOnComputeMove_requestsFallbackMove() {
+        when(asyncPlayerLogic.computeMove(gameBoard)).thenThrow(new IllegalStateException("engine failed"));
+
+        deadlinePlayerLogic.requestMove(gameBoard, logicCallback);
+
+        verify(fallbackPlayerLogic, times(1)).requestMove(gameBoard, logicCallback);
+    }
+
+    @Test
+    public void requestMove_withMoveOnOccupiedField_requestsFallbackMove() {
+        when(gameBoard.isFieldEmpty(7)).thenReturn(false);
+        when(asyncPlayerLogic.computeMove(gameBoard)).thenReturn(completedFuture(7));
+
+        deadlinePlayerLogic.requestMove(gameBoard, logicCallback);
+        runTasks();
+
+        verify(logicCallback, never()).makeMove(7, player);
+        verify(fallbackPlayerLogic, times(1)).requestMove(gameBoard, logicCallback);
+    }
+
+    @Test
+    public void requestMove_withInvalidIndex_requestsFallbackMove() {
+        when(asyncPlayerLogic.computeMove(gameBoard)).thenReturn(completedFuture(64));
+
+        deadlinePlayerLogic.requestMove(gameBoard, logicCallback);
+        runTasks();
+
+        verify(logicCallback, never()).makeMove(64, player);
+        verify(fallbackPlayerLogic, times(1)).requestMove(gameBoard, logicCallback);
+    }
+
+    @Test
+    public void requestMove_withMoveCompletedAfterDeadline_ignoresMove() throws InterruptedException {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        when(asyncPlayerLogic.computeMove(gameBoard)).thenReturn(future);
+
+        deadlinePlayerLogic.requestMove(gameBoard, logicCallback);
+        awaitAndRunTask();
+        verify(fallbackPlayerLogic, times(1)).requestMove(gameBoard, logicCallback);
+
+        future.complete(5);
+        runTasks();
+        verify(logicCallback, never()).makeMove(5, player);
+    }
+
+    @Test
+    public void requestMove_withMoveCancelledBeforeGameThreadRunsMove_makesNoMove() {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        when(asyncPlayerLogic.computeMove(gameBoard)).thenReturn(future);
+        deadlinePlayerLogic.requestMove(gameBoard, logicCallback);
+        future.complete(5);
+
+        deadlinePlayerLogic.cancelMove();
+        runTasks();
+
+        verify(logicCallback, never()).makeMove(5, player);
+        verify(fallbackPlayerLogic, never()).requestMove(gameBoard, logicCallback);
+    }
+
+    @Test
+    public void requestMove_withFailingMove_throwsExceptionOnGameThread() {
+        IllegalStateException failure = new IllegalStateException("move failed");
+        when(logicCallback.makeMove(5, player)).thenThrow(failure);
+        when(asyncPlayerLogic.computeMove(gameBoard)).thenReturn(completedFuture(5));
+        deadlinePlayerLogic.requestMove(gameBoard, logicCallback);
+
+        try {
+            runTasks();
+            fail("Exception expected!");
+        } catch (IllegalStateException e) {
+            assertSame(failure, e);
+        }
+    }
+
+    @Test
+    public void requestMove_withRejectingExecutor_reportsExceptionToUncaughtExceptionHandler() {
+        IllegalStateException failure = new IllegalStateException("executor rejected");
+        deadlinePlayerLogic = new DeadlinePlayerLogic(asyncPlayerLogic, fallbackPlayerLogic, 50,
+                MILLISECONDS, scheduler, command -> { throw failure; });
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        when(asyncPlayerLogic.computeMove(gameBoard)).thenReturn(future);
+        deadlinePlayerLogic.requestMove(gameBoard, logicCallback);
+
+        Thread.UncaughtExceptionHandler handler = Thread.currentThread().getUncaughtExceptionHandler();
+        Throwable[] reported = new Throwable[1];
+        Thread.currentThread().setUncaughtExceptionHandler((thread, e) -> reported[0] = e);
+        try {
+            future.complete(5);
+        } finally {
+            Thread.currentThread().setUncaughtExceptionHandler(handler);
+        }
+
+        assertSame(failure, reported[0]);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void requestMove_withNullGameBoard_throwsException() {
+        deadlinePlayerLogic.requestMove(null, logicCallback);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void requestMove_withNullLogicCallback_throwsException() {
+        deadlinePlayerLogic.requestMove(gameBoard, null);
+    }
+
+}
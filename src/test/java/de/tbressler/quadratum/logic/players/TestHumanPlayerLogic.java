@@ -1,13 +1,19 @@
 package de.tbressler.quadratum.logic.players;
 
+import de.tbressler.quadratum.logic.GameLogic;
 import de.tbressler.quadratum.logic.ILogicCallback;
+import de.tbressler.quadratum.logic.MoveOutcome;
+import de.tbressler.quadratum.model.GameBoard;
 import de.tbressler.quadratum.model.IReadOnlyGameBoard;
 import de.tbressler.quadratum.model.Player;
 import org.junit.Before;
 import org.junit.Test;
 
-import static org.junit.Assert.assertFalse;
-import static org.junit.Assert.assertTrue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 /**
@@ -80,7 +86,7 @@ public class TestHumanPlayerLogic {
     @Test
     public void placePiece_whenPlayerIsActiveAndCallbackReturnsTrue_returnsTrue() {
         humanPlayerLogic.requestMove(gameBoard, logicCallback);
-        when(logicCallback.makeMove(1, player)).thenReturn(true);
+        when(logicCallback.makeMove(1, player)).thenReturn(mock(MoveOutcome.class));
 
         assertTrue(humanPlayerLogic.placePiece(1));
         verify(logicCallback, times(1)).makeMove(1, player);
@@ -89,12 +95,22 @@ public class TestHumanPlayerLogic {
     @Test
     public void placePiece_whenPlayerIsActiveAndCallbackReturnsFalse_returnsFalse() {
         humanPlayerLogic.requestMove(gameBoard, logicCallback);
-        when(logicCallback.makeMove(1, player)).thenReturn(false);
+        when(logicCallback.makeMove(1, player)).thenReturn(null);
 
         assertFalse(humanPlayerLogic.placePiece(1));
         verify(logicCallback, times(1)).makeMove(1, player);
     }
 
+    @Test
+    public void placePiece_afterCancelMove_returnsFalse() {
+        humanPlayerLogic.requestMove(gameBoard, logicCallback);
+        humanPlayerLogic.cancelMove();
+
+        assertFalse(humanPlayerLogic.isPlayerActive());
+        assertFalse(humanPlayerLogic.placePiece(1));
+        verify(logicCallback, never()).makeMove(1, player);
+    }
+
     @Test(expected = AssertionError.class)
     public void placePiece_withIndexLowerThan0_throwsException() {
         humanPlayerLogic.requestMove(gameBoard, logicCallback);
@@ -114,4 +130,268 @@ public class TestHumanPlayerLogic {
         humanPlayerLogic.requestMove(gameBoard, null);
     }
 
+
+    @Test
+    public void placePiece_whenCallbackThrowsException_deactivatesPlayer() {
+        humanPlayerLogic.requestMove(gameBoard, logicCallback);
+        when(logicCallback.makeMove(1, player)).thenThrow(new AssertionError("Game is not started!"));
+
+        try {
+            humanPlayerLogic.placePiece(1);
+            fail("Exception expected!");
+        } catch (AssertionError e) {
+            // Expected.
+        }
+        assertFalse(humanPlayerLogic.isPlayerActive());
+    }
+
+    @Test
+    public void placePiece_whenNextMoveIsRequestedDuringMove_keepsPlayerActive() {
+        humanPlayerLogic.requestMove(gameBoard, (index, p) -> {
+            humanPlayerLogic.requestMove(gameBoard, logicCallback);
+            return mock(MoveOutcome.class);
+        });
+
+        assertTrue(humanPlayerLogic.placePiece(1));
+        assertTrue(humanPlayerLogic.isPlayerActive());
+    }
+
+    @Test
+    public void placePiece_fromManyThreads_makesOneMove() throws InterruptedException {
+        AtomicInteger moves = new AtomicInteger(0);
+        MoveOutcome outcome = mock(MoveOutcome.class);
+        humanPlayerLogic.requestMove(gameBoard, (index, p) -> {
+            moves.incrementAndGet();
+            return outcome;
+        });
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger placedPieces = new AtomicInteger(0);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            int index = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (humanPlayerLogic.placePiece(index))
+                    placedPieces.incrementAndGet();
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(1, moves.get());
+        assertEquals(1, placedPieces.get());
+        assertFalse(humanPlayerLogic.isPlayerActive());
+    }
+
+
+    @Test
+    public void requestMove_whileMoveIsCancelled_keepsCallbackOfActiveTurn() throws Exception {
+        MoveOutcome outcome = mock(MoveOutcome.class);
+        when(logicCallback.makeMove(anyInt(), eq(player))).thenReturn(outcome);
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        Thread canceller = new Thread(() -> {
+            try {
+                for (int i = 0; i < 20000; i++) {
+                    barrier.await();
+                    humanPlayerLogic.cancelMove();
+                    barrier.await();
+                }
+            } catch (Exception e) {
+                // Test is over.
+            }
+        });
+        canceller.start();
+
+        try {
+            for (int i = 0; i < 20000; i++) {
+                humanPlayerLogic.requestMove(gameBoard, logicCallback);
+                barrier.await();
+                humanPlayerLogic.requestMove(gameBoard, logicCallback);
+                barrier.await();
+                // An active turn must be able to make its move:
+                if (humanPlayerLogic.isPlayerActive())
+                    assertTrue(humanPlayerLogic.placePiece(0));
+            }
+        } finally {
+            canceller.interrupt();
+            canceller.join();
+        }
+    }
+
+
+    @Test(expected = AssertionError.class)
+    public void premove_withIndexGreaterThan63_throwsException() {
+        humanPlayerLogic.premove(64);
+    }
+
+    @Test
+    public void premove_whenPlayerNotActive_makesMoveOnRequest() {
+        when(gameBoard.isFieldEmpty(5)).thenReturn(true);
+        when(logicCallback.makeMove(5, player)).thenReturn(mock(MoveOutcome.class));
+
+        assertTrue(humanPlayerLogic.premove(5));
+        assertEquals(1, humanPlayerLogic.getPremoveCount());
+        verify(logicCallback, never()).makeMove(5, player);
+
+        humanPlayerLogic.requestMove(gameBoard, logicCallback);
+
+        verify(logicCallback, times(1)).makeMove(5, player);
+        assertFalse(humanPlayerLogic.isPlayerActive());
+        assertEquals(0, humanPlayerLogic.getPremoveCount());
+    }
+
+    @Test
+    public void premove_withNotEmptyField_makesNextPremove() {
+        when(gameBoard.isFieldEmpty(5)).thenReturn(false);
+        when(gameBoard.isFieldEmpty(6)).thenReturn(true);
+        when(logicCallback.makeMove(6, player)).thenReturn(mock(MoveOutcome.class));
+
+        humanPlayerLogic.premove(5);
+        humanPlayerLogic.premove(6);
+        humanPlayerLogic.premove(7);
+        humanPlayerLogic.requestMove(gameBoard, logicCallback);
+
+        verify(logicCallback, never()).makeMove(5, player);
+        verify(logicCallback, times(1)).makeMove(6, player);
+        assertEquals(1, humanPlayerLogic.getPremoveCount());
+    }
+
+    @Test
+    public void premove_withOnlyNotEmptyFields_keepsPlayerActive() {
+        when(gameBoard.isFieldEmpty(5)).thenReturn(false);
+
+        humanPlayerLogic.premove(5);
+        humanPlayerLogic.requestMove(gameBoard, logicCallback);
+
+        verify(logicCallback, never()).makeMove(5, player);
+        assertTrue(humanPlayerLogic.isPlayerActive());
+        assertEquals(0, humanPlayerLogic.getPremoveCount());
+    }
+
+    @Test
+    public void premove_whenPlayerActive_makesMoveImmediately() {
+        when(gameBoard.isFieldEmpty(5)).thenReturn(true);
+        when(logicCallback.makeMove(5, player)).thenReturn(mock(MoveOutcome.class));
+        humanPlayerLogic.requestMove(gameBoard, logicCallback);
+
+        assertTrue(humanPlayerLogic.premove(5));
+
+        verify(logicCallback, times(1)).makeMove(5, player);
+        assertFalse(humanPlayerLogic.isPlayerActive());
+    }
+
+    @Test
+    public void premove_withFullQueue_returnsFalse() {
+        for (int i = 0; i < HumanPlayerLogic.MAX_PREMOVES; i++)
+            assertTrue(humanPlayerLogic.premove(i));
+
+        assertFalse(humanPlayerLogic.premove(1));
+        assertEquals(HumanPlayerLogic.MAX_PREMOVES, humanPlayerLogic.getPremoveCount());
+    }
+
+    @Test
+    public void clearPremoves_removesPremoves() {
+        humanPlayerLogic.premove(5);
+        humanPlayerLogic.clearPremoves();
+        humanPlayerLogic.requestMove(gameBoard, logicCallback);
+
+        verify(logicCallback, never()).makeMove(anyInt(), eq(player));
+        assertTrue(humanPlayerLogic.isPlayerActive());
+    }
+
+    @Test
+    public void cancelMove_removesPremoves() {
+        humanPlayerLogic.premove(5);
+        humanPlayerLogic.cancelMove();
+
+        assertEquals(0, humanPlayerLogic.getPremoveCount());
+        humanPlayerLogic.requestMove(gameBoard, logicCallback);
+        verify(logicCallback, never()).makeMove(anyInt(), eq(player));
+    }
+
+    @Test
+    public void premove_whenConcurrentMoveWinsTurn_keepsPremoveForNextTurn() {
+        when(logicCallback.makeMove(anyInt(), eq(player))).thenReturn(mock(MoveOutcome.class));
+        when(gameBoard.isFieldEmpty(5)).thenAnswer(invocation -> {
+            // A concurrent move wins the turn, after the premove was polled:
+            assertTrue(humanPlayerLogic.placePiece(1));
+            return true;
+        }).thenReturn(true);
+        humanPlayerLogic.requestMove(gameBoard, logicCallback);
+
+        assertTrue(humanPlayerLogic.premove(5));
+
+        verify(logicCallback, times(1)).makeMove(1, player);
+        verify(logicCallback, never()).makeMove(5, player);
+        assertEquals(1, humanPlayerLogic.getPremoveCount());
+
+        humanPlayerLogic.requestMove(gameBoard, logicCallback);
+
+        verify(logicCallback, times(1)).makeMove(5, player);
+        assertEquals(0, humanPlayerLogic.getPremoveCount());
+    }
+
+    @Test
+    public void premove_inGame_withTakeback_removesPremoves() {
+        Player player1 = new Player("player1");
+        Player player2 = new Player("player2");
+        GameBoard board = new GameBoard(player1, player2);
+        HumanPlayerLogic logic1 = new HumanPlayerLogic(player1);
+        HumanPlayerLogic logic2 = new HumanPlayerLogic(player2);
+        GameLogic gameLogic = new GameLogic(board, logic1, logic2);
+        gameLogic.startGame(player1);
+        assertTrue(logic1.placePiece(1));
+
+        logic1.premove(2);
+        assertTrue(gameLogic.takeback());
+
+        assertEquals(0, logic1.getPremoveCount());
+        assertNull(board.getPiece(2));
+        assertTrue(logic1.isPlayerActive());
+    }
+
+    @Test
+    public void premove_inGame_withNewGame_removesPremoves() {
+        Player player1 = new Player("player1");
+        Player player2 = new Player("player2");
+        GameBoard board = new GameBoard(player1, player2);
+        HumanPlayerLogic logic1 = new HumanPlayerLogic(player1);
+        HumanPlayerLogic logic2 = new HumanPlayerLogic(player2);
+        GameLogic gameLogic = new GameLogic(board, logic1, logic2);
+        gameLogic.startGame(player1);
+
+        logic2.premove(2);
+        gameLogic.startGame(player2);
+
+        assertEquals(0, logic2.getPremoveCount());
+        assertNull(board.getPiece(2));
+        assertTrue(logic2.isPlayerActive());
+    }
+
+    @Test
+    public void premove_inGame_makesMoveWhenOpponentHasMoved() {
+        Player player1 = new Player("player1");
+        Player player2 = new Player("player2");
+        GameBoard board = new GameBoard(player1, player2);
+        HumanPlayerLogic logic1 = new HumanPlayerLogic(player1);
+        HumanPlayerLogic logic2 = new HumanPlayerLogic(player2);
+        GameLogic gameLogic = new GameLogic(board, logic1, logic2);
+        gameLogic.startGame(player1);
+
+        logic2.premove(1);
+        logic2.premove(2);
+        assertTrue(logic1.placePiece(1));
+
+        assertEquals(player2, board.getPiece(2));
+        assertEquals(player1, gameLogic.getActivePlayer());
+        assertTrue(logic1.isPlayerActive());
+    }
+
 }
@@ -0,0 +1,86 @@
+package de.tbressler.quadratum.logic.players;
+
+import de.tbressler.quadratum.logic.players.BotPlayerLogic.Strategy;
+import de.tbressler.quadratum.model.GameBoard;
+import de.tbressler.quadratum.model.Player;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static de.tbressler.quadratum.logic.players.BotPlayerLogic.Strategy.LONG_TERM;
+import static de.tbressler.quadratum.logic.players.BotPlayerLogic.Strategy.SHORT_TERM;
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Tests for class IncrementalHeatMaps.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestIncrementalHeatMaps {
+
+    private Player player = new Player("player");
+    private Player opponent = new Player("opponent");
+
+    private GameBoard gameBoard = new GameBoard(player, opponent);
+
+
+    /* Checks that the heat maps are the same as the heat maps of the whole game board. */
+    private void assertHeatMaps(IncrementalHeatMaps heatMaps, Strategy strategy) {
+        int[] playerHeatMap = new int[64];
+        int[] opponentHeatMap = new int[64];
+        new BotPlayerLogic(player, strategy).computeHeatMaps(gameBoard, playerHeatMap, opponentHeatMap);
+
+        assertArrayEquals(playerHeatMap, heatMaps.getPlayerHeatMap());
+        assertArrayEquals(opponentHeatMap, heatMaps.getOpponentHeatMap());
+    }
+
+    /* Places and removes random pieces and checks the heat maps after every change. */
+    private void playRandomMoves(Strategy strategy) {
+        gameBoard.placePiece(0, player);
+        gameBoard.placePiece(9, opponent);
+        IncrementalHeatMaps heatMaps = new IncrementalHeatMaps(gameBoard, player, strategy);
+        gameBoard.addGameBoardListener(heatMaps);
+        assertHeatMaps(heatMaps, strategy);
+
+        Random random = new Random(42);
+        for (int move = 0; move < 200; move++) {
+            int index = random.nextInt(64);
+            if (gameBoard.isFieldEmpty(index))
+                gameBoard.placePiece(index, random.nextBoolean() ? player : opponent);
+            else
+                gameBoard.removePiece(index);
+            assertHeatMaps(heatMaps, strategy);
+        }
+
+        gameBoard.clear();
+        assertHeatMaps(heatMaps, strategy);
+    }
+
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullGameBoard_throwsException() {
+        new IncrementalHeatMaps(null, player, LONG_TERM);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullPlayer_throwsException() {
+        new IncrementalHeatMaps(gameBoard, null, LONG_TERM);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullStrategy_throwsException() {
+        new IncrementalHeatMaps(gameBoard, player, null);
+    }
+
+    @Test
+    public void heatMaps_withLongTerm_equalHeatMapsOfGameBoard() {
+        playRandomMoves(LONG_TERM);
+    }
+
+    @Test
+    public void heatMaps_withShortTerm_equalHeatMapsOfGameBoard() {
+        playRandomMoves(SHORT_TERM);
+    }
+
+}
@@ -0,0 +1,182 @@
+package de.tbressler.quadratum.logic.players;
+
+import de.tbressler.quadratum.logic.ILogicCallback;
+import de.tbressler.quadratum.model.GameBoard;
+import de.tbressler.quadratum.model.Player;
+import de.tbressler.quadratum.search.MonteCarloTreeSearch.PlayoutPolicy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+/**
+ * Tests for class MonteCarloPlayerLogic.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestMonteCarloPlayerLogic {
+
+    // Class under test:
+    private MonteCarloPlayerLogic monteCarloPlayerLogic;
+
+    // Mocks:
+    private ILogicCallback logicCallback = mock(ILogicCallback.class, "logicCallback");
+
+    private Player player = new Player("player");
+    private Player opponent = new Player("opponent");
+
+    private GameBoard gameBoard = new GameBoard(player, opponent);
+
+    private ForkJoinPool pool = new ForkJoinPool(2);
+
+
+    @Before
+    public void setUp() {
+        monteCarloPlayerLogic = new MonteCarloPlayerLogic(player, 2, 200, MILLISECONDS, pool);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullPlayer_throwsException() {
+        new MonteCarloPlayerLogic(null, 1, 1, MILLISECONDS, pool);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void new_with0Workers_throwsException() {
+        new MonteCarloPlayerLogic(player, 0, 1, MILLISECONDS, pool);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void new_withTimeBudget0_throwsException() {
+        new MonteCarloPlayerLogic(player, 1, 0, MILLISECONDS, pool);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullUnit_throwsException() {
+        new MonteCarloPlayerLogic(player, 1, 1, null, pool);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullPool_throwsException() {
+        new MonteCarloPlayerLogic(player, 1, 1, MILLISECONDS, null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullPolicy_throwsException() {
+        new MonteCarloPlayerLogic(player, 1, 1, MILLISECONDS, pool, null);
+    }
+
+    @Test
+    public void getWorkerCount_returnsWorkers() {
+        assertEquals(2, monteCarloPlayerLogic.getWorkerCount());
+    }
+
+    @Test(expected = AssertionError.class)
+    public void setMaxIterations_with0_throwsException() {
+        monteCarloPlayerLogic.setMaxIterations(0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void requestMove_withNullGameBoard_throwsException() {
+        monteCarloPlayerLogic.requestMove(null, logicCallback);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void requestMove_withNullCallback_throwsException() {
+        monteCarloPlayerLogic.requestMove(gameBoard, null);
+    }
+
+    @Test
+    public void requestMove_makesMoveAtEmptyField() {
+        gameBoard.placePiece(0, player);
+        gameBoard.placePiece(7, opponent);
+
+        monteCarloPlayerLogic.requestMove(gameBoard, logicCallback);
+
+        ArgumentCaptor<Integer> index = ArgumentCaptor.forClass(Integer.class);
+        verify(logicCallback).makeMove(index.capture(), eq(player));
+        assertTrue(gameBoard.isFieldEmpty(index.getValue()));
+        assertTrue(monteCarloPlayerLogic.getIterationCount() > 0);
+    }
+
+    @Test
+    public void requestMove_withOneEmptyField_makesMoveAtField() {
+        for (int i = 0; i < 63; i++)
+            gameBoard.placePiece(i, (i % 2 == 0) ? player : opponent);
+
+        new MonteCarloPlayerLogic(player, 1, 10, MILLISECONDS, pool, PlayoutPolicy.RANDOM)
+                .requestMove(gameBoard, logicCallback);
+
+        verify(logicCallback).makeMove(63, player);
+    }
+
+    @Test
+    public void requestMove_withMaxIterations_stopsWorkersAfterMaxIterations() {
+        monteCarloPlayerLogic = new MonteCarloPlayerLogic(player, 2, 60, SECONDS, pool);
+        monteCarloPlayerLogic.setMaxIterations(100);
+
+        monteCarloPlayerLogic.requestMove(gameBoard, logicCallback);
+
+        assertEquals(200, monteCarloPlayerLogic.getIterationCount());
+    }
+
+    @Test
+    public void requestMove_withSameSeedAndMaxIterations_makesSameMove() {
+        gameBoard.placePiece(0, player);
+        gameBoard.placePiece(7, opponent);
+        ArgumentCaptor<Integer> index = ArgumentCaptor.forClass(Integer.class);
+
+        for (int i = 0; i < 2; i++) {
+            monteCarloPlayerLogic = new MonteCarloPlayerLogic(player, 2, 60, SECONDS, pool);
+            monteCarloPlayerLogic.setMaxIterations(500);
+            monteCarloPlayerLogic.setSeed(42);
+            monteCarloPlayerLogic.requestMove(gameBoard, logicCallback);
+        }
+
+        verify(logicCallback, times(2)).makeMove(index.capture(), eq(player));
+        assertEquals(index.getAllValues().get(0), index.getAllValues().get(1));
+    }
+
+    @Test
+    public void requestMove_afterCancelMove_makesNoMove() throws InterruptedException {
+        Thread thread = new Thread(() -> monteCarloPlayerLogic.requestMove(gameBoard, logicCallback));
+        thread.start();
+        Thread.sleep(50);
+
+        monteCarloPlayerLogic.cancelMove();
+        thread.join();
+
+        verifyZeroInteractions(logicCallback);
+    }
+
+    @Test
+    public void requestMove_afterCancelMoveOfLastMove_makesMove() {
+        monteCarloPlayerLogic.setMaxIterations(100);
+        monteCarloPlayerLogic.cancelMove();
+
+        monteCarloPlayerLogic.requestMove(gameBoard, logicCallback);
+
+        verify(logicCallback).makeMove(anyInt(), eq(player));
+        assertEquals(200, monteCarloPlayerLogic.getIterationCount());
+    }
+
+}
@@ -131,6 +131,34 @@ public class TestGameBoard {
     }
 
 
+    /**
+     * Checks if removePiece() removes the piece and notifies all game board listeners.
+     */
+    @Test
+    public void removePiece_notifiesListeners_onPieceRemoved() {
+        gameBoard.placePiece(10, player2);
+        gameBoard.removePiece(10);
+        assertEquals(true, gameBoard.isFieldEmpty(10));
+        verify(listener, times(1)).onPieceRemoved(10, player2);
+    }
+
+    /**
+     * Checks if an exception is thrown if the given field index is empty.
+     */
+    @Test(expected = AssertionError.class)
+    public void removePiece_ifFieldIsEmpty_throwsException() {
+        gameBoard.removePiece(10);
+    }
+
+    /**
+     * Checks if an exception is thrown if the given field index is greater than 63.
+     */
+    @Test(expected = AssertionError.class)
+    public void removePiece_withGreaterThan63_throwsException() {
+        gameBoard.removePiece(64);
+    }
+
+
     /**
      * Checks if all fields are empty after game board was initialized.
      */
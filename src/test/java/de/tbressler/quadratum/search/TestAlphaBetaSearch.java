@@ -0,0 +1,154 @@
+package de.tbressler.quadratum.search;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static de.tbressler.quadratum.utils.GameBoardUtils.toBitMask;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for class AlphaBetaSearch.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestAlphaBetaSearch {
+
+    // Class under test:
+    private AlphaBetaSearch search;
+
+    private SearchBoard board = new SearchBoard(150, 15);
+
+
+    @Before
+    public void setUp() {
+        search = new AlphaBetaSearch();
+    }
+
+
+    @Test(expected = NullPointerException.class)
+    public void findBestMove_withNullBoard_throwsException() {
+        search.findBestMove(null, 1, 1);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void findBestMove_withMaxDepth0_throwsException() {
+        search.findBestMove(board, 0, 1);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void findBestMove_withFullBoard_throwsException() {
+        long columns = 0x5555555555555555L;
+        board.set(columns, ~columns, 0);
+        search.findBestMove(board, 1, 1);
+    }
+
+    @Test
+    public void findBestMove_withOpenSquare_completesSquare() {
+        board.set(toBitMask(0, 7, 56), toBitMask(20, 21), 0);
+
+        assertEquals(63, search.findBestMove(board, 4, SECONDS.toNanos(5)));
+        assertEquals(4, search.getCompletedDepth());
+    }
+
+    @Test
+    public void findBestMove_withOpenSquareOfOpponent_blocksSquare() {
+        board.set(toBitMask(20, 22), toBitMask(0, 7, 56), 0);
+
+        assertEquals(63, search.findBestMove(board, 4, SECONDS.toNanos(5)));
+    }
+
+    @Test
+    public void findBestMove_withWinningMove_returnsWinScore() {
+        board = new SearchBoard(4, 1);
+        board.set(toBitMask(0, 7, 56), toBitMask(20, 21), 0);
+
+        assertEquals(63, search.findBestMove(board, 8, SECONDS.toNanos(5)));
+        assertTrue(search.getBestScore() > SearchBoard.WIN_SCORE - AlphaBetaSearch.MAX_DEPTH);
+    }
+
+    @Test
+    public void findBestMove_restoresBoard() {
+        board.set(toBitMask(0, 7, 56), toBitMask(20, 21), 1);
+        int evaluation = board.evaluate();
+
+        search.findBestMove(board, 3, SECONDS.toNanos(5));
+
+        assertEquals(toBitMask(0, 7, 56), board.getPieces(0));
+        assertEquals(toBitMask(20, 21), board.getPieces(1));
+        assertEquals(1, board.getSide());
+        assertEquals(0, board.getPly());
+        assertEquals(evaluation, board.evaluate());
+        assertTrue(search.getNodeCount() > 0);
+    }
+
+    @Test
+    public void findBestMove_withTranspositionTable_returnsSameMoveWithFewerNodes() {
+        board.set(toBitMask(0, 9, 20), toBitMask(10, 29), 0);
+        int move = search.findBestMove(board, 5, SECONDS.toNanos(60));
+        int score = search.getBestScore();
+        long nodes = search.getNodeCount();
+
+        search.setTranspositionTable(new TranspositionTable(4));
+        assertEquals(move, search.findBestMove(board, 5, SECONDS.toNanos(60)));
+        assertEquals(score, search.getBestScore());
+        assertTrue(search.getNodeCount() < nodes);
+    }
+
+    @Test
+    public void searchUntil_asHelper_completesSquare() {
+        search.setHelper(3);
+        board.set(toBitMask(0, 7, 56), toBitMask(20, 21), 0);
+
+        assertEquals(63, search.searchUntil(board, 4, System.nanoTime() + SECONDS.toNanos(5)));
+        assertEquals(4, search.getCompletedDepth());
+    }
+
+    @Test
+    public void isDepthSkipped_asMainSearch_searchesAllDepths() {
+        search.setHelper(0);
+
+        for (int depth = 1; depth <= AlphaBetaSearch.MAX_DEPTH; depth++)
+            assertFalse(search.isDepthSkipped(depth));
+    }
+
+    @Test
+    public void isDepthSkipped_with16Helpers_searchesDifferentDepths() {
+        Set<String> schedules = new HashSet<>();
+        for (int helper = 1; helper <= 16; helper++) {
+            search.setHelper(helper);
+            StringBuilder schedule = new StringBuilder();
+            for (int depth = 1; depth <= 16; depth++)
+                schedule.append(search.isDepthSkipped(depth) ? '-' : 'x');
+            schedules.add(schedule.toString());
+        }
+
+        assertEquals(16, schedules.size());
+    }
+
+    @Test
+    public void searchUntil_afterStop_returnsMove() {
+        board.set(0, 0, 0);
+        search.stop();
+
+        int move = search.searchUntil(board, AlphaBetaSearch.MAX_DEPTH, System.nanoTime() + SECONDS.toNanos(60));
+
+        assertTrue(board.isFieldEmpty(move));
+        assertTrue(search.getCompletedDepth() < AlphaBetaSearch.MAX_DEPTH);
+    }
+
+    @Test
+    public void findBestMove_withSmallTimeBudget_returnsMove() {
+        board.set(0, 0, 0);
+
+        int move = search.findBestMove(board, AlphaBetaSearch.MAX_DEPTH, 1);
+
+        assertTrue(board.isFieldEmpty(move));
+        assertTrue(search.getCompletedDepth() < AlphaBetaSearch.MAX_DEPTH);
+    }
+
+}
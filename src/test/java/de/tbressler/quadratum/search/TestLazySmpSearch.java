@@ -0,0 +1,134 @@
+package de.tbressler.quadratum.search;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static de.tbressler.quadratum.utils.GameBoardUtils.toBitMask;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for class LazySmpSearch.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestLazySmpSearch {
+
+    // Class under test:
+    private LazySmpSearch lazySmpSearch;
+
+    private ForkJoinPool pool = new ForkJoinPool(3);
+
+    private SearchBoard board = new SearchBoard(150, 15);
+
+
+    @Before
+    public void setUp() {
+        lazySmpSearch = new LazySmpSearch(4, pool);
+        lazySmpSearch.setTranspositionTable(new TranspositionTable(4));
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+
+    @Test(expected = AssertionError.class)
+    public void new_with0Threads_throwsException() {
+        new LazySmpSearch(0, pool);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullPool_throwsException() {
+        new LazySmpSearch(1, null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void findBestMove_withNullBoard_throwsException() {
+        lazySmpSearch.findBestMove(null, 1, 1);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void findBestMove_withTimeBudget0_throwsException() {
+        lazySmpSearch.findBestMove(board, 1, 0);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void findBestMove_withMaxDepth0_throwsException() {
+        lazySmpSearch.findBestMove(board, 0, 1);
+    }
+
+    @Test
+    public void getThreadCount_returnsThreads() {
+        assertEquals(4, lazySmpSearch.getThreadCount());
+    }
+
+    @Test
+    public void findBestMove_withOpenSquare_completesSquare() {
+        board.set(toBitMask(0, 7, 56), toBitMask(20, 21), 0);
+
+        assertEquals(63, lazySmpSearch.findBestMove(board, 4, SECONDS.toNanos(5)));
+        assertEquals(4, lazySmpSearch.getMainSearch().getCompletedDepth());
+    }
+
+    @Test
+    public void findBestMove_returnsSameMoveAsSingleSearch() {
+        board.set(toBitMask(0, 9, 20), toBitMask(10, 29), 0);
+        AlphaBetaSearch search = new AlphaBetaSearch();
+        int move = search.findBestMove(board, 5, SECONDS.toNanos(60));
+
+        assertEquals(move, lazySmpSearch.findBestMove(board, 5, SECONDS.toNanos(60)));
+        assertEquals(search.getBestScore(), lazySmpSearch.getMainSearch().getBestScore());
+    }
+
+    @Test
+    public void findBestMove_restoresBoard() {
+        board.set(toBitMask(0, 7, 56), toBitMask(20, 21), 1);
+        long hash = board.getHash();
+
+        lazySmpSearch.findBestMove(board, 3, SECONDS.toNanos(5));
+
+        assertEquals(hash, board.getHash());
+        assertEquals(0, board.getPly());
+    }
+
+    @Test
+    public void findBestMove_withHelpers_countsNodesOfAllThreads() {
+        board.set(0, 0, 0);
+
+        lazySmpSearch.findBestMove(board, AlphaBetaSearch.MAX_DEPTH, MILLISECONDS.toNanos(50));
+
+        assertTrue(lazySmpSearch.getNodeCount() > lazySmpSearch.getMainSearch().getNodeCount());
+    }
+
+    @Test
+    public void findBestMove_withoutTranspositionTable_runsMainSearchOnly() {
+        lazySmpSearch.setTranspositionTable(null);
+        board.set(0, 0, 0);
+
+        lazySmpSearch.findBestMove(board, AlphaBetaSearch.MAX_DEPTH, MILLISECONDS.toNanos(20));
+
+        assertEquals(lazySmpSearch.getMainSearch().getNodeCount(), lazySmpSearch.getNodeCount());
+    }
+
+    @Test
+    public void stop_stopsRunningSearch() throws InterruptedException {
+        board.set(0, 0, 0);
+        Thread thread = new Thread(() -> lazySmpSearch.findBestMove(board, AlphaBetaSearch.MAX_DEPTH,
+                SECONDS.toNanos(60)));
+        thread.start();
+        Thread.sleep(50);
+
+        lazySmpSearch.stop();
+        thread.join(SECONDS.toMillis(10));
+
+        assertFalse(thread.isAlive());
+    }
+
+}
@@ -0,0 +1,173 @@
+package de.tbressler.quadratum.search;
+
+import de.tbressler.quadratum.search.MonteCarloTreeSearch.PlayoutPolicy;
+import org.junit.Before;
+import org.junit.Test;
+
+import static de.tbressler.quadratum.utils.GameBoardUtils.toBitMask;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for class MonteCarloTreeSearch.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestMonteCarloTreeSearch {
+
+    // Class under test:
+    private MonteCarloTreeSearch search;
+
+    private SearchBoard board = new SearchBoard(4, 1);
+
+    private long[] rootVisits = new long[64];
+
+
+    @Before
+    public void setUp() {
+        search = new MonteCarloTreeSearch(1 << 16, PlayoutPolicy.HEAT, 42);
+    }
+
+
+    /* Returns the deadline after the given milliseconds. */
+    private static long deadlineIn(long millis) {
+        return System.nanoTime() + MILLISECONDS.toNanos(millis);
+    }
+
+    /* Returns the field with the most visits. */
+    private int mostVisited() {
+        int best = 0;
+        for (int i = 1; i < 64; i++)
+            if (rootVisits[i] > rootVisits[best])
+                best = i;
+        return best;
+    }
+
+
+    @Test(expected = AssertionError.class)
+    public void new_with64Nodes_throwsException() {
+        new MonteCarloTreeSearch(64, PlayoutPolicy.HEAT, 0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullPolicy_throwsException() {
+        new MonteCarloTreeSearch(1024, null, 0);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void setMaxIterations_with0_throwsException() {
+        search.setMaxIterations(0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void search_withNullBoard_throwsException() {
+        search.search(null, deadlineIn(1), rootVisits);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void search_withWrongRootVisits_throwsException() {
+        search.search(board, deadlineIn(1), new long[63]);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void search_withFullBoard_throwsException() {
+        long columns = 0x5555555555555555L;
+        board.set(columns, ~columns, 0);
+        search.search(board, deadlineIn(1), rootVisits);
+    }
+
+    @Test
+    public void search_withOpenSquare_visitsWinningMoveMost() {
+        board.set(toBitMask(0, 7, 56), toBitMask(20, 21), 0);
+
+        search.search(board, deadlineIn(200), rootVisits);
+
+        assertEquals(63, mostVisited());
+        assertTrue(search.getIterationCount() > 0);
+        assertTrue(search.getNodeCount() > 59);
+    }
+
+    @Test
+    public void search_withRandomPlayouts_visitsWinningMoveMost() {
+        board.set(toBitMask(0, 7, 56), toBitMask(20, 21), 0);
+
+        new MonteCarloTreeSearch(1 << 16, PlayoutPolicy.RANDOM, 42).search(board, deadlineIn(200), rootVisits);
+
+        assertEquals(63, mostVisited());
+    }
+
+    @Test
+    public void search_restoresBoard() {
+        board.set(toBitMask(0, 7, 56), toBitMask(20, 21), 0);
+        long hash = board.getHash();
+        long emptyFields = board.getEmptyFields();
+
+        search.search(board, deadlineIn(50), rootVisits);
+
+        assertEquals(hash, board.getHash());
+        assertEquals(emptyFields, board.getEmptyFields());
+        assertEquals(0, board.getSide());
+    }
+
+    @Test
+    public void search_addsVisitsOfEmptyFieldsOnly() {
+        board.set(toBitMask(0, 7, 56), toBitMask(20, 21), 0);
+        rootVisits[1] = 5;
+
+        search.search(board, deadlineIn(50), rootVisits);
+
+        assertEquals(0, rootVisits[0]);
+        assertEquals(0, rootVisits[20]);
+        assertTrue(rootVisits[1] > 5);
+    }
+
+    @Test
+    public void search_withMaxIterations_stopsAfterMaxIterations() {
+        board.set(toBitMask(0, 7, 56), toBitMask(20, 21), 0);
+        search.setMaxIterations(100);
+
+        search.search(board, deadlineIn(60000), rootVisits);
+
+        assertEquals(100, search.getIterationCount());
+    }
+
+    @Test
+    public void search_afterStop_stopsBeforeFirstIteration() {
+        board.set(toBitMask(0, 7, 56), toBitMask(20, 21), 0);
+        search.setMaxIterations(100);
+
+        search.stop();
+        search.search(board, deadlineIn(60000), rootVisits);
+
+        assertEquals(0, search.getIterationCount());
+    }
+
+    @Test
+    public void search_afterClearStop_searches() {
+        board.set(toBitMask(0, 7, 56), toBitMask(20, 21), 0);
+        search.setMaxIterations(100);
+
+        search.stop();
+        search.clearStop();
+        search.search(board, deadlineIn(60000), rootVisits);
+
+        assertEquals(100, search.getIterationCount());
+    }
+
+    @Test
+    public void search_withSameSeedAndMaxIterations_addsSameVisits() {
+        board.set(toBitMask(0, 7, 56), toBitMask(20, 21), 0);
+        search.setMaxIterations(500);
+        search.setSeed(7);
+        search.search(board, deadlineIn(60000), rootVisits);
+        long[] firstVisits = rootVisits.clone();
+
+        rootVisits = new long[64];
+        search.setSeed(7);
+        search.search(board, deadlineIn(60000), rootVisits);
+
+        assertArrayEquals(firstVisits, rootVisits);
+    }
+
+}
@@ -0,0 +1,188 @@
+package de.tbressler.quadratum.search;
+
+import de.tbressler.quadratum.model.GameBoard;
+import de.tbressler.quadratum.model.Player;
+import org.junit.Before;
+import org.junit.Test;
+
+import static de.tbressler.quadratum.search.SearchBoard.WIN_SCORE;
+import static de.tbressler.quadratum.utils.GameBoardUtils.toBitMask;
+import static de.tbressler.quadratum.utils.SquareTable.getScore;
+import static de.tbressler.quadratum.utils.SquareTable.indexOf;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for class SearchBoard.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestSearchBoard {
+
+    // Class under test:
+    private SearchBoard searchBoard;
+
+    // The score of the square 0, 1, 8, 9:
+    private final int squareScore = getScore(indexOf(new int[] {0, 1, 8, 9}));
+
+
+    @Before
+    public void setUp() {
+        searchBoard = new SearchBoard(150, 15);
+    }
+
+
+    @Test(expected = AssertionError.class)
+    public void new_withMinScore0_throwsException() {
+        new SearchBoard(0, 15);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void set_withOverlappingPieces_throwsException() {
+        searchBoard.set(toBitMask(0, 1), toBitMask(1), 0);
+    }
+
+    @Test
+    public void set_computesScoresOfCompletedSquares() {
+        searchBoard.set(toBitMask(0, 1, 8, 9), toBitMask(20), 1);
+
+        assertEquals(squareScore, searchBoard.getPlayerScore(0));
+        assertEquals(0, searchBoard.getPlayerScore(1));
+        assertEquals(1, searchBoard.getSide());
+    }
+
+    @Test
+    public void load_withGameBoard_setsPiecesAndSide() {
+        Player player1 = new Player("player1");
+        Player player2 = new Player("player2");
+        GameBoard gameBoard = new GameBoard(player1, player2);
+        gameBoard.placePiece(3, player1);
+        gameBoard.placePiece(5, player2);
+
+        searchBoard.load(gameBoard, player2);
+
+        assertEquals(toBitMask(3), searchBoard.getPieces(0));
+        assertEquals(toBitMask(5), searchBoard.getPieces(1));
+        assertEquals(1, searchBoard.getSide());
+        assertFalse(searchBoard.isFieldEmpty(3));
+        assertTrue(searchBoard.isFieldEmpty(4));
+    }
+
+    @Test
+    public void make_withCompletedSquare_returnsScore() {
+        searchBoard.set(toBitMask(0, 1, 8), toBitMask(20, 21), 0);
+
+        assertEquals(squareScore, searchBoard.make(9));
+        assertEquals(squareScore, searchBoard.getPlayerScore(0));
+        assertEquals(1, searchBoard.getSide());
+        assertEquals(1, searchBoard.getPly());
+    }
+
+    @Test
+    public void unmake_restoresPositionAndEvaluation() {
+        searchBoard.set(toBitMask(0, 1, 8), toBitMask(20, 21), 0);
+        int evaluation = searchBoard.evaluate();
+
+        searchBoard.make(9);
+        searchBoard.make(22);
+        searchBoard.unmake(22);
+        searchBoard.unmake(9);
+
+        assertEquals(toBitMask(0, 1, 8), searchBoard.getPieces(0));
+        assertEquals(toBitMask(20, 21), searchBoard.getPieces(1));
+        assertEquals(0, searchBoard.getPlayerScore(0));
+        assertEquals(0, searchBoard.getSide());
+        assertEquals(0, searchBoard.getPly());
+        assertEquals(evaluation, searchBoard.evaluate());
+    }
+
+    @Test
+    public void evaluate_withIncrementalMoves_equalsEvaluationOfSetPosition() {
+        searchBoard.set(0, 0, 0);
+        int[] moves = {0, 20, 1, 27, 8, 63, 9, 35};
+        for (int move : moves)
+            searchBoard.make(move);
+
+        SearchBoard other = new SearchBoard(150, 15);
+        other.set(searchBoard.getPieces(0), searchBoard.getPieces(1), searchBoard.getSide());
+
+        assertEquals(other.evaluate(), searchBoard.evaluate());
+        assertEquals(other.getPlayerScore(0), searchBoard.getPlayerScore(0));
+    }
+
+    @Test
+    public void make_updatesHash() {
+        searchBoard.set(toBitMask(0), toBitMask(20), 0);
+        long hash = searchBoard.getHash();
+
+        searchBoard.make(9);
+        assertEquals(SearchBoard.hashOf(toBitMask(0, 9), toBitMask(20), 1), searchBoard.getHash());
+
+        searchBoard.unmake(9);
+        assertEquals(hash, searchBoard.getHash());
+    }
+
+    @Test
+    public void copy_returnsPositionWithSameWinConditions() {
+        searchBoard = new SearchBoard(4, 1);
+        searchBoard.set(toBitMask(0, 7, 56), toBitMask(20, 21), 0);
+        searchBoard.make(63);
+
+        SearchBoard copy = searchBoard.copy();
+
+        assertEquals(searchBoard.getHash(), copy.getHash());
+        assertEquals(searchBoard.getPlayerScore(0), copy.getPlayerScore(0));
+        assertEquals(searchBoard.evaluate(), copy.evaluate());
+        assertTrue(copy.isGameOver());
+        assertEquals(0, copy.getPly());
+    }
+
+    @Test
+    public void getHash_withTransposedMoves_returnsSameHash() {
+        searchBoard.set(0, 0, 0);
+        searchBoard.make(1);
+        searchBoard.make(2);
+        searchBoard.make(3);
+        long hash = searchBoard.getHash();
+
+        searchBoard.set(0, 0, 0);
+        searchBoard.make(3);
+        searchBoard.make(2);
+        searchBoard.make(1);
+
+        assertEquals(hash, searchBoard.getHash());
+        assertNotEquals(SearchBoard.hashOf(toBitMask(1, 3), toBitMask(2), 0), hash);
+    }
+
+    @Test
+    public void evaluate_withOwnPotential_returnsPositiveEvaluation() {
+        searchBoard.set(toBitMask(0, 1, 8), toBitMask(63), 0);
+
+        assertTrue(searchBoard.evaluate() > 0);
+        assertFalse(searchBoard.isGameOver());
+    }
+
+    @Test
+    public void evaluate_withMinScoreAndMinDifference_returnsWin() {
+        searchBoard = new SearchBoard(1, 1);
+        searchBoard.set(toBitMask(0, 1, 8, 9), toBitMask(20), 0);
+
+        assertEquals(WIN_SCORE, searchBoard.evaluate());
+        assertTrue(searchBoard.isGameOver());
+
+        searchBoard.set(toBitMask(0, 1, 8, 9), toBitMask(20), 1);
+        assertEquals(-WIN_SCORE, searchBoard.evaluate());
+    }
+
+    @Test
+    public void evaluate_withFullBoard_returnsDraw() {
+        // Columns are alternating, so no player has a square:
+        long columns = 0x5555555555555555L;
+        searchBoard.set(columns, ~columns, 0);
+
+        assertEquals(0, searchBoard.evaluate());
+        assertTrue(searchBoard.isGameOver());
+        assertEquals(0, searchBoard.getEmptyFields());
+    }
+
+}
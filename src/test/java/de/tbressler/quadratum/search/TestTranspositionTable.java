@@ -0,0 +1,155 @@
+package de.tbressler.quadratum.search;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static de.tbressler.quadratum.search.TranspositionTable.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for class TranspositionTable.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestTranspositionTable {
+
+    // Class under test:
+    private TranspositionTable table;
+
+
+    @Before
+    public void setUp() {
+        table = new TranspositionTable(1);
+    }
+
+
+    @Test(expected = AssertionError.class)
+    public void new_withSize0_throwsException() {
+        new TranspositionTable(0);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void new_withTooLargeSize_throwsException() {
+        new TranspositionTable(MAX_SIZE_IN_MB + 1);
+    }
+
+    @Test
+    public void getCapacity_returnsEntriesOfSize() {
+        assertEquals(1024 * 1024 / 16, table.getCapacity());
+    }
+
+    @Test
+    public void probe_withEmptyTable_returnsMiss() {
+        assertEquals(MISS, table.probe(42L));
+        assertEquals(MISS, table.probe(0L));
+    }
+
+    @Test
+    public void store_returnsEntryOnProbe() {
+        table.store(42L, 7, LOWER_BOUND, -1234, 63);
+
+        long data = table.probe(42L);
+        assertEquals(7, getDepth(data));
+        assertEquals(LOWER_BOUND, getBound(data));
+        assertEquals(-1234, getScore(data));
+        assertEquals(63, getMove(data));
+        assertEquals(MISS, table.probe(43L));
+    }
+
+    @Test
+    public void store_withNoMove_keepsMoveOfPosition() {
+        table.store(42L, 2, EXACT, 10, 5);
+        table.store(42L, 3, UPPER_BOUND, 20, NO_MOVE);
+
+        long data = table.probe(42L);
+        assertEquals(3, getDepth(data));
+        assertEquals(5, getMove(data));
+    }
+
+    @Test
+    public void store_withLowerDepthInSameSearch_keepsDeeperEntry() {
+        table.store(42L, 5, LOWER_BOUND, 10, 5);
+        table.store(42L, 2, LOWER_BOUND, 20, 6);
+
+        assertEquals(5, getDepth(table.probe(42L)));
+
+        table.newSearch();
+        table.store(42L, 2, LOWER_BOUND, 20, 6);
+        assertEquals(2, getDepth(table.probe(42L)));
+    }
+
+    @Test
+    public void store_withFullBucket_replacesLowestDepth() {
+        long buckets = table.getCapacity() / 4;
+        for (int i = 0; i < 4; i++)
+            table.store(i * buckets, 10 + i, EXACT, i, i);
+
+        table.store(4 * buckets, 1, EXACT, 4, 4);
+
+        assertEquals(MISS, table.probe(0));
+        for (int i = 1; i <= 4; i++)
+            assertNotEquals(MISS, table.probe(i * buckets));
+    }
+
+    @Test
+    public void store_withOldEntries_replacesOldEntries() {
+        long buckets = table.getCapacity() / 4;
+        for (int i = 0; i < 4; i++)
+            table.store(i * buckets, 20, EXACT, i, i);
+        table.newSearch();
+        for (int i = 0; i < 4; i++)
+            table.newSearch();
+        table.store(4 * buckets, 10 - 4, EXACT, 4, 4);
+
+        assertNotEquals(MISS, table.probe(4 * buckets));
+    }
+
+    @Test
+    public void clear_removesEntries() {
+        table.store(42L, 5, EXACT, 10, 5);
+        table.clear();
+
+        assertEquals(MISS, table.probe(42L));
+        assertEquals(0, table.getUsage());
+    }
+
+    @Test
+    public void getUsage_withFullTable_returns1000() {
+        for (long hash = 0; hash < table.getCapacity(); hash++)
+            table.store(hash, 1, EXACT, 0, 0);
+        assertEquals(1000, table.getUsage());
+
+        table.newSearch();
+        assertEquals(0, table.getUsage());
+    }
+
+    @Test
+    public void probe_withConcurrentStores_returnsOnlyConsistentEntries() throws InterruptedException {
+        AtomicInteger inconsistentEntries = new AtomicInteger(0);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int seed = t;
+            threads[t] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    // Only 256 buckets are used, so the threads write the same entries:
+                    long hash = random.nextLong() & 0xFF00000000000FFL;
+                    table.store(hash, random.nextInt(64), EXACT, (int) hash, (int) (hash & 63));
+                    long data = table.probe(hash ^ 1);
+                    if ((data != MISS) && ((getScore(data) != (int) (hash ^ 1)) || (getMove(data) != ((hash ^ 1) & 63))))
+                        inconsistentEntries.incrementAndGet();
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(0, inconsistentEntries.get());
+    }
+
+}
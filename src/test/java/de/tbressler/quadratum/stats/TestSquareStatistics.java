@@ -0,0 +1,212 @@
+package de.tbressler.quadratum.stats;
+
+import de.tbressler.quadratum.logic.IGameLogicListener;
+import de.tbressler.quadratum.model.IReadOnlyGameBoard;
+import de.tbressler.quadratum.model.Player;
+import de.tbressler.quadratum.model.Square;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for class SquareStatistics.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestSquareStatistics {
+
+    // Class under test:
+    private SquareStatistics squareStatistics;
+
+    // Mocks:
+    private Player player1 = mock(Player.class, "player1");
+    private Player player2 = mock(Player.class, "player2");
+
+    private IReadOnlyGameBoard gameBoard = mock(IReadOnlyGameBoard.class, "gameBoard");
+
+
+    @Before
+    public void setUp() {
+        when(gameBoard.getPlayer1()).thenReturn(player1);
+        when(gameBoard.getPlayer2()).thenReturn(player2);
+        squareStatistics = new SquareStatistics();
+    }
+
+
+    @Test(expected = NullPointerException.class)
+    public void createListener_withNullGameBoard_throwsException() {
+        squareStatistics.createListener(null);
+    }
+
+    @Test
+    public void snapshot_afterNew_returnsEmptySnapshot() {
+        SquareStatistics.Snapshot snapshot = squareStatistics.snapshot();
+        assertEquals(0, snapshot.getGameCount());
+        assertEquals(0, snapshot.getTotalCount());
+    }
+
+    @Test
+    public void snapshot_afterRecord_returnsCount() {
+        squareStatistics.record(2, 3, 1, 10);
+        squareStatistics.record(2, 3, 1, 10);
+        squareStatistics.record(2, 3, 1, 12);
+
+        SquareStatistics.Snapshot snapshot = squareStatistics.snapshot();
+        assertEquals(2, snapshot.getCount(2, 3, 1, 10));
+        assertEquals(3, snapshot.getCount(2, 3, 1));
+        assertEquals(0, snapshot.getCount(1, 3, 1));
+        assertEquals(0, snapshot.getCount(2, 3, 0));
+        assertEquals(2, snapshot.getCountAtMove(10));
+        assertEquals(3, snapshot.getTotalCount());
+    }
+
+    @Test
+    public void snapshot_withSmallestAndBiggestGeometry_returnsCount() {
+        squareStatistics.record(1, 2, 0, 1);
+        squareStatistics.record(2, 8, 6, 64);
+
+        SquareStatistics.Snapshot snapshot = squareStatistics.snapshot();
+        assertEquals(1, snapshot.getCount(1, 2, 0, 1));
+        assertEquals(1, snapshot.getCount(2, 8, 6, 64));
+        assertEquals(2, snapshot.getTotalCount());
+    }
+
+    @Test(expected = AssertionError.class)
+    public void record_withInvalidTilt_throwsException() {
+        squareStatistics.record(1, 2, 1, 1);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void record_withInvalidPlayerSlot_throwsException() {
+        squareStatistics.record(0, 2, 0, 1);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void record_withInvalidMoveNumber_throwsException() {
+        squareStatistics.record(1, 2, 0, 65);
+    }
+
+    @Test
+    public void listener_onNewSquaresFound_recordsSquaresWithMoveNumber() {
+        IGameLogicListener listener = squareStatistics.createListener(gameBoard);
+
+        listener.onGameStarted(player1);
+        listener.onActivePlayerChanged(player1);
+        listener.onActivePlayerChanged(player2);
+        listener.onActivePlayerChanged(player1);
+
+        Set<Square> squares = new HashSet<>();
+        squares.add(new Square(new int[]{0, 1, 8, 9}, player1));
+        squares.add(new Square(new int[]{1, 15, 48, 62}, player1));
+        listener.onNewSquaresFound(player1, squares);
+
+        listener.onActivePlayerChanged(player2);
+        listener.onNewSquaresFound(player2, singleton(new Square(new int[]{1, 8, 10, 17}, player2)));
+
+        SquareStatistics.Snapshot snapshot = squareStatistics.snapshot();
+        assertEquals(1, snapshot.getGameCount());
+        assertEquals(1, snapshot.getCount(1, 2, 0, 3));
+        assertEquals(1, snapshot.getCount(1, 8, 1, 3));
+        assertEquals(1, snapshot.getCount(2, 3, 1, 4));
+        assertEquals(3, snapshot.getTotalCount());
+    }
+
+    @Test
+    public void listener_onGameStarted_resetsMoveNumber() {
+        IGameLogicListener listener = squareStatistics.createListener(gameBoard);
+
+        listener.onGameStarted(player1);
+        listener.onActivePlayerChanged(player1);
+        listener.onActivePlayerChanged(player2);
+        listener.onGameStarted(player1);
+        listener.onActivePlayerChanged(player1);
+        listener.onNewSquaresFound(player1, singleton(new Square(new int[]{0, 1, 8, 9}, player1)));
+
+        SquareStatistics.Snapshot snapshot = squareStatistics.snapshot();
+        assertEquals(2, snapshot.getGameCount());
+        assertEquals(1, snapshot.getCount(1, 2, 0, 1));
+    }
+
+    @Test
+    public void minus_returnsDifferenceOfSnapshots() {
+        squareStatistics.record(1, 4, 2, 20);
+        SquareStatistics.Snapshot first = squareStatistics.snapshot();
+        squareStatistics.record(1, 4, 2, 20);
+        squareStatistics.record(1, 4, 2, 21);
+        SquareStatistics.Snapshot second = squareStatistics.snapshot();
+
+        SquareStatistics.Snapshot delta = second.minus(first);
+        assertEquals(1, delta.getCount(1, 4, 2, 20));
+        assertEquals(1, delta.getCount(1, 4, 2, 21));
+        assertEquals(2, delta.getTotalCount());
+    }
+
+    @Test
+    public void reset_clearsCounters() {
+        squareStatistics.record(1, 4, 2, 20);
+        squareStatistics.reset();
+        assertEquals(0, squareStatistics.snapshot().getTotalCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void scheduleSnapshots_schedulesTaskAtFixedRate() {
+        ScheduledExecutorService executor = mock(ScheduledExecutorService.class, "executor");
+        squareStatistics.scheduleSnapshots(executor, 10, TimeUnit.SECONDS, mock(Consumer.class));
+        verify(executor, times(1)).scheduleAtFixedRate(any(Runnable.class), eq(10L), eq(10L), eq(TimeUnit.SECONDS));
+    }
+
+    @Test(expected = AssertionError.class)
+    @SuppressWarnings("unchecked")
+    public void scheduleSnapshots_withPeriod0_throwsException() {
+        ScheduledExecutorService executor = mock(ScheduledExecutorService.class, "executor");
+        squareStatistics.scheduleSnapshots(executor, 0, TimeUnit.SECONDS, mock(Consumer.class));
+    }
+
+    @Test
+    public void listener_onMoveTakenBack_removesSquaresAndRestoresMoveNumber() {
+        IGameLogicListener listener = squareStatistics.createListener(gameBoard);
+        Set<Square> squares = singleton(new Square(new int[]{0, 1, 8, 9}, player1));
+
+        listener.onGameStarted(player1);
+        listener.onActivePlayerChanged(player1);
+        listener.onNewSquaresFound(player1, squares);
+        listener.onActivePlayerChanged(player2);
+
+        // The game board is empty after the takeback:
+        when(gameBoard.isFieldEmpty(anyInt())).thenReturn(true);
+        listener.onMoveTakenBack(player1, 9, squares);
+        listener.onActivePlayerChanged(player1);
+        assertEquals(0, squareStatistics.snapshot().getTotalCount());
+
+        listener.onNewSquaresFound(player1, squares);
+        assertEquals(1, squareStatistics.snapshot().getCount(1, 2, 0, 1));
+    }
+
+    @Test
+    public void listener_onGameRestored_continuesWithMoveNumberOfGameBoard() {
+        IGameLogicListener listener = squareStatistics.createListener(gameBoard);
+        when(gameBoard.isFieldEmpty(anyInt())).thenReturn(true);
+        when(gameBoard.isFieldEmpty(5)).thenReturn(false);
+        when(gameBoard.isFieldEmpty(6)).thenReturn(false);
+
+        listener.onGameRestored(player1);
+        listener.onNewSquaresFound(player1, singleton(new Square(new int[]{0, 1, 8, 9}, player1)));
+
+        assertEquals(1, squareStatistics.snapshot().getCount(1, 2, 0, 3));
+    }
+
+}
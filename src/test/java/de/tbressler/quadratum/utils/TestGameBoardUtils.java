@@ -1,5 +1,7 @@
 package de.tbressler.quadratum.utils;
 
+import de.tbressler.quadratum.model.IReadOnlyGameBoard;
+import de.tbressler.quadratum.model.Player;
 import org.junit.Test;
 
 import java.util.Arrays;
@@ -7,6 +9,8 @@ import java.util.Arrays;
 import static de.tbressler.quadratum.utils.GameBoardUtils.*;
 import static junit.framework.Assert.assertTrue;
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * Tests for class GameBoardUtils.
@@ -121,4 +125,40 @@ public class TestGameBoardUtils {
         assertEquals(3, difY(9, 36));
     }
 
+
+    @Test
+    public void toBitMask_withEmptyGameBoard_returns0() {
+        IReadOnlyGameBoard gameBoard = mock(IReadOnlyGameBoard.class, "gameBoard");
+        assertEquals(0L, toBitMask(gameBoard, mock(Player.class, "player")));
+    }
+
+    @Test
+    public void toBitMask_withPiecesOfTwoPlayers_returnsMaskOfPlayer() {
+        IReadOnlyGameBoard gameBoard = mock(IReadOnlyGameBoard.class, "gameBoard");
+        Player player1 = mock(Player.class, "player1");
+        Player player2 = mock(Player.class, "player2");
+        when(gameBoard.getPiece(0)).thenReturn(player1);
+        when(gameBoard.getPiece(9)).thenReturn(player2);
+        when(gameBoard.getPiece(63)).thenReturn(player1);
+
+        assertEquals(1L | (1L << 63), toBitMask(gameBoard, player1));
+        assertEquals(1L << 9, toBitMask(gameBoard, player2));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void toBitMask_withNullGameBoard_throwsException() {
+        toBitMask(null, mock(Player.class, "player"));
+    }
+
+    @Test
+    public void toBitMask_withIndexes_returnsMaskOfFields() {
+        assertEquals(0L, toBitMask());
+        assertEquals(1L | (1L << 9) | (1L << 63), toBitMask(0, 9, 63));
+    }
+
+    @Test(expected = AssertionError.class)
+    public void toBitMask_withIndexGreaterThan63_throwsException() {
+        toBitMask(64);
+    }
+
 }
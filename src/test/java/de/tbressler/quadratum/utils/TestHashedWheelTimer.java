@@ -0,0 +1,135 @@
+package de.tbressler.quadratum.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for class HashedWheelTimer.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestHashedWheelTimer {
+
+    // Class under test:
+    private HashedWheelTimer timer;
+
+
+    @Before
+    public void setUp() {
+        timer = new HashedWheelTimer(1, MILLISECONDS, 8);
+    }
+
+    @After
+    public void tearDown() {
+        timer.stop();
+    }
+
+
+    @Test(expected = AssertionError.class)
+    public void new_withZeroTickDuration_throwsException() {
+        new HashedWheelTimer(0, MILLISECONDS, 8);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void new_withZeroTicksPerWheel_throwsException() {
+        new HashedWheelTimer(1, MILLISECONDS, 0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void new_withNullUnit_throwsException() {
+        new HashedWheelTimer(1, null, 8);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void schedule_withNullTask_throwsException() {
+        timer.schedule(null, 1, MILLISECONDS);
+    }
+
+    @Test
+    public void schedule_withTask_executesTaskAfterDelay() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        HashedWheelTimer.Timeout timeout = timer.schedule(latch::countDown, 20, MILLISECONDS);
+
+        assertTrue(latch.await(5, SECONDS));
+        assertTrue(System.nanoTime() - start >= MILLISECONDS.toNanos(20));
+        assertTrue(timeout.isExpired());
+        assertEquals(0, timer.getPendingTimeouts());
+    }
+
+    @Test
+    public void schedule_withDelayLongerThanWheel_executesTaskAfterDelay() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        timer.schedule(latch::countDown, 50, MILLISECONDS);
+
+        assertTrue(latch.await(5, SECONDS));
+        assertTrue(System.nanoTime() - start >= MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void schedule_withManyTasks_executesAllTasks() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1000);
+        for (int i = 0; i < 1000; i++)
+            timer.schedule(latch::countDown, i % 30, MILLISECONDS);
+
+        assertTrue(latch.await(5, SECONDS));
+        assertEquals(0, timer.getPendingTimeouts());
+    }
+
+    @Test
+    public void cancel_beforeExpiration_doesNotExecuteTask() throws InterruptedException {
+        Runnable task = mock(Runnable.class, "task");
+        HashedWheelTimer.Timeout timeout = timer.schedule(task, 20, MILLISECONDS);
+
+        assertTrue(timeout.cancel());
+        assertTrue(timeout.isCancelled());
+        assertEquals(0, timer.getPendingTimeouts());
+
+        // A later timeout proves, that the wheel has passed the cancelled one:
+        CountDownLatch latch = new CountDownLatch(1);
+        timer.schedule(latch::countDown, 40, MILLISECONDS);
+        assertTrue(latch.await(5, SECONDS));
+
+        verify(task, never()).run();
+        assertFalse(timeout.isExpired());
+    }
+
+    @Test
+    public void cancel_afterExpiration_returnsFalse() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        HashedWheelTimer.Timeout timeout = timer.schedule(latch::countDown, 1, MILLISECONDS);
+
+        assertTrue(latch.await(5, SECONDS));
+        assertFalse(timeout.cancel());
+        assertFalse(timeout.isCancelled());
+    }
+
+    @Test
+    public void schedule_withFailingTask_executesFollowingTasks() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        timer.schedule(() -> {
+            throw new IllegalStateException("failed");
+        }, 1, MILLISECONDS);
+        timer.schedule(latch::countDown, 10, MILLISECONDS);
+
+        assertTrue(latch.await(5, SECONDS));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void schedule_afterStop_throwsException() {
+        timer.stop();
+        timer.schedule(mock(Runnable.class), 1, TimeUnit.MILLISECONDS);
+    }
+
+}
@@ -0,0 +1,79 @@
+package de.tbressler.quadratum.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static de.tbressler.quadratum.utils.SquareTable.*;
+import static de.tbressler.quadratum.utils.SquareUtils.isSquare;
+import static de.tbressler.quadratum.utils.SquareUtils.score;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for class SquareTable.
+ *
+ * @author Tobias Bressler
+ * @version 1.0
+ */
+public class TestSquareTable {
+
+    @Test
+    public void getEdges_returnsValidSortedSquares() {
+        for (int s = 0; s < SQUARES; s++) {
+            int[] edges = getEdges(s);
+            int[] sorted = edges.clone();
+            Arrays.sort(sorted);
+            assertTrue(Arrays.equals(sorted, edges));
+            assertTrue(isSquare(edges.clone()));
+        }
+    }
+
+    @Test
+    public void getEdges_returnsDistinctSquares() {
+        for (int s = 0; s < SQUARES; s++)
+            for (int t = s + 1; t < SQUARES; t++)
+                assertTrue(!Arrays.equals(getEdges(s), getEdges(t)));
+    }
+
+    @Test
+    public void getEdges_returnsCopy() {
+        getEdges(0)[0] = 99;
+        assertTrue(getEdge(0, 0) != 99);
+    }
+
+    @Test
+    public void getScore_returnsScoreOfSquare() {
+        for (int s = 0; s < SQUARES; s++)
+            assertEquals(score(getEdges(s)), getScore(s));
+    }
+
+    @Test
+    public void getSquareAt_returnsSquaresWithEdgeOnField() {
+        int total = 0;
+        for (int i = 0; i < 64; i++) {
+            total += getSquareCountAt(i);
+            for (int n = 0; n < getSquareCountAt(i); n++)
+                assertTrue(Arrays.binarySearch(getEdges(getSquareAt(i, n)), i) >= 0);
+        }
+        assertEquals(4 * SQUARES, total);
+    }
+
+    @Test
+    public void getSquareCountAt_withCorner_returns7() {
+        assertEquals(7, getSquareCountAt(0));
+    }
+
+    @Test
+    public void indexOf_withSquare_returnsNumberOfSquare() {
+        int s = indexOf(new int[]{1, 15, 48, 62});
+        assertTrue(Arrays.equals(new int[]{1, 15, 48, 62}, getEdges(s)));
+        assertEquals(64, getScore(s));
+    }
+
+    @Test
+    public void indexOf_withInvalidSquare_returnsMinus1() {
+        assertEquals(-1, indexOf(new int[]{1, 2, 3, 4}));
+    }
+
+}
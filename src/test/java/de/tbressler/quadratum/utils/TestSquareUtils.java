@@ -122,4 +122,45 @@ public class TestSquareUtils {
         assertEquals(64, score(new int[] {6, 8, 55, 57}));
     }
 
+
+    @Test
+    public void size_withSmallSquare2x2_returns2() {
+        assertEquals(2, size(new int[] {0, 1, 8, 9}));
+    }
+
+    @Test
+    public void size_withBigObliqueSquare8x8_returns8() {
+        assertEquals(8, size(new int[] {1, 15, 48, 62}));
+    }
+
+    @Test
+    public void size_withUnsortedMediumObliqueSquare5x5_returns5() {
+        assertEquals(5, size(new int[] {57, 27, 52, 32}));
+    }
+
+    @Test
+    public void tilt_withSquare2x2_returns0() {
+        assertEquals(0, tilt(new int[] {0, 1, 8, 9}));
+    }
+
+    @Test
+    public void tilt_withSquare7x7_returns0() {
+        assertEquals(0, tilt(new int[] {8, 14, 56, 62}));
+    }
+
+    @Test
+    public void tilt_withObliqueSquare3x3_returns1() {
+        assertEquals(1, tilt(new int[] {1, 8, 10, 17}));
+    }
+
+    @Test
+    public void tilt_withBigObliqueSquare8x8_returns1() {
+        assertEquals(1, tilt(new int[] {1, 15, 48, 62}));
+    }
+
+    @Test
+    public void tilt_withBigDifferentObliqueSquare8x8_returns6() {
+        assertEquals(6, tilt(new int[] {6, 8, 55, 57}));
+    }
+
 }